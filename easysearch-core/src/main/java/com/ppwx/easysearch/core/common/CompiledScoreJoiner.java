@@ -0,0 +1,306 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.common;
+
+import com.ppwx.easysearch.core.common.enums.JoinModeEnum;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ *
+ * 编译后的{@link ScoreJoiner}
+ * 将组合树一次性展开为线性指令序列，按深度复用预分配的缓冲区原地计算，不再逐节点分配数组；
+ * 叶子节点直接以"乘权重再加/乘"的融合指令合并到父节点缓冲区
+ * 编译时固化树结构、权重与组合方式，数组内容在执行时读取；缓冲区为实例独享，单个实例不支持并发执行
+ *
+ * @since 1.0.0
+ */
+public final class CompiledScoreJoiner {
+    /**
+     * 初始化：buf[d][i] = w * a[i]
+     */
+    private static final byte LOAD = 0;
+    /**
+     * 叶子加和：buf[d][i] += w * a[i]
+     */
+    private static final byte SUM_LEAF = 1;
+    /**
+     * 叶子乘积：buf[d][i] = mulOrMax(buf[d][i], w * a[i])
+     */
+    private static final byte MULTIPLY_LEAF = 2;
+    /**
+     * 子树加和：buf[d][i] += buf[d + 1][i]
+     */
+    private static final byte SUM_BUFFER = 3;
+    /**
+     * 子树乘积：buf[d][i] = mulOrMax(buf[d][i], buf[d + 1][i])
+     */
+    private static final byte MULTIPLY_BUFFER = 4;
+    /**
+     * 默认并行拆分阈值
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 4096;
+
+    private final byte[] codes;
+
+    private final int[] depths;
+
+    private final int[] lengths;
+
+    private final double[][] sources;
+
+    private final double[] weights;
+    /**
+     * 深度1及以下的中间缓冲区，深度0即输出数组
+     */
+    private final double[][] buffers;
+    /**
+     * 输出长度
+     */
+    private final int length;
+
+    CompiledScoreJoiner(ScoreJoiner root) {
+        List<Instruction> program = new ArrayList<>();
+        List<Integer> bufferSizes = new ArrayList<>();
+        compile(root, 0, program, bufferSizes);
+        int size = program.size();
+        this.codes = new byte[size];
+        this.depths = new int[size];
+        this.lengths = new int[size];
+        this.sources = new double[size][];
+        this.weights = new double[size];
+        for (int i = 0; i < size; i++) {
+            Instruction instruction = program.get(i);
+            codes[i] = instruction.code;
+            depths[i] = instruction.depth;
+            lengths[i] = instruction.length;
+            sources[i] = instruction.source;
+            weights[i] = instruction.weight;
+        }
+        this.buffers = new double[bufferSizes.size()][];
+        for (int d = 1; d < buffers.length; d++) {
+            buffers[d] = new double[bufferSizes.get(d)];
+        }
+        this.length = root.getArray().length;
+    }
+
+    /**
+     * 计算结果，写入新数组
+     *
+     * @return double[]
+     */
+    public double[] evaluate() {
+        return evaluate(new double[length]);
+    }
+
+    /**
+     * 计算结果，写入调用方提供的数组
+     *
+     * @param out 长度不小于{@link #length()}
+     * @return double[]
+     */
+    public double[] evaluate(double[] out) {
+        checkOutput(out);
+        execute(out, 0, length);
+        return out;
+    }
+
+    /**
+     * 分段并行计算，长度低于阈值时退化为串行
+     * 各指令均为逐元素计算，按下标区间切分后共享同一组缓冲区
+     *
+     * @param out
+     * @param pool
+     * @param threshold 每个任务处理的最少元素数
+     * @return double[]
+     */
+    public double[] evaluate(double[] out, ForkJoinPool pool, int threshold) {
+        checkOutput(out);
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        if (pool == null || length <= threshold) {
+            execute(out, 0, length);
+        } else {
+            pool.invoke(new EvaluateTask(out, 0, length, threshold));
+        }
+        return out;
+    }
+
+    /**
+     * 输出长度
+     *
+     * @return int
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * 指令数
+     *
+     * @return int
+     */
+    public int instructions() {
+        return codes.length;
+    }
+
+    private void checkOutput(double[] out) {
+        if (out == null || out.length < length) {
+            throw new IllegalArgumentException("Output array length must not be less than " + length);
+        }
+    }
+
+    private void execute(double[] out, int from, int to) {
+        for (int k = 0; k < codes.length; k++) {
+            int depth = depths[k];
+            double[] target = depth == 0 ? out : buffers[depth];
+            int end = Math.min(to, lengths[k]);
+            double w = weights[k];
+            switch (codes[k]) {
+                case LOAD: {
+                    double[] source = sources[k];
+                    for (int i = from; i < end; i++) {
+                        target[i] = source[i] * w;
+                    }
+                    break;
+                }
+                case SUM_LEAF: {
+                    double[] source = sources[k];
+                    for (int i = from; i < end; i++) {
+                        target[i] = target[i] + source[i] * w;
+                    }
+                    break;
+                }
+                case MULTIPLY_LEAF: {
+                    double[] source = sources[k];
+                    for (int i = from; i < end; i++) {
+                        target[i] = multiplyOrMax(target[i], source[i] * w);
+                    }
+                    break;
+                }
+                case SUM_BUFFER: {
+                    double[] source = buffers[depth + 1];
+                    for (int i = from; i < end; i++) {
+                        target[i] = target[i] + source[i];
+                    }
+                    break;
+                }
+                case MULTIPLY_BUFFER: {
+                    double[] source = buffers[depth + 1];
+                    for (int i = from; i < end; i++) {
+                        target[i] = multiplyOrMax(target[i], source[i]);
+                    }
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("Unknown instruction " + codes[k]);
+            }
+        }
+    }
+
+    /**
+     * 与{@link ScoreJoiner}原有语义一致：任意一方为0时取较大值，否则相乘
+     */
+    private static double multiplyOrMax(double left, double right) {
+        if (Double.compare(left, 0.0) == 0 || Double.compare(right, 0.0) == 0) {
+            return Math.max(left, right);
+        }
+        return left * right;
+    }
+
+    private static void compile(ScoreJoiner node, int depth, List<Instruction> program, List<Integer> bufferSizes) {
+        double[] array = node.getArray();
+        while (bufferSizes.size() <= depth) {
+            bufferSizes.add(0);
+        }
+        bufferSizes.set(depth, Math.max(bufferSizes.get(depth), array.length));
+        program.add(new Instruction(LOAD, depth, array.length, array, weightOf(node)));
+        List<ScoreJoiner> children = node.getChildren();
+        if (children == null) {
+            return;
+        }
+        boolean multiply = node.getJoinMode() == JoinModeEnum.MULTIPLY;
+        for (ScoreJoiner child : children) {
+            int len = Math.min(array.length, child.getArray().length);
+            if (child.getChildren() == null || child.getChildren().isEmpty()) {
+                program.add(new Instruction(multiply ? MULTIPLY_LEAF : SUM_LEAF, depth, len,
+                        child.getArray(), weightOf(child)));
+            } else {
+                compile(child, depth + 1, program, bufferSizes);
+                program.add(new Instruction(multiply ? MULTIPLY_BUFFER : SUM_BUFFER, depth, len, null, 1.0D));
+            }
+        }
+    }
+
+    private static double weightOf(ScoreJoiner node) {
+        // 乘以1.0不改变任何取值，无权重时与直接拷贝结果一致
+        return node.getWeight() == null ? 1.0D : node.getWeight();
+    }
+
+    private static final class Instruction {
+
+        private final byte code;
+
+        private final int depth;
+
+        private final int length;
+
+        private final double[] source;
+
+        private final double weight;
+
+        Instruction(byte code, int depth, int length, double[] source, double weight) {
+            this.code = code;
+            this.depth = depth;
+            this.length = length;
+            this.source = source;
+            this.weight = weight;
+        }
+    }
+
+    private final class EvaluateTask extends RecursiveAction {
+
+        private final double[] out;
+
+        private final int from;
+
+        private final int to;
+
+        private final int threshold;
+
+        EvaluateTask(double[] out, int from, int to, int threshold) {
+            this.out = out;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                execute(out, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new EvaluateTask(out, from, mid, threshold), new EvaluateTask(out, mid, to, threshold));
+        }
+    }
+}
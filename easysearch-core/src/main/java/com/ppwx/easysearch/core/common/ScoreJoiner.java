@@ -19,7 +19,6 @@ package com.ppwx.easysearch.core.common;
 import com.ppwx.easysearch.core.common.enums.JoinModeEnum;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -46,7 +45,7 @@ public class ScoreJoiner {
      */
     private List<ScoreJoiner> sumDoubleArrays;
     /**
-     * 算分明细
+     * 算分明细，首次设置明细时才创建
      */
     private ScoreDetail[] detailArray;
     /**
@@ -77,38 +76,22 @@ public class ScoreJoiner {
     }
     /**
      * 叠加两个数组
+     * 每次调用都会重新编译，重复计算时应复用{@link #compile()}的结果
      *
      * @param 
      * @return double[]
      */
     public double[] evaluate() {
-        double[] resultArr;
-        if (weight == null) {
-            resultArr = Arrays.copyOf(array, array.length);
-        } else {
-            resultArr = Arrays.stream(array)
-                    .map(v -> v * weight)
-                    .toArray();
-        }
+        return compile().evaluate();
+    }
 
-        if (sumDoubleArrays != null) {
-            sumDoubleArrays.forEach(sumDoubleArray -> {
-                double[] nextArr = sumDoubleArray.evaluate();
-                int minLen = Math.min(resultArr.length, nextArr.length);
-                for (int i = 0; i < minLen; i++) {
-                    if (joinMode == JoinModeEnum.MULTIPLY) {
-                        if (Double.compare(resultArr[i], 0.0) == 0 || Double.compare(nextArr[i], 0.0) == 0) {
-                            resultArr[i] = Math.max(resultArr[i], nextArr[i]);
-                        } else {
-                            resultArr[i] = resultArr[i] * nextArr[i];
-                        }
-                    } else {
-                        resultArr[i] = resultArr[i] + nextArr[i];
-                    }
-                }
-            });
-        }
-        return resultArr;
+    /**
+     * 将当前节点为根的组合树编译为线性指令，编译后修改树结构、权重或组合方式需要重新编译
+     *
+     * @return com.ppwx.easysearch.core.common.CompiledScoreJoiner
+     */
+    public synchronized CompiledScoreJoiner compile() {
+        return new CompiledScoreJoiner(this);
     }
 
     /**
@@ -119,13 +102,17 @@ public class ScoreJoiner {
      */
     public List<ScoreDetail> details(int i) {
         List<ScoreDetail> list = new ArrayList<>();
-        if (detailArray[i] != null) {
+        collectDetails(i, list);
+        return list;
+    }
+
+    private void collectDetails(int i, List<ScoreDetail> list) {
+        if (detailArray != null && i < detailArray.length && detailArray[i] != null) {
             list.add(detailArray[i]);
         }
         if (sumDoubleArrays != null) {
-            sumDoubleArrays.forEach(sumDoubleArray -> list.addAll(sumDoubleArray.details(i)));
+            sumDoubleArrays.forEach(sumDoubleArray -> sumDoubleArray.collectDetails(i, list));
         }
-        return list;
     }
 
     /**
@@ -142,7 +129,6 @@ public class ScoreJoiner {
         ScoreJoiner sumDoubleArray = new ScoreJoiner();
         sumDoubleArray.array = array;
         sumDoubleArray.weight = weight;
-        sumDoubleArray.detailArray = new ScoreDetail[array.length];
         sumDoubleArray.joinMode = JoinModeEnum.SUM;
         return sumDoubleArray;
     }
@@ -159,7 +145,6 @@ public class ScoreJoiner {
         }
         ScoreJoiner sumDoubleArray = new ScoreJoiner();
         sumDoubleArray.array = arr;
-        sumDoubleArray.detailArray = new ScoreDetail[initSize];
         sumDoubleArray.joinMode = JoinModeEnum.SUM;
         return sumDoubleArray;
     }
@@ -172,9 +157,23 @@ public class ScoreJoiner {
      */
     public void setScoreDetail(int i, ScoreDetail detail) {
         this.array[i] = detail.getScore();
+        if (this.detailArray == null) {
+            this.detailArray = new ScoreDetail[array.length];
+        }
         this.detailArray[i] = detail;
     }
 
+    /**
+     * 仅设置分值，不需要算分明细时使用，避免创建{@link ScoreDetail}
+     *
+     * @param i
+     * @param score
+     * @return void
+     */
+    public void setScore(int i, double score) {
+        this.array[i] = score;
+    }
+
     double[] getArray() {
         return array;
     }
@@ -183,6 +182,18 @@ public class ScoreJoiner {
         return detailArray;
     }
 
+    List<ScoreJoiner> getChildren() {
+        return sumDoubleArrays;
+    }
+
+    Double getWeight() {
+        return weight;
+    }
+
+    JoinModeEnum getJoinMode() {
+        return joinMode;
+    }
+
     /**
      * 获取得分
      *
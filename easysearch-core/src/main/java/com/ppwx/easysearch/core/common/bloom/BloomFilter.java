@@ -41,6 +41,21 @@ public interface BloomFilter {
      *         <code>false</code> if element is not present
      */
     boolean contains(String val);
+
+    /**
+     * 批量判断元素是否存在
+     *
+     * @param keys
+     * @param out  与keys等长
+     * @return void
+     */
+    default void containsAll(String[] keys, boolean[] out) {
+        checkBatch(keys, out);
+        for (int i = 0; i < keys.length; i++) {
+            out[i] = contains(keys[i]);
+        }
+    }
+
     /**
      * Returns expected amount of insertions per element.
      * Calculated during bloom filter initialization.
@@ -85,4 +100,20 @@ public interface BloomFilter {
      * @return boolean
      */
     boolean isFull();
+
+    /**
+     * 校验批量参数
+     *
+     * @param keys
+     * @param out
+     * @return void
+     */
+    static void checkBatch(String[] keys, boolean[] out) {
+        if (keys == null || out == null) {
+            throw new IllegalArgumentException("keys and out can not be null");
+        }
+        if (out.length < keys.length) {
+            throw new IllegalArgumentException("out length " + out.length + " less than keys length " + keys.length);
+        }
+    }
 }
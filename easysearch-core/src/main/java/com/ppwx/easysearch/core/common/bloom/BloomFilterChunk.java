@@ -127,7 +127,42 @@ public class BloomFilterChunk implements BloomFilter {
 
     @Override
     public boolean contains(String s) {
-        return bloomFilters.stream().anyMatch(filter -> filter.contains(s));
+        long[] hash = new long[2];
+        MetaBloomFilter.hash(s, hash, 0);
+        for (int i = 0, size = bloomFilters.size(); i < size; i++) {
+            if (bloomFilters.get(i).contains(hash[0], hash[1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 批量判断，每个元素只计算一次hash，再按过滤器逐个探测未命中的元素
+     *
+     * @param keys
+     * @param out
+     * @return void
+     */
+    @Override
+    public void containsAll(String[] keys, boolean[] out) {
+        BloomFilter.checkBatch(keys, out);
+        int length = keys.length;
+        long[] hashes = new long[length << 1];
+        for (int i = 0; i < length; i++) {
+            MetaBloomFilter.hash(keys[i], hashes, i << 1);
+            out[i] = false;
+        }
+        int remaining = length;
+        for (int f = 0, size = bloomFilters.size(); f < size && remaining > 0; f++) {
+            MetaBloomFilter filter = bloomFilters.get(f);
+            for (int i = 0; i < length; i++) {
+                if (!out[i] && filter.contains(hashes[i << 1], hashes[(i << 1) + 1])) {
+                    out[i] = true;
+                    remaining--;
+                }
+            }
+        }
     }
 
     @Override
@@ -162,14 +197,18 @@ public class BloomFilterChunk implements BloomFilter {
 
     @Override
     public boolean add(String s) {
+        long[] hash = new long[2];
+        MetaBloomFilter.hash(s, hash, 0);
         // find first not full node
-        Optional<MetaBloomFilter> find = bloomFilters.stream().filter(filter -> !filter.isFull()).findFirst();
-        if (find.isPresent()) {
-            return find.get().add(s);
+        for (int i = 0, size = bloomFilters.size(); i < size; i++) {
+            MetaBloomFilter filter = bloomFilters.get(i);
+            if (!filter.isFull()) {
+                return filter.add(hash[0], hash[1]);
+            }
         }
         // add new filter
         MetaBloomFilter metaBloomFilter = (MetaBloomFilter) bloomFilters.get(0).clone();
-        boolean add = metaBloomFilter.add(s);
+        boolean add = metaBloomFilter.add(hash[0], hash[1]);
         bloomFilters.add(metaBloomFilter);
 
         if (bloomFilters.size() > this.size) {
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.common.bloom;
+
+import java.util.List;
+
+/**
+ *
+ * 布隆过滤器持久化
+ * 存取的是{@link MetaBloomFilter#toByteArray()}序列化后的字节，调用方保证不在请求线程上执行
+ *
+ * @since 1.0.0
+ */
+public interface BloomFilterStore {
+
+    /**
+     * 读取过滤器，不存在返回空集合或<code>null</code>
+     *
+     * @param key
+     * @return java.util.List<byte[]>
+     */
+    List<byte[]> load(String key);
+
+    /**
+     * 覆盖保存过滤器
+     *
+     * @param key
+     * @param filters
+     * @return void
+     */
+    void save(String key, List<byte[]> filters);
+}
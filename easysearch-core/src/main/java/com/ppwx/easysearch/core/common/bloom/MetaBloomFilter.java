@@ -24,8 +24,9 @@ import com.google.common.hash.Hashing;
 import com.ppwx.easysearch.core.util.CurrentTimeUtil;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
-import java.util.BitSet;
+import java.util.Arrays;
 
 /**
  *
@@ -35,12 +36,22 @@ import java.util.BitSet;
  * count 个数，保存了多少个item。（4字节）
  * start_time 开始时间，即该bloomfilter块的创建时间。(8字节）
  * last_time 最后修改时间，每次更新bloomfilter块时更新该值。（8字节）
- * resv 保留区，前12字节用于存储bitSetSize、expectedInsertions、hashIterations（16字节）,剩余4个字节未用
+ * resv 保留区，前12字节用于存储bitSetSize、expectedInsertions、hashIterations，第13字节为版本号（16字节）,剩余3个字节未用
  * 共52个字节
+ * 版本号为{@link #VERSION_CLASSIC}时与旧数据兼容，k个位分布在整个位图上；
+ * 版本号为{@link #VERSION_BLOCKED}时k个位落在同一个512位的块内，一次查询只访问一个块，且不受{@link #getMaxSize()}限制
  *
  * @since 1.0.0
  */
 public class MetaBloomFilter implements BloomFilter {
+    /**
+     * 经典布局，旧数据版本位为0
+     */
+    public static final byte VERSION_CLASSIC = 0;
+    /**
+     * 分块布局
+     */
+    public static final byte VERSION_BLOCKED = 1;
     /**
      * 检验值，16字节
      */
@@ -54,17 +65,25 @@ public class MetaBloomFilter implements BloomFilter {
      */
     private static final int META_END_OFFSET = 52;
     /**
-     * 存储位字节
+     * 块大小，512位
      */
-    private final BitSet bitSet;
+    private static final int BLOCK_BITS = 512;
     /**
-     * 元信息
+     * 块包含的long个数
      */
-    private final Meta meta;
+    private static final int BLOCK_WORDS_SHIFT = 3;
     /**
      * {@link Funnel}
      */
-    private final Funnel<CharSequence> funnel = Funnels.stringFunnel(StandardCharsets.UTF_8);
+    private static final Funnel<CharSequence> FUNNEL = Funnels.stringFunnel(StandardCharsets.UTF_8);
+    /**
+     * 存储位
+     */
+    private final long[] words;
+    /**
+     * 元信息
+     */
+    private final Meta meta;
     /**
      * 从元数据构造一个初始化的布隆过滤器
      *
@@ -72,20 +91,19 @@ public class MetaBloomFilter implements BloomFilter {
      * @return
      */
     private MetaBloomFilter(Meta meta) {
-        this.meta = meta;
-        this.bitSet = new BitSet(meta.bitSetSize);
+        this(meta, new long[wordsOf(meta.bitSetSize)]);
     }
 
     /**
-     * 从元数据和字节数据生成一个布隆过滤器
+     * 从元数据和位数据生成一个布隆过滤器
      *
      * @param meta
-     * @param bytes
+     * @param words
      * @return
      */
-    private MetaBloomFilter(Meta meta, byte[] bytes) {
+    private MetaBloomFilter(Meta meta, long[] words) {
         this.meta = meta;
-        this.bitSet = BitSet.valueOf(bytes);
+        this.words = words;
     }
 
     /**
@@ -113,11 +131,21 @@ public class MetaBloomFilter implements BloomFilter {
         meta.bitSetSize = byteBuffer.getInt();
         meta.expectedInsertions = byteBuffer.getInt();
         meta.hashIterations = byteBuffer.getInt();
+        meta.version = byteBuffer.get();
+        if (meta.version != VERSION_CLASSIC && meta.version != VERSION_BLOCKED) {
+            throw new IllegalArgumentException("Unsupported bloom filter version " + meta.version);
+        }
+        if (meta.bitSetSize <= 0 || (meta.version == VERSION_BLOCKED && meta.bitSetSize % BLOCK_BITS != 0)) {
+            throw new IllegalArgumentException("Illegal bloom filter size " + meta.bitSetSize);
+        }
 
-        byte[] bitSet = new byte[bytes.length - META_END_OFFSET];
-        byteBuffer.position(META_END_OFFSET);
-        byteBuffer.get(bitSet, 0, bitSet.length);
-        return new MetaBloomFilter(meta, bitSet);
+        // little-endian, same as BitSet#toByteArray
+        long[] words = new long[wordsOf(meta.bitSetSize)];
+        int length = Math.min(bytes.length - META_END_OFFSET, words.length << 3);
+        for (int i = 0; i < length; i++) {
+            words[i >>> 3] |= (bytes[META_END_OFFSET + i] & 0xFFL) << ((i & 7) << 3);
+        }
+        return new MetaBloomFilter(meta, words);
     }
 
     private static boolean compareBytes(byte[] magicBytes, byte[] digest) {
@@ -141,6 +169,10 @@ public class MetaBloomFilter implements BloomFilter {
      * @return
      */
     public MetaBloomFilter(int expectedInsertions, double falseProbability) {
+        this(expectedInsertions, falseProbability, VERSION_CLASSIC);
+    }
+
+    private MetaBloomFilter(int expectedInsertions, double falseProbability, byte version) {
         if (falseProbability > 1) {
             throw new IllegalArgumentException("Bloom filter false probability can't be greater than 1");
         }
@@ -151,12 +183,17 @@ public class MetaBloomFilter implements BloomFilter {
         if (size == 0) {
             throw new IllegalArgumentException("Bloom filter calculated size is " + size);
         }
-        if (size > getMaxSize()) {
-            throw new IllegalArgumentException("Bloom filter size can't be greater than " + getMaxSize() + ". But calculated size is " + size);
+        int maxSize = version == VERSION_BLOCKED ? Integer.MAX_VALUE - BLOCK_BITS : getMaxSize();
+        if (size > maxSize) {
+            throw new IllegalArgumentException("Bloom filter size can't be greater than " + maxSize + ". But calculated size is " + size);
+        }
+        if (version == VERSION_BLOCKED) {
+            size = (size + BLOCK_BITS - 1) / BLOCK_BITS * BLOCK_BITS;
         }
         int hashIterations = optimalNumOfHashFunctions(expectedInsertions, size);
 
         Meta meta = new Meta();
+        meta.version = version;
         meta.bitSetSize = size;
         meta.expectedInsertions = expectedInsertions;
         meta.hashIterations = hashIterations;
@@ -165,7 +202,20 @@ public class MetaBloomFilter implements BloomFilter {
         meta.startTime = now;
         meta.lastTime = now;
         this.meta = meta;
-        this.bitSet = new BitSet(size);
+        this.words = new long[wordsOf(size)];
+    }
+
+    /**
+     * 创建一个分块布隆过滤器
+     * 所有hash位落在同一个512位的块内，查询只访问一次内存块，位图大小不受{@link #getMaxSize()}限制，
+     * 相同位数下误判率略高于经典布局
+     *
+     * @param expectedInsertions
+     * @param falseProbability
+     * @return com.ppwx.easysearch.core.common.bloom.MetaBloomFilter
+     */
+    public static MetaBloomFilter blocked(int expectedInsertions, double falseProbability) {
+        return new MetaBloomFilter(expectedInsertions, falseProbability, VERSION_BLOCKED);
     }
 
     protected int getMaxSize() {
@@ -183,10 +233,72 @@ public class MetaBloomFilter implements BloomFilter {
         return (int) (-n * Math.log(p) / (Math.log(2) * Math.log(2)));
     }
 
+    private static int wordsOf(int bitSize) {
+        return (int) (((long) bitSize + Long.SIZE - 1) >>> 6);
+    }
+
+    /**
+     * 计算128位hash，写入out[offset]、out[offset + 1]
+     * 同一个元素在多个过滤器间只需计算一次
+     *
+     * @param val
+     * @param out
+     * @param offset
+     * @return void
+     */
+    static void hash(String val, long[] out, int offset) {
+        byte[] bytes = Hashing.murmur3_128().hashObject(val, FUNNEL).asBytes();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        out[offset] = buffer.getLong(0);
+        out[offset + 1] = buffer.getLong(8);
+    }
+
     @Override
     public boolean add(String val) {
+        long[] hash = new long[2];
+        hash(val, hash, 0);
+        return add(hash[0], hash[1]);
+    }
+
+    boolean add(long hash1, long hash2) {
+        boolean bitsChanged = meta.version == VERSION_BLOCKED ? blockedAdd(hash1, hash2) : classicAdd(hash1);
+        if (bitsChanged) {
+            ++this.meta.count;
+            this.meta.lastTime = CurrentTimeUtil.currentTimeMillis();
+        }
+        return bitsChanged;
+    }
+
+    @Override
+    public boolean contains(String val) {
+        long[] hash = new long[2];
+        hash(val, hash, 0);
+        return contains(hash[0], hash[1]);
+    }
+
+    boolean contains(long hash1, long hash2) {
+        return meta.version == VERSION_BLOCKED ? blockedContains(hash1, hash2) : classicContains(hash1);
+    }
+
+    /**
+     * 批量判断，hash只计算一次
+     *
+     * @param keys
+     * @param out
+     * @return void
+     */
+    @Override
+    public void containsAll(String[] keys, boolean[] out) {
+        BloomFilter.checkBatch(keys, out);
+        long[] hash = new long[2];
+        for (int i = 0; i < keys.length; i++) {
+            hash(keys[i], hash, 0);
+            out[i] = contains(hash[0], hash[1]);
+        }
+    }
+
+    private boolean classicAdd(long hash64) {
         int bitSize = meta.bitSetSize;
-        long hash64 = Hashing.murmur3_128().hashObject(val, funnel).asLong();
         int hash1 = (int) hash64;
         int hash2 = (int) (hash64 >>> 32);
 
@@ -198,23 +310,17 @@ public class MetaBloomFilter implements BloomFilter {
                 combinedHash = ~combinedHash;
             }
             int position = combinedHash % bitSize;
-            if (!bitSet.get(position)) {
+            long mask = 1L << position;
+            if ((words[position >>> 6] & mask) == 0) {
                 bitsChanged = true;
-                bitSet.set(position);
+                words[position >>> 6] |= mask;
             }
         }
-
-        if (bitsChanged) {
-            ++this.meta.count;
-            this.meta.lastTime = CurrentTimeUtil.currentTimeMillis();
-        }
         return bitsChanged;
     }
 
-    @Override
-    public boolean contains(String val) {
+    private boolean classicContains(long hash64) {
         int bitSize = meta.bitSetSize;
-        long hash64 = Hashing.murmur3_128().hashObject(val, funnel).asLong();
         int hash1 = (int) hash64;
         int hash2 = (int) (hash64 >>> 32);
 
@@ -224,13 +330,52 @@ public class MetaBloomFilter implements BloomFilter {
             if (combinedHash < 0) {
                 combinedHash = ~combinedHash;
             }
-            if (!bitSet.get(combinedHash % bitSize)) {
+            int position = combinedHash % bitSize;
+            if ((words[position >>> 6] & (1L << position)) == 0) {
                 return false;
             }
         }
         return true;
     }
 
+    /**
+     * 高32位选块，低64位的两半做块内双重hash，步长为奇数保证k个位互不相同
+     */
+    private int blockOffset(long hash1) {
+        long blocks = meta.bitSetSize / BLOCK_BITS;
+        return (int) (((hash1 >>> 32) * blocks) >>> 32) << BLOCK_WORDS_SHIFT;
+    }
+
+    private boolean blockedAdd(long hash1, long hash2) {
+        int offset = blockOffset(hash1);
+        int bit = (int) hash2;
+        int delta = (int) (hash2 >>> 32) | 1;
+        boolean bitsChanged = false;
+        for (int i = 0; i < meta.hashIterations; i++) {
+            int position = bit & (BLOCK_BITS - 1);
+            int word = offset + (position >>> 6);
+            long before = words[word];
+            words[word] = before | (1L << position);
+            bitsChanged |= before != words[word];
+            bit += delta;
+        }
+        return bitsChanged;
+    }
+
+    private boolean blockedContains(long hash1, long hash2) {
+        int offset = blockOffset(hash1);
+        int bit = (int) hash2;
+        int delta = (int) (hash2 >>> 32) | 1;
+        // branch free, all probes hit the same block
+        long missing = 0;
+        for (int i = 0; i < meta.hashIterations; i++) {
+            int position = bit & (BLOCK_BITS - 1);
+            missing |= ~words[offset + (position >>> 6)] & (1L << position);
+            bit += delta;
+        }
+        return missing == 0;
+    }
+
     @Override
     public int getExpectedInsertions() {
         return this.meta.expectedInsertions;
@@ -262,6 +407,14 @@ public class MetaBloomFilter implements BloomFilter {
         return this.meta.count >= this.meta.expectedInsertions;
     }
 
+    public boolean isBlocked() {
+        return this.meta.version == VERSION_BLOCKED;
+    }
+
+    public byte getVersion() {
+        return this.meta.version;
+    }
+
     /**
      * 转换为字节输出
      *
@@ -269,7 +422,7 @@ public class MetaBloomFilter implements BloomFilter {
      * @return byte[]
      */
     public byte[] toByteArray() {
-        ByteBuffer byteBuffer = ByteBuffer.allocate(META_END_OFFSET + bitSet.size());
+        ByteBuffer byteBuffer = ByteBuffer.allocate(META_END_OFFSET + (words.length << 3));
         byteBuffer.position(COUNT_OFFSET);
         byteBuffer.putInt(this.meta.count)
                 .putLong(this.meta.startTime)
@@ -277,9 +430,15 @@ public class MetaBloomFilter implements BloomFilter {
                 .putInt(this.meta.bitSetSize)
                 .putInt(this.meta.expectedInsertions)
                 .putInt(this.meta.hashIterations)
-                // rest 4 bits fill zero
-                .putInt(0)
-                .put(bitSet.toByteArray());
+                .put(this.meta.version)
+                // rest 3 bytes fill zero
+                .put((byte) 0).put((byte) 0).put((byte) 0);
+        // little-endian, same as BitSet#toByteArray
+        byteBuffer.order(ByteOrder.LITTLE_ENDIAN);
+        for (long word : words) {
+            byteBuffer.putLong(word);
+        }
+        byteBuffer.order(ByteOrder.BIG_ENDIAN);
 
         // magic
         byte[] digest = Hashing.md5()
@@ -305,6 +464,7 @@ public class MetaBloomFilter implements BloomFilter {
         long now = CurrentTimeUtil.currentTimeMillis();
         meta.startTime = now;
         meta.lastTime = now;
+        meta.version = this.meta.version;
         meta.bitSetSize = this.meta.bitSetSize;
         meta.expectedInsertions = this.meta.expectedInsertions;
         meta.hashIterations = this.meta.hashIterations;
@@ -337,6 +497,10 @@ public class MetaBloomFilter implements BloomFilter {
          * hash函数个数
          */
         private int hashIterations;
+        /**
+         * 存储版本
+         */
+        private byte version;
 
         @Override
         public String toString() {
@@ -347,6 +511,7 @@ public class MetaBloomFilter implements BloomFilter {
                     ", bitSetSize=" + bitSetSize +
                     ", expectedInsertions=" + expectedInsertions +
                     ", hashIterations=" + hashIterations +
+                    ", version=" + version +
                     '}';
         }
     }
@@ -360,7 +525,7 @@ public class MetaBloomFilter implements BloomFilter {
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(this.meta, this.funnel, this.bitSet);
+        return Objects.hashCode(this.meta, FUNNEL, Arrays.hashCode(this.words));
     }
 
     @Override
@@ -373,7 +538,8 @@ public class MetaBloomFilter implements BloomFilter {
             MetaBloomFilter that = (MetaBloomFilter) object;
             return this.meta.expectedInsertions == that.meta.expectedInsertions
                     && this.meta.hashIterations == that.meta.hashIterations
-                    && this.funnel.equals(that.funnel) && this.bitSet.equals(that.bitSet);
+                    && this.meta.version == that.meta.version
+                    && Arrays.equals(this.words, that.words);
         }
     }
-}
\ No newline at end of file
+}
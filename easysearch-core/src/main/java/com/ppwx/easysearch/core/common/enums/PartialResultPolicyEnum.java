@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.common.enums;
+
+/**
+ *
+ * 部分数据源加载失败或超时时的处理方式
+ *
+ * @since 1.0.0
+ */
+public enum PartialResultPolicyEnum {
+    /**
+     * 整个请求失败
+     */
+    FAIL,
+    /**
+     * 丢弃该数据源的结果
+     */
+    DROP,
+    /**
+     * 使用该数据源最近一次成功的缓存结果，没有缓存时丢弃
+     */
+    CACHE;
+
+}
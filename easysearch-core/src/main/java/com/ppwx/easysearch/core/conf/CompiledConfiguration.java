@@ -0,0 +1,165 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.conf;
+
+import io.netty.util.internal.ObjectUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ * 预编译的配置访问
+ * 启动时注册需要读取的路径得到{@link ConfigValue}，值经类型转换后缓存在不可变的{@link ConfigSnapshot}中，
+ * 请求中读取配置只需要一次字段读取和一次数组访问
+ * <p/>
+ * {@link #reload(Configuration)}构建新快照后整体替换，转换失败时保留原快照；
+ * 通过{@link Configuration#set(String, Object)}等方法修改配置后，下一次读取时自动重建快照，
+ * 重建时转换失败只打印日志并沿用原值，同一版本不再重试
+ * 直接修改{@link Configuration#get(String)}返回的Map、List不会被感知
+ *
+ * @since 1.0.0
+ */
+public final class CompiledConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompiledConfiguration.class);
+
+    private final List<ConfigValue<?>> values = new ArrayList<>();
+
+    private volatile ConfigSnapshot snapshot;
+
+    public CompiledConfiguration(Configuration config) {
+        ObjectUtil.checkNotNull(config, "config");
+        this.snapshot = new ConfigSnapshot(this, config, config.version(), new Object[0]);
+    }
+
+    public ConfigValue<String> string(String path) {
+        return register(path, ConfigValue.STRING, null);
+    }
+
+    public ConfigValue<String> string(String path, String defaultValue) {
+        return register(path, ConfigValue.STRING, defaultValue);
+    }
+
+    public ConfigValue<Integer> intValue(String path, Integer defaultValue) {
+        return register(path, ConfigValue.INT, defaultValue);
+    }
+
+    public ConfigValue<Long> longValue(String path, Long defaultValue) {
+        return register(path, ConfigValue.LONG, defaultValue);
+    }
+
+    public ConfigValue<Double> doubleValue(String path, Double defaultValue) {
+        return register(path, ConfigValue.DOUBLE, defaultValue);
+    }
+
+    public ConfigValue<Boolean> bool(String path, Boolean defaultValue) {
+        return register(path, ConfigValue.BOOL, defaultValue);
+    }
+
+    public ConfigValue<List<Object>> list(String path) {
+        return register(path, ConfigValue.LIST, null);
+    }
+
+    public ConfigValue<Map<String, Object>> map(String path) {
+        return register(path, ConfigValue.MAP, null);
+    }
+
+    /**
+     * 注册配置值，路径只编译一次
+     *
+     * @param path
+     * @param converter
+     * @param defaultValue 路径不存在时的值
+     * @return com.ppwx.easysearch.core.conf.ConfigValue<T>
+     */
+    public synchronized <T> ConfigValue<T> register(String path, ConfigValue.Converter<T> converter, T defaultValue) {
+        ObjectUtil.checkNotNull(converter, "converter");
+        ConfigValue<T> value = new ConfigValue<>(this, values.size(), ConfigPath.compile(path), converter, defaultValue);
+        ConfigSnapshot current = snapshot();
+        Object[] resolved = Arrays.copyOf(current.values, values.size() + 1);
+        resolved[value.id] = value.resolve(current.config);
+        values.add(value);
+        this.snapshot = new ConfigSnapshot(this, current.config, current.version, resolved);
+        return value;
+    }
+
+    /**
+     * 读取当前快照中的值
+     *
+     * @param value
+     * @return T
+     */
+    public <T> T get(ConfigValue<T> value) {
+        return snapshot().get(value);
+    }
+
+    /**
+     * 当前快照，需要一致读取多个值时使用
+     *
+     * @return com.ppwx.easysearch.core.conf.ConfigSnapshot
+     */
+    public ConfigSnapshot snapshot() {
+        ConfigSnapshot current = this.snapshot;
+        if (current.version != current.config.version()) {
+            current = refresh();
+        }
+        return current;
+    }
+
+    /**
+     * 切换到新的配置
+     *
+     * @param config
+     * @return void
+     */
+    public synchronized void reload(Configuration config) {
+        ObjectUtil.checkNotNull(config, "config");
+        this.snapshot = build(config);
+    }
+
+    private synchronized ConfigSnapshot refresh() {
+        ConfigSnapshot current = this.snapshot;
+        if (current.version != current.config.version()) {
+            Configuration config = current.config;
+            int version = config.version();
+            try {
+                current = build(config);
+            } catch (RuntimeException e) {
+                // 读取路径上不抛出异常，记录新版本避免每次读取都重建
+                logger.warn("Failed to refresh compiled configuration, keep the previous values.", e);
+                current = new ConfigSnapshot(this, config, version, current.values);
+            }
+            this.snapshot = current;
+        }
+        return current;
+    }
+
+    private ConfigSnapshot build(Configuration config) {
+        // 先读版本，构建期间发生修改时下一次读取会再次重建
+        int version = config.version();
+        Object[] resolved = new Object[values.size()];
+        for (int i = 0; i < resolved.length; i++) {
+            resolved[i] = values.get(i).resolve(config);
+        }
+        return new ConfigSnapshot(this, config, version, resolved);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.conf;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ * 预编译的配置路径
+ * 路径只解析一次，寻址时直接按层级访问，规则与{@link Configuration#get(String)}一致：
+ * 路径不存在、类型不匹配或下标越界时返回null
+ *
+ * @since 1.0.0
+ */
+public final class ConfigPath {
+
+    private final String path;
+    /**
+     * Map层级的key，List层级为null
+     */
+    private final String[] keys;
+    /**
+     * List层级的下标，Map层级为-1
+     */
+    private final int[] indexes;
+
+    private ConfigPath(String path, String[] keys, int[] indexes) {
+        this.path = path;
+        this.keys = keys;
+        this.indexes = indexes;
+    }
+
+    /**
+     * 编译路径，如a.b[2].c
+     *
+     * @param path
+     * @return com.ppwx.easysearch.core.conf.ConfigPath
+     */
+    public static ConfigPath compile(final String path) {
+        if (path == null) {
+            throw new IllegalArgumentException("系统编程错误, 该异常代表系统编程错误.");
+        }
+        String[] segments = StringUtils.isBlank(path) ? new String[0]
+                : StringUtils.split(StringUtils.replace(path, "[", ".["), ".");
+        String[] keys = new String[segments.length];
+        int[] indexes = new int[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            String each = segments[i];
+            if (each.contains("[") && each.contains("]")) {
+                String index = each.replace("[", "").replace("]", "");
+                if (!StringUtils.isNumeric(index)) {
+                    throw new IllegalArgumentException(String.format(
+                            "系统编程错误，列表下标必须为数字类型，但路径[%s]的下标是[%s]", path, index));
+                }
+                indexes[i] = Integer.parseInt(index);
+            } else {
+                keys[i] = each;
+                indexes[i] = -1;
+            }
+        }
+        return new ConfigPath(path, keys, indexes);
+    }
+
+    public String path() {
+        return path;
+    }
+
+    /**
+     * 从配置树中寻址
+     *
+     * @param root
+     * @return java.lang.Object
+     */
+    @SuppressWarnings("unchecked")
+    Object resolve(Object root) {
+        Object target = root;
+        for (int i = 0; i < keys.length && target != null; i++) {
+            if (indexes[i] < 0) {
+                target = target instanceof Map ? ((Map<String, Object>) target).get(keys[i]) : null;
+            } else if (target instanceof List && indexes[i] < ((List<Object>) target).size()) {
+                target = ((List<Object>) target).get(indexes[i]);
+            } else {
+                target = null;
+            }
+        }
+        return target;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof ConfigPath && path.equals(((ConfigPath) o).path));
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.conf;
+
+/**
+ *
+ * 配置值的不可变快照
+ * 同一快照内读取的各个值来自同一版本的配置，读取只是一次数组访问
+ *
+ * @since 1.0.0
+ */
+public final class ConfigSnapshot {
+
+    private final CompiledConfiguration owner;
+
+    final Configuration config;
+    /**
+     * 生成快照时配置的版本
+     */
+    final int version;
+
+    final Object[] values;
+
+    ConfigSnapshot(CompiledConfiguration owner, Configuration config, int version, Object[] values) {
+        this.owner = owner;
+        this.config = config;
+        this.version = version;
+        this.values = values;
+    }
+
+    /**
+     * 读取配置值
+     *
+     * @param value
+     * @return T
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(ConfigValue<T> value) {
+        if (value.owner != owner) {
+            throw new IllegalArgumentException("Value " + value + " is not registered by this configuration.");
+        }
+        if (value.id >= values.length) {
+            throw new IllegalStateException("Value " + value + " is registered after this snapshot.");
+        }
+        return (T) values[value.id];
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.conf;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ * 配置值句柄
+ * 由{@link CompiledConfiguration}注册，持有预编译路径和类型转换，值保存在{@link ConfigSnapshot}中
+ *
+ * @since 1.0.0
+ */
+public final class ConfigValue<T> {
+
+    /**
+     * 类型转换，规则与{@link Configuration}对应的getXXX一致
+     */
+    @FunctionalInterface
+    public interface Converter<T> {
+        /**
+         * 转换配置值
+         *
+         * @param path 路径，用于错误信息
+         * @param raw 非空的原始值
+         * @return T 返回null时使用默认值
+         */
+        T convert(String path, Object raw);
+    }
+
+    public static final Converter<String> STRING = (path, raw) -> String.valueOf(raw);
+
+    public static final Converter<Integer> INT = (path, raw) -> {
+        try {
+            return Integer.valueOf(String.valueOf(raw));
+        } catch (Exception e) {
+            throw new IllegalArgumentException(String.format("任务读取配置文件出错. 配置文件路径[%s] 值非法, 期望是整数类型: %s. 请检查您的配置并作出修改.",
+                    path, e.getMessage()));
+        }
+    };
+
+    public static final Converter<Long> LONG = (path, raw) -> {
+        String value = String.valueOf(raw);
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(String.format("任务读取配置文件出错. 配置文件路径[%s] 值非法, 期望是整数类型: %s. 请检查您的配置并作出修改.",
+                    path, e.getMessage()));
+        }
+    };
+
+    public static final Converter<Double> DOUBLE = (path, raw) -> {
+        String value = String.valueOf(raw);
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(String.format("任务读取配置文件出错. 配置文件路径[%s] 值非法, 期望是浮点类型: %s. 请检查您的配置并作出修改.",
+                    path, e.getMessage()));
+        }
+    };
+
+    public static final Converter<Boolean> BOOL = (path, raw) -> {
+        String value = String.valueOf(raw);
+        if ("true".equalsIgnoreCase(value)) {
+            return Boolean.TRUE;
+        } else if ("false".equalsIgnoreCase(value)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException(String.format("您提供的配置信息有误，因为从[%s]获取的值[%s]无法转换为bool类型. 请检查源表的配置并且做出相应的修改.",
+                path, value));
+    };
+
+    /**
+     * 只读副本
+     */
+    public static final Converter<List<Object>> LIST = (path, raw) -> {
+        if (!(raw instanceof List)) {
+            throw new IllegalArgumentException(String.format("任务读取配置文件出错. 配置文件路径[%s] 值非法, 期望是List类型.", path));
+        }
+        return Collections.unmodifiableList(new ArrayList<>((List<?>) raw));
+    };
+
+    /**
+     * 只读副本
+     */
+    @SuppressWarnings("unchecked")
+    public static final Converter<Map<String, Object>> MAP = (path, raw) -> {
+        if (!(raw instanceof Map)) {
+            throw new IllegalArgumentException(String.format("任务读取配置文件出错. 配置文件路径[%s] 值非法, 期望是Map类型.", path));
+        }
+        return Collections.unmodifiableMap(new LinkedHashMap<>((Map<String, Object>) raw));
+    };
+
+    final CompiledConfiguration owner;
+
+    final int id;
+
+    private final ConfigPath path;
+
+    private final Converter<T> converter;
+
+    private final T defaultValue;
+
+    ConfigValue(CompiledConfiguration owner, int id, ConfigPath path, Converter<T> converter, T defaultValue) {
+        this.owner = owner;
+        this.id = id;
+        this.path = path;
+        this.converter = converter;
+        this.defaultValue = defaultValue;
+    }
+
+    public ConfigPath path() {
+        return path;
+    }
+
+    public T defaultValue() {
+        return defaultValue;
+    }
+
+    T resolve(Configuration config) {
+        Object raw = config.get(path);
+        T value = raw == null ? null : converter.convert(path.path(), raw);
+        return value == null ? defaultValue : value;
+    }
+
+    @Override
+    public String toString() {
+        return path.path();
+    }
+}
@@ -74,6 +74,11 @@ public class Configuration {
 
 	private Object root = null;
 
+	/**
+	 * 修改次数，供{@link CompiledConfiguration}判断快照是否过期
+	 */
+	private volatile int version;
+
 	/**
 	 * 初始化空白的Configuration
 	 */
@@ -185,6 +190,18 @@ public class Configuration {
 		}
 	}
 
+	/**
+	 * 根据预编译的路径寻址，不再重复解析路径
+	 *
+	 * @return Java表示的JSON对象，如果path不存在或者对象不存在，均返回null。
+	 */
+	public Object get(final ConfigPath path) {
+		if (null == path) {
+			throw new IllegalArgumentException("系统编程错误, 该异常代表系统编程错误.");
+		}
+		return path.resolve(this.root);
+	}
+
 	/**
 	 * 用户指定部分path，获取Configuration的子集
 	 * <p/>
@@ -761,12 +778,17 @@ public class Configuration {
 		return this.root;
 	}
 
+	int version() {
+		return this.version;
+	}
+
 	private void setObject(final String path, final Object object) {
 		Object newRoot = setObjectRecursive(this.root, split2List(path), 0,
 				object);
 
 		if (isSuitForRoot(newRoot)) {
 			this.root = newRoot;
+			this.version++;
 			return;
 		}
 
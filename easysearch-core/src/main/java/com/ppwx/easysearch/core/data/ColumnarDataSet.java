@@ -0,0 +1,530 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data;
+
+import com.google.common.collect.Lists;
+import com.ppwx.easysearch.core.data.vector.*;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.io.Serializable;
+import java.util.*;
+
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_SCORE;
+
+/**
+ *
+ * 列式数据集
+ * 每个字段以{@link ColumnVector}按列保存：字符串使用字典编码，long/double使用原生数组，其余类型保存{@link Column}
+ * 实现了{@link DataSet}以兼容现有处理器，{@link #row(int)}、{@link #all()}会按需生成行数据；
+ * 需要避免装箱的处理器可以通过{@link #vector(String)}和{@link #cursor()}直接读取列数据
+ *
+ * @since 1.0.0
+ */
+public class ColumnarDataSet implements DataSet, Serializable {
+
+    /**
+     * id column name
+     */
+    private final String idColumn;
+    /**
+     * column names
+     */
+    private final List<String> columnNames;
+    /**
+     * 列数据，下标与{@link #columnNames}一致
+     */
+    private ColumnVector[] vectors;
+    /**
+     * 字段下标
+     */
+    private final Object2IntOpenHashMap<String> colIdxMap;
+    /**
+     * 行数
+     */
+    private final int size;
+    /**
+     * id -> 行下标，首次查找时创建，修改id字段时失效
+     */
+    private transient Object2IntOpenHashMap<Object> idIndex;
+
+    public ColumnarDataSet(List<String> columnNames, ColumnVector[] vectors) {
+        this(GLOBAL_ID, columnNames, vectors);
+    }
+
+    public ColumnarDataSet(String idColumn, List<String> columnNames, ColumnVector[] vectors) {
+        if (columnNames == null || vectors == null) {
+            throw new IllegalArgumentException("columnNames and vectors can not be null.");
+        }
+        if (columnNames.size() != vectors.length) {
+            throw new IllegalArgumentException(String.format("columns:%s, vectors:%s", columnNames.size(), vectors.length));
+        }
+        int size = vectors.length == 0 ? 0 : vectors[0].size();
+        for (ColumnVector vector : vectors) {
+            if (vector.size() != size) {
+                throw new IllegalArgumentException("vectors must have the same size");
+            }
+        }
+        this.idColumn = idColumn;
+        this.columnNames = new ArrayList<>(columnNames);
+        this.vectors = vectors;
+        this.size = size;
+        this.colIdxMap = new Object2IntOpenHashMap<>(columnNames.size());
+        this.colIdxMap.defaultReturnValue(-1);
+        for (int i = 0; i < columnNames.size(); i++) {
+            this.colIdxMap.put(columnNames.get(i), i);
+        }
+    }
+
+    /**
+     * 将已有数据集转换为列式数据集
+     *
+     * @param dataSet
+     * @return com.ppwx.easysearch.core.data.ColumnarDataSet
+     */
+    public static ColumnarDataSet of(DataSet dataSet) {
+        if (dataSet instanceof ColumnarDataSet) {
+            return (ColumnarDataSet) dataSet;
+        }
+        Builder builder = builder(dataSet.idColumn(), dataSet.columnNames(), dataSet.size());
+        for (Map<String, Column> row : dataSet.all()) {
+            builder.appendRow(row);
+        }
+        return builder.build();
+    }
+
+    public static Builder builder(List<String> columnNames, int expectedSize) {
+        return builder(GLOBAL_ID, columnNames, expectedSize);
+    }
+
+    public static Builder builder(String idColumn, List<String> columnNames, int expectedSize) {
+        return new Builder(idColumn, columnNames, expectedSize);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String idColumn() {
+        return idColumn;
+    }
+
+    @Override
+    public List<String> columnNames() {
+        return this.columnNames;
+    }
+
+    @Override
+    public Map<String, Column> row(int idx) {
+        checkIndex(idx);
+        Map<String, Column> row = new HashMap<>(vectors.length * 2);
+        for (int i = 0; i < vectors.length; i++) {
+            row.put(columnNames.get(i), vectors[i].get(idx));
+        }
+        return row;
+    }
+
+    @Override
+    public List<Column> column(int idx) {
+        if (idx < 0 || idx >= vectors.length) {
+            return null;
+        }
+        ColumnVector vector = vectors[idx];
+        List<Column> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(vector.get(i));
+        }
+        return list;
+    }
+
+    @Override
+    public List<Column> column(String filed) {
+        return column(columnIndex(filed));
+    }
+
+    @Override
+    public Map<String, Column> find(Object id) {
+        int row = indexOf(id);
+        return row < 0 ? null : row(row);
+    }
+
+    /**
+     * 查找id所在的行，找不到返回-1
+     *
+     * @param id
+     * @return int
+     */
+    public int indexOf(Object id) {
+        Object2IntMap<Object> idIndex = idIndex();
+        return idIndex == null ? -1 : idIndex.getInt(id);
+    }
+
+    @Override
+    public Map<Object, Map<String, Column>> findAll(Collection<?> ids) {
+        Map<Object, Map<String, Column>> result = new LinkedHashMap<>();
+        if (ids == null) {
+            return result;
+        }
+        int row;
+        for (Object id : ids) {
+            row = indexOf(id);
+            if (row >= 0) {
+                result.put(id, row(row));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Column set(int idx, String field, Column column) {
+        checkIndex(idx);
+        int colIdx = columnIndex(field);
+        if (colIdx < 0) {
+            colIdx = addColumn(field);
+        }
+        if (Objects.equals(idColumn, field)) {
+            this.idIndex = null;
+        }
+        ColumnVector vector = vectors[colIdx];
+        if (!vector.accept(column)) {
+            vector = ColumnVector.promote(vector);
+            vectors[colIdx] = vector;
+        }
+        return vector.set(idx, column);
+    }
+
+    @Override
+    public List<Map<String, Column>> all() {
+        List<Map<String, Column>> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(row(i));
+        }
+        return list;
+    }
+
+    @Override
+    public Object clone() {
+        ColumnVector[] vectors = new ColumnVector[this.vectors.length];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = this.vectors[i].copy();
+        }
+        return new ColumnarDataSet(idColumn, columnNames, vectors);
+    }
+
+    /**
+     * 追加一列，所有行填充同一个值，字段名与列数据同时追加，空数据集也保持一致
+     *
+     * @param field
+     * @param fill 填充值
+     * @return boolean 字段已存在时返回false
+     */
+    public boolean addColumn(String field, Column fill) {
+        if (columnIndex(field) >= 0) {
+            return false;
+        }
+        ColumnVector vector = fill == null || fill.getRawData() == null
+                ? new ObjectColumnVector(size) : ColumnVector.forColumn(fill, size);
+        for (int i = 0; i < size; i++) {
+            vector.append(fill);
+        }
+        appendVector(field, vector);
+        return true;
+    }
+
+    /**
+     * 按行下标抽取数据生成新的数据集，行顺序与rows一致
+     *
+     * @param rows 行下标
+     * @param length 抽取数量
+     * @return com.ppwx.easysearch.core.data.ColumnarDataSet
+     */
+    public ColumnarDataSet select(int[] rows, int length) {
+        ColumnVector[] vectors = new ColumnVector[this.vectors.length];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = this.vectors[i].gather(rows, length);
+        }
+        return new ColumnarDataSet(idColumn, columnNames, vectors);
+    }
+
+    /**
+     * 字段下标，不存在返回-1
+     *
+     * @param field
+     * @return int
+     */
+    public int columnIndex(String field) {
+        return colIdxMap.getInt(field);
+    }
+
+    /**
+     * 获取列数据，不存在返回null
+     * 返回的是内部数据，对其修改会直接反映到数据集上
+     *
+     * @param field
+     * @return com.ppwx.easysearch.core.data.vector.ColumnVector
+     */
+    public ColumnVector vector(String field) {
+        int idx = columnIndex(field);
+        return idx < 0 ? null : vectors[idx];
+    }
+
+    /**
+     * 获取列数据
+     *
+     * @param idx
+     * @return com.ppwx.easysearch.core.data.vector.ColumnVector
+     */
+    public ColumnVector vector(int idx) {
+        return vectors[idx];
+    }
+
+    /**
+     * 获取double列，字段不存在或不是double列时返回null
+     *
+     * @param field
+     * @return com.ppwx.easysearch.core.data.vector.DoubleColumnVector
+     */
+    public DoubleColumnVector doubleVector(String field) {
+        ColumnVector vector = vector(field);
+        return vector instanceof DoubleColumnVector ? (DoubleColumnVector) vector : null;
+    }
+
+    /**
+     * 行游标
+     *
+     * @return com.ppwx.easysearch.core.data.ColumnarDataSet.Cursor
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    private Object2IntMap<Object> idIndex() {
+        Object2IntOpenHashMap<Object> idIndex = this.idIndex;
+        if (idIndex == null) {
+            ColumnVector vector = vector(idColumn);
+            if (vector == null) {
+                return null;
+            }
+            idIndex = new Object2IntOpenHashMap<>(size);
+            idIndex.defaultReturnValue(-1);
+            if (vector instanceof DictionaryColumnVector) {
+                // 直接读取字典，不生成Column
+                DictionaryColumnVector dictionary = (DictionaryColumnVector) vector;
+                int[] codes = dictionary.codes();
+                for (int i = 0; i < size; i++) {
+                    if (codes[i] != DictionaryColumnVector.NULL_CODE) {
+                        idIndex.putIfAbsent(dictionary.dictionaryValue(codes[i]), i);
+                    }
+                }
+            } else {
+                Column column;
+                for (int i = 0; i < size; i++) {
+                    column = vector.get(i);
+                    if (column != null && column.getRawData() != null) {
+                        idIndex.putIfAbsent(column.getRawData(), i);
+                    }
+                }
+            }
+            this.idIndex = idIndex;
+        }
+        return idIndex;
+    }
+
+    private int addColumn(String field) {
+        ObjectColumnVector vector = new ObjectColumnVector(size);
+        for (int i = 0; i < size; i++) {
+            vector.append(null);
+        }
+        return appendVector(field, vector);
+    }
+
+    private int appendVector(String field, ColumnVector vector) {
+        ColumnVector[] vectors = Arrays.copyOf(this.vectors, this.vectors.length + 1);
+        vectors[vectors.length - 1] = vector;
+        this.vectors = vectors;
+        if (!columnNames.contains(field)) {
+            columnNames.add(field);
+        }
+        colIdxMap.put(field, vectors.length - 1);
+        if (Objects.equals(idColumn, field)) {
+            this.idIndex = null;
+        }
+        return vectors.length - 1;
+    }
+
+    private void checkIndex(int idx) {
+        if (idx < 0 || idx >= size) {
+            throw new IndexOutOfBoundsException(String.format("idx:%s, size:%s", idx, size));
+        }
+    }
+
+    /**
+     * 行游标，按行遍历且不生成行数据
+     * 字段通过{@link ColumnarDataSet#columnIndex(String)}获取的下标访问
+     */
+    public final class Cursor {
+
+        private int position = -1;
+
+        private Cursor() {
+        }
+
+        public boolean next() {
+            return ++position < size;
+        }
+
+        public int position() {
+            return position;
+        }
+
+        public void reset() {
+            this.position = -1;
+        }
+
+        public boolean isNull(int column) {
+            return vectors[column].isNull(position);
+        }
+
+        public double getDouble(int column) {
+            return vectors[column].getDouble(position);
+        }
+
+        public long getLong(int column) {
+            return vectors[column].getLong(position);
+        }
+
+        public String getString(int column) {
+            return vectors[column].getString(position);
+        }
+
+        public Column get(int column) {
+            return vectors[column].get(position);
+        }
+    }
+
+    /**
+     * 列式数据集构建器
+     * 字段类型由第一个非空值推断，类型不一致时自动升级为{@link ObjectColumnVector}；
+     * {@link com.ppwx.easysearch.core.data.model.Key#GLOBAL_SCORE}固定使用{@link DoubleColumnVector}
+     */
+    public static final class Builder {
+
+        private final String idColumn;
+
+        private final List<String> columnNames;
+
+        private final ColumnVector[] vectors;
+
+        private final int[] pendingNulls;
+
+        private final int expectedSize;
+
+        private Builder(String idColumn, List<String> columnNames, int expectedSize) {
+            this.idColumn = idColumn;
+            this.columnNames = Lists.newArrayList(columnNames);
+            this.vectors = new ColumnVector[columnNames.size()];
+            this.pendingNulls = new int[columnNames.size()];
+            this.expectedSize = expectedSize;
+            int scoreIdx = this.columnNames.indexOf(GLOBAL_SCORE);
+            if (scoreIdx >= 0) {
+                vectors[scoreIdx] = new DoubleColumnVector(expectedSize, true);
+            }
+        }
+
+        /**
+         * 指定字段的列实现，需在追加数据前调用
+         *
+         * @param field
+         * @param vector
+         * @return com.ppwx.easysearch.core.data.ColumnarDataSet.Builder
+         */
+        public Builder vector(String field, ColumnVector vector) {
+            int idx = columnNames.indexOf(field);
+            if (idx < 0) {
+                throw new IllegalArgumentException("Unknown column:" + field);
+            }
+            vectors[idx] = vector;
+            return this;
+        }
+
+        /**
+         * 获取已创建的列，供调用方直接写入原生值
+         *
+         * @param idx
+         * @return com.ppwx.easysearch.core.data.vector.ColumnVector
+         */
+        public ColumnVector vector(int idx) {
+            return vectors[idx];
+        }
+
+        /**
+         * 追加一行
+         *
+         * @param row
+         * @return com.ppwx.easysearch.core.data.ColumnarDataSet.Builder
+         */
+        public Builder appendRow(Map<String, Column> row) {
+            for (int i = 0; i < vectors.length; i++) {
+                append(i, row == null ? null : row.get(columnNames.get(i)));
+            }
+            return this;
+        }
+
+        /**
+         * 向指定列追加一个值
+         *
+         * @param idx
+         * @param column
+         * @return com.ppwx.easysearch.core.data.ColumnarDataSet.Builder
+         */
+        public Builder append(int idx, Column column) {
+            ColumnVector vector = vectors[idx];
+            if (vector == null) {
+                if (column == null || column.getRawData() == null) {
+                    pendingNulls[idx]++;
+                    return this;
+                }
+                vector = ColumnVector.forColumn(column, expectedSize);
+                for (int i = 0; i < pendingNulls[idx]; i++) {
+                    vector.appendNull();
+                }
+                vectors[idx] = vector;
+            } else if (!vector.accept(column)) {
+                vector = ColumnVector.promote(vector);
+                vectors[idx] = vector;
+            }
+            vector.append(column);
+            return this;
+        }
+
+        public ColumnarDataSet build() {
+            for (int i = 0; i < vectors.length; i++) {
+                if (vectors[i] == null) {
+                    ObjectColumnVector vector = new ObjectColumnVector(pendingNulls[i]);
+                    for (int j = 0; j < pendingNulls[i]; j++) {
+                        vector.append(null);
+                    }
+                    vectors[i] = vector;
+                }
+            }
+            return new ColumnarDataSet(idColumn, columnNames, vectors);
+        }
+    }
+}
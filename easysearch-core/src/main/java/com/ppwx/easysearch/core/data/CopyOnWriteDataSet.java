@@ -0,0 +1,565 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data;
+
+import com.ppwx.easysearch.core.data.codec.OffHeapDataSet;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ *
+ * 写时复制数据集
+ * 基于一个共享且不会被修改的原始数据集，只记录修改过的单元格、删除的行和行顺序，
+ * 缓存命中时只需创建本对象，不再复制整个数据集
+ * <p/>
+ * {@link #row(int)}、{@link #all()}返回的行是原始行的视图，对行的修改只写入本数据集
+ *
+ * @since 1.0.0
+ */
+public class CopyOnWriteDataSet implements DataSet {
+
+    /**
+     * 共享的原始数据集，只读
+     */
+    private final DataSet base;
+    /**
+     * 位置 -> 原始行下标，为空时与原始数据集一致
+     */
+    private int[] index;
+    /**
+     * 行数
+     */
+    private int length;
+    /**
+     * 字段名称，首次访问时复制
+     */
+    private List<String> columnNames;
+    /**
+     * 行视图，按原始行下标，修改记录在视图中
+     */
+    private OverlayRow[] rows;
+    /**
+     * 原始行数据缓存
+     */
+    private transient Map<String, Column>[] baseRows;
+    /**
+     * id -> 位置，首次查找时创建，修改id字段或行顺序时失效
+     */
+    private transient Map<Object, Integer> idIndex;
+
+    public CopyOnWriteDataSet(DataSet base) {
+        if (base == null) {
+            throw new IllegalArgumentException("base can not be null.");
+        }
+        this.base = base;
+        this.length = base.size();
+    }
+
+    private CopyOnWriteDataSet(CopyOnWriteDataSet origin) {
+        this.base = origin.base;
+        this.length = origin.length;
+        this.index = origin.index == null ? null : Arrays.copyOf(origin.index, origin.length);
+        this.columnNames = origin.columnNames == null ? null : new ArrayList<>(origin.columnNames);
+        if (origin.rows != null) {
+            this.rows = new OverlayRow[origin.rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                if (origin.rows[i] != null && origin.rows[i].isModified()) {
+                    rows[i] = origin.rows[i].copy();
+                }
+            }
+        }
+    }
+
+    /**
+     * 创建写时复制的快照，对{@link CopyOnWriteDataSet}只复制已有的修改，不再嵌套
+     *
+     * @param dataSet
+     * @return com.ppwx.easysearch.core.data.CopyOnWriteDataSet
+     */
+    public static CopyOnWriteDataSet of(DataSet dataSet) {
+        if (dataSet instanceof CopyOnWriteDataSet) {
+            return new CopyOnWriteDataSet((CopyOnWriteDataSet) dataSet);
+        }
+        return new CopyOnWriteDataSet(dataSet);
+    }
+
+    /**
+     * 原始数据集
+     *
+     * @return com.ppwx.easysearch.core.data.DataSet
+     */
+    public DataSet base() {
+        return base;
+    }
+
+    /**
+     * 是否与原始数据集存在差异
+     *
+     * @return boolean
+     */
+    public boolean isModified() {
+        if (index != null || columnNames != null && !columnNames.equals(base.columnNames())) {
+            return true;
+        }
+        if (rows != null) {
+            for (OverlayRow row : rows) {
+                if (row != null && row.isModified()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 删除指定位置的行
+     *
+     * @param idx
+     * @return void
+     */
+    public void remove(int idx) {
+        checkIndex(idx);
+        int[] index = index();
+        System.arraycopy(index, idx + 1, index, idx, length - idx - 1);
+        length--;
+        this.idIndex = null;
+    }
+
+    /**
+     * 按位置重排，未出现的位置视为删除
+     *
+     * @param positions 当前位置组成的新顺序
+     * @param size 数量
+     * @return void
+     */
+    public void reorder(int[] positions, int size) {
+        int[] index = index();
+        int[] newIndex = new int[size];
+        BitSet retained = new BitSet(length);
+        for (int i = 0; i < size; i++) {
+            checkIndex(positions[i]);
+            if (retained.get(positions[i])) {
+                throw new IllegalArgumentException("Duplicate position:" + positions[i]);
+            }
+            retained.set(positions[i]);
+            newIndex[i] = index[positions[i]];
+        }
+        this.index = newIndex;
+        this.length = size;
+        this.idIndex = null;
+    }
+
+    @Override
+    public int size() {
+        return length;
+    }
+
+    @Override
+    public String idColumn() {
+        return base.idColumn();
+    }
+
+    @Override
+    public List<String> columnNames() {
+        if (columnNames == null) {
+            List<String> names = base.columnNames();
+            columnNames = names == null ? new ArrayList<>() : new ArrayList<>(names);
+        }
+        return columnNames;
+    }
+
+    @Override
+    public Map<String, Column> row(int idx) {
+        checkIndex(idx);
+        return overlayRow(baseIndex(idx));
+    }
+
+    @Override
+    public List<Column> column(int idx) {
+        List<String> columnNames = columnNames();
+        if (idx < 0 || idx >= columnNames.size()) {
+            return null;
+        }
+        return column(columnNames.get(idx));
+    }
+
+    @Override
+    public List<Column> column(String filed) {
+        List<Column> list = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            list.add(cell(baseIndex(i), filed));
+        }
+        return list;
+    }
+
+    @Override
+    public Map<String, Column> find(Object id) {
+        Integer idx = idIndex().get(id);
+        return idx == null ? null : row(idx);
+    }
+
+    @Override
+    public Map<Object, Map<String, Column>> findAll(Collection<?> ids) {
+        Map<Object, Map<String, Column>> result = new LinkedHashMap<>();
+        if (ids == null) {
+            return result;
+        }
+        Map<Object, Integer> idIndex = idIndex();
+        Integer idx;
+        for (Object id : ids) {
+            idx = idIndex.get(id);
+            if (idx != null) {
+                result.put(id, row(idx));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Column set(int idx, String field, Column column) {
+        checkIndex(idx);
+        if (Objects.equals(idColumn(), field)) {
+            this.idIndex = null;
+        }
+        return overlayRow(baseIndex(idx)).put(field, column);
+    }
+
+    @Override
+    public List<Map<String, Column>> all() {
+        List<Map<String, Column>> list = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            list.add(overlayRow(baseIndex(i)));
+        }
+        return list;
+    }
+
+    @Override
+    public Object clone() {
+        return new CopyOnWriteDataSet(this);
+    }
+
+    private int baseIndex(int idx) {
+        return index == null ? idx : index[idx];
+    }
+
+    private int[] index() {
+        if (index == null) {
+            index = new int[length];
+            for (int i = 0; i < length; i++) {
+                index[i] = i;
+            }
+        }
+        return index;
+    }
+
+    private Map<Object, Integer> idIndex() {
+        Map<Object, Integer> idIndex = this.idIndex;
+        if (idIndex == null) {
+            idIndex = new HashMap<>(Math.max((int) (length / .75f) + 1, 16));
+            String idColumn = idColumn();
+            Column column;
+            for (int i = 0; i < length; i++) {
+                column = cell(baseIndex(i), idColumn);
+                if (column != null) {
+                    idIndex.putIfAbsent(column.getRawData(), i);
+                }
+            }
+            this.idIndex = idIndex;
+        }
+        return idIndex;
+    }
+
+    private Column cell(int baseRow, String field) {
+        if (rows != null && rows[baseRow] != null) {
+            return overlayRow(baseRow).get(field);
+        }
+        if (base instanceof ColumnarDataSet) {
+            // 列式数据集直接读取单元格，不生成行数据
+            ColumnarDataSet columnar = (ColumnarDataSet) base;
+            int colIdx = columnar.columnIndex(field);
+            return colIdx < 0 ? null : columnar.vector(colIdx).get(baseRow);
+        }
+        if (base instanceof OffHeapDataSet) {
+            OffHeapDataSet offHeap = (OffHeapDataSet) base;
+            int colIdx = offHeap.columnIndex(field);
+            return colIdx < 0 ? null : offHeap.get(baseRow, colIdx);
+        }
+        Map<String, Column> map = baseRow(baseRow);
+        return map == null ? null : map.get(field);
+    }
+
+    private OverlayRow overlayRow(int baseRow) {
+        if (rows == null) {
+            rows = new OverlayRow[base.size()];
+        }
+        OverlayRow row = rows[baseRow];
+        if (row == null) {
+            row = rows[baseRow] = new OverlayRow(baseRow(baseRow));
+        } else if (row.base == null) {
+            // 反序列化后重新关联原始行
+            row.base = baseRow(baseRow);
+        }
+        return row;
+    }
+
+    private Map<String, Column> baseRow(int baseRow) {
+        if (baseRows == null) {
+            baseRows = newRows(base.size());
+            if (base instanceof ListDataSet) {
+                // 一次性读取，避免链表结构按下标访问
+                int i = 0;
+                for (Map<String, Column> row : base.all()) {
+                    baseRows[i++] = row;
+                }
+            }
+        }
+        Map<String, Column> row = baseRows[baseRow];
+        if (row == null) {
+            row = baseRows[baseRow] = base.row(baseRow);
+        }
+        return row;
+    }
+
+    /**
+     * 泛型数组无法直接创建，数组只在本类内部读写，元素均为原始行
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map<String, Column>[] newRows(int size) {
+        return new Map[size];
+    }
+
+    private void checkIndex(int idx) {
+        if (idx < 0 || idx >= length) {
+            throw new IndexOutOfBoundsException(String.format("idx:%s, size:%s", idx, length));
+        }
+    }
+
+    /**
+     * 行视图
+     * 读取时先查修改记录再查原始行，写入只记录到修改记录中
+     */
+    private static final class OverlayRow extends AbstractMap<String, Column> implements Serializable {
+        /**
+         * 原始行，只读
+         */
+        private transient Map<String, Column> base;
+        /**
+         * 修改过的单元格
+         */
+        private Map<String, Column> changed;
+        /**
+         * 删除的原始字段
+         */
+        private Set<String> removed;
+
+        private OverlayRow(Map<String, Column> base) {
+            this.base = base;
+        }
+
+        private boolean isModified() {
+            return (changed != null && !changed.isEmpty()) || (removed != null && !removed.isEmpty());
+        }
+
+        private OverlayRow copy() {
+            OverlayRow row = new OverlayRow(base);
+            row.changed = changed == null ? null : new HashMap<>(changed);
+            row.removed = removed == null ? null : new HashSet<>(removed);
+            return row;
+        }
+
+        private boolean inBase(Object key) {
+            return base != null && base.containsKey(key) && (removed == null || !removed.contains(key));
+        }
+
+        @Override
+        public Column get(Object key) {
+            if (changed != null && changed.containsKey(key)) {
+                return changed.get(key);
+            }
+            return inBase(key) ? base.get(key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return (changed != null && changed.containsKey(key)) || inBase(key);
+        }
+
+        @Override
+        public Column put(String key, Column value) {
+            Column old = get(key);
+            if (changed == null) {
+                changed = new HashMap<>(4);
+            }
+            changed.put(key, value);
+            return old;
+        }
+
+        @Override
+        public Column remove(Object key) {
+            if (!containsKey(key)) {
+                return null;
+            }
+            Column old = get(key);
+            if (changed != null) {
+                changed.remove(key);
+            }
+            if (base != null && base.containsKey(key)) {
+                if (removed == null) {
+                    removed = new HashSet<>(4);
+                }
+                removed.add((String) key);
+            }
+            return old;
+        }
+
+        @Override
+        public void clear() {
+            if (base != null && !base.isEmpty()) {
+                if (removed == null) {
+                    removed = new HashSet<>(base.keySet());
+                } else {
+                    removed.addAll(base.keySet());
+                }
+            }
+            changed = null;
+        }
+
+        @Override
+        public Set<Entry<String, Column>> entrySet() {
+            return new AbstractSet<Entry<String, Column>>() {
+                @Override
+                public Iterator<Entry<String, Column>> iterator() {
+                    return new OverlayIterator();
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    if (base != null) {
+                        for (String key : base.keySet()) {
+                            if (inBase(key) && (changed == null || !changed.containsKey(key))) {
+                                size++;
+                            }
+                        }
+                    }
+                    return changed == null ? size : size + changed.size();
+                }
+            };
+        }
+
+        /**
+         * 先按原始行顺序遍历，再遍历新增的字段
+         */
+        private final class OverlayIterator implements Iterator<Entry<String, Column>> {
+
+            private final Iterator<String> baseKeys = base == null ? Collections.emptyIterator() : base.keySet().iterator();
+
+            /**
+             * 新增字段的快照，移除时直接修改changed不会影响遍历
+             */
+            private Iterator<String> addedKeys;
+
+            private String next;
+
+            private String last;
+
+            @Override
+            public boolean hasNext() {
+                if (next != null) {
+                    return true;
+                }
+                while (baseKeys.hasNext()) {
+                    String key = baseKeys.next();
+                    if (containsKey(key)) {
+                        next = key;
+                        return true;
+                    }
+                }
+                if (addedKeys == null) {
+                    addedKeys = changed == null ? Collections.emptyIterator() : new ArrayList<>(changed.keySet()).iterator();
+                }
+                while (addedKeys.hasNext()) {
+                    String key = addedKeys.next();
+                    if ((base == null || !base.containsKey(key)) && containsKey(key)) {
+                        next = key;
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public Entry<String, Column> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                last = next;
+                next = null;
+                return new OverlayEntry(last);
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                // 按上次返回的字段移除，与hasNext的预读无关
+                OverlayRow.this.remove(last);
+                last = null;
+            }
+        }
+
+        private final class OverlayEntry implements Entry<String, Column> {
+
+            private final String key;
+
+            private OverlayEntry(String key) {
+                this.key = key;
+            }
+
+            @Override
+            public String getKey() {
+                return key;
+            }
+
+            @Override
+            public Column getValue() {
+                return get(key);
+            }
+
+            @Override
+            public Column setValue(Column value) {
+                return put(key, value);
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (!(o instanceof Entry)) {
+                    return false;
+                }
+                Entry<?, ?> e = (Entry<?, ?>) o;
+                return Objects.equals(key, e.getKey()) && Objects.equals(getValue(), e.getValue());
+            }
+
+            @Override
+            public int hashCode() {
+                return Objects.hashCode(key) ^ Objects.hashCode(getValue());
+            }
+        }
+    }
+}
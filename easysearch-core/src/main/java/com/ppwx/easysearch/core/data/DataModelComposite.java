@@ -165,6 +165,34 @@ public class DataModelComposite extends AbstractDataModel {
             return map;
         }
 
+        @Override
+        public Map<Object, Map<String, Column>> findAll(Collection<?> ids) {
+            if (ids == null) {
+                return new LinkedHashMap<>();
+            }
+            if (dataSets.size() == 1) {
+                return dataSets.get(0).findAll(ids);
+            }
+            Map<Object, Map<String, Column>> found = new HashMap<>();
+            Set<Object> remaining = new LinkedHashSet<>(ids);
+            for (DataSet dataSet : dataSets) {
+                if (remaining.isEmpty()) {
+                    break;
+                }
+                // 前面的数据集优先
+                Map<Object, Map<String, Column>> map = dataSet.findAll(remaining);
+                found.putAll(map);
+                remaining.removeAll(map.keySet());
+            }
+            Map<Object, Map<String, Column>> result = new LinkedHashMap<>();
+            for (Object id : ids) {
+                if (found.containsKey(id)) {
+                    result.put(id, found.get(id));
+                }
+            }
+            return result;
+        }
+
         @Override
         public Column set(int idx, String field, Column column) {
             for (DataSet dataSet : dataSets) {
@@ -17,6 +17,8 @@
 package com.ppwx.easysearch.core.data;
 
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -84,6 +86,29 @@ public interface DataSet extends Cloneable, Serializable {
      */
     Map<String, Column> find(Object id);
 
+    /**
+     * 根据id批量查找元素
+     * 返回结果按ids顺序排列，找不到的id不包含在结果中，ids为null时返回空结果
+     * 默认逐个调用{@link #find(Object)}，实现类可基于索引一次完成
+     *
+     * @param ids
+     * @return java.util.Map<java.lang.Object,java.util.Map<java.lang.String,com.ppwx.easysearch.core.data.Column>>
+     */
+    default Map<Object, Map<String, Column>> findAll(Collection<?> ids) {
+        Map<Object, Map<String, Column>> result = new LinkedHashMap<>();
+        if (ids == null) {
+            return result;
+        }
+        Map<String, Column> row;
+        for (Object id : ids) {
+            row = find(id);
+            if (row != null) {
+                result.put(id, row);
+            }
+        }
+        return result;
+    }
+
     /**
      * 设置字段值
      *
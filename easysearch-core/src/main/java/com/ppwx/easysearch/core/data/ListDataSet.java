@@ -44,6 +44,14 @@ public class ListDataSet implements DataSet {
      * raw data
      */
     private final List<Map<String, Column>> data;
+    /**
+     * id -> 行数据，首次查找时创建，修改id字段时失效
+     */
+    private transient Map<Object, Map<String, Column>> idIndex;
+    /**
+     * 创建索引时的数据量
+     */
+    private transient int indexedSize;
 
     public ListDataSet(List<String> columnNames, List<Map<String, Column>> data) {
         this(GLOBAL_ID, columnNames, data);
@@ -103,9 +111,24 @@ public class ListDataSet implements DataSet {
         if (data == null) {
             return null;
         }
-        Optional<Map<String, Column>> first = data.stream()
-                .filter(map -> Objects.equals(id, map.get(idColumn).getRawData())).findFirst();
-        return first.orElse(null);
+        return idIndex().get(id);
+    }
+
+    @Override
+    public Map<Object, Map<String, Column>> findAll(Collection<?> ids) {
+        Map<Object, Map<String, Column>> result = new LinkedHashMap<>();
+        if (data == null || ids == null) {
+            return result;
+        }
+        Map<Object, Map<String, Column>> idIndex = idIndex();
+        Map<String, Column> row;
+        for (Object id : ids) {
+            row = idIndex.get(id);
+            if (row != null) {
+                result.put(id, row);
+            }
+        }
+        return result;
     }
 
     @Override
@@ -117,6 +140,9 @@ public class ListDataSet implements DataSet {
             throw new IndexOutOfBoundsException(String.format("idx:%s, size:%s", idx, data.size()));
         }
         Map<String, Column> map = row(idx);
+        if (Objects.equals(idColumn, field)) {
+            this.idIndex = null;
+        }
         return map.put(field, column);
     }
 
@@ -125,6 +151,28 @@ public class ListDataSet implements DataSet {
         return Lists.newLinkedList(this.data);
     }
 
+    /**
+     * 数据量变化时重建
+     *
+     * @return java.util.Map<java.lang.Object,java.util.Map<java.lang.String,com.ppwx.easysearch.core.data.Column>>
+     */
+    private Map<Object, Map<String, Column>> idIndex() {
+        Map<Object, Map<String, Column>> idIndex = this.idIndex;
+        if (idIndex == null || indexedSize != data.size()) {
+            idIndex = Maps.newHashMapWithExpectedSize(data.size());
+            Column column;
+            for (Map<String, Column> map : data) {
+                column = map.get(idColumn);
+                if (column != null) {
+                    idIndex.putIfAbsent(column.getRawData(), map);
+                }
+            }
+            this.idIndex = idIndex;
+            this.indexedSize = data.size();
+        }
+        return idIndex;
+    }
+
     @Override
     public Object clone() {
         String idColumn = this.idColumn;
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ppwx.easysearch.core.common.DataException;
+import com.ppwx.easysearch.core.common.enums.PartialResultPolicyEnum;
+import com.ppwx.easysearch.core.data.model.ICache;
+import com.ppwx.easysearch.core.metrics.Metrics;
+import com.ppwx.easysearch.core.metrics.MetricsRegistry;
+import io.netty.util.internal.ObjectUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ *
+ * 并行加载多个数据模型
+ * 子模型在有界线程池中同时加载，所有子模型共用一个从开始加载算起的截止时间，
+ * 失败或超过截止时间按{@link PartialResultPolicyEnum}处理；
+ * 结果始终按子模型的顺序合并，保证输出稳定
+ * <p/>
+ * 每个子模型的一次加载只记录一个metrics结果：成功、失败或超时（SLOW_ERROR）
+ *
+ * @since 1.0.0
+ */
+public class ParallelDataModelComposite extends DataModelComposite {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelDataModelComposite.class);
+
+    /**
+     * 执行线程池
+     */
+    private final ExecutorService executor;
+    /**
+     * 截止时间，所有子模型同时开始加载，共用该时间
+     */
+    private final long timeoutNanos;
+    /**
+     * 失败处理方式
+     */
+    private final PartialResultPolicyEnum policy;
+    /**
+     * 名称，作为metrics和缓存key的前缀
+     * {@link PartialResultPolicyEnum#CACHE}时必须显式设置，且在共用同一个缓存的组合之间唯一（如包含查询条件），
+     * 否则会取到其他组合的子模型结果
+     */
+    private String name;
+    /**
+     * 子模型耗时统计
+     */
+    private MetricsRegistry<Metrics> metricsRegistry;
+    /**
+     * metrics时间窗口（秒）
+     */
+    private int metricsWindowSize = 60;
+    /**
+     * 子模型结果缓存，{@link PartialResultPolicyEnum#CACHE}时使用
+     */
+    private ICache<String, DataSet> cache;
+
+    public ParallelDataModelComposite(List<DataModel> dataModelList, ExecutorService executor, long timeoutMillis) {
+        this(dataModelList, executor, timeoutMillis, TimeUnit.MILLISECONDS, PartialResultPolicyEnum.DROP);
+    }
+
+    public ParallelDataModelComposite(List<DataModel> dataModelList, ExecutorService executor,
+                                      long timeout, TimeUnit unit, PartialResultPolicyEnum policy) {
+        super(ObjectUtil.checkNotNull(dataModelList, "dataModelList"));
+        this.executor = ObjectUtil.checkNotNull(executor, "executor");
+        this.policy = ObjectUtil.checkNotNull(policy, "policy");
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("timeout must be positive.");
+        }
+        this.timeoutNanos = unit.toNanos(timeout);
+    }
+
+    /**
+     * 创建有界线程池，队列满时拒绝的子模型按加载失败处理
+     *
+     * @param threads 线程数
+     * @param queueCapacity 队列长度
+     * @return java.util.concurrent.ExecutorService
+     */
+    public static ExecutorService newExecutor(int threads, int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new ThreadFactoryBuilder().setNameFormat("data-model-loader-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public void setName(String name) {
+        this.name = ObjectUtil.checkNotNull(name, "name");
+    }
+
+    public void setMetricsRegistry(MetricsRegistry<Metrics> metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    public void setMetricsWindowSize(int metricsWindowSize) {
+        this.metricsWindowSize = metricsWindowSize;
+    }
+
+    public void setCache(ICache<String, DataSet> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void loadDataModel() {
+        this.dataSet = fanOut(true);
+    }
+
+    @Override
+    public DataSet getDataset() {
+        if (this.dataSet == null) {
+            this.dataSet = fanOut(false);
+        }
+        return this.dataSet;
+    }
+
+    /**
+     * 并行执行子模型，按顺序合并
+     *
+     * @param load 是否调用{@link DataModel#loadDataModel()}
+     * @return com.ppwx.easysearch.core.data.DataSet
+     */
+    private DataSet fanOut(boolean load) {
+        if (policy == PartialResultPolicyEnum.CACHE && cache != null && name == null) {
+            throw new IllegalStateException("name must be set explicitly when the partial result policy is CACHE.");
+        }
+        List<DataModel> dataModelList = getDataModelList();
+        int size = dataModelList.size();
+        List<Load> loads = new ArrayList<>(size);
+        long start = System.nanoTime();
+        for (int i = 0; i < size; i++) {
+            loads.add(submit(i, dataModelList.get(i), load));
+        }
+
+        DataSetComposite dataSetComposite = new DataSetComposite();
+        try {
+            for (int i = 0; i < size; i++) {
+                dataSetComposite.merge(await(i, loads.get(i), start));
+            }
+        } catch (RuntimeException e) {
+            loads.forEach(l -> l.future.cancel(true));
+            throw e;
+        }
+        return dataSetComposite;
+    }
+
+    private Load submit(int idx, DataModel model, boolean load) {
+        Load task = new Load(idx);
+        try {
+            task.future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    if (load) {
+                        model.loadDataModel();
+                    }
+                    DataSet dataSet = model.getDataset();
+                    task.record(System.nanoTime() - start, Metrics.Outcome.SUCCESS);
+                    if (dataSet != null && cache != null && policy == PartialResultPolicyEnum.CACHE) {
+                        // 缓存原始数据集，合并使用写时复制视图，后续处理不会修改缓存
+                        cache.put(cacheKey(idx), dataSet);
+                        return CopyOnWriteDataSet.of(dataSet);
+                    }
+                    return dataSet;
+                } catch (Throwable e) {
+                    task.record(System.nanoTime() - start, Metrics.Outcome.ERROR);
+                    throw e;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<DataSet> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            task.future = future;
+        }
+        return task;
+    }
+
+    private DataSet await(int idx, Load load, long start) {
+        // 所有子模型同时开始，共用同一个截止时间
+        long remaining = timeoutNanos - (System.nanoTime() - start);
+        try {
+            return load.future.get(Math.max(remaining, 0L), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // 先记录超时再取消，被中断的加载线程不会抢先记录为失败
+            load.record(System.nanoTime() - start, Metrics.Outcome.SLOW_ERROR);
+            load.future.cancel(true);
+            return fallback(idx, e);
+        } catch (ExecutionException e) {
+            return fallback(idx, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataException("Interrupted while loading data model " + idx, e);
+        }
+    }
+
+    private DataSet fallback(int idx, Throwable cause) {
+        switch (policy) {
+            case FAIL:
+                throw new DataException("Failed to load data model " + idx, cause);
+            case CACHE:
+                DataSet dataSet = cache == null ? null : cache.getIfPresent(cacheKey(idx));
+                if (dataSet != null) {
+                    logger.warn("Failed to load data model {}, use cached dataset.", idx, cause);
+                    return CopyOnWriteDataSet.of(dataSet);
+                }
+                logger.warn("Failed to load data model {} and no cached dataset, dropped.", idx, cause);
+                return null;
+            default:
+                logger.warn("Failed to load data model {}, dropped.", idx, cause);
+                return null;
+        }
+    }
+
+    private void record(int idx, long nanos, Metrics.Outcome outcome) {
+        if (metricsRegistry != null) {
+            metricsRegistry.metrics(metricsTag(idx), metricsWindowSize).record(nanos, TimeUnit.NANOSECONDS, outcome);
+        }
+    }
+
+    private String metricsTag(int idx) {
+        return (name == null ? getClass().getName() : name) + "#" + idx;
+    }
+
+    private String cacheKey(int idx) {
+        return name + "#" + idx;
+    }
+
+    /**
+     * 单个子模型的一次加载，超时与加载线程竞争时只记录先到的结果
+     */
+    private final class Load {
+
+        private final int idx;
+
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        private Future<DataSet> future;
+
+        private Load(int idx) {
+            this.idx = idx;
+        }
+
+        private void record(long nanos, Metrics.Outcome outcome) {
+            if (recorded.compareAndSet(false, true)) {
+                ParallelDataModelComposite.this.record(idx, nanos, outcome);
+            }
+        }
+    }
+}
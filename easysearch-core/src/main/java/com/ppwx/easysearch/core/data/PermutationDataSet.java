@@ -0,0 +1,554 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.ints.IntComparator;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+
+/**
+ *
+ * 下标排列数据集
+ * 基于一个不变的原始数据集，只维护行的排列顺序和删除标记，排序、去重、打散等处理器只需调整下标，
+ * 不再重复生成行数据和数据集，处理完成后通过{@link #materialize()}一次性生成结果
+ * <p/>
+ * {@link #rows()}返回的列表支持以本数据集中的行进行set，已有的基于行数据的处理逻辑可以直接使用
+ *
+ * @since 1.0.0
+ */
+public class PermutationDataSet implements DataSet {
+
+    /**
+     * 原始数据集
+     */
+    private final DataSet base;
+    /**
+     * 位置 -> 原始行下标
+     */
+    private int[] index;
+    /**
+     * 排列长度，包含尚未整理的删除行
+     */
+    private int length;
+    /**
+     * 删除标记，按原始行下标
+     */
+    private final BitSet deleted;
+    /**
+     * 是否存在尚未整理的删除行
+     */
+    private boolean dirty;
+    /**
+     * 原始行数据缓存
+     */
+    private transient Map<String, Column>[] rowCache;
+    /**
+     * 行数据 -> 原始行下标
+     */
+    private transient IdentityHashMap<Map<String, Column>, Integer> rowIndex;
+
+    public PermutationDataSet(DataSet base) {
+        if (base == null) {
+            throw new IllegalArgumentException("base can not be null.");
+        }
+        this.base = base;
+        this.length = base.size();
+        this.index = new int[length];
+        for (int i = 0; i < length; i++) {
+            index[i] = i;
+        }
+        this.deleted = new BitSet(length);
+    }
+
+    private PermutationDataSet(DataSet base, int[] index, int length, BitSet deleted) {
+        this.base = base;
+        this.index = index;
+        this.length = length;
+        this.deleted = deleted;
+        this.dirty = !deleted.isEmpty();
+    }
+
+    /**
+     * 原始数据集
+     *
+     * @return com.ppwx.easysearch.core.data.DataSet
+     */
+    public DataSet base() {
+        return base;
+    }
+
+    /**
+     * 当前位置对应的原始行下标
+     *
+     * @param idx
+     * @return int
+     */
+    public int baseIndex(int idx) {
+        compact();
+        checkIndex(idx);
+        return index[idx];
+    }
+
+    /**
+     * 当前排列，返回副本
+     *
+     * @return int[]
+     */
+    public int[] permutation() {
+        compact();
+        return Arrays.copyOf(index, length);
+    }
+
+    /**
+     * 原始行是否被删除
+     *
+     * @param baseRow
+     * @return boolean
+     */
+    public boolean isDeleted(int baseRow) {
+        return deleted.get(baseRow);
+    }
+
+    /**
+     * 删除指定位置的行，删除在下一次按位置访问时生效
+     *
+     * @param idx
+     * @return void
+     */
+    public void delete(int idx) {
+        if (idx < 0 || idx >= length) {
+            throw new IndexOutOfBoundsException(String.format("idx:%s, size:%s", idx, length));
+        }
+        deleted.set(index[idx]);
+        dirty = true;
+    }
+
+    /**
+     * 按当前顺序遍历并删除满足条件的行
+     *
+     * @param filter 参数为原始行下标
+     * @return int 删除数量
+     */
+    public int removeIf(IntPredicate filter) {
+        compact();
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            if (filter.test(index[i])) {
+                deleted.set(index[i]);
+                count++;
+            }
+        }
+        dirty = count > 0;
+        compact();
+        return count;
+    }
+
+    /**
+     * 稳定排序
+     *
+     * @param comparator 参数为原始行下标
+     * @return void
+     */
+    public void sort(IntComparator comparator) {
+        compact();
+        IntArrays.mergeSort(index, 0, length, comparator);
+    }
+
+    /**
+     * 交换两个位置的行
+     *
+     * @param i
+     * @param j
+     * @return void
+     */
+    public void swap(int i, int j) {
+        compact();
+        checkIndex(i);
+        checkIndex(j);
+        int temp = index[i];
+        index[i] = index[j];
+        index[j] = temp;
+    }
+
+    /**
+     * 按位置重排，未出现的位置视为删除
+     *
+     * @param positions 当前位置组成的新顺序
+     * @param size 数量
+     * @return void
+     */
+    public void reorder(int[] positions, int size) {
+        compact();
+        int[] newIndex = new int[size];
+        BitSet retained = new BitSet(length);
+        for (int i = 0; i < size; i++) {
+            checkIndex(positions[i]);
+            if (retained.get(positions[i])) {
+                throw new IllegalArgumentException("Duplicate position:" + positions[i]);
+            }
+            retained.set(positions[i]);
+            newIndex[i] = index[positions[i]];
+        }
+        for (int i = retained.nextClearBit(0); i < length; i = retained.nextClearBit(i + 1)) {
+            deleted.set(index[i]);
+        }
+        this.index = newIndex;
+        this.length = size;
+    }
+
+    /**
+     * 以行数据重置排列，行数据必须来自本数据集，未出现的行视为删除
+     * 供基于行数据的处理器回写结果
+     *
+     * @param rows
+     * @return void
+     */
+    public void reset(List<Map<String, Column>> rows) {
+        int[] newIndex = new int[rows.size()];
+        BitSet retained = new BitSet(base.size());
+        int i = 0;
+        for (Map<String, Column> row : rows) {
+            int baseRow = baseIndexOf(row);
+            if (baseRow < 0) {
+                throw new IllegalArgumentException("Row is not belong to this dataset.");
+            }
+            if (retained.get(baseRow)) {
+                throw new IllegalArgumentException("Duplicate row:" + baseRow);
+            }
+            retained.set(baseRow);
+            newIndex[i++] = baseRow;
+        }
+        deleted.set(0, base.size());
+        deleted.andNot(retained);
+        this.index = newIndex;
+        this.length = newIndex.length;
+        this.dirty = false;
+    }
+
+    /**
+     * 原始行的字段值
+     *
+     * @param baseRow
+     * @param field
+     * @return com.ppwx.easysearch.core.data.Column
+     */
+    public Column baseColumn(int baseRow, String field) {
+        if (base instanceof ColumnarDataSet) {
+            ColumnarDataSet columnar = (ColumnarDataSet) base;
+            int colIdx = columnar.columnIndex(field);
+            return colIdx < 0 ? null : columnar.vector(colIdx).get(baseRow);
+        }
+        Map<String, Column> row = baseRow(baseRow);
+        return row == null ? null : row.get(field);
+    }
+
+    /**
+     * 当前排列的行数据视图
+     * 支持get、set，set的元素必须是本数据集中的行，配合get可实现交换
+     *
+     * @return java.util.List<java.util.Map<java.lang.String,com.ppwx.easysearch.core.data.Column>>
+     */
+    public List<Map<String, Column>> rows() {
+        compact();
+        return new RowList();
+    }
+
+    /**
+     * 按当前排列生成数据集
+     * 排列未发生变化时直接返回原始数据集
+     *
+     * @return com.ppwx.easysearch.core.data.DataSet
+     */
+    public DataSet materialize() {
+        compact();
+        if (isIdentity()) {
+            return base;
+        }
+        if (base instanceof ColumnarDataSet) {
+            return ((ColumnarDataSet) base).select(index, length);
+        }
+        List<Map<String, Column>> data = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            data.add(baseRow(index[i]));
+        }
+        return new ListDataSet(base.idColumn(), new ArrayList<>(base.columnNames()), data);
+    }
+
+    @Override
+    public int size() {
+        compact();
+        return length;
+    }
+
+    @Override
+    public String idColumn() {
+        return base.idColumn();
+    }
+
+    @Override
+    public List<String> columnNames() {
+        return base.columnNames();
+    }
+
+    @Override
+    public Map<String, Column> row(int idx) {
+        return baseRow(baseIndex(idx));
+    }
+
+    @Override
+    public List<Column> column(int idx) {
+        List<String> columnNames = columnNames();
+        if (idx < 0 || idx >= columnNames.size()) {
+            return null;
+        }
+        return column(columnNames.get(idx));
+    }
+
+    @Override
+    public List<Column> column(String filed) {
+        compact();
+        List<Column> list = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            list.add(baseColumn(index[i], filed));
+        }
+        return list;
+    }
+
+    @Override
+    public Map<String, Column> find(Object id) {
+        compact();
+        String idColumn = idColumn();
+        Column column;
+        for (int i = 0; i < length; i++) {
+            column = baseColumn(index[i], idColumn);
+            if (column != null && Objects.equals(id, column.getRawData())) {
+                return baseRow(index[i]);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Map<Object, Map<String, Column>> findAll(Collection<?> ids) {
+        Map<Object, Map<String, Column>> result = new LinkedHashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return result;
+        }
+        // 一次遍历，保留当前顺序中第一个出现的行
+        Map<Object, Map<String, Column>> found = new HashMap<>();
+        Set<Object> remaining = new HashSet<>(ids);
+        compact();
+        String idColumn = idColumn();
+        Column column;
+        for (int i = 0; i < length && !remaining.isEmpty(); i++) {
+            column = baseColumn(index[i], idColumn);
+            if (column != null && remaining.remove(column.getRawData())) {
+                found.put(column.getRawData(), baseRow(index[i]));
+            }
+        }
+        for (Object id : ids) {
+            if (found.containsKey(id)) {
+                result.put(id, found.get(id));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Column set(int idx, String field, Column column) {
+        int baseRow = baseIndex(idx);
+        Map<String, Column> row = rowCache == null ? null : rowCache[baseRow];
+        if (row instanceof ColumnarRow) {
+            // 写穿到原始数据集
+            return row.put(field, column);
+        }
+        Column old = base.set(baseRow, field, column);
+        if (row != null) {
+            row.put(field, column);
+        }
+        return old;
+    }
+
+    @Override
+    public List<Map<String, Column>> all() {
+        compact();
+        List<Map<String, Column>> list = new LinkedList<>();
+        for (int i = 0; i < length; i++) {
+            list.add(baseRow(index[i]));
+        }
+        return list;
+    }
+
+    @Override
+    public Object clone() {
+        compact();
+        return new PermutationDataSet((DataSet) base.clone(), Arrays.copyOf(index, length), length,
+                (BitSet) deleted.clone());
+    }
+
+    /**
+     * 整理删除行
+     */
+    private void compact() {
+        if (!dirty) {
+            return;
+        }
+        int j = 0;
+        for (int i = 0; i < length; i++) {
+            if (!deleted.get(index[i])) {
+                index[j++] = index[i];
+            }
+        }
+        length = j;
+        dirty = false;
+    }
+
+    private boolean isIdentity() {
+        if (length != base.size()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (index[i] != i) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Map<String, Column> baseRow(int baseRow) {
+        if (rowCache == null) {
+            rowCache = newRows(base.size());
+            if (!(base instanceof ColumnarDataSet)) {
+                // 非列式数据集一次性读取，避免链表结构按下标访问
+                int i = 0;
+                for (Map<String, Column> row : base.all()) {
+                    rowCache[i++] = row;
+                }
+            }
+        }
+        Map<String, Column> row = rowCache[baseRow];
+        if (row == null) {
+            row = base.row(baseRow);
+            if (row != null && base instanceof ColumnarDataSet) {
+                row = new ColumnarRow(baseRow, row);
+            }
+            rowCache[baseRow] = row;
+            if (rowIndex != null && row != null) {
+                rowIndex.putIfAbsent(row, baseRow);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * 泛型数组无法直接创建，数组只在本类内部读写，元素均为行数据
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map<String, Column>[] newRows(int size) {
+        return new Map[size];
+    }
+
+    private int baseIndexOf(Map<String, Column> row) {
+        if (rowIndex == null) {
+            rowIndex = new IdentityHashMap<>(base.size());
+            if (rowCache != null) {
+                for (int i = 0; i < rowCache.length; i++) {
+                    if (rowCache[i] != null) {
+                        rowIndex.putIfAbsent(rowCache[i], i);
+                    }
+                }
+            }
+        }
+        Integer baseRow = rowIndex.get(row);
+        return baseRow == null ? -1 : baseRow;
+    }
+
+    private void checkIndex(int idx) {
+        if (idx < 0 || idx >= length) {
+            throw new IndexOutOfBoundsException(String.format("idx:%s, size:%s", idx, length));
+        }
+    }
+
+    /**
+     * 排列的行视图
+     */
+    private final class RowList extends AbstractList<Map<String, Column>> implements RandomAccess {
+
+        @Override
+        public Map<String, Column> get(int idx) {
+            return row(idx);
+        }
+
+        @Override
+        public Map<String, Column> set(int idx, Map<String, Column> element) {
+            int baseRow = baseIndexOf(element);
+            if (baseRow < 0) {
+                throw new IllegalArgumentException("Row is not belong to this dataset.");
+            }
+            Map<String, Column> old = row(idx);
+            index[idx] = baseRow;
+            return old;
+        }
+
+        @Override
+        public int size() {
+            return PermutationDataSet.this.size();
+        }
+    }
+
+    /**
+     * 列式原始数据集的行数据，put、putAll、remove写穿到原始数据集，
+     * 保证{@link #materialize()}按列选择时不丢失对行的修改
+     * <p/>
+     * 通过entrySet修改不会写穿
+     */
+    private final class ColumnarRow extends HashMap<String, Column> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int baseRow;
+
+        ColumnarRow(int baseRow, Map<String, Column> row) {
+            super(row);
+            this.baseRow = baseRow;
+        }
+
+        @Override
+        public Column put(String key, Column value) {
+            base.set(baseRow, key, value);
+            return super.put(key, value);
+        }
+
+        @Override
+        public void putAll(Map<? extends String, ? extends Column> m) {
+            for (Map.Entry<? extends String, ? extends Column> entry : m.entrySet()) {
+                put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        @Override
+        public Column remove(Object key) {
+            if (!containsKey(key)) {
+                return null;
+            }
+            base.set(baseRow, (String) key, null);
+            return super.remove(key);
+        }
+    }
+}
@@ -50,6 +50,10 @@ public class TableDataSet implements DataSet, Serializable {
      * 属性下标
      */
     private Map<String, Integer> colIdxMap;
+    /**
+     * id -> 行下标，首次查找时创建，修改id字段时失效
+     */
+    private transient Map<Object, Integer> idIndex;
 
     public TableDataSet(List<String> columnNames, Table<Integer, Integer, Column> table) {
         this(GLOBAL_ID, columnNames, table);
@@ -120,9 +124,25 @@ public class TableDataSet implements DataSet, Serializable {
 
     @Override
     public Map<String, Column> find(Object id) {
-        Optional<Map.Entry<Integer, Column>> first = table.column(colIdxMap.get(idColumn)).entrySet().stream()
-                .filter(entry -> Objects.equals(entry.getValue().getRawData(), id)).findFirst();
-        return first.map(integerColumnEntry -> row(integerColumnEntry.getKey())).orElse(null);
+        Integer rowId = idIndex().get(id);
+        return rowId == null ? null : row(rowId);
+    }
+
+    @Override
+    public Map<Object, Map<String, Column>> findAll(Collection<?> ids) {
+        Map<Object, Map<String, Column>> result = new LinkedHashMap<>();
+        if (ids == null) {
+            return result;
+        }
+        Map<Object, Integer> idIndex = idIndex();
+        Integer rowId;
+        for (Object id : ids) {
+            rowId = idIndex.get(id);
+            if (rowId != null) {
+                result.put(id, row(rowId));
+            }
+        }
+        return result;
     }
 
     @Override
@@ -135,6 +155,9 @@ public class TableDataSet implements DataSet, Serializable {
         }
         Map<Integer, Column> row = table.row(idx);
         Integer colIdx = colIdxMap.get(field);
+        if (Objects.equals(idColumn, field)) {
+            this.idIndex = null;
+        }
         return row.put(colIdx, column);
     }
 
@@ -159,6 +182,25 @@ public class TableDataSet implements DataSet, Serializable {
         return new TableDataSet(idColumn, columnNames, table);
     }
 
+    private Map<Object, Integer> idIndex() {
+        Map<Object, Integer> idIndex = this.idIndex;
+        if (idIndex == null) {
+            Integer colIdx = colIdxMap.get(idColumn);
+            if (colIdx == null) {
+                return Collections.emptyMap();
+            }
+            Map<Integer, Column> column = table.column(colIdx);
+            idIndex = new HashMap<>(Math.max((int) (column.size() / .75f) + 1, 16));
+            for (Map.Entry<Integer, Column> entry : column.entrySet()) {
+                if (entry.getValue() != null) {
+                    idIndex.putIfAbsent(entry.getValue().getRawData(), entry.getKey());
+                }
+            }
+            this.idIndex = idIndex;
+        }
+        return idIndex;
+    }
+
     public List<String> getColumnNames() {
         return columnNames;
     }
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data.codec;
+
+import com.alibaba.fastjson.JSON;
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.ColumnarDataSet;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.element.*;
+import com.ppwx.easysearch.core.data.vector.*;
+import io.protostuff.LinkedBuffer;
+import io.protostuff.ProtostuffIOUtil;
+import io.protostuff.Schema;
+import io.protostuff.runtime.RuntimeSchema;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ *
+ * 数据集的二进制列式编码
+ * 数值列按原生数组连续存放，字符串列使用字典编码，其余字段逐个编码，
+ * 配合{@link OffHeapDataSet}可以直接在堆外内存上按单元格读取，不需要整体反序列化
+ * <p/>
+ * 格式：头部（魔数、版本、行数、id字段、列目录），之后为各列数据；整数均为大端序
+ *
+ * @since 1.0.0
+ */
+public final class ColumnarCodec {
+
+    static final int MAGIC = 0x45534344;
+
+    static final byte VERSION = 1;
+    /**
+     * 列类型
+     */
+    static final byte TYPE_LONG = 1;
+    static final byte TYPE_DOUBLE = 2;
+    static final byte TYPE_SCORE = 3;
+    static final byte TYPE_DICTIONARY = 4;
+    static final byte TYPE_OBJECT = 5;
+    /**
+     * 对象列中的字段类型
+     */
+    static final byte TAG_NULL = 0;
+    static final byte TAG_STRING = 1;
+    static final byte TAG_LONG = 2;
+    static final byte TAG_DOUBLE = 3;
+    static final byte TAG_BOOL = 4;
+    static final byte TAG_BYTES = 5;
+    static final byte TAG_DATE = 6;
+    static final byte TAG_JSON = 7;
+    static final byte TAG_OTHER = 8;
+
+    private static final Schema<ColumnHolder> HOLDER_SCHEMA = RuntimeSchema.getSchema(ColumnHolder.class);
+
+    private ColumnarCodec() {
+    }
+
+    /**
+     * 编码，非列式数据集先转换为{@link ColumnarDataSet}
+     *
+     * @param dataSet
+     * @return byte[]
+     */
+    public static byte[] encode(DataSet dataSet) {
+        ColumnarDataSet columnar = ColumnarDataSet.of(dataSet);
+        List<String> columnNames = columnar.columnNames();
+        int rows = columnar.size();
+        int columns = columnNames.size();
+        try {
+            byte[][] bodies = new byte[columns][];
+            byte[] types = new byte[columns];
+            for (int i = 0; i < columns; i++) {
+                ColumnVector vector = columnar.vector(i);
+                ByteArrayOutputStream bos = new ByteArrayOutputStream(rows * 8 + 16);
+                DataOutputStream out = new DataOutputStream(bos);
+                types[i] = encodeVector(vector, rows, out);
+                out.flush();
+                bodies[i] = bos.toByteArray();
+            }
+
+            ByteArrayOutputStream header = new ByteArrayOutputStream(64 + columns * 32);
+            DataOutputStream out = new DataOutputStream(header);
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(rows);
+            writeString(out, columnar.idColumn());
+            out.writeInt(columns);
+            byte[][] names = new byte[columns][];
+            int headerSize = header.size();
+            for (int i = 0; i < columns; i++) {
+                names[i] = columnNames.get(i).getBytes(StandardCharsets.UTF_8);
+                // 名称、类型、偏移、长度
+                headerSize += 4 + names[i].length + 1 + 4 + 4;
+            }
+            int offset = headerSize;
+            for (int i = 0; i < columns; i++) {
+                out.writeInt(names[i].length);
+                out.write(names[i]);
+                out.writeByte(types[i]);
+                out.writeInt(offset);
+                out.writeInt(bodies[i].length);
+                offset += bodies[i].length;
+            }
+            for (byte[] body : bodies) {
+                out.write(body);
+            }
+            out.flush();
+            return header.toByteArray();
+        } catch (IOException e) {
+            throw new DataCopyException("dataset encode failed.", e);
+        }
+    }
+
+    /**
+     * 解码为堆外数据集视图，不复制数据
+     *
+     * @param buffer 编码后的数据，position到limit为一个完整的数据集
+     * @return com.ppwx.easysearch.core.data.codec.OffHeapDataSet
+     */
+    public static OffHeapDataSet decode(ByteBuffer buffer) {
+        return new OffHeapDataSet(buffer.slice());
+    }
+
+    private static byte encodeVector(ColumnVector vector, int rows, DataOutputStream out) throws IOException {
+        if (vector instanceof LongColumnVector) {
+            writeNulls(vector, rows, out);
+            for (int i = 0; i < rows; i++) {
+                out.writeLong(vector.isNull(i) ? 0L : vector.getLong(i));
+            }
+            return TYPE_LONG;
+        }
+        if (vector instanceof DoubleColumnVector) {
+            writeNulls(vector, rows, out);
+            for (int i = 0; i < rows; i++) {
+                out.writeDouble(vector.isNull(i) ? 0D : vector.getDouble(i));
+            }
+            return ((DoubleColumnVector) vector).isCoerceLong() ? TYPE_SCORE : TYPE_DOUBLE;
+        }
+        if (vector instanceof DictionaryColumnVector) {
+            // 字典大小、字符串偏移、字符串数据、编码
+            DictionaryColumnVector dictionary = (DictionaryColumnVector) vector;
+            int dictionarySize = dictionary.dictionarySize();
+            byte[][] values = new byte[dictionarySize][];
+            out.writeInt(dictionarySize);
+            int offset = 0;
+            for (int i = 0; i < dictionarySize; i++) {
+                values[i] = dictionary.dictionaryValue(i).getBytes(StandardCharsets.UTF_8);
+                out.writeInt(offset);
+                offset += values[i].length;
+            }
+            out.writeInt(offset);
+            for (byte[] value : values) {
+                out.write(value);
+            }
+            for (int i = 0; i < rows; i++) {
+                out.writeInt(dictionary.code(i));
+            }
+            return TYPE_DICTIONARY;
+        }
+        // 行偏移、数据
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(rows * 16);
+        DataOutputStream data = new DataOutputStream(bos);
+        for (int i = 0; i < rows; i++) {
+            out.writeInt(data.size());
+            writeColumn(data, vector.get(i));
+        }
+        out.writeInt(data.size());
+        data.flush();
+        bos.writeTo(out);
+        return TYPE_OBJECT;
+    }
+
+    private static void writeNulls(ColumnVector vector, int rows, DataOutputStream out) throws IOException {
+        int words = (rows + 63) >>> 6;
+        long[] bits = new long[words];
+        for (int i = 0; i < rows; i++) {
+            if (vector.isNull(i)) {
+                bits[i >>> 6] |= 1L << i;
+            }
+        }
+        for (long word : bits) {
+            out.writeLong(word);
+        }
+    }
+
+    private static void writeColumn(DataOutputStream out, Column column) throws IOException {
+        if (column == null) {
+            out.writeByte(TAG_NULL);
+            return;
+        }
+        Class<?> clazz = column.getClass();
+        Object raw = column.getRawData();
+        if (clazz == StringColumn.class) {
+            out.writeByte(TAG_STRING);
+            writeString(out, (String) raw);
+        } else if (clazz == LongColumn.class) {
+            out.writeByte(TAG_LONG);
+            writeBytes(out, raw == null ? null : ((BigInteger) raw).toByteArray());
+        } else if (clazz == DoubleColumn.class) {
+            out.writeByte(TAG_DOUBLE);
+            writeString(out, (String) raw);
+        } else if (clazz == BoolColumn.class) {
+            out.writeByte(TAG_BOOL);
+            out.writeByte(raw == null ? -1 : ((Boolean) raw ? 1 : 0));
+        } else if (clazz == BytesColumn.class) {
+            out.writeByte(TAG_BYTES);
+            writeBytes(out, (byte[]) raw);
+        } else if (clazz == DateColumn.class) {
+            DateColumn date = (DateColumn) column;
+            out.writeByte(TAG_DATE);
+            out.writeBoolean(raw != null);
+            out.writeLong(raw == null ? 0L : (Long) raw);
+            out.writeByte(date.getSubType().ordinal());
+            out.writeInt((int) date.getNanos());
+            out.writeInt(date.getPrecision());
+        } else if (clazz == JsonColumn.class) {
+            out.writeByte(TAG_JSON);
+            writeString(out, raw == null ? null : JSON.toJSONString(raw));
+        } else {
+            // 其他类型使用protostuff
+            out.writeByte(TAG_OTHER);
+            LinkedBuffer buffer = LinkedBuffer.allocate(256);
+            try {
+                writeBytes(out, ProtostuffIOUtil.toByteArray(new ColumnHolder(column), HOLDER_SCHEMA, buffer));
+            } finally {
+                buffer.clear();
+            }
+        }
+    }
+
+    static Column readColumn(ByteBuffer buffer, int pos) {
+        byte tag = buffer.get(pos++);
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return new StringColumn(readString(buffer, pos));
+            case TAG_LONG:
+                byte[] bytes = readBytes(buffer, pos);
+                return new LongColumn(bytes == null ? null : new BigInteger(bytes));
+            case TAG_DOUBLE:
+                return new DoubleColumn(readString(buffer, pos));
+            case TAG_BOOL:
+                byte bool = buffer.get(pos);
+                return new BoolColumn(bool < 0 ? null : bool == 1);
+            case TAG_BYTES:
+                return new BytesColumn(readBytes(buffer, pos));
+            case TAG_DATE:
+                boolean present = buffer.get(pos) != 0;
+                DateColumn date = new DateColumn(present ? buffer.getLong(pos + 1) : null);
+                date.setSubType(DateColumn.DateType.values()[buffer.get(pos + 9)]);
+                date.setNanos(buffer.getInt(pos + 10));
+                date.setPrecision(buffer.getInt(pos + 14));
+                return date;
+            case TAG_JSON:
+                String json = readString(buffer, pos);
+                return new JsonColumn(json == null ? null : (JSON) JSON.parse(json));
+            case TAG_OTHER:
+                ColumnHolder holder = HOLDER_SCHEMA.newMessage();
+                ProtostuffIOUtil.mergeFrom(readBytes(buffer, pos), holder, HOLDER_SCHEMA);
+                return holder.column;
+            default:
+                throw new DataCopyException("Unknown column tag:" + tag);
+        }
+    }
+
+    static String readString(ByteBuffer buffer, int pos) {
+        byte[] bytes = readBytes(buffer, pos);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static String readString(ByteBuffer buffer, int pos, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer src = buffer.duplicate();
+        src.position(pos);
+        src.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer, int pos) {
+        int length = buffer.getInt(pos);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer src = buffer.duplicate();
+        src.position(pos + 4);
+        src.get(bytes);
+        return bytes;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        if (bytes == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * protostuff需要具体的消息类型，通过holder保存多态的字段
+     */
+    static final class ColumnHolder {
+
+        private Column column;
+
+        ColumnHolder() {
+        }
+
+        ColumnHolder(Column column) {
+            this.column = column;
+        }
+    }
+}
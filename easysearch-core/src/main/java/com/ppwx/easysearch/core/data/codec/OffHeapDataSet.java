@@ -0,0 +1,439 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data.codec;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.ColumnarDataSet;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.element.ColumnFactory;
+import com.ppwx.easysearch.core.data.element.DoubleColumn;
+import com.ppwx.easysearch.core.data.element.LongColumn;
+import com.ppwx.easysearch.core.data.element.StringColumn;
+import com.ppwx.easysearch.core.data.vector.*;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static com.ppwx.easysearch.core.data.codec.ColumnarCodec.*;
+
+/**
+ *
+ * 堆外数据集
+ * 直接在{@link ColumnarCodec}编码的数据上按单元格读取，只在访问时生成{@link Column}，字典在首次访问该列时解码；
+ * 数据集只读，修改请通过{@link com.ppwx.easysearch.core.data.CopyOnWriteDataSet}或{@link #clone()}
+ *
+ * @since 1.0.0
+ */
+public class OffHeapDataSet implements DataSet {
+
+    /**
+     * 编码数据，只读
+     */
+    private final transient ByteBuffer buffer;
+
+    private final int size;
+
+    private final String idColumn;
+
+    private final List<String> columnNames;
+
+    private final Object2IntOpenHashMap<String> colIdxMap;
+
+    private final byte[] types;
+    /**
+     * 列数据的起始位置
+     */
+    private final int[] offsets;
+    /**
+     * 字典列解码后的字典
+     */
+    private final transient String[][] dictionaries;
+    /**
+     * id -> 行下标，首次查找时创建
+     */
+    private transient Object2IntOpenHashMap<Object> idIndex;
+
+    OffHeapDataSet(ByteBuffer buffer) {
+        this.buffer = buffer.asReadOnlyBuffer();
+        if (buffer.getInt(0) != MAGIC) {
+            throw new DataCopyException("Malformed dataset buffer.");
+        }
+        if (buffer.get(4) != VERSION) {
+            throw new DataCopyException("Unsupported dataset version:" + buffer.get(4));
+        }
+        this.size = buffer.getInt(5);
+        int pos = 9;
+        int length = buffer.getInt(pos);
+        this.idColumn = length < 0 ? null : readString(buffer, pos + 4, length);
+        pos += 4 + Math.max(length, 0);
+        int columns = buffer.getInt(pos);
+        pos += 4;
+        this.columnNames = new ArrayList<>(columns);
+        this.colIdxMap = new Object2IntOpenHashMap<>(columns);
+        this.colIdxMap.defaultReturnValue(-1);
+        this.types = new byte[columns];
+        this.offsets = new int[columns];
+        this.dictionaries = new String[columns][];
+        for (int i = 0; i < columns; i++) {
+            length = buffer.getInt(pos);
+            String name = readString(buffer, pos + 4, length);
+            pos += 4 + length;
+            columnNames.add(name);
+            colIdxMap.put(name, i);
+            types[i] = buffer.get(pos);
+            offsets[i] = buffer.getInt(pos + 1);
+            // 跳过类型、偏移、长度
+            pos += 9;
+        }
+    }
+
+    /**
+     * 字段下标，不存在返回-1
+     *
+     * @param field
+     * @return int
+     */
+    public int columnIndex(String field) {
+        return colIdxMap.getInt(field);
+    }
+
+    /**
+     * 单元格是否为空
+     *
+     * @param row
+     * @param col
+     * @return boolean
+     */
+    public boolean isNull(int row, int col) {
+        checkIndex(row);
+        switch (types[col]) {
+            case TYPE_LONG:
+            case TYPE_DOUBLE:
+            case TYPE_SCORE:
+                return (buffer.getLong(offsets[col] + ((row >>> 6) << 3)) & (1L << row)) != 0;
+            case TYPE_DICTIONARY:
+                return code(row, col) == DictionaryColumnVector.NULL_CODE;
+            default:
+                Column column = objectAt(row, col);
+                return column == null || column.getRawData() == null;
+        }
+    }
+
+    /**
+     * 直接读取double值，空值返回0
+     *
+     * @param row
+     * @param col
+     * @return double
+     */
+    public double getDouble(int row, int col) {
+        checkIndex(row);
+        switch (types[col]) {
+            case TYPE_DOUBLE:
+            case TYPE_SCORE:
+                return buffer.getDouble(valuesOffset(col) + (row << 3));
+            case TYPE_LONG:
+                return buffer.getLong(valuesOffset(col) + (row << 3));
+            default:
+                Column column = get(row, col);
+                Double value = column == null ? null : column.asDouble();
+                return value == null ? 0D : value;
+        }
+    }
+
+    /**
+     * 直接读取long值，空值返回0
+     *
+     * @param row
+     * @param col
+     * @return long
+     */
+    public long getLong(int row, int col) {
+        checkIndex(row);
+        switch (types[col]) {
+            case TYPE_LONG:
+                return buffer.getLong(valuesOffset(col) + (row << 3));
+            case TYPE_DOUBLE:
+            case TYPE_SCORE:
+                return (long) buffer.getDouble(valuesOffset(col) + (row << 3));
+            default:
+                Column column = get(row, col);
+                Long value = column == null ? null : column.asLong();
+                return value == null ? 0L : value;
+        }
+    }
+
+    /**
+     * 读取字符串
+     *
+     * @param row
+     * @param col
+     * @return java.lang.String
+     */
+    public String getString(int row, int col) {
+        checkIndex(row);
+        if (types[col] == TYPE_DICTIONARY) {
+            int code = code(row, col);
+            return code == DictionaryColumnVector.NULL_CODE ? null : dictionary(col)[code];
+        }
+        Column column = get(row, col);
+        return column == null ? null : column.asString();
+    }
+
+    /**
+     * 读取单元格
+     *
+     * @param row
+     * @param col
+     * @return com.ppwx.easysearch.core.data.Column
+     */
+    public Column get(int row, int col) {
+        checkIndex(row);
+        switch (types[col]) {
+            case TYPE_LONG:
+                return isNull(row, col) ? ColumnFactory.createLong(null) : new LongColumn(getLong(row, col));
+            case TYPE_DOUBLE:
+            case TYPE_SCORE:
+                if (isNull(row, col)) {
+                    return ColumnFactory.createDouble(null);
+                }
+                double value = getDouble(row, col);
+                if (Double.isNaN(value) || Double.isInfinite(value)) {
+                    return new DoubleColumn(String.valueOf(value));
+                }
+                return new DoubleColumn(value);
+            case TYPE_DICTIONARY:
+                String string = getString(row, col);
+                return string == null ? ColumnFactory.createString(null) : new StringColumn(string);
+            default:
+                return objectAt(row, col);
+        }
+    }
+
+    /**
+     * 解码为堆上的列式数据集
+     *
+     * @return com.ppwx.easysearch.core.data.ColumnarDataSet
+     */
+    public ColumnarDataSet toColumnar() {
+        ColumnVector[] vectors = new ColumnVector[types.length];
+        for (int col = 0; col < types.length; col++) {
+            vectors[col] = decodeVector(col);
+        }
+        return new ColumnarDataSet(idColumn, columnNames, vectors);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String idColumn() {
+        return idColumn;
+    }
+
+    @Override
+    public List<String> columnNames() {
+        return Collections.unmodifiableList(columnNames);
+    }
+
+    @Override
+    public Map<String, Column> row(int idx) {
+        checkIndex(idx);
+        Map<String, Column> row = new HashMap<>(types.length * 2);
+        for (int i = 0; i < types.length; i++) {
+            row.put(columnNames.get(i), get(idx, i));
+        }
+        return row;
+    }
+
+    @Override
+    public List<Column> column(int idx) {
+        if (idx < 0 || idx >= types.length) {
+            return null;
+        }
+        List<Column> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(get(i, idx));
+        }
+        return list;
+    }
+
+    @Override
+    public List<Column> column(String filed) {
+        return column(columnIndex(filed));
+    }
+
+    @Override
+    public Map<String, Column> find(Object id) {
+        int row = indexOf(id);
+        return row < 0 ? null : row(row);
+    }
+
+    @Override
+    public Map<Object, Map<String, Column>> findAll(Collection<?> ids) {
+        Map<Object, Map<String, Column>> result = new LinkedHashMap<>();
+        if (ids == null) {
+            return result;
+        }
+        int row;
+        for (Object id : ids) {
+            row = indexOf(id);
+            if (row >= 0) {
+                result.put(id, row(row));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Column set(int idx, String field, Column column) {
+        throw new UnsupportedOperationException("OffHeapDataSet is read-only.");
+    }
+
+    @Override
+    public List<Map<String, Column>> all() {
+        List<Map<String, Column>> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(row(i));
+        }
+        return list;
+    }
+
+    @Override
+    public Object clone() {
+        return toColumnar();
+    }
+
+    /**
+     * 序列化时转换为堆上的列式数据集
+     */
+    private Object writeReplace() {
+        return toColumnar();
+    }
+
+    private int indexOf(Object id) {
+        Object2IntOpenHashMap<Object> idIndex = this.idIndex;
+        if (idIndex == null) {
+            idIndex = new Object2IntOpenHashMap<>(size);
+            idIndex.defaultReturnValue(-1);
+            int col = columnIndex(idColumn);
+            if (col >= 0) {
+                Column column;
+                for (int i = 0; i < size; i++) {
+                    if (types[col] == TYPE_DICTIONARY) {
+                        String value = getString(i, col);
+                        if (value != null) {
+                            idIndex.putIfAbsent(value, i);
+                        }
+                    } else {
+                        column = get(i, col);
+                        if (column != null && column.getRawData() != null) {
+                            idIndex.putIfAbsent(column.getRawData(), i);
+                        }
+                    }
+                }
+            }
+            this.idIndex = idIndex;
+        }
+        return idIndex.getInt(id);
+    }
+
+    private ColumnVector decodeVector(int col) {
+        switch (types[col]) {
+            case TYPE_LONG:
+                LongColumnVector longs = new LongColumnVector(size);
+                for (int i = 0; i < size; i++) {
+                    if (isNull(i, col)) {
+                        longs.appendNull();
+                    } else {
+                        longs.appendLong(getLong(i, col));
+                    }
+                }
+                return longs;
+            case TYPE_DOUBLE:
+            case TYPE_SCORE:
+                DoubleColumnVector doubles = new DoubleColumnVector(size, types[col] == TYPE_SCORE);
+                for (int i = 0; i < size; i++) {
+                    if (isNull(i, col)) {
+                        doubles.appendNull();
+                    } else {
+                        doubles.appendDouble(getDouble(i, col));
+                    }
+                }
+                return doubles;
+            case TYPE_DICTIONARY:
+                DictionaryColumnVector strings = new DictionaryColumnVector(size);
+                for (int i = 0; i < size; i++) {
+                    strings.appendString(getString(i, col));
+                }
+                return strings;
+            default:
+                ObjectColumnVector objects = new ObjectColumnVector(size);
+                for (int i = 0; i < size; i++) {
+                    objects.append(objectAt(i, col));
+                }
+                return objects;
+        }
+    }
+
+    /**
+     * 数值列的数据起始位置，位于空值标记之后
+     */
+    private int valuesOffset(int col) {
+        return offsets[col] + (((size + 63) >>> 6) << 3);
+    }
+
+    private int code(int row, int col) {
+        int dictionarySize = buffer.getInt(offsets[col]);
+        int bytesStart = offsets[col] + 4 + (dictionarySize + 1) * 4;
+        int bytesLength = buffer.getInt(bytesStart - 4);
+        return buffer.getInt(bytesStart + bytesLength + (row << 2));
+    }
+
+    private String[] dictionary(int col) {
+        String[] dictionary = dictionaries[col];
+        if (dictionary == null) {
+            int offset = offsets[col];
+            int dictionarySize = buffer.getInt(offset);
+            int bytesStart = offset + 4 + (dictionarySize + 1) * 4;
+            dictionary = new String[dictionarySize];
+            int start;
+            int end;
+            for (int i = 0; i < dictionarySize; i++) {
+                start = buffer.getInt(offset + 4 + i * 4);
+                end = buffer.getInt(offset + 4 + (i + 1) * 4);
+                dictionary[i] = readString(buffer, bytesStart + start, end - start);
+            }
+            dictionaries[col] = dictionary;
+        }
+        return dictionary;
+    }
+
+    private Column objectAt(int row, int col) {
+        int dataStart = offsets[col] + (size + 1) * 4;
+        return readColumn(buffer, dataStart + buffer.getInt(offsets[col] + (row << 2)));
+    }
+
+    private void checkIndex(int idx) {
+        if (idx < 0 || idx >= size) {
+            throw new IndexOutOfBoundsException(String.format("idx:%s, size:%s", idx, size));
+        }
+    }
+}
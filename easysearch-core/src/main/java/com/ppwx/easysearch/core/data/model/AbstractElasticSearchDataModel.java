@@ -16,16 +16,29 @@
 
 package com.ppwx.easysearch.core.data.model;
 
+import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.util.TypeUtils;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.ppwx.easysearch.core.common.DataException;
 import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.ColumnarDataSet;
 import com.ppwx.easysearch.core.data.DataSet;
 import com.ppwx.easysearch.core.data.ListDataSet;
 import com.ppwx.easysearch.core.data.element.*;
+import com.ppwx.easysearch.core.data.vector.*;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import org.apache.commons.lang3.StringUtils;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.CollectionUtils;
@@ -43,6 +56,7 @@ import static com.ppwx.easysearch.core.data.model.Key.*;
  * 该抽象类实现了索引配置解析，子类通过实现doQuery方法进行实际的调用
  * mapping和实际返回字段最好吻合统一，避免出现类型转换出错
  * 默认会在字段添加字段：GLOBAL_ID, GLOBAL_SCORE, GLOBAL_STAINING, GLOBAL_SCORE_DETAIL
+ * 开启{@link #setColumnar(boolean)}后，按mapping流式解析_source，只读取映射字段并直接写入列式数据集
  *
  * @since 1.0.0
  */
@@ -55,6 +69,13 @@ public abstract class AbstractElasticSearchDataModel extends AbstractDataModel {
     private static final String DEFAULT_ID_COL = "_id";
 
     private static final String DEFAULT_SCORE_COL = "_score";
+    /**
+     * 字段读取方式
+     */
+    private static final int READ_LONG = 1;
+    private static final int READ_DOUBLE = 2;
+    private static final int READ_STRING = 3;
+    private static final int READ_OBJECT = 4;
     /**
      * 默认id字段
      */
@@ -64,6 +85,10 @@ public abstract class AbstractElasticSearchDataModel extends AbstractDataModel {
      * 字段类型
      */
     protected Map<String, ElasticSearchFieldType> mappingTypes;
+    /**
+     * 是否使用列式解析
+     */
+    private boolean columnar;
     /**
      * 构造函数
      *
@@ -92,6 +117,43 @@ public abstract class AbstractElasticSearchDataModel extends AbstractDataModel {
         this.idCol = idCol;
     }
 
+    public boolean isColumnar() {
+        return columnar;
+    }
+
+    /**
+     * 开启后不再构建JSONObject和行Map，结果为{@link ColumnarDataSet}，
+     * 此时{@link #postProcess(ColumnarDataSet)}代替行式的postProcess生效
+     *
+     * @param columnar
+     * @return void
+     */
+    public void setColumnar(boolean columnar) {
+        this.columnar = columnar;
+    }
+
+    /**
+     * 按mapping设置_source过滤，只返回需要的字段，子类在doQuery中构建请求时调用
+     * 已显式设置过fetchSource的请求保持不变
+     *
+     * @param sourceBuilder
+     * @return org.elasticsearch.search.builder.SearchSourceBuilder
+     */
+    protected SearchSourceBuilder applySourceFilter(SearchSourceBuilder sourceBuilder) {
+        if (sourceBuilder == null || sourceBuilder.fetchSource() != null) {
+            return sourceBuilder;
+        }
+        if (CollectionUtils.isEmpty(this.mappingTypes)) {
+            // 没有映射字段时不需要_source
+            return sourceBuilder.fetchSource(false);
+        }
+        List<String> includes = Lists.newArrayList(mappingTypes.keySet());
+        if (!StringUtils.equals(idCol, DEFAULT_ID_COL) && !includes.contains(idCol)) {
+            includes.add(idCol);
+        }
+        return sourceBuilder.fetchSource(includes.toArray(new String[0]), null);
+    }
+
     @Override
     public void loadDataModel() {
         if (this.mappingTypes == null) {
@@ -114,6 +176,13 @@ public abstract class AbstractElasticSearchDataModel extends AbstractDataModel {
 
     @Override
     public DataSet getDataset() {
+        if (dataSet == null && columnar) {
+            try {
+                this.dataSet = postProcess(decodeHits(doQuery()));
+            } catch (Throwable throwable) {
+                throw new DataException(throwable);
+            }
+        }
         if (dataSet == null) {
             List<String> columnNames = Lists.newArrayList(GLOBAL_ID, GLOBAL_SCORE, GLOBAL_STAINING, GLOBAL_SCORE_DETAIL);
             if (this.mappingTypes != null) {
@@ -167,6 +236,228 @@ public abstract class AbstractElasticSearchDataModel extends AbstractDataModel {
         return new ListDataSet(columnNames, data);
     }
 
+    protected DataSet postProcess(ColumnarDataSet dataSet) {
+        return dataSet;
+    }
+
+    /**
+     * 列式解析
+     * 字段的读取方式只解析一次，_source按token流式读取，未映射的字段直接跳过
+     *
+     * @param hits
+     * @return com.ppwx.easysearch.core.data.ColumnarDataSet
+     * @throws IOException
+     */
+    protected ColumnarDataSet decodeHits(SearchHits hits) throws IOException {
+        SearchHit[] array = hits == null ? new SearchHit[0] : hits.getHits();
+        int capacity = array.length;
+        List<String> columnNames = Lists.newArrayList(GLOBAL_ID, GLOBAL_SCORE, GLOBAL_STAINING, GLOBAL_SCORE_DETAIL);
+        int fieldCount = CollectionUtils.isEmpty(this.mappingTypes) ? 0 : mappingTypes.size();
+        String[] fields = new String[fieldCount];
+        ElasticSearchFieldType[] types = new ElasticSearchFieldType[fieldCount];
+        int[] readers = new int[fieldCount];
+        ColumnVector[] vectors = new ColumnVector[4 + fieldCount];
+        Object2IntOpenHashMap<String> fieldIndex = new Object2IntOpenHashMap<>(fieldCount);
+        fieldIndex.defaultReturnValue(-1);
+        int i = 0;
+        if (fieldCount > 0) {
+            for (Map.Entry<String, ElasticSearchFieldType> entry : mappingTypes.entrySet()) {
+                if (entry.getValue() == null) {
+                    throw new DataException(String.format("Type error: null type for column %s", entry.getKey()));
+                }
+                fields[i] = entry.getKey();
+                types[i] = entry.getValue();
+                readers[i] = resolveReader(types[i]);
+                vectors[4 + i] = createVector(readers[i], capacity);
+                fieldIndex.put(fields[i], i);
+                columnNames.add(fields[i]);
+                i++;
+            }
+        }
+        // 自定义id字段时，gid与该字段类型一致
+        int idField = StringUtils.equals(idCol, DEFAULT_ID_COL) ? -1 : fieldIndex.getInt(idCol);
+        vectors[0] = idField < 0 ? new DictionaryColumnVector(capacity) : createVector(readers[idField], capacity);
+        DoubleColumnVector scores = new DoubleColumnVector(capacity, true);
+        vectors[1] = scores;
+        vectors[2] = new DictionaryColumnVector(capacity);
+        vectors[3] = new ObjectColumnVector(capacity);
+
+        int row = 0;
+        for (SearchHit hit : array) {
+            if (idField < 0) {
+                ((DictionaryColumnVector) vectors[0]).appendString(hit.getId());
+            }
+            scores.appendDouble(Float.isNaN(hit.getScore()) ? 0 : hit.getScore());
+            vectors[2] = append(vectors[2], getRecallMark());
+            vectors[3].append(initScoreDetail());
+            if (fieldCount > 0) {
+                decodeSource(hit.getSourceRef(), fieldIndex, fields, types, readers, vectors);
+                if (idField >= 0) {
+                    vectors[0].append(vectors[4 + idField].get(row));
+                }
+            }
+            row++;
+        }
+        return new ColumnarDataSet(columnNames, vectors);
+    }
+
+    private void decodeSource(BytesReference source, Object2IntOpenHashMap<String> fieldIndex, String[] fields,
+                              ElasticSearchFieldType[] types, int[] readers, ColumnVector[] vectors) throws IOException {
+        int fieldCount = fields.length;
+        int before = vectors[4].size();
+        if (source != null) {
+            // 按JSON解析，不做内容类型探测
+            try (XContentParser parser = XContentHelper.createParser(NamedXContentRegistry.EMPTY,
+                    DeprecationHandler.THROW_UNSUPPORTED_OPERATION, source, XContentType.JSON)) {
+                XContentParser.Token token = parser.nextToken();
+                if (token != XContentParser.Token.START_OBJECT) {
+                    throw new DataException("Malformed _source, expect object but " + token);
+                }
+                int idx;
+                while ((token = parser.nextToken()) == XContentParser.Token.FIELD_NAME) {
+                    idx = fieldIndex.getInt(parser.currentName());
+                    token = parser.nextToken();
+                    if (idx < 0 || vectors[4 + idx].size() > before) {
+                        // 未映射或重复的字段
+                        parser.skipChildren();
+                        continue;
+                    }
+                    readValue(parser, token, fields[idx], types[idx], readers[idx], 4 + idx, vectors);
+                }
+            }
+        }
+        // _source中缺失的字段补空值
+        for (int i = 0; i < fieldCount; i++) {
+            if (vectors[4 + i].size() == before) {
+                vectors[4 + i].appendNull();
+            }
+        }
+    }
+
+    private void readValue(XContentParser parser, XContentParser.Token token, String field,
+                           ElasticSearchFieldType type, int reader, int idx, ColumnVector[] vectors) throws IOException {
+        if (token == XContentParser.Token.VALUE_NULL) {
+            vectors[idx].appendNull();
+            return;
+        }
+        switch (reader) {
+            case READ_LONG:
+                ((LongColumnVector) vectors[idx]).appendLong(parser.longValue());
+                break;
+            case READ_DOUBLE:
+                ((DoubleColumnVector) vectors[idx]).appendDouble(parser.doubleValue());
+                break;
+            case READ_STRING:
+                String value = token.isValue() ? parser.text() : JSON.toJSONString(parseValue(parser, token));
+                ((DictionaryColumnVector) vectors[idx]).appendString(value);
+                break;
+            default:
+                vectors[idx] = append(vectors[idx], getSourceColumn(parseValue(parser, token), field, type));
+                break;
+        }
+    }
+
+    private Object parseValue(XContentParser parser, XContentParser.Token token) throws IOException {
+        switch (token) {
+            case START_OBJECT:
+                return parser.mapOrdered();
+            case START_ARRAY:
+                return parser.listOrderedMap();
+            case VALUE_STRING:
+                return parser.text();
+            case VALUE_NUMBER:
+                return parser.numberValue();
+            case VALUE_BOOLEAN:
+                return parser.booleanValue();
+            case VALUE_EMBEDDED_OBJECT:
+                return parser.binaryValue();
+            default:
+                return null;
+        }
+    }
+
+    private ColumnVector append(ColumnVector vector, Column column) {
+        if (!vector.accept(column)) {
+            vector = ColumnVector.promote(vector);
+        }
+        vector.append(column);
+        return vector;
+    }
+
+    private int resolveReader(ElasticSearchFieldType type) {
+        switch (type) {
+            case LONG:
+            case INTEGER:
+            case SHORT:
+                return READ_LONG;
+            case FLOAT:
+            case DOUBLE:
+                return READ_DOUBLE;
+            case ID:
+            case PARENT:
+            case ROUTING:
+            case VERSION:
+            case KEYWORD:
+            case STRING:
+            case TEXT:
+            case IP:
+                return READ_STRING;
+            default:
+                return READ_OBJECT;
+        }
+    }
+
+    private ColumnVector createVector(int reader, int capacity) {
+        switch (reader) {
+            case READ_LONG:
+                return new LongColumnVector(capacity);
+            case READ_DOUBLE:
+                return new DoubleColumnVector(capacity);
+            case READ_STRING:
+                return new DictionaryColumnVector(capacity);
+            default:
+                return new ObjectColumnVector(capacity);
+        }
+    }
+
+    /**
+     * 列式解析时非原生类型字段的转换，value为_source解析出的原始值
+     *
+     * @param value
+     * @param field
+     * @param type
+     * @return com.ppwx.easysearch.core.data.Column
+     */
+    protected Column getSourceColumn(Object value, String field, ElasticSearchFieldType type) {
+        switch (type) {
+            case DATE:
+                return new DateColumn(TypeUtils.castToDate(value));
+            case BOOLEAN:
+                return new BoolColumn(TypeUtils.castToBoolean(value));
+            case BYTE:
+            case BINARY:
+                return new BytesColumn(TypeUtils.castToBytes(value));
+            case GEO_SHAPE:
+            case DATE_RANGE:
+            case INTEGER_RANGE:
+            case FLOAT_RANGE:
+            case LONG_RANGE:
+            case DOUBLE_RANGE:
+            case NESTED:
+            case OBJECT:
+            case GEO_POINT:
+            case IP_RANGE:
+                Object json = JSON.toJSON(value);
+                if (value != null && !(json instanceof JSON)) {
+                    throw new DataException(String.format("Type error: %s is not json for column %s", value, field));
+                }
+                return new JsonColumn((JSON) json);
+            default:
+                throw new DataException(String.format(
+                        "Type error: unsupported type %s for column %s", type, field));
+        }
+    }
+
     protected Column getResultColumn(JSONObject jsonObject, String field, ElasticSearchFieldType type) {
         Column column;
         if (type == null) {
@@ -17,6 +17,7 @@
 package com.ppwx.easysearch.core.data.model;
 
 import com.google.common.cache.Cache;
+import com.ppwx.easysearch.core.data.CopyOnWriteDataSet;
 import com.ppwx.easysearch.core.data.DataModel;
 import com.ppwx.easysearch.core.data.DataSet;
 import io.netty.util.Attribute;
@@ -76,7 +77,7 @@ public class CacheDataModelDecorator implements DataModel {
                 }
             }
         }
-        return this.dataSet == null ? null : (DataSet) this.dataSet.clone();
+        return this.dataSet == null ? null : CopyOnWriteDataSet.of(this.dataSet);
     }
 
     @Override
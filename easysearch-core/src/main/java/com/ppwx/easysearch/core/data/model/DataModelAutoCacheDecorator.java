@@ -16,6 +16,7 @@
 
 package com.ppwx.easysearch.core.data.model;
 
+import com.ppwx.easysearch.core.data.CopyOnWriteDataSet;
 import com.ppwx.easysearch.core.data.DataModel;
 import com.ppwx.easysearch.core.data.DataSet;
 import com.ppwx.easysearch.core.metrics.Metrics;
@@ -75,18 +76,12 @@ public class DataModelAutoCacheDecorator extends DataModelCacheDecorator {
     public DataSet getDataset() {
         if (this.dataSet == null) {
             if (checkIfThresholdExceeded(cacheKey)) {
-                this.dataSet = cache.getIfPresent(cacheKey);
-                if (this.dataSet == null) {
-                    this.dataSet = target.getDataset();
-                    if (this.dataSet != null) {
-                        cache.put(cacheKey, this.dataSet);
-                    }
-                }
+                this.dataSet = loadThroughCache();
             } else {
                 this.dataSet = target.getDataset();
             }
         }
-        return this.dataSet == null ? null : (DataSet) this.dataSet.clone();
+        return this.dataSet == null ? null : CopyOnWriteDataSet.of(this.dataSet);
     }
 
     private boolean checkIfThresholdExceeded(String cacheKey) {
@@ -16,6 +16,7 @@
 
 package com.ppwx.easysearch.core.data.model;
 
+import com.ppwx.easysearch.core.data.CopyOnWriteDataSet;
 import com.ppwx.easysearch.core.data.DataModel;
 import com.ppwx.easysearch.core.data.DataSet;
 import io.netty.util.Attribute;
@@ -25,6 +26,7 @@ import io.netty.util.AttributeKey;
  *
  * 数据缓存装饰器
  * model本身需要承载参数变量不宜直接缓存，而{@link DataSet}则只包含数据本身，适宜缓存
+ * 缓存的数据集作为只读数据共享，每次返回{@link CopyOnWriteDataSet}快照，修改不会影响缓存
  *
  * @since 1.0.0
  */
@@ -45,6 +47,10 @@ public class DataModelCacheDecorator implements DataModel {
      * 缓存组件
      */
     protected ICache<String, DataSet> cache;
+    /**
+     * 合并加载，为空时每个请求独立加载
+     */
+    protected SingleFlightLoader singleFlight;
 
     public DataModelCacheDecorator(DataModel target, ICache<String, DataSet> cache) {
         this.target = target;
@@ -56,6 +62,17 @@ public class DataModelCacheDecorator implements DataModel {
         this.cacheKey = cacheKey;
     }
 
+    /**
+     * 设置合并加载，同一个缓存的装饰器应共享同一个实例
+     * 开启后数据源可能在后台刷新中被使用，{@link #setDataSet(DataSet)}不再同步到数据源
+     *
+     * @param singleFlight
+     * @return void
+     */
+    public void setSingleFlight(SingleFlightLoader singleFlight) {
+        this.singleFlight = singleFlight;
+    }
+
     @Override
     public void loadDataModel() {
         if ((this.dataSet = cache.getIfPresent(cacheKey)) == null) {
@@ -66,20 +83,35 @@ public class DataModelCacheDecorator implements DataModel {
     @Override
     public DataSet getDataset() {
         if (this.dataSet == null) {
-            this.dataSet = cache.getIfPresent(cacheKey);
-            if (this.dataSet == null) {
-                this.dataSet = target.getDataset();
-                if (this.dataSet != null) {
-                    cache.put(cacheKey, this.dataSet);
-                }
+            this.dataSet = loadThroughCache();
+        }
+        return this.dataSet == null ? null : CopyOnWriteDataSet.of(this.dataSet);
+    }
+
+    /**
+     * 读取缓存，不存在时加载并写入缓存
+     *
+     * @return com.ppwx.easysearch.core.data.DataSet
+     */
+    protected DataSet loadThroughCache() {
+        if (singleFlight != null) {
+            return singleFlight.load(cacheKey, cache, target::getDataset);
+        }
+        DataSet dataSet = cache.getIfPresent(cacheKey);
+        if (dataSet == null) {
+            dataSet = target.getDataset();
+            if (dataSet != null) {
+                cache.put(cacheKey, dataSet);
             }
         }
-        return this.dataSet == null ? null : (DataSet) this.dataSet.clone();
+        return dataSet;
     }
 
     @Override
     public void setDataSet(DataSet dataSet) {
-        target.setDataSet(dataSet);
+        if (singleFlight == null) {
+            target.setDataSet(dataSet);
+        }
         this.dataSet = dataSet;
     }
 
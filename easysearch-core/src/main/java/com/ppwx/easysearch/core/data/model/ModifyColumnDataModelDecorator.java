@@ -71,6 +71,10 @@ public class ModifyColumnDataModelDecorator implements DataModel {
      */
     public boolean addColumn(String field, Column val) {
         DataSet dataset = target.getDataset();
+        if (dataset instanceof ColumnarDataSet) {
+            // 字段名与列数据一起追加，避免两者数量不一致
+            return ((ColumnarDataSet) dataset).addColumn(field, val);
+        }
         List<String> columnNames = dataset.columnNames();
         if (columnNames.contains(field)) {
             return false;
@@ -16,13 +16,12 @@
 
 package com.ppwx.easysearch.core.data.model;
 
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
 import com.ppwx.easysearch.core.common.DataException;
 import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.ColumnarDataSet;
 import com.ppwx.easysearch.core.data.DataSet;
-import com.ppwx.easysearch.core.data.TableDataSet;
 import com.ppwx.easysearch.core.data.element.*;
+import com.ppwx.easysearch.core.data.vector.*;
 import io.netty.util.internal.ObjectUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -30,11 +29,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ResultSetExtractor;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
@@ -50,10 +50,22 @@ import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_SCORE;
 public class MysqlDataModel extends AbstractDataModel {
 
     protected static Logger logger = LoggerFactory.getLogger(MysqlDataModel.class);
+    /**
+     * 字段读取方式
+     */
+    private static final int READ_LONG = 1;
+    private static final int READ_DOUBLE = 2;
+    private static final int READ_STRING = 3;
+    private static final int READ_OBJECT = 4;
 
     private JdbcTemplate jdbcTemplate;
 
     private String querySql;
+    /**
+     * JDBC fetch size，0表示使用驱动默认值
+     * mysql驱动需设置为{@link Integer#MIN_VALUE}或开启useCursorFetch才会流式读取
+     */
+    private int fetchSize;
 
     protected final byte[] EMPTY_CHAR_ARRAY = new byte[0];
 
@@ -69,6 +81,14 @@ public class MysqlDataModel extends AbstractDataModel {
         this.querySql = querySql;
     }
 
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
     @Override
     public void loadDataModel() {
         ObjectUtil.checkNotNull(querySql, "querySql");
@@ -80,119 +100,208 @@ public class MysqlDataModel extends AbstractDataModel {
     @Override
     public DataSet getDataset() {
         if (this.dataSet == null) {
-            Table<Integer, Integer, Column> table = HashBasedTable.create();
-            List<String> columns = new ArrayList<>();
-            jdbcTemplate.query(querySql, (ResultSetExtractor<List<Void>>) resultSet -> {
-                ResultSetMetaData metaData = resultSet.getMetaData();
-                int columnCount = metaData.getColumnCount();
-                for (int i = 0; i < columnCount; i++) {
-                    columns.add(metaData.getColumnLabel(i + 1));
+            this.dataSet = jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(querySql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                if (fetchSize != 0) {
+                    ps.setFetchSize(fetchSize);
                 }
+                return ps;
+            }, (ResultSetExtractor<DataSet>) this::extractData);
+        }
+        return this.dataSet;
+    }
 
-                int row = 0;
-                while(resultSet.next()) {
-                    for(int i = 1; i <= columnCount; ++i) {
-                        Column column = getResultSetColumn(resultSet, metaData, i, "");
-                        table.put(row, i - 1, column);
-                    }
-                    row++;
+    /**
+     * 按查询计划读取数据
+     * 字段类型只解析一次，数值字段使用原生类型读取，直接写入列式数据集
+     *
+     * @param resultSet
+     * @return com.ppwx.easysearch.core.data.DataSet
+     * @throws SQLException
+     */
+    protected DataSet extractData(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        List<String> columns = new ArrayList<>(columnCount);
+        int[] readers = new int[columnCount];
+        ColumnVector[] vectors = new ColumnVector[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            String label = metaData.getColumnLabel(i + 1);
+            columns.add(label);
+            readers[i] = resolveReader(metaData, i + 1);
+            if (GLOBAL_SCORE.equals(label) && readers[i] == READ_LONG) {
+                // 分值统一使用double
+                readers[i] = READ_DOUBLE;
+            }
+            vectors[i] = createVector(readers[i], label);
+        }
+
+        while (resultSet.next()) {
+            for (int i = 0; i < columnCount; i++) {
+                int idx = i + 1;
+                switch (readers[i]) {
+                    case READ_LONG:
+                        long longVal = resultSet.getLong(idx);
+                        if (resultSet.wasNull()) {
+                            vectors[i].appendNull();
+                        } else {
+                            ((LongColumnVector) vectors[i]).appendLong(longVal);
+                        }
+                        break;
+                    case READ_DOUBLE:
+                        double doubleVal = resultSet.getDouble(idx);
+                        if (resultSet.wasNull()) {
+                            vectors[i].appendNull();
+                        } else {
+                            ((DoubleColumnVector) vectors[i]).appendDouble(doubleVal);
+                        }
+                        break;
+                    case READ_STRING:
+                        ((DictionaryColumnVector) vectors[i]).appendString(resultSet.getString(idx));
+                        break;
+                    default:
+                        vectors[i].append(getResultSetColumn(resultSet, metaData, idx, ""));
+                        break;
                 }
-                return Collections.emptyList();
-            });
+            }
+        }
+        return new ColumnarDataSet(columns, vectors);
+    }
+
+    private int resolveReader(ResultSetMetaData metaData, int idx) throws SQLException {
+        switch (metaData.getColumnType(idx)) {
+            case Types.CHAR:
+            case Types.NCHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+            case Types.CLOB:
+            case Types.NCLOB:
+                return READ_STRING;
+
+            case Types.BIGINT:
+                // bigint unsigned可能超出long范围
+                return metaData.isSigned(idx) ? READ_LONG : READ_OBJECT;
+            case Types.SMALLINT:
+            case Types.TINYINT:
+            case Types.INTEGER:
+                return READ_LONG;
+
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+            case Types.FLOAT:
+            case Types.REAL:
+            case Types.DOUBLE:
+                return READ_DOUBLE;
 
-            this.dataSet = new TableDataSet(columns, table);
+            default:
+                return READ_OBJECT;
+        }
+    }
+
+    private ColumnVector createVector(int reader, String label) {
+        if (GLOBAL_SCORE.equals(label) && reader == READ_DOUBLE) {
+            return new DoubleColumnVector(0, true);
+        }
+        switch (reader) {
+            case READ_LONG:
+                return new LongColumnVector(0);
+            case READ_DOUBLE:
+                return new DoubleColumnVector(0);
+            case READ_STRING:
+                return new DictionaryColumnVector(0);
+            default:
+                return new ObjectColumnVector(0);
         }
-        return this.dataSet;
     }
 
     protected Column getResultSetColumn(ResultSet rs, ResultSetMetaData metaData, int columnNumber, String mandatoryEncoding) {
         Column column = null;
         try {
-            for (int i = 1; i <= columnNumber; i++) {
-                switch (metaData.getColumnType(i)) {
-
-                    case Types.CHAR:
-                    case Types.NCHAR:
-                    case Types.VARCHAR:
-                    case Types.LONGVARCHAR:
-                    case Types.NVARCHAR:
-                    case Types.LONGNVARCHAR:
-                        String rawData;
-                        if(StringUtils.isBlank(mandatoryEncoding)){
-                            rawData = rs.getString(i);
-                        }else{
-                            rawData = new String((rs.getBytes(i) == null ? EMPTY_CHAR_ARRAY :
-                                    rs.getBytes(i)), mandatoryEncoding);
-                        }
-                        column = new StringColumn(rawData);
-                        break;
+            switch (metaData.getColumnType(columnNumber)) {
 
-                    case Types.CLOB:
-                    case Types.NCLOB:
-                        column = new StringColumn(rs.getString(i));
-                        break;
+                case Types.CHAR:
+                case Types.NCHAR:
+                case Types.VARCHAR:
+                case Types.LONGVARCHAR:
+                case Types.NVARCHAR:
+                case Types.LONGNVARCHAR:
+                    String rawData;
+                    if(StringUtils.isBlank(mandatoryEncoding)){
+                        rawData = rs.getString(columnNumber);
+                    }else{
+                        rawData = new String((rs.getBytes(columnNumber) == null ? EMPTY_CHAR_ARRAY :
+                                rs.getBytes(columnNumber)), mandatoryEncoding);
+                    }
+                    column = new StringColumn(rawData);
+                    break;
 
-                    case Types.SMALLINT:
-                    case Types.TINYINT:
-                    case Types.INTEGER:
-                    case Types.BIGINT:
-                        column = new LongColumn(rs.getString(i));
-                        break;
+                case Types.CLOB:
+                case Types.NCLOB:
+                    column = new StringColumn(rs.getString(columnNumber));
+                    break;
 
-                    case Types.NUMERIC:
-                    case Types.DECIMAL:
-                    case Types.FLOAT:
-                    case Types.REAL:
-                    case Types.DOUBLE:
-                        column = new DoubleColumn(rs.getString(i));
-                        break;
+                case Types.SMALLINT:
+                case Types.TINYINT:
+                case Types.INTEGER:
+                case Types.BIGINT:
+                    column = new LongColumn(rs.getString(columnNumber));
+                    break;
 
-                    case Types.TIME:
-                        column = new DateColumn(rs.getTime(i));
-                        break;
+                case Types.NUMERIC:
+                case Types.DECIMAL:
+                case Types.FLOAT:
+                case Types.REAL:
+                case Types.DOUBLE:
+                    column = new DoubleColumn(rs.getString(columnNumber));
+                    break;
 
-                    // for mysql bug, see http://bugs.mysql.com/bug.php?id=35115
-                    case Types.DATE:
-                        if (metaData.getColumnTypeName(i).equalsIgnoreCase("year")) {
-                            column = new LongColumn(rs.getInt(i));
-                        } else {
-                            column = new DateColumn(rs.getDate(i));
-                        }
-                        break;
+                case Types.TIME:
+                    column = new DateColumn(rs.getTime(columnNumber));
+                    break;
 
-                    case Types.TIMESTAMP:
-                        column = new DateColumn(rs.getTimestamp(i));
-                        break;
+                // for mysql bug, see http://bugs.mysql.com/bug.php?id=35115
+                case Types.DATE:
+                    if (metaData.getColumnTypeName(columnNumber).equalsIgnoreCase("year")) {
+                        column = new LongColumn(rs.getInt(columnNumber));
+                    } else {
+                        column = new DateColumn(rs.getDate(columnNumber));
+                    }
+                    break;
 
-                    case Types.BINARY:
-                    case Types.VARBINARY:
-                    case Types.BLOB:
-                    case Types.LONGVARBINARY:
-                        column = new BytesColumn(rs.getBytes(i));
-                        break;
+                case Types.TIMESTAMP:
+                    column = new DateColumn(rs.getTimestamp(columnNumber));
+                    break;
 
-                    // warn: bit(1) -> Types.BIT 可使用BoolColumn
-                    // warn: bit(>1) -> Types.VARBINARY 可使用BytesColumn
-                    case Types.BOOLEAN:
-                    case Types.BIT:
-                        column = new BoolColumn(rs.getBoolean(i));
-                        break;
+                case Types.BINARY:
+                case Types.VARBINARY:
+                case Types.BLOB:
+                case Types.LONGVARBINARY:
+                    column = new BytesColumn(rs.getBytes(columnNumber));
+                    break;
 
-                    case Types.NULL:
-                        String stringData = null;
-                        if(rs.getObject(i) != null) {
-                            stringData = rs.getObject(i).toString();
-                        }
-                        column = new StringColumn(stringData);
-                        break;
+                // warn: bit(1) -> Types.BIT 可使用BoolColumn
+                // warn: bit(>1) -> Types.VARBINARY 可使用BytesColumn
+                case Types.BOOLEAN:
+                case Types.BIT:
+                    column = new BoolColumn(rs.getBoolean(columnNumber));
+                    break;
 
-                    default:
-                        throw new DataException(String.format(
-                                "您的配置文件中的列配置信息有误. 不支持数据库读取这种字段类型. 字段名:[%s], 字段名称:[%s], 字段Java类型:[%s]. 请尝试使用数据库函数将其转换datax支持的类型 或者不同步该字段 .",
-                                metaData.getColumnName(i),
-                                metaData.getColumnType(i),
-                                metaData.getColumnClassName(i)));
-                }
+                case Types.NULL:
+                    String stringData = null;
+                    if(rs.getObject(columnNumber) != null) {
+                        stringData = rs.getObject(columnNumber).toString();
+                    }
+                    column = new StringColumn(stringData);
+                    break;
+
+                default:
+                    throw new DataException(String.format(
+                            "您的配置文件中的列配置信息有误. 不支持数据库读取这种字段类型. 字段名:[%s], 字段名称:[%s], 字段Java类型:[%s]. 请尝试使用数据库函数将其转换datax支持的类型 或者不同步该字段 .",
+                            metaData.getColumnName(columnNumber),
+                            metaData.getColumnType(columnNumber),
+                            metaData.getColumnClassName(columnNumber)));
             }
         } catch (Exception e) {
             if (logger.isDebugEnabled()) {
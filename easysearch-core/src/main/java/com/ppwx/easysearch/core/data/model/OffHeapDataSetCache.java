@@ -0,0 +1,364 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data.model;
+
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.codec.ColumnarCodec;
+import com.ppwx.easysearch.core.data.codec.DataCopyException;
+import com.ppwx.easysearch.core.data.codec.OffHeapDataSet;
+import com.ppwx.easysearch.core.metrics.Metrics;
+import com.ppwx.easysearch.core.metrics.MetricsRegistry;
+import io.netty.util.internal.ObjectUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * 堆外数据集缓存
+ * 数据集以{@link ColumnarCodec}编码后顺序写入固定大小的段，段使用直接内存或内存映射文件；
+ * 读取时返回直接基于段内存的{@link OffHeapDataSet}，不占用堆内存，也不需要整体反序列化
+ * <p/>
+ * 段写满后创建新段，总大小超出预算时整段淘汰最早的数据；覆盖写入的旧数据在所在段淘汰时才释放
+ * metrics按名称分别记录：#hit、#miss、#eviction
+ *
+ * @since 1.0.0
+ */
+public class OffHeapDataSetCache implements ICache<String, DataSet>, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapDataSetCache.class);
+
+    private static final String HIT_TAG = "#hit";
+
+    private static final String MISS_TAG = "#miss";
+
+    private static final String EVICTION_TAG = "#eviction";
+    /**
+     * key -> 数据位置
+     */
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    /**
+     * 所有段，按创建顺序
+     */
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    /**
+     * 最多保留的段数
+     */
+    private final int maxSegments;
+
+    private final int segmentBytes;
+    /**
+     * 段文件目录，为空时使用直接内存
+     */
+    private final File directory;
+
+    private final long expireAfterWriteNanos;
+
+    private final String name;
+
+    private final MetricsRegistry<Metrics> metricsRegistry;
+
+    private final int metricsWindowSize;
+    /**
+     * 当前写入的段
+     */
+    private Segment current;
+
+    private OffHeapDataSetCache(Builder builder) {
+        this.segmentBytes = builder.segmentBytes;
+        this.maxSegments = (int) Math.max(1, builder.maximumBytes / builder.segmentBytes);
+        this.directory = builder.directory;
+        this.expireAfterWriteNanos = builder.expireAfterWriteNanos;
+        this.name = builder.name;
+        this.metricsRegistry = builder.metricsRegistry;
+        this.metricsWindowSize = builder.metricsWindowSize;
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Can not create directory:" + directory);
+        }
+    }
+
+    public static Builder builder(long maximumBytes) {
+        return new Builder(maximumBytes);
+    }
+
+    @Override
+    public DataSet getIfPresent(String key) {
+        Location location = index.get(key);
+        if (location != null && location.expireAt != 0 && System.nanoTime() - location.expireAt > 0) {
+            index.remove(key, location);
+            location = null;
+        }
+        if (location == null) {
+            record(MISS_TAG);
+            return null;
+        }
+        record(HIT_TAG);
+        ByteBuffer buffer = location.segment.buffer.duplicate();
+        buffer.position(location.offset);
+        buffer.limit(location.offset + location.length);
+        return ColumnarCodec.decode(buffer);
+    }
+
+    @Override
+    public void put(String key, DataSet value) {
+        if (value == null) {
+            return;
+        }
+        byte[] bytes = ColumnarCodec.encode(value);
+        if (bytes.length > segmentBytes) {
+            logger.warn("Dataset of {} is too large for off-heap cache, size:{}, segment:{}", key, bytes.length, segmentBytes);
+            return;
+        }
+        long expireAt = expireAfterWriteNanos > 0 ? System.nanoTime() + expireAfterWriteNanos : 0;
+        synchronized (segments) {
+            if (current == null || segmentBytes - current.position < bytes.length) {
+                roll();
+            }
+            Location location = current.write(key, bytes, expireAt);
+            index.put(key, location);
+        }
+    }
+
+    /**
+     * 移除
+     *
+     * @param key
+     * @return void
+     */
+    public void invalidate(String key) {
+        index.remove(key);
+    }
+
+    /**
+     * 数量
+     *
+     * @return int
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * 已分配的段内存
+     *
+     * @return long
+     */
+    public long allocatedBytes() {
+        synchronized (segments) {
+            return (long) segments.size() * segmentBytes;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (segments) {
+            index.clear();
+            while (!segments.isEmpty()) {
+                segments.poll().release();
+            }
+            current = null;
+        }
+    }
+
+    private void roll() {
+        while (segments.size() >= maxSegments) {
+            evict(segments.poll());
+        }
+        current = allocate();
+        segments.add(current);
+    }
+
+    private void evict(Segment segment) {
+        int evicted = 0;
+        for (Location location : segment.locations) {
+            if (index.remove(location.key, location)) {
+                evicted++;
+            }
+        }
+        segment.release();
+        for (int i = 0; i < evicted; i++) {
+            record(EVICTION_TAG);
+        }
+    }
+
+    private Segment allocate() {
+        if (directory == null) {
+            return new Segment(ByteBuffer.allocateDirect(segmentBytes), null);
+        }
+        Path path = null;
+        try {
+            path = File.createTempFile(name, ".seg", directory).toPath();
+            path.toFile().deleteOnExit();
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // 关闭文件后映射依然有效
+                return new Segment(channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes), path);
+            }
+        } catch (IOException e) {
+            throw new DataCopyException("Can not create segment file:" + path, e);
+        }
+    }
+
+    private void record(String tag) {
+        if (metricsRegistry != null) {
+            metricsRegistry.metrics(name + tag, metricsWindowSize).record(0, TimeUnit.NANOSECONDS, Metrics.Outcome.SUCCESS);
+        }
+    }
+
+    /**
+     * 段，只追加写入
+     */
+    private final class Segment {
+
+        private final ByteBuffer buffer;
+
+        /**
+         * 映射文件，直接内存时为空
+         */
+        private final Path path;
+
+        private final List<Location> locations = new ArrayList<>();
+
+        private int position;
+
+        private Segment(ByteBuffer buffer, Path path) {
+            this.buffer = buffer;
+            this.path = path;
+        }
+
+        private Location write(String key, byte[] bytes, long expireAt) {
+            ByteBuffer target = buffer.duplicate();
+            target.position(position);
+            target.put(bytes);
+            Location location = new Location(this, key, position, bytes.length, expireAt);
+            position += bytes.length;
+            locations.add(location);
+            return location;
+        }
+
+        private void release() {
+            locations.clear();
+            if (path != null) {
+                // 正在读取的数据集仍持有映射，文件删除后映射依然可读
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    logger.warn("Failed to delete segment file {}", path, e);
+                }
+            }
+        }
+    }
+
+    private static final class Location {
+
+        private final Segment segment;
+
+        private final String key;
+
+        private final int offset;
+
+        private final int length;
+
+        private final long expireAt;
+
+        private Location(Segment segment, String key, int offset, int length, long expireAt) {
+            this.segment = segment;
+            this.key = key;
+            this.offset = offset;
+            this.length = length;
+            this.expireAt = expireAt;
+        }
+    }
+
+    public static final class Builder {
+
+        private final long maximumBytes;
+
+        private int segmentBytes = 64 * 1024 * 1024;
+
+        private File directory;
+
+        private long expireAfterWriteNanos;
+
+        private String name = "offheap";
+
+        private MetricsRegistry<Metrics> metricsRegistry;
+
+        private int metricsWindowSize = 60;
+
+        private Builder(long maximumBytes) {
+            if (maximumBytes <= 0) {
+                throw new IllegalArgumentException("maximumBytes must be positive.");
+            }
+            this.maximumBytes = maximumBytes;
+        }
+
+        /**
+         * 段大小，单个数据集编码后不能超过该大小
+         *
+         * @param segmentBytes
+         * @return com.ppwx.easysearch.core.data.model.OffHeapDataSetCache.Builder
+         */
+        public Builder segmentBytes(int segmentBytes) {
+            if (segmentBytes <= 0) {
+                throw new IllegalArgumentException("segmentBytes must be positive.");
+            }
+            this.segmentBytes = segmentBytes;
+            return this;
+        }
+
+        /**
+         * 使用内存映射文件保存段
+         *
+         * @param directory
+         * @return com.ppwx.easysearch.core.data.model.OffHeapDataSetCache.Builder
+         */
+        public Builder directory(File directory) {
+            this.directory = ObjectUtil.checkNotNull(directory, "directory");
+            return this;
+        }
+
+        public Builder expireAfterWrite(long duration, TimeUnit unit) {
+            this.expireAfterWriteNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        public Builder metrics(String name, MetricsRegistry<Metrics> metricsRegistry, int windowSize) {
+            this.name = ObjectUtil.checkNotNull(name, "name");
+            this.metricsRegistry = metricsRegistry;
+            this.metricsWindowSize = windowSize;
+            return this;
+        }
+
+        public OffHeapDataSetCache build() {
+            return new OffHeapDataSetCache(this);
+        }
+    }
+}
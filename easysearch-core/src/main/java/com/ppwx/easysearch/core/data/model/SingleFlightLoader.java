@@ -0,0 +1,285 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data.model;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.ppwx.easysearch.core.common.DataException;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.metrics.Metrics;
+import com.ppwx.easysearch.core.metrics.MetricsRegistry;
+import io.netty.util.internal.ObjectUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ *
+ * 缓存加载合并
+ * 同一个cacheKey同时只有一个加载任务，其余请求等待同一个结果，避免缓存失效时大量请求同时访问数据源；
+ * 开启过期数据复用后，缓存失效但仍在容忍时间内的数据会直接返回，同时在后台刷新一次；
+ * 过期数据按容忍时间过期，数量有上限，超出后按LRU淘汰
+ * 等待其他请求的加载最长为{@link #setLoadTimeout(long, TimeUnit)}，从该加载开始时计算，超时抛出{@link DataException}
+ * <p/>
+ * 同一个实例应只服务于一个缓存组件，在多个装饰器实例之间共享
+ * metrics按cacheKey分别记录：#load（实际加载）、#wait（等待其他请求的加载）、#stale（返回过期数据）
+ *
+ * @since 1.0.0
+ */
+public class SingleFlightLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(SingleFlightLoader.class);
+
+    private static final String LOAD_TAG = "#load";
+
+    private static final String WAIT_TAG = "#wait";
+
+    private static final String STALE_TAG = "#stale";
+    /**
+     * 默认过期数据最大数量
+     */
+    private static final long DEFAULT_STALE_MAXIMUM_SIZE = 10_000;
+    /**
+     * 进行中的加载
+     */
+    private final ConcurrentMap<String, Flight> inflight = new ConcurrentHashMap<>();
+    /**
+     * 最近一次加载的数据，用于过期数据复用
+     */
+    private final Cache<String, StaleEntry> staleEntries;
+    /**
+     * 加载超时时间，等待方最多等待到该加载开始后的这个时间
+     */
+    private long loadTimeoutNanos = TimeUnit.SECONDS.toNanos(5);
+    /**
+     * 后台刷新线程池，为空时不复用过期数据
+     */
+    private final Executor refreshExecutor;
+    /**
+     * 数据加载后可作为过期数据返回的最长时间，应大于缓存本身的过期时间
+     */
+    private final long staleNanos;
+    /**
+     * metrics
+     */
+    private MetricsRegistry<Metrics> metricsRegistry;
+    /**
+     * metrics时间窗口（秒）
+     */
+    private int metricsWindowSize = 60;
+
+    public SingleFlightLoader() {
+        this.refreshExecutor = null;
+        this.staleNanos = 0;
+        this.staleEntries = null;
+    }
+
+    public SingleFlightLoader(Executor refreshExecutor, long staleTime, TimeUnit unit) {
+        this(refreshExecutor, staleTime, unit, DEFAULT_STALE_MAXIMUM_SIZE);
+    }
+
+    /**
+     * @param refreshExecutor 后台刷新线程池
+     * @param staleTime 过期数据容忍时间
+     * @param unit
+     * @param staleMaximumSize 过期数据最大数量
+     */
+    public SingleFlightLoader(Executor refreshExecutor, long staleTime, TimeUnit unit, long staleMaximumSize) {
+        this.refreshExecutor = ObjectUtil.checkNotNull(refreshExecutor, "refreshExecutor");
+        if (staleTime <= 0) {
+            throw new IllegalArgumentException("staleTime must be positive.");
+        }
+        if (staleMaximumSize <= 0) {
+            throw new IllegalArgumentException("staleMaximumSize must be positive.");
+        }
+        this.staleNanos = unit.toNanos(staleTime);
+        this.staleEntries = CacheBuilder.newBuilder()
+                .maximumSize(staleMaximumSize)
+                .expireAfterWrite(staleNanos, TimeUnit.NANOSECONDS)
+                .build();
+    }
+
+    /**
+     * 加载超时时间，只限制等待方，加载本身不会被中断
+     *
+     * @param loadTimeout
+     * @param unit
+     * @return void
+     */
+    public void setLoadTimeout(long loadTimeout, TimeUnit unit) {
+        if (loadTimeout <= 0) {
+            throw new IllegalArgumentException("loadTimeout must be positive.");
+        }
+        this.loadTimeoutNanos = unit.toNanos(loadTimeout);
+    }
+
+    public void setMetricsRegistry(MetricsRegistry<Metrics> metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    public void setMetricsWindowSize(int metricsWindowSize) {
+        this.metricsWindowSize = metricsWindowSize;
+    }
+
+    /**
+     * 是否可以返回过期数据，可以时调用方无需准备数据源
+     *
+     * @param cacheKey
+     * @return boolean
+     */
+    public boolean hasStale(String cacheKey) {
+        return stale(cacheKey) != null;
+    }
+
+    /**
+     * 读取缓存，缓存不存在时合并加载
+     *
+     * @param cacheKey
+     * @param cache
+     * @param loader 实际的加载逻辑
+     * @return com.ppwx.easysearch.core.data.DataSet
+     */
+    public DataSet load(String cacheKey, ICache<String, DataSet> cache, Supplier<DataSet> loader) {
+        DataSet dataSet = cache.getIfPresent(cacheKey);
+        if (dataSet != null) {
+            return dataSet;
+        }
+        StaleEntry stale = stale(cacheKey);
+        if (stale != null) {
+            record(cacheKey, STALE_TAG, 0, Metrics.Outcome.SUCCESS);
+            refresh(cacheKey, cache, loader);
+            return stale.dataSet;
+        }
+
+        Flight flight = new Flight();
+        Flight running = inflight.putIfAbsent(cacheKey, flight);
+        if (running != null) {
+            return await(cacheKey, running);
+        }
+        // double check，上一个加载可能刚刚完成
+        dataSet = cache.getIfPresent(cacheKey);
+        if (dataSet != null) {
+            inflight.remove(cacheKey, flight);
+            flight.future.complete(dataSet);
+            return dataSet;
+        }
+        return doLoad(cacheKey, cache, loader, flight);
+    }
+
+    private DataSet doLoad(String cacheKey, ICache<String, DataSet> cache, Supplier<DataSet> loader, Flight flight) {
+        CompletableFuture<DataSet> future = flight.future;
+        long start = System.nanoTime();
+        try {
+            DataSet dataSet = loader.get();
+            if (dataSet != null) {
+                cache.put(cacheKey, dataSet);
+                if (staleNanos > 0) {
+                    staleEntries.put(cacheKey, new StaleEntry(dataSet));
+                }
+            }
+            record(cacheKey, LOAD_TAG, System.nanoTime() - start, Metrics.Outcome.SUCCESS);
+            future.complete(dataSet);
+            return dataSet;
+        } catch (Throwable e) {
+            record(cacheKey, LOAD_TAG, System.nanoTime() - start, Metrics.Outcome.ERROR);
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(cacheKey, flight);
+        }
+    }
+
+    private DataSet await(String cacheKey, Flight running) {
+        long start = System.nanoTime();
+        try {
+            long remaining = running.startTime + loadTimeoutNanos - start;
+            DataSet dataSet = running.future.get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+            record(cacheKey, WAIT_TAG, System.nanoTime() - start, Metrics.Outcome.SUCCESS);
+            return dataSet;
+        } catch (ExecutionException e) {
+            record(cacheKey, WAIT_TAG, System.nanoTime() - start, Metrics.Outcome.ERROR);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new DataException(cause);
+        } catch (TimeoutException e) {
+            record(cacheKey, WAIT_TAG, System.nanoTime() - start, Metrics.Outcome.ERROR);
+            throw new DataException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataException(e);
+        }
+    }
+
+    /**
+     * 后台刷新，已有加载任务时忽略
+     */
+    private void refresh(String cacheKey, ICache<String, DataSet> cache, Supplier<DataSet> loader) {
+        Flight flight = new Flight();
+        if (inflight.putIfAbsent(cacheKey, flight) != null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    doLoad(cacheKey, cache, loader, flight);
+                } catch (Throwable e) {
+                    logger.warn("Failed to refresh cache {}.", cacheKey, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inflight.remove(cacheKey, flight);
+            flight.future.completeExceptionally(e);
+            logger.warn("Refresh of cache {} rejected.", cacheKey);
+        }
+    }
+
+    private StaleEntry stale(String cacheKey) {
+        if (staleNanos <= 0) {
+            return null;
+        }
+        return staleEntries.getIfPresent(cacheKey);
+    }
+
+    private void record(String cacheKey, String tag, long nanos, Metrics.Outcome outcome) {
+        if (metricsRegistry != null) {
+            metricsRegistry.metrics(cacheKey + tag, metricsWindowSize).record(nanos, TimeUnit.NANOSECONDS, outcome);
+        }
+    }
+
+    private static final class StaleEntry {
+
+        private final DataSet dataSet;
+
+        private StaleEntry(DataSet dataSet) {
+            this.dataSet = dataSet;
+        }
+    }
+
+    /**
+     * 进行中的加载
+     */
+    private static final class Flight {
+
+        private final CompletableFuture<DataSet> future = new CompletableFuture<>();
+
+        private final long startTime = System.nanoTime();
+    }
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data.model;
+
+import com.google.common.cache.*;
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.ColumnarDataSet;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.metrics.Metrics;
+import com.ppwx.easysearch.core.metrics.MetricsRegistry;
+import io.netty.util.internal.ObjectUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ *
+ * 按字节数淘汰的数据集缓存
+ * 每个数据集按所有{@link Column#getByteSize()}之和计算权重，总权重不超过字节预算，超出时按LRU淘汰；
+ * 默认只有一个分段，Guava按分段平均分配字节预算，设置{@link Builder#concurrencyLevel(int)}大于1时
+ * 单个分段的预算为maximumBytes / concurrencyLevel，大于该值的数据集无法缓存
+ * 支持写入后过期和写入后刷新（读取时发现超时后在刷新线程池中重新加载，完成前返回旧数据），
+ * 命中、未命中、淘汰次数通过{@link MetricsRegistry}输出
+ * <p/>
+ * metrics按名称分别记录：#hit、#miss、#eviction
+ *
+ * @since 1.0.0
+ */
+public class WeightedDataSetCache implements ICache<String, DataSet> {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeightedDataSetCache.class);
+
+    private static final String HIT_TAG = "#hit";
+
+    private static final String MISS_TAG = "#miss";
+
+    private static final String EVICTION_TAG = "#eviction";
+    /**
+     * 缓存
+     */
+    private final Cache<String, Entry> cache;
+    /**
+     * 名称，作为metrics前缀
+     */
+    private final String name;
+    /**
+     * metrics
+     */
+    private final MetricsRegistry<Metrics> metricsRegistry;
+    /**
+     * metrics时间窗口（秒）
+     */
+    private final int metricsWindowSize;
+    /**
+     * 写入后刷新时间，0表示不刷新
+     */
+    private final long refreshAfterWriteNanos;
+    /**
+     * 刷新逻辑，返回null时保留旧数据
+     */
+    private final Function<String, DataSet> reloader;
+    /**
+     * 刷新线程池
+     */
+    private final Executor refreshExecutor;
+
+    private WeightedDataSetCache(Builder builder) {
+        this.name = builder.name;
+        this.metricsRegistry = builder.metricsRegistry;
+        this.metricsWindowSize = builder.metricsWindowSize;
+        this.refreshAfterWriteNanos = builder.refreshAfterWriteNanos;
+        this.reloader = builder.reloader;
+        this.refreshExecutor = builder.refreshExecutor;
+
+        CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder()
+                .maximumWeight(builder.maximumBytes)
+                .concurrencyLevel(builder.concurrencyLevel)
+                .recordStats();
+        if (builder.expireAfterWriteNanos > 0) {
+            cacheBuilder.expireAfterWrite(builder.expireAfterWriteNanos, TimeUnit.NANOSECONDS);
+        }
+        this.cache = cacheBuilder
+                .weigher((Weigher<String, Entry>) (key, entry) -> entry.weight)
+                .removalListener(this::onRemoval)
+                .build();
+    }
+
+    public static Builder builder(long maximumBytes) {
+        return new Builder(maximumBytes);
+    }
+
+    /**
+     * 计算数据集的字节数，行存储与列存储均按{@link Column#getByteSize()}之和计算
+     *
+     * @param dataSet
+     * @return long
+     */
+    public static long weigh(DataSet dataSet) {
+        if (dataSet == null) {
+            return 0;
+        }
+        long bytes = 0;
+        if (dataSet instanceof ColumnarDataSet) {
+            // 按列累加，不生成行数据
+            ColumnarDataSet columnar = (ColumnarDataSet) dataSet;
+            int columns = columnar.columnNames().size();
+            for (int i = 0; i < columns; i++) {
+                bytes += columnar.vector(i).byteSize();
+            }
+            return bytes;
+        }
+        List<Map<String, Column>> rows = dataSet.all();
+        if (rows == null) {
+            return 0;
+        }
+        for (Map<String, Column> row : rows) {
+            for (Column column : row.values()) {
+                bytes += byteSize(column);
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public DataSet getIfPresent(String key) {
+        Entry entry = cache.getIfPresent(key);
+        record(entry == null ? MISS_TAG : HIT_TAG);
+        if (entry == null) {
+            return null;
+        }
+        if (refreshAfterWriteNanos > 0 && System.nanoTime() - entry.writeNanos >= refreshAfterWriteNanos
+                && entry.refreshing.compareAndSet(false, true)) {
+            refresh(key, entry);
+            // 同步执行的刷新立即返回新值
+            Entry current = cache.getIfPresent(key);
+            if (current != null) {
+                entry = current;
+            }
+        }
+        return entry.dataSet;
+    }
+
+    @Override
+    public void put(String key, DataSet value) {
+        if (value == null) {
+            return;
+        }
+        cache.put(key, new Entry(value));
+    }
+
+    /**
+     * 移除
+     *
+     * @param key
+     * @return void
+     */
+    public void invalidate(String key) {
+        cache.invalidate(key);
+    }
+
+    /**
+     * 当前缓存的总字节数，遍历缓存项累加，刷新结果被丢弃等情况下也不会产生偏差
+     *
+     * @return long
+     */
+    public long weightedSize() {
+        cache.cleanUp();
+        long bytes = 0;
+        for (Entry entry : cache.asMap().values()) {
+            bytes += entry.weight;
+        }
+        return bytes;
+    }
+
+    /**
+     * 数量
+     *
+     * @return long
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * 统计信息
+     *
+     * @return com.google.common.cache.CacheStats
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * 后台刷新，同一缓存项只有一个刷新任务；刷新失败时保留旧数据，下次读取重试
+     */
+    private void refresh(String key, Entry entry) {
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    DataSet dataSet = reloader.apply(key);
+                    // 返回null时保留旧数据，重新计时
+                    Entry refreshed = dataSet == null ? new Entry(entry.dataSet, entry.weight) : new Entry(dataSet);
+                    cache.asMap().replace(key, entry, refreshed);
+                } catch (Throwable e) {
+                    entry.refreshing.set(false);
+                    logger.warn("Failed to refresh cache {}.", key, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            entry.refreshing.set(false);
+            logger.warn("Refresh of cache {} rejected.", key);
+        }
+    }
+
+    private void onRemoval(RemovalNotification<String, Entry> notification) {
+        if (notification.wasEvicted()) {
+            record(EVICTION_TAG);
+        }
+    }
+
+    private void record(String tag) {
+        if (metricsRegistry != null) {
+            metricsRegistry.metrics(name + tag, metricsWindowSize).record(0, TimeUnit.NANOSECONDS, Metrics.Outcome.SUCCESS);
+        }
+    }
+
+    private static long byteSize(Column column) {
+        return column == null ? 0 : column.getByteSize();
+    }
+
+    /**
+     * 缓存项，权重只在写入时计算一次
+     */
+    private static final class Entry {
+
+        private final DataSet dataSet;
+
+        private final int weight;
+
+        private final long writeNanos = System.nanoTime();
+
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(DataSet dataSet) {
+            this(dataSet, (int) Math.min(Integer.MAX_VALUE, Math.max(1L, weigh(dataSet))));
+        }
+
+        private Entry(DataSet dataSet, int weight) {
+            this.dataSet = dataSet;
+            this.weight = weight;
+        }
+    }
+
+    public static final class Builder {
+
+        private final long maximumBytes;
+
+        private long expireAfterWriteNanos;
+
+        private long refreshAfterWriteNanos;
+
+        private Function<String, DataSet> reloader;
+
+        private Executor refreshExecutor;
+
+        private int concurrencyLevel = 1;
+
+        private String name = WeightedDataSetCache.class.getName();
+
+        private MetricsRegistry<Metrics> metricsRegistry;
+
+        private int metricsWindowSize = 60;
+
+        private Builder(long maximumBytes) {
+            if (maximumBytes <= 0) {
+                throw new IllegalArgumentException("maximumBytes must be positive.");
+            }
+            this.maximumBytes = maximumBytes;
+        }
+
+        public Builder expireAfterWrite(long duration, TimeUnit unit) {
+            this.expireAfterWriteNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * 写入后超过指定时间的数据在下次读取时异步刷新，刷新完成前仍返回旧数据
+         *
+         * @param duration
+         * @param unit
+         * @param reloader 刷新逻辑，返回null时保留旧数据
+         * @param executor 刷新线程池
+         * @return com.ppwx.easysearch.core.data.model.WeightedDataSetCache.Builder
+         */
+        public Builder refreshAfterWrite(long duration, TimeUnit unit, Function<String, DataSet> reloader, Executor executor) {
+            this.refreshAfterWriteNanos = unit.toNanos(duration);
+            this.reloader = ObjectUtil.checkNotNull(reloader, "reloader");
+            this.refreshExecutor = ObjectUtil.checkNotNull(executor, "executor");
+            return this;
+        }
+
+        /**
+         * 分段数，默认1；每个分段的字节预算为maximumBytes / concurrencyLevel
+         *
+         * @param concurrencyLevel
+         * @return com.ppwx.easysearch.core.data.model.WeightedDataSetCache.Builder
+         */
+        public Builder concurrencyLevel(int concurrencyLevel) {
+            if (concurrencyLevel < 1) {
+                throw new IllegalArgumentException("concurrencyLevel must be positive.");
+            }
+            this.concurrencyLevel = concurrencyLevel;
+            return this;
+        }
+
+        public Builder metrics(String name, MetricsRegistry<Metrics> metricsRegistry, int windowSize) {
+            this.name = ObjectUtil.checkNotNull(name, "name");
+            this.metricsRegistry = metricsRegistry;
+            this.metricsWindowSize = windowSize;
+            return this;
+        }
+
+        public WeightedDataSetCache build() {
+            return new WeightedDataSetCache(this);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data.vector;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.element.DoubleColumn;
+import com.ppwx.easysearch.core.data.element.LongColumn;
+import com.ppwx.easysearch.core.data.element.StringColumn;
+
+import java.io.Serializable;
+import java.util.BitSet;
+
+/**
+ *
+ * 列式存储中的单列数据
+ * 以原生数组保存单元格的值，只有在需要时才转换为{@link Column}
+ * 子类负责具体的数据类型，不能无损保存的{@link Column}会被拒绝，由调用方升级为{@link ObjectColumnVector}
+ *
+ * @since 1.0.0
+ */
+public abstract class ColumnVector implements Serializable {
+    /**
+     * 空值标记
+     */
+    protected final BitSet nulls;
+    /**
+     * 行数
+     */
+    protected int size;
+
+    protected ColumnVector() {
+        this.nulls = new BitSet();
+    }
+
+    protected ColumnVector(BitSet nulls, int size) {
+        this.nulls = nulls;
+        this.size = size;
+    }
+
+    /**
+     * 根据字段类型创建对应的列
+     *
+     * @param column 样例数据
+     * @param capacity 初始容量
+     * @return com.ppwx.easysearch.core.data.vector.ColumnVector
+     */
+    public static ColumnVector forColumn(Column column, int capacity) {
+        if (column != null) {
+            Class<?> clazz = column.getClass();
+            if (clazz == DoubleColumn.class) {
+                return new DoubleColumnVector(capacity);
+            } else if (clazz == LongColumn.class) {
+                return new LongColumnVector(capacity);
+            } else if (clazz == StringColumn.class) {
+                return new DictionaryColumnVector(capacity);
+            }
+        }
+        return new ObjectColumnVector(capacity);
+    }
+
+    /**
+     * 将任意列升级为对象列，升级后可以保存任意类型的{@link Column}
+     *
+     * @param vector
+     * @return com.ppwx.easysearch.core.data.vector.ObjectColumnVector
+     */
+    public static ObjectColumnVector promote(ColumnVector vector) {
+        if (vector instanceof ObjectColumnVector) {
+            return (ObjectColumnVector) vector;
+        }
+        ObjectColumnVector promoted = new ObjectColumnVector(vector.size());
+        for (int i = 0; i < vector.size(); i++) {
+            promoted.append(vector.get(i));
+        }
+        return promoted;
+    }
+
+    /**
+     * 行数
+     *
+     * @return int
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 是否为空值
+     *
+     * @param idx
+     * @return boolean
+     */
+    public boolean isNull(int idx) {
+        checkIndex(idx);
+        return nulls.get(idx);
+    }
+
+    /**
+     * 追加一个空值
+     *
+     * @return void
+     */
+    public void appendNull() {
+        appendDefault();
+        nulls.set(size++);
+    }
+
+    /**
+     * 判断是否能够无损保存该字段
+     *
+     * @param column
+     * @return boolean
+     */
+    public abstract boolean accept(Column column);
+
+    /**
+     * 追加字段，调用前需要通过{@link #accept(Column)}判断
+     *
+     * @param column
+     * @return void
+     */
+    public abstract void append(Column column);
+
+    /**
+     * 覆盖字段，调用前需要通过{@link #accept(Column)}判断
+     *
+     * @param idx
+     * @param column
+     * @return com.ppwx.easysearch.core.data.Column 原值
+     */
+    public abstract Column set(int idx, Column column);
+
+    /**
+     * 转换为{@link Column}
+     *
+     * @param idx
+     * @return com.ppwx.easysearch.core.data.Column
+     */
+    public abstract Column get(int idx);
+
+    /**
+     * 复制
+     *
+     * @return com.ppwx.easysearch.core.data.vector.ColumnVector
+     */
+    public abstract ColumnVector copy();
+
+    /**
+     * 数据的字节数，等于{@link #get(int)}返回的{@link Column#getByteSize()}之和；
+     * 子类可按底层存储直接计算，不生成{@link Column}，但结果须保持一致
+     *
+     * @return long
+     */
+    public long byteSize() {
+        long bytes = 0;
+        for (int i = 0; i < size; i++) {
+            bytes += get(i).getByteSize();
+        }
+        return bytes;
+    }
+
+    /**
+     * 按行下标抽取数据生成新列
+     *
+     * @param rows 行下标
+     * @param length 抽取数量
+     * @return com.ppwx.easysearch.core.data.vector.ColumnVector
+     */
+    public abstract ColumnVector gather(int[] rows, int length);
+
+    /**
+     * 读取double值，空值返回0
+     *
+     * @param idx
+     * @return double
+     */
+    public double getDouble(int idx) {
+        Column column = get(idx);
+        if (column == null || column.getRawData() == null) {
+            return 0.0D;
+        }
+        Double value = column.asDouble();
+        return value == null ? 0.0D : value;
+    }
+
+    /**
+     * 读取long值，空值返回0
+     *
+     * @param idx
+     * @return long
+     */
+    public long getLong(int idx) {
+        Column column = get(idx);
+        if (column == null || column.getRawData() == null) {
+            return 0L;
+        }
+        Long value = column.asLong();
+        return value == null ? 0L : value;
+    }
+
+    /**
+     * 读取字符串
+     *
+     * @param idx
+     * @return java.lang.String
+     */
+    public String getString(int idx) {
+        Column column = get(idx);
+        return column == null ? null : column.asString();
+    }
+
+    /**
+     * 追加时为原生数组补位
+     *
+     * @return void
+     */
+    protected abstract void appendDefault();
+
+    protected void checkIndex(int idx) {
+        if (idx < 0 || idx >= size) {
+            throw new IndexOutOfBoundsException(String.format("idx:%s, size:%s", idx, size));
+        }
+    }
+
+    protected static boolean isNullColumn(Column column) {
+        return column == null || column.getRawData() == null;
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data.vector;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.element.ColumnFactory;
+import com.ppwx.easysearch.core.data.element.StringColumn;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+import java.util.BitSet;
+
+/**
+ *
+ * 字典编码的字符串列
+ * 每个不同的字符串只保存一份，行上只记录字典下标，适用于gid、类目、品牌等重复度高的字段
+ *
+ * @since 1.0.0
+ */
+public class DictionaryColumnVector extends ColumnVector {
+    /**
+     * 空值编码
+     */
+    public static final int NULL_CODE = -1;
+    /**
+     * 行 -> 字典下标
+     */
+    private final IntArrayList codes;
+    /**
+     * 字典
+     */
+    private final ObjectArrayList<String> dictionary;
+    /**
+     * 字符串 -> 字典下标
+     */
+    private final Object2IntOpenHashMap<String> lookup;
+    /**
+     * 字典项对应的Column，同一个字典项共享一个实例
+     */
+    private transient ObjectArrayList<Column> columns;
+
+    public DictionaryColumnVector(int capacity) {
+        super();
+        this.codes = new IntArrayList(Math.max(capacity, 0));
+        this.dictionary = new ObjectArrayList<>();
+        this.lookup = new Object2IntOpenHashMap<>();
+        this.lookup.defaultReturnValue(NULL_CODE);
+    }
+
+    private DictionaryColumnVector(DictionaryColumnVector origin) {
+        super((BitSet) origin.nulls.clone(), origin.size);
+        this.codes = new IntArrayList(origin.codes);
+        this.dictionary = new ObjectArrayList<>(origin.dictionary);
+        this.lookup = new Object2IntOpenHashMap<>(origin.lookup);
+        this.lookup.defaultReturnValue(NULL_CODE);
+    }
+
+    /**
+     * 追加字符串
+     *
+     * @param value
+     * @return void
+     */
+    public void appendString(String value) {
+        if (value == null) {
+            appendNull();
+            return;
+        }
+        codes.add(encode(value));
+        size++;
+    }
+
+    /**
+     * 覆盖字符串
+     *
+     * @param idx
+     * @param value
+     * @return void
+     */
+    public void setString(int idx, String value) {
+        checkIndex(idx);
+        if (value == null) {
+            codes.set(idx, NULL_CODE);
+            nulls.set(idx);
+        } else {
+            codes.set(idx, encode(value));
+            nulls.clear(idx);
+        }
+    }
+
+    /**
+     * 行对应的字典下标，空值返回{@link #NULL_CODE}
+     *
+     * @param idx
+     * @return int
+     */
+    public int code(int idx) {
+        checkIndex(idx);
+        return codes.getInt(idx);
+    }
+
+    /**
+     * 查找字符串的字典下标，不存在返回{@link #NULL_CODE}
+     *
+     * @param value
+     * @return int
+     */
+    public int lookup(String value) {
+        return value == null ? NULL_CODE : lookup.getInt(value);
+    }
+
+    /**
+     * 字典项
+     *
+     * @param code
+     * @return java.lang.String
+     */
+    public String dictionaryValue(int code) {
+        return code == NULL_CODE ? null : dictionary.get(code);
+    }
+
+    /**
+     * 字典大小
+     *
+     * @return int
+     */
+    public int dictionarySize() {
+        return dictionary.size();
+    }
+
+    /**
+     * 底层编码数组，长度可能大于{@link #size()}，只读使用
+     *
+     * @return int[]
+     */
+    public int[] codes() {
+        return codes.elements();
+    }
+
+    @Override
+    public String getString(int idx) {
+        return dictionaryValue(code(idx));
+    }
+
+    @Override
+    public boolean accept(Column column) {
+        return isNullColumn(column) || column.getClass() == StringColumn.class;
+    }
+
+    @Override
+    public void append(Column column) {
+        appendString(isNullColumn(column) ? null : (String) column.getRawData());
+    }
+
+    @Override
+    public Column set(int idx, Column column) {
+        Column old = get(idx);
+        setString(idx, isNullColumn(column) ? null : (String) column.getRawData());
+        return old;
+    }
+
+    @Override
+    public Column get(int idx) {
+        int code = code(idx);
+        if (code == NULL_CODE) {
+            return ColumnFactory.createString(null);
+        }
+        ObjectArrayList<Column> columns = this.columns;
+        if (columns == null) {
+            columns = this.columns = new ObjectArrayList<>(dictionary.size());
+        }
+        while (columns.size() <= code) {
+            columns.add(null);
+        }
+        Column column = columns.get(code);
+        if (column == null) {
+            column = new StringColumn(dictionary.get(code));
+            columns.set(code, column);
+        }
+        return column;
+    }
+
+    @Override
+    public long byteSize() {
+        long bytes = 0;
+        for (int i = 0; i < size; i++) {
+            int code = codes.getInt(i);
+            if (code != NULL_CODE) {
+                bytes += dictionary.get(code).length();
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public ColumnVector copy() {
+        return new DictionaryColumnVector(this);
+    }
+
+    @Override
+    public ColumnVector gather(int[] rows, int length) {
+        DictionaryColumnVector vector = new DictionaryColumnVector(length);
+        for (int i = 0; i < length; i++) {
+            vector.appendString(getString(rows[i]));
+        }
+        return vector;
+    }
+
+    @Override
+    protected void appendDefault() {
+        codes.add(NULL_CODE);
+    }
+
+    private int encode(String value) {
+        int code = lookup.getInt(value);
+        if (code == NULL_CODE) {
+            code = dictionary.size();
+            dictionary.add(value);
+            lookup.put(value, code);
+        }
+        return code;
+    }
+}
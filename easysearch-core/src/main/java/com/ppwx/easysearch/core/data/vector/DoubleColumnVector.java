@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data.vector;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.element.ColumnFactory;
+import com.ppwx.easysearch.core.data.element.DoubleColumn;
+import com.ppwx.easysearch.core.data.element.LongColumn;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+
+import java.util.BitSet;
+
+/**
+ *
+ * double列，数据保存在double[]中
+ * 注意：{@link DoubleColumn}以字符串保存原始精度，转换为double后超出精度的部分会丢失
+ *
+ * @since 1.0.0
+ */
+public class DoubleColumnVector extends ColumnVector {
+
+    private final DoubleArrayList values;
+    /**
+     * 是否接收{@link LongColumn}，{@link com.ppwx.easysearch.core.data.model.Key#GLOBAL_SCORE}等分值字段可开启
+     */
+    private final boolean coerceLong;
+
+    public DoubleColumnVector(int capacity) {
+        this(capacity, false);
+    }
+
+    public DoubleColumnVector(int capacity, boolean coerceLong) {
+        super();
+        this.values = new DoubleArrayList(Math.max(capacity, 0));
+        this.coerceLong = coerceLong;
+    }
+
+    private DoubleColumnVector(DoubleArrayList values, BitSet nulls, int size, boolean coerceLong) {
+        super(nulls, size);
+        this.values = values;
+        this.coerceLong = coerceLong;
+    }
+
+    /**
+     * 追加值
+     *
+     * @param value
+     * @return void
+     */
+    public void appendDouble(double value) {
+        values.add(value);
+        size++;
+    }
+
+    /**
+     * 覆盖值
+     *
+     * @param idx
+     * @param value
+     * @return void
+     */
+    public void setDouble(int idx, double value) {
+        checkIndex(idx);
+        values.set(idx, value);
+        nulls.clear(idx);
+    }
+
+    @Override
+    public double getDouble(int idx) {
+        checkIndex(idx);
+        return values.getDouble(idx);
+    }
+
+    @Override
+    public long getLong(int idx) {
+        return (long) getDouble(idx);
+    }
+
+    /**
+     * 是否接收{@link LongColumn}
+     *
+     * @return boolean
+     */
+    public boolean isCoerceLong() {
+        return coerceLong;
+    }
+
+    /**
+     * 底层数组，长度可能大于{@link #size()}，只读使用
+     *
+     * @return double[]
+     */
+    public double[] elements() {
+        return values.elements();
+    }
+
+    /**
+     * 复制到目标数组
+     *
+     * @param dest
+     * @return double[]
+     */
+    public double[] toDoubleArray(double[] dest) {
+        if (dest == null || dest.length < size) {
+            dest = new double[size];
+        }
+        values.getElements(0, dest, 0, size);
+        return dest;
+    }
+
+    @Override
+    public boolean accept(Column column) {
+        if (isNullColumn(column)) {
+            return true;
+        }
+        Class<?> clazz = column.getClass();
+        return clazz == DoubleColumn.class || (coerceLong && clazz == LongColumn.class);
+    }
+
+    @Override
+    public void append(Column column) {
+        if (isNullColumn(column)) {
+            appendNull();
+        } else {
+            appendDouble(column.asDouble());
+        }
+    }
+
+    @Override
+    public Column set(int idx, Column column) {
+        Column old = get(idx);
+        if (isNullColumn(column)) {
+            values.set(idx, 0.0D);
+            nulls.set(idx);
+        } else {
+            setDouble(idx, column.asDouble());
+        }
+        return old;
+    }
+
+    @Override
+    public Column get(int idx) {
+        if (isNull(idx)) {
+            return ColumnFactory.createDouble(null);
+        }
+        double value = values.getDouble(idx);
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return new DoubleColumn(String.valueOf(value));
+        }
+        return new DoubleColumn(value);
+    }
+
+    @Override
+    public ColumnVector copy() {
+        return new DoubleColumnVector(new DoubleArrayList(values), (BitSet) nulls.clone(), size, coerceLong);
+    }
+
+    @Override
+    public ColumnVector gather(int[] rows, int length) {
+        DoubleColumnVector vector = new DoubleColumnVector(length, coerceLong);
+        for (int i = 0; i < length; i++) {
+            if (isNull(rows[i])) {
+                vector.appendNull();
+            } else {
+                vector.appendDouble(values.getDouble(rows[i]));
+            }
+        }
+        return vector;
+    }
+
+    @Override
+    protected void appendDefault() {
+        values.add(0.0D);
+    }
+}
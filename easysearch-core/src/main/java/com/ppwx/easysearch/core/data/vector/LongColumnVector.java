@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data.vector;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.element.ColumnFactory;
+import com.ppwx.easysearch.core.data.element.LongColumn;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import java.math.BigInteger;
+import java.util.BitSet;
+
+/**
+ *
+ * long列，数据保存在long[]中
+ * 超出long范围的{@link LongColumn}不会被接收
+ *
+ * @since 1.0.0
+ */
+public class LongColumnVector extends ColumnVector {
+
+    private final LongArrayList values;
+
+    public LongColumnVector(int capacity) {
+        super();
+        this.values = new LongArrayList(Math.max(capacity, 0));
+    }
+
+    private LongColumnVector(LongArrayList values, BitSet nulls, int size) {
+        super(nulls, size);
+        this.values = values;
+    }
+
+    /**
+     * 追加值
+     *
+     * @param value
+     * @return void
+     */
+    public void appendLong(long value) {
+        values.add(value);
+        size++;
+    }
+
+    /**
+     * 覆盖值
+     *
+     * @param idx
+     * @param value
+     * @return void
+     */
+    public void setLong(int idx, long value) {
+        checkIndex(idx);
+        values.set(idx, value);
+        nulls.clear(idx);
+    }
+
+    @Override
+    public long getLong(int idx) {
+        checkIndex(idx);
+        return values.getLong(idx);
+    }
+
+    @Override
+    public double getDouble(int idx) {
+        return getLong(idx);
+    }
+
+    /**
+     * 底层数组，长度可能大于{@link #size()}，只读使用
+     *
+     * @return long[]
+     */
+    public long[] elements() {
+        return values.elements();
+    }
+
+    @Override
+    public boolean accept(Column column) {
+        if (isNullColumn(column)) {
+            return true;
+        }
+        return column.getClass() == LongColumn.class && ((BigInteger) column.getRawData()).bitLength() < Long.SIZE;
+    }
+
+    @Override
+    public void append(Column column) {
+        if (isNullColumn(column)) {
+            appendNull();
+        } else {
+            appendLong(column.asLong());
+        }
+    }
+
+    @Override
+    public Column set(int idx, Column column) {
+        Column old = get(idx);
+        if (isNullColumn(column)) {
+            values.set(idx, 0L);
+            nulls.set(idx);
+        } else {
+            setLong(idx, column.asLong());
+        }
+        return old;
+    }
+
+    @Override
+    public Column get(int idx) {
+        if (isNull(idx)) {
+            return ColumnFactory.createLong(null);
+        }
+        return new LongColumn(values.getLong(idx));
+    }
+
+    @Override
+    public long byteSize() {
+        // 与LongColumn(Long)一致，非空值按8字节计算
+        return (long) (size - nulls.cardinality()) * Long.BYTES;
+    }
+
+    @Override
+    public ColumnVector copy() {
+        return new LongColumnVector(new LongArrayList(values), (BitSet) nulls.clone(), size);
+    }
+
+    @Override
+    public ColumnVector gather(int[] rows, int length) {
+        LongColumnVector vector = new LongColumnVector(length);
+        for (int i = 0; i < length; i++) {
+            if (isNull(rows[i])) {
+                vector.appendNull();
+            } else {
+                vector.appendLong(values.getLong(rows[i]));
+            }
+        }
+        return vector;
+    }
+
+    @Override
+    protected void appendDefault() {
+        values.add(0L);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data.vector;
+
+import com.ppwx.easysearch.core.data.Column;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+import java.util.BitSet;
+
+/**
+ *
+ * 对象列，直接保存{@link Column}
+ * 用于日期、字节、json等无法使用原生数组表达的字段，也是类型混杂时的兜底实现
+ *
+ * @since 1.0.0
+ */
+public class ObjectColumnVector extends ColumnVector {
+
+    private final ObjectArrayList<Column> values;
+
+    public ObjectColumnVector(int capacity) {
+        super();
+        this.values = new ObjectArrayList<>(Math.max(capacity, 0));
+    }
+
+    private ObjectColumnVector(ObjectArrayList<Column> values, BitSet nulls, int size) {
+        super(nulls, size);
+        this.values = values;
+    }
+
+    @Override
+    public boolean isNull(int idx) {
+        return isNullColumn(get(idx));
+    }
+
+    @Override
+    public boolean accept(Column column) {
+        return true;
+    }
+
+    @Override
+    public void append(Column column) {
+        values.add(column);
+        size++;
+    }
+
+    @Override
+    public Column set(int idx, Column column) {
+        checkIndex(idx);
+        return values.set(idx, column);
+    }
+
+    @Override
+    public Column get(int idx) {
+        checkIndex(idx);
+        return values.get(idx);
+    }
+
+    @Override
+    public long byteSize() {
+        long bytes = 0;
+        for (int i = 0; i < size; i++) {
+            Column column = values.get(i);
+            bytes += column == null ? 0 : column.getByteSize();
+        }
+        return bytes;
+    }
+
+    @Override
+    public ColumnVector copy() {
+        return new ObjectColumnVector(new ObjectArrayList<>(values), (BitSet) nulls.clone(), size);
+    }
+
+    @Override
+    public ColumnVector gather(int[] rows, int length) {
+        ObjectColumnVector vector = new ObjectColumnVector(length);
+        for (int i = 0; i < length; i++) {
+            vector.append(get(rows[i]));
+        }
+        return vector;
+    }
+
+    @Override
+    protected void appendDefault() {
+        values.add(null);
+    }
+}
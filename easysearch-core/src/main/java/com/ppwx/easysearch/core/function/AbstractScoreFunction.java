@@ -23,14 +23,12 @@ import com.ppwx.easysearch.core.data.element.DynamicColumn;
 import com.ppwx.easysearch.core.data.element.LongColumn;
 
 import java.util.List;
-import java.util.Objects;
-import java.util.OptionalDouble;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  *
  * 抽象实现
- * 通用性算法是基于当前数据集进行的，该抽象类主要实现一些通用的计算方法
+ * 通用性算法是基于当前数据集进行的，统计量由{@link ColumnStatistics}一次遍历得到并缓存，
+ * 首次使用时基于当前的列数据计算，也可以直接传入共享的统计结果
  *
  * @since 1.0.0
  */
@@ -40,9 +38,9 @@ public abstract class AbstractScoreFunction implements NumberScoreFunction<Doubl
      */
     protected List<Column> columns;
     /**
-     * 需要缓存的数据
+     * 列统计量
      */
-    private ConcurrentHashMap<String, Double> valueCache;
+    private volatile ColumnStatistics statistics;
 
     /**
      * 无参构造
@@ -51,7 +49,7 @@ public abstract class AbstractScoreFunction implements NumberScoreFunction<Doubl
      * @return
      */
     public AbstractScoreFunction() {
-        this(null);
+        this((List<Column>) null);
     }
 
     /**
@@ -62,7 +60,34 @@ public abstract class AbstractScoreFunction implements NumberScoreFunction<Doubl
      */
     public AbstractScoreFunction(List<Column> columns) {
         this.columns = columns;
-        this.valueCache = new ConcurrentHashMap<>(8);
+    }
+
+    /**
+     * 构造器，使用已有的统计结果
+     *
+     * @param statistics
+     * @return
+     */
+    public AbstractScoreFunction(ColumnStatistics statistics) {
+        if (statistics == null) {
+            throw new IllegalArgumentException("Statistics must not be null");
+        }
+        this.statistics = statistics;
+    }
+
+    /**
+     * 列统计量
+     *
+     * @param
+     * @return com.ppwx.easysearch.core.function.ColumnStatistics
+     */
+    public final ColumnStatistics statistics() {
+        ColumnStatistics statistics = this.statistics;
+        if (statistics == null) {
+            checkNotNull();
+            statistics = this.statistics = ColumnStatistics.of(columns);
+        }
+        return statistics;
     }
     /**
      * 最小值
@@ -71,12 +96,7 @@ public abstract class AbstractScoreFunction implements NumberScoreFunction<Doubl
      * @return int
      */
     public final double min() {
-        return valueCache.computeIfAbsent("min", k -> {
-            checkNotNull();
-
-            OptionalDouble min = columns.stream().filter(Objects::nonNull).mapToDouble(Column::asLong).min();
-            return min.orElse(0.0);
-        });
+        return statistics().min();
     }
     /**
      * 最大值
@@ -85,12 +105,7 @@ public abstract class AbstractScoreFunction implements NumberScoreFunction<Doubl
      * @return int
      */
     public final double max() {
-        return valueCache.computeIfAbsent("max", k -> {
-            checkNotNull();
-
-            OptionalDouble max = columns.stream().filter(Objects::nonNull).mapToDouble(Column::asLong).max();
-            return max.orElse(0.0);
-        });
+        return statistics().max();
     }
     /**
      * 计算平均值
@@ -99,12 +114,7 @@ public abstract class AbstractScoreFunction implements NumberScoreFunction<Doubl
      * @return double
      */
     public final double mean() {
-        return valueCache.computeIfAbsent("mean", k -> {
-            checkNotNull();
-
-            OptionalDouble average = columns.stream().filter(Objects::nonNull).mapToDouble(Column::asLong).average();
-            return average.orElse(0.0);
-        });
+        return statistics().mean();
     }
     /**
      * 计算标准差
@@ -113,19 +123,16 @@ public abstract class AbstractScoreFunction implements NumberScoreFunction<Doubl
      * @return double
      */
     public final double standardDeviation() {
-        return valueCache.computeIfAbsent("standardDeviation", k -> {
-            checkNotNull();
-
-            double sum = 0.0;
-            double mean = mean();
-
-            for (Column col : columns) {
-                sum += Math.pow(col.asDouble() - mean, 2);
-            }
-
-            double variance = sum / columns.size();
-            return Math.sqrt(variance);
-        });
+        return statistics().standardDeviation();
+    }
+    /**
+     * 分位数
+     *
+     * @param q
+     * @return double
+     */
+    public final double quantile(double q) {
+        return statistics().quantile(q);
     }
 
     private void checkNotNull() {
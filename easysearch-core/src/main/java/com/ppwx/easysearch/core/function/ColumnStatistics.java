@@ -0,0 +1,241 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.function;
+
+import com.ppwx.easysearch.core.data.Column;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ *
+ * 列统计量
+ * 一次遍历double[]得到数量、最小值、最大值、均值与方差(Welford算法)，分位数在首次使用时基于排序副本计算
+ * 同一列的多个归一化函数可以共享同一个实例，NaN不参与统计
+ *
+ * @since 1.0.0
+ */
+public final class ColumnStatistics {
+    /**
+     * 空统计
+     */
+    public static final ColumnStatistics EMPTY = new ColumnStatistics(new double[0], 0, 0.0, 0.0, 0.0, 0.0);
+
+    private final int count;
+
+    private final double min;
+
+    private final double max;
+
+    private final double mean;
+    /**
+     * 总体方差
+     */
+    private final double variance;
+    /**
+     * 参与统计的值，分位数计算时排序
+     */
+    private final double[] values;
+
+    private volatile double[] sorted;
+
+    private ColumnStatistics(double[] values, int count, double min, double max, double mean, double variance) {
+        this.values = values;
+        this.count = count;
+        this.min = min;
+        this.max = max;
+        this.mean = mean;
+        this.variance = variance;
+    }
+
+    /**
+     * 统计数组
+     *
+     * @param values
+     * @return com.ppwx.easysearch.core.function.ColumnStatistics
+     */
+    public static ColumnStatistics of(double[] values) {
+        return of(values, 0, values.length);
+    }
+
+    /**
+     * 统计数组的[from, to)区间
+     *
+     * @param values
+     * @param from
+     * @param to
+     * @return com.ppwx.easysearch.core.function.ColumnStatistics
+     */
+    public static ColumnStatistics of(double[] values, int from, int to) {
+        if (values == null) {
+            throw new IllegalArgumentException("Values must not be null");
+        }
+        if (from < 0 || to > values.length || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + values.length);
+        }
+        return summarize(Arrays.copyOfRange(values, from, to), to - from);
+    }
+
+    /**
+     * 统计列，忽略空值
+     *
+     * @param columns
+     * @return com.ppwx.easysearch.core.function.ColumnStatistics
+     */
+    public static ColumnStatistics of(List<Column> columns) {
+        if (columns == null) {
+            throw new IllegalArgumentException("Columns must not be null");
+        }
+        double[] values = new double[columns.size()];
+        int size = 0;
+        for (Column column : columns) {
+            if (column == null || column.getRawData() == null) {
+                continue;
+            }
+            values[size++] = column.asDouble();
+        }
+        return summarize(values, size);
+    }
+
+    /**
+     * 单遍统计数组前size个值，NaN原地剔除，数组由调用方转交不再复制
+     *
+     * @param values
+     * @param size
+     * @return com.ppwx.easysearch.core.function.ColumnStatistics
+     */
+    private static ColumnStatistics summarize(double[] values, int size) {
+        int count = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double mean = 0.0;
+        double m2 = 0.0;
+        for (int i = 0; i < size; i++) {
+            double value = values[i];
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            values[count++] = value;
+            if (value < min) {
+                min = value;
+            }
+            if (value > max) {
+                max = value;
+            }
+            double delta = value - mean;
+            mean += delta / count;
+            m2 += delta * (value - mean);
+        }
+        if (count == 0) {
+            return EMPTY;
+        }
+        return new ColumnStatistics(values, count, min, max, mean, m2 / count);
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * 最小值，无数据时为0
+     *
+     * @return double
+     */
+    public double min() {
+        return min;
+    }
+
+    /**
+     * 最大值，无数据时为0
+     *
+     * @return double
+     */
+    public double max() {
+        return max;
+    }
+
+    /**
+     * 均值，无数据时为0
+     *
+     * @return double
+     */
+    public double mean() {
+        return mean;
+    }
+
+    /**
+     * 总体方差
+     *
+     * @return double
+     */
+    public double variance() {
+        return variance;
+    }
+
+    /**
+     * 总体标准差
+     *
+     * @return double
+     */
+    public double standardDeviation() {
+        return Math.sqrt(variance);
+    }
+
+    /**
+     * 分位数，相邻秩线性插值，无数据时为0
+     *
+     * @param q [0,1]
+     * @return double
+     */
+    public double quantile(double q) {
+        if (q < 0.0 || q > 1.0 || Double.isNaN(q)) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]");
+        }
+        if (count == 0) {
+            return 0.0;
+        }
+        double[] sorted = sorted();
+        double rank = q * (count - 1);
+        int lower = (int) rank;
+        if (lower >= count - 1) {
+            return sorted[count - 1];
+        }
+        double fraction = rank - lower;
+        return sorted[lower] + fraction * (sorted[lower + 1] - sorted[lower]);
+    }
+
+    private double[] sorted() {
+        double[] sorted = this.sorted;
+        if (sorted == null) {
+            sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            this.sorted = sorted;
+        }
+        return sorted;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnStatistics{" +
+                "count=" + count +
+                ", min=" + min +
+                ", max=" + max +
+                ", mean=" + mean +
+                ", variance=" + variance +
+                '}';
+    }
+}
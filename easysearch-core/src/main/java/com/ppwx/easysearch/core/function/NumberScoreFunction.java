@@ -33,6 +33,37 @@ public interface NumberScoreFunction<R> extends Function<R> {
      */
     double score(Number value);
 
+    /**
+     * 批量计算分值，结果写入out，in与out可以是同一个数组
+     * 默认逐个装箱调用{@link #score(Number)}，实现类应覆盖为原生计算
+     *
+     * @param in
+     * @param out 长度不小于in
+     * @return void
+     */
+    default void score(double[] in, double[] out) {
+        checkBatch(in, out);
+        for (int i = 0; i < in.length; i++) {
+            out[i] = score(in[i]);
+        }
+    }
+
     @Override
     R apply(Column column);
+
+    /**
+     * 校验批量参数
+     *
+     * @param in
+     * @param out
+     * @return void
+     */
+    static void checkBatch(double[] in, double[] out) {
+        if (in == null || out == null) {
+            throw new IllegalArgumentException("Input and output must not be null");
+        }
+        if (out.length < in.length) {
+            throw new IllegalArgumentException("Output length must not be less than input length");
+        }
+    }
 }
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.function.location;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.function.Function;
+import com.ppwx.easysearch.core.util.GeoDistanceUtil;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import java.util.Collections;
+
+import static com.ppwx.easysearch.core.util.GeoDistanceUtil.EARTH_RADIUS;
+
+/**
+ *
+ * 批量球面距离计算
+ * 短距离使用等距圆柱投影(equirectangular)近似，不需要逐行三角函数；超出快速计算范围或落在半径边界附近时使用
+ * {@link GeoDistanceUtil#calculateDistance}精确计算，保证半径过滤结果与精确计算一致
+ *
+ * @since 1.0.0
+ */
+public class BatchDistanceFunc implements Function<Double> {
+    /**
+     * 默认快速计算的最大距离（米）
+     */
+    public static final double DEFAULT_FAST_PATH_DISTANCE = 100_000D;
+    /**
+     * 默认半径边界的相对容差，近似误差远小于该值
+     */
+    public static final double DEFAULT_TOLERANCE = 0.01D;
+    /**
+     * 快速计算的最大纬度，高纬度地区近似误差较大
+     */
+    private static final double FAST_PATH_MAX_LATITUDE = 80D;
+
+    private static final double RADIANS = Math.PI / 180.0;
+
+    private final double originLat;
+
+    private final double originLon;
+
+    private final double originLatRad;
+
+    private final double originLonRad;
+
+    private final double cosOriginLat;
+
+    private final double sinOriginLat;
+
+    private final boolean fastPathEnabled;
+
+    private double fastPathDistance = DEFAULT_FAST_PATH_DISTANCE;
+
+    private double tolerance = DEFAULT_TOLERANCE;
+
+    public BatchDistanceFunc(double lat, double lon) {
+        this.originLat = lat;
+        this.originLon = lon;
+        this.originLatRad = lat * RADIANS;
+        this.originLonRad = lon * RADIANS;
+        this.cosOriginLat = Math.cos(originLatRad);
+        this.sinOriginLat = Math.sin(originLatRad);
+        this.fastPathEnabled = Math.abs(lat) <= FAST_PATH_MAX_LATITUDE;
+    }
+
+    public void setFastPathDistance(double fastPathDistance) {
+        this.fastPathDistance = fastPathDistance;
+    }
+
+    public void setTolerance(double tolerance) {
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("Tolerance must not be negative");
+        }
+        this.tolerance = tolerance;
+    }
+
+    @Override
+    public Double apply(Column column) {
+        GeoPoints points = GeoPoints.of(Collections.singletonList(column));
+        if (!points.isValid(0)) {
+            return 0.0;
+        }
+        return distance(points.latitude(0), points.longitude(0), 0);
+    }
+
+    /**
+     * 批量计算距离，无效坐标为NaN
+     *
+     * @param points
+     * @param out
+     * @return void
+     */
+    public void distances(GeoPoints points, double[] out) {
+        distances(points, 0, out);
+    }
+
+    /**
+     * 批量计算距离，无效坐标为NaN
+     * 半径内的距离与精确计算误差不超过容差；半径外的行只保证结果大于半径
+     *
+     * @param points
+     * @param radius 小于等于0时不限制
+     * @param out
+     * @return void
+     */
+    public void distances(GeoPoints points, double radius, double[] out) {
+        int size = points.size();
+        if (out.length < size) {
+            throw new IllegalArgumentException("Output length must not be less than points size");
+        }
+        double[] latitudes = points.latitudes();
+        double[] longitudes = points.longitudes();
+        for (int i = 0; i < size; i++) {
+            double lat = latitudes[i];
+            double lon = longitudes[i];
+            out[i] = Double.isNaN(lat) || Double.isNaN(lon) ? Double.NaN : distance(lat, lon, radius);
+        }
+    }
+
+    /**
+     * 半径内的行下标，保持原顺序，无效坐标视为不在半径内
+     *
+     * @param points
+     * @param radius
+     * @return int[]
+     */
+    public int[] within(GeoPoints points, double radius) {
+        if (radius <= 0) {
+            throw new IllegalArgumentException("Radius must be positive");
+        }
+        double[] distances = new double[points.size()];
+        distances(points, radius, distances);
+        IntArrayList retained = new IntArrayList(distances.length);
+        for (int i = 0; i < distances.length; i++) {
+            if (distances[i] <= radius) {
+                retained.add(i);
+            }
+        }
+        return retained.toIntArray();
+    }
+
+    private double distance(double lat, double lon, double radius) {
+        if (fastPathEnabled) {
+            double approx = approximate(lat, lon);
+            if (approx <= fastPathDistance) {
+                // 半径边界附近使用精确计算
+                if (radius <= 0 || Math.abs(approx - radius) > radius * tolerance) {
+                    return approx;
+                }
+            } else if (radius > 0 && radius * (1 + tolerance) <= fastPathDistance) {
+                // 半径内的点近似值必然在快速计算范围内，超出范围的点一定在半径外
+                return approx;
+            }
+        }
+        return GeoDistanceUtil.calculateDistance(lat, lon, originLat, originLon);
+    }
+
+    /**
+     * 等距圆柱投影近似，平均纬度的余弦由原点处的一阶展开得到
+     */
+    private double approximate(double lat, double lon) {
+        double dLat = lat * RADIANS - originLatRad;
+        double dLon = lon * RADIANS - originLonRad;
+        if (dLon > Math.PI) {
+            dLon -= 2 * Math.PI;
+        } else if (dLon < -Math.PI) {
+            dLon += 2 * Math.PI;
+        }
+        double x = dLon * (cosOriginLat - sinOriginLat * dLat * 0.5);
+        return EARTH_RADIUS * Math.sqrt(x * x + dLat * dLat);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.function.location;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.DataSet;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.ppwx.easysearch.core.data.model.Key.COLUMN_LATITUDE;
+import static com.ppwx.easysearch.core.data.model.Key.COLUMN_LONGITUDE;
+
+/**
+ *
+ * 经纬度列，坐标一次性解析到平行的double[]中，缺失或无法解析的坐标记为NaN
+ * 支持{"lat":..,"lon":..}形式的json或Map字段
+ *
+ * @since 1.0.0
+ */
+public final class GeoPoints {
+
+    private final double[] latitudes;
+
+    private final double[] longitudes;
+
+    private GeoPoints(double[] latitudes, double[] longitudes) {
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+    }
+
+    /**
+     * 直接使用经纬度数组
+     *
+     * @param latitudes
+     * @param longitudes
+     * @return com.ppwx.easysearch.core.function.location.GeoPoints
+     */
+    public static GeoPoints of(double[] latitudes, double[] longitudes) {
+        if (latitudes == null || longitudes == null || latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("Latitudes and longitudes must have the same length");
+        }
+        return new GeoPoints(latitudes, longitudes);
+    }
+
+    /**
+     * 解析位置列
+     *
+     * @param columns
+     * @return com.ppwx.easysearch.core.function.location.GeoPoints
+     */
+    public static GeoPoints of(List<Column> columns) {
+        int size = columns.size();
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        int i = 0;
+        for (Column column : columns) {
+            Object raw = column == null ? null : column.getRawData();
+            if (raw instanceof Map) {
+                Map<?, ?> location = (Map<?, ?>) raw;
+                latitudes[i] = toDouble(location.get(COLUMN_LATITUDE));
+                longitudes[i] = toDouble(location.get(COLUMN_LONGITUDE));
+            } else {
+                latitudes[i] = Double.NaN;
+                longitudes[i] = Double.NaN;
+            }
+            i++;
+        }
+        return new GeoPoints(latitudes, longitudes);
+    }
+
+    /**
+     * 解析数据集中的位置字段
+     *
+     * @param dataSet
+     * @param field
+     * @return com.ppwx.easysearch.core.function.location.GeoPoints
+     */
+    public static GeoPoints of(DataSet dataSet, String field) {
+        return of(dataSet.column(field));
+    }
+
+    private static double toDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Double.parseDouble((String) value);
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+        return Double.NaN;
+    }
+
+    public int size() {
+        return latitudes.length;
+    }
+
+    public double latitude(int idx) {
+        return latitudes[idx];
+    }
+
+    public double longitude(int idx) {
+        return longitudes[idx];
+    }
+
+    /**
+     * 坐标是否有效
+     *
+     * @param idx
+     * @return boolean
+     */
+    public boolean isValid(int idx) {
+        return !Double.isNaN(latitudes[idx]) && !Double.isNaN(longitudes[idx]);
+    }
+
+    double[] latitudes() {
+        return latitudes;
+    }
+
+    double[] longitudes() {
+        return longitudes;
+    }
+}
@@ -64,7 +64,18 @@ public class FiniteNormalizeFunc implements NumberScoreFunction<Double> {
      */
     @Override
     public double score(Number value) {
-        double normalizedValue = (value == null ? 0.0 : value.doubleValue());
+        return score(value == null ? 0.0 : value.doubleValue());
+    }
+
+    @Override
+    public void score(double[] in, double[] out) {
+        NumberScoreFunction.checkBatch(in, out);
+        for (int i = 0; i < in.length; i++) {
+            out[i] = score(in[i]);
+        }
+    }
+
+    private double score(double normalizedValue) {
         double maxValue;
         double minValue;
         double result;
@@ -17,6 +17,7 @@
 package com.ppwx.easysearch.core.function.normalize;
 
 import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.function.ColumnStatistics;
 import com.ppwx.easysearch.core.function.NumberScoreFunction;
 import org.apache.commons.math.util.FastMath;
 
@@ -56,12 +57,32 @@ public class GaussNormalizeFunc implements NumberScoreFunction<Double> {
         this.standardDeviation = standardDeviation;
     }
 
+    /**
+     * 以列统计的均值与标准差构造
+     *
+     * @param statistics
+     * @return
+     */
+    public GaussNormalizeFunc(ColumnStatistics statistics) {
+        this(statistics.mean(), statistics.standardDeviation());
+    }
+
     @Override
     public double score(Number value) {
         double x0 = value.doubleValue() - mean;
         return FastMath.exp(-x0 * x0 / (2 * standardDeviation * standardDeviation));
     }
 
+    @Override
+    public void score(double[] in, double[] out) {
+        NumberScoreFunction.checkBatch(in, out);
+        double denominator = 2 * standardDeviation * standardDeviation;
+        for (int i = 0; i < in.length; i++) {
+            double x0 = in[i] - mean;
+            out[i] = FastMath.exp(-x0 * x0 / denominator);
+        }
+    }
+
     @Override
     public Double apply(Column column) {
         return score(column.asDouble());
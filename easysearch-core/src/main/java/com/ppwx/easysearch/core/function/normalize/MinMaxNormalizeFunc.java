@@ -18,7 +18,10 @@ package com.ppwx.easysearch.core.function.normalize;
 
 import com.ppwx.easysearch.core.data.Column;
 import com.ppwx.easysearch.core.function.AbstractScoreFunction;
+import com.ppwx.easysearch.core.function.ColumnStatistics;
+import com.ppwx.easysearch.core.function.NumberScoreFunction;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -49,6 +52,16 @@ public class MinMaxNormalizeFunc extends AbstractScoreFunction {
         super(columns);
     }
 
+    /**
+     * 构造器
+     *
+     * @param statistics
+     * @return
+     */
+    public MinMaxNormalizeFunc(ColumnStatistics statistics) {
+        super(statistics);
+    }
+
     @Override
     public double score(Number value) {
         double diff = max() - min();
@@ -58,4 +71,18 @@ public class MinMaxNormalizeFunc extends AbstractScoreFunction {
         return ((value.doubleValue() - min())/(max() - min()));
     }
 
+    @Override
+    public void score(double[] in, double[] out) {
+        NumberScoreFunction.checkBatch(in, out);
+        double min = min();
+        double diff = max() - min;
+        if (Double.compare(diff, 0.0) == 0) {
+            Arrays.fill(out, 0, in.length, diff);
+            return;
+        }
+        for (int i = 0; i < in.length; i++) {
+            out[i] = (in[i] - min) / diff;
+        }
+    }
+
 }
\ No newline at end of file
@@ -17,22 +17,28 @@
 package com.ppwx.easysearch.core.function.normalize;
 
 import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.function.ColumnStatistics;
 import com.ppwx.easysearch.core.function.NumberScoreFunction;
+import io.netty.util.internal.ObjectUtil;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  *
  * 数据段评分归一
+ * 分段点保存为有序double[]，按二分查找定位所在分段
  *
  * @since 1.0.0
  */
 public class RangeScoreNormalizeFunc implements NumberScoreFunction<Double> {
-    
-    private Map<Double, Double> mapping;
-    
-    private List<Double> rangeArr;
+    /**
+     * 升序分段点
+     */
+    private double[] rangeArr;
+    /**
+     * 分段点对应的分值
+     */
+    private double[] scores;
     
     private double overflowScore;
     /**
@@ -48,6 +54,25 @@ public class RangeScoreNormalizeFunc implements NumberScoreFunction<Double> {
         this.overflowScore = overflowScore;
     }
 
+    /**
+     * 按分位数分段，分段点取列统计中对应分位数的值
+     * 示例：{0.5: 1.0, 0.9: 0.5}表示不超过中位数得1分，不超过90分位得0.5分，其余为overflowScore
+     *
+     * @param statistics
+     * @param quantileMapping 分位数 -> 分值
+     * @param overflowScore 超出最大范围的分值
+     * @return com.ppwx.easysearch.core.function.normalize.RangeScoreNormalizeFunc
+     */
+    public static RangeScoreNormalizeFunc ofQuantiles(ColumnStatistics statistics, Map<Double, Double> quantileMapping,
+                                                      double overflowScore) {
+        ObjectUtil.checkNotNull(statistics, "statistics");
+        ObjectUtil.checkNotNull(quantileMapping, "quantileMapping");
+        Map<Double, Double> mapping = new HashMap<>(quantileMapping.size());
+        // 分位数升序处理，分段点重合时保留较小分位数的分值
+        new TreeMap<>(quantileMapping).forEach((q, score) -> mapping.putIfAbsent(statistics.quantile(q), score));
+        return new RangeScoreNormalizeFunc(mapping, overflowScore);
+    }
+
     /**
      * 将数据分段映射,去头含尾
      * 示例：1km内 +0.9分；3km内 +0.8分；5km内 +0.6分；10km内+0.4分；10km及以上 +0.2分
@@ -57,23 +82,46 @@ public class RangeScoreNormalizeFunc implements NumberScoreFunction<Double> {
      * @return void
      */
     private void parseMapping(Map<Double, Double> mapping) {
-        List<Double> rangeArr = mapping.keySet().stream().collect(Collectors.toList());
-        Collections.sort(rangeArr);
-        this.rangeArr = rangeArr;
-        this.mapping = new HashMap<>(mapping);
+        List<Double> ranges = new ArrayList<>(mapping.keySet());
+        Collections.sort(ranges);
+        this.rangeArr = new double[ranges.size()];
+        this.scores = new double[ranges.size()];
+        for (int i = 0; i < ranges.size(); i++) {
+            rangeArr[i] = ranges.get(i);
+            scores[i] = mapping.get(ranges.get(i));
+        }
     }
 
     @Override
     public double score(Number value) {
-        Optional<Double> find = rangeArr.stream().filter(v -> Double.compare(value.doubleValue(), v) <= 0).findFirst();
-        if (find.isPresent()) {
-            return mapping.get(find.get());
+        return score(value.doubleValue());
+    }
+
+    @Override
+    public void score(double[] in, double[] out) {
+        NumberScoreFunction.checkBatch(in, out);
+        for (int i = 0; i < in.length; i++) {
+            out[i] = score(in[i]);
+        }
+    }
+
+    private double score(double value) {
+        // 第一个不小于value的分段点
+        int low = 0;
+        int high = rangeArr.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Double.compare(value, rangeArr[mid]) <= 0) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
         }
-        return overflowScore;
+        return low < rangeArr.length ? scores[low] : overflowScore;
     }
 
     @Override
     public Double apply(Column column) {
         return score(column.asDouble());
     }
-}
\ No newline at end of file
+}
@@ -18,7 +18,10 @@ package com.ppwx.easysearch.core.function.normalize;
 
 import com.ppwx.easysearch.core.data.Column;
 import com.ppwx.easysearch.core.function.AbstractScoreFunction;
+import com.ppwx.easysearch.core.function.ColumnStatistics;
+import com.ppwx.easysearch.core.function.NumberScoreFunction;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -49,6 +52,16 @@ public class ZScoreNormalizeFunc extends AbstractScoreFunction {
         super(columns);
     }
 
+    /**
+     * 构造器
+     *
+     * @param statistics
+     * @return
+     */
+    public ZScoreNormalizeFunc(ColumnStatistics statistics) {
+        super(statistics);
+    }
+
     @Override
     public double score(Number value) {
         double standardDeviation = standardDeviation();
@@ -58,4 +71,18 @@ public class ZScoreNormalizeFunc extends AbstractScoreFunction {
         return (value.doubleValue() - mean()) / standardDeviation();
     }
 
+    @Override
+    public void score(double[] in, double[] out) {
+        NumberScoreFunction.checkBatch(in, out);
+        double standardDeviation = standardDeviation();
+        if (Double.compare(standardDeviation, 0.0) == 0) {
+            Arrays.fill(out, 0, in.length, 0.0);
+            return;
+        }
+        double mean = mean();
+        for (int i = 0; i < in.length; i++) {
+            out[i] = (in[i] - mean) / standardDeviation;
+        }
+    }
+
 }
\ No newline at end of file
@@ -18,6 +18,7 @@ package com.ppwx.easysearch.core.function.timeliness;
 
 import com.ppwx.easysearch.core.data.Column;
 import com.ppwx.easysearch.core.function.AbstractScoreFunction;
+import com.ppwx.easysearch.core.function.ColumnStatistics;
 import com.ppwx.easysearch.core.function.NumberScoreFunction;
 import com.ppwx.easysearch.core.function.normalize.FiniteNormalizeFunc;
 import com.ppwx.easysearch.core.function.normalize.GaussNormalizeFunc;
@@ -39,7 +40,7 @@ public class TimelinessFunc extends AbstractScoreFunction {
     /**
      * 归一化
      */
-    private NumberScoreFunction finiteNormalize;
+    private NumberScoreFunction<?> finiteNormalize;
 
     public TimelinessFunc() {
         super(Collections.emptyList());
@@ -50,6 +51,11 @@ public class TimelinessFunc extends AbstractScoreFunction {
         currSeconds = CurrentTimeUtil.currentTimeSeconds();
     }
 
+    public TimelinessFunc(ColumnStatistics statistics) {
+        super(statistics);
+        currSeconds = CurrentTimeUtil.currentTimeSeconds();
+    }
+
     /**
      * 要评估的字段，类型必须为数值，单位为秒
      * 值域为[0,1]，值越大表示时效性越好。若大于当前时间则返回0
@@ -62,6 +68,22 @@ public class TimelinessFunc extends AbstractScoreFunction {
         if (value == null || value.longValue() > currSeconds) {
             return 0.0D;
         }
+        return normalizer().score(value);
+    }
+
+    @Override
+    public void score(double[] in, double[] out) {
+        NumberScoreFunction.checkBatch(in, out);
+        double[] values = in == out ? in.clone() : in;
+        normalizer().score(values, out);
+        for (int i = 0; i < values.length; i++) {
+            if ((long) values[i] > currSeconds) {
+                out[i] = 0.0D;
+            }
+        }
+    }
+
+    private NumberScoreFunction<?> normalizer() {
         if (finiteNormalize == null) {
             if (min() == 0.0) {
                 finiteNormalize = new FiniteNormalizeFunc(currSeconds, currSeconds - TimeUnit.DAYS.toSeconds(365));
@@ -69,7 +91,7 @@ public class TimelinessFunc extends AbstractScoreFunction {
                 finiteNormalize = new GaussNormalizeFunc(currSeconds, standardDeviation());
             }
         }
-        return finiteNormalize.score(value);
+        return finiteNormalize;
     }
 
     @Override
@@ -18,6 +18,7 @@ package com.ppwx.easysearch.core.function.timeliness;
 
 import com.ppwx.easysearch.core.data.Column;
 import com.ppwx.easysearch.core.function.AbstractScoreFunction;
+import com.ppwx.easysearch.core.function.ColumnStatistics;
 import com.ppwx.easysearch.core.function.NumberScoreFunction;
 import com.ppwx.easysearch.core.function.normalize.FiniteNormalizeFunc;
 import com.ppwx.easysearch.core.function.normalize.GaussNormalizeFunc;
@@ -40,7 +41,7 @@ public class TimelinessMsFunc extends AbstractScoreFunction {
     /**
      * 归一化
      */
-    private NumberScoreFunction finiteNormalize;
+    private NumberScoreFunction<?> finiteNormalize;
 
     public TimelinessMsFunc() {
         super(Collections.emptyList());
@@ -51,6 +52,11 @@ public class TimelinessMsFunc extends AbstractScoreFunction {
         currMills = CurrentTimeUtil.currentTimeMillis();
     }
 
+    public TimelinessMsFunc(ColumnStatistics statistics) {
+        super(statistics);
+        currMills = CurrentTimeUtil.currentTimeMillis();
+    }
+
     /**
      * 要评估的字段，类型必须为int32或int64，单位为毫秒值
      * float，值域为[0,1]，值越大表示时效性越好。若大于当前时间则返回0
@@ -63,6 +69,22 @@ public class TimelinessMsFunc extends AbstractScoreFunction {
         if (value == null || value.longValue() > currMills) {
             return 0.0D;
         }
+        return normalizer().score(value);
+    }
+
+    @Override
+    public void score(double[] in, double[] out) {
+        NumberScoreFunction.checkBatch(in, out);
+        double[] values = in == out ? in.clone() : in;
+        normalizer().score(values, out);
+        for (int i = 0; i < values.length; i++) {
+            if ((long) values[i] > currMills) {
+                out[i] = 0.0D;
+            }
+        }
+    }
+
+    private NumberScoreFunction<?> normalizer() {
         if (finiteNormalize == null) {
             if (min() == 0.0) {
                 finiteNormalize = new FiniteNormalizeFunc(currMills, currMills - TimeUnit.DAYS.toMillis(365));
@@ -70,7 +92,7 @@ public class TimelinessMsFunc extends AbstractScoreFunction {
                 finiteNormalize = new GaussNormalizeFunc(currMills, standardDeviation());
             }
         }
-        return finiteNormalize.score(value);
+        return finiteNormalize;
     }
 
     @Override
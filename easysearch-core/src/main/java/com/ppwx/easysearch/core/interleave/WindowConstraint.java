@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.interleave;
+
+/**
+ *
+ * 窗口约束：任意连续window个位置内，同一属性值最多出现maxCount次
+ * 例如品牌每5个最多2个：new WindowConstraint("brand", 2, 5)
+ *
+ * @since 1.0.0
+ */
+public final class WindowConstraint {
+
+    private final String field;
+
+    private final int maxCount;
+
+    private final int window;
+
+    public WindowConstraint(String field, int maxCount, int window) {
+        if (field == null) {
+            throw new IllegalArgumentException("field can not be null.");
+        }
+        if (maxCount < 1 || window < 1) {
+            throw new IllegalArgumentException("maxCount and window must be positive.");
+        }
+        this.field = field;
+        this.maxCount = maxCount;
+        this.window = window;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public int getMaxCount() {
+        return maxCount;
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    @Override
+    public String toString() {
+        return field + "<=" + maxCount + "/" + window;
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.interleave;
+
+import it.unimi.dsi.fastutil.ints.IntHeapPriorityQueue;
+import it.unimi.dsi.fastutil.ints.IntPriorityQueue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ *
+ * 窗口打散引擎
+ * 按原有顺序逐个放置，每个约束用环形缓冲维护最近window-1个位置的属性计数，判断是否违反约束为O(1)；
+ * 违反约束的物品进入对应属性值的等待队列，窗口滑出该属性值时唤醒队首，多个约束一次遍历完成
+ * <p/>
+ * 每个位置优先放置原有顺序最靠前且不违反任何约束的物品；剩余物品均违反约束时按原有顺序放宽
+ *
+ * @since 1.0.0
+ */
+public final class WindowInterleaver {
+
+    /**
+     * 无属性值，不受约束
+     */
+    public static final int NO_CODE = -1;
+
+    private final int size;
+
+    private final List<Constraint> constraints = new ArrayList<>();
+
+    public WindowInterleaver(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative.");
+        }
+        this.size = size;
+    }
+
+    /**
+     * 添加约束
+     *
+     * @param codes 每个物品的属性编码，从0开始，{@link #NO_CODE}表示不受约束
+     * @param maxCount 窗口内同一属性值的最大数量
+     * @param window 窗口大小
+     * @return com.ppwx.easysearch.core.interleave.WindowInterleaver
+     */
+    public WindowInterleaver constraint(int[] codes, int maxCount, int window) {
+        if (codes == null || codes.length < size) {
+            throw new IllegalArgumentException("codes length must not less than size.");
+        }
+        if (maxCount < 1 || window < 1) {
+            throw new IllegalArgumentException("maxCount and window must be positive.");
+        }
+        if (maxCount < window) {
+            constraints.add(new Constraint(codes, size, maxCount, window));
+        }
+        return this;
+    }
+
+    /**
+     * 打散
+     *
+     * @param limit 打散数量，之后的物品按原有顺序追加，小于等于0时全部打散
+     * @return int[] 新顺序下的原始下标
+     */
+    public int[] interleave(int limit) {
+        int n = size;
+        int k = limit <= 0 ? n : Math.min(limit, n);
+        int[] order = new int[n];
+        Constraint[] cs = constraints.toArray(new Constraint[0]);
+        if (cs.length == 0) {
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            return order;
+        }
+        for (Constraint c : cs) {
+            c.reset();
+        }
+        boolean[] placed = new boolean[n];
+        // 物品所在等待队列的约束
+        int[] owner = new int[n];
+        IntPriorityQueue ready = new IntHeapPriorityQueue();
+        int cursor = 0;
+        int first = 0;
+        int count = 0;
+        int next;
+        while (count < k) {
+            next = -1;
+            while (!ready.isEmpty()) {
+                int i = ready.dequeueInt();
+                if (placed[i]) {
+                    continue;
+                }
+                int blocking = blocking(cs, i);
+                if (blocking < 0) {
+                    next = i;
+                    break;
+                }
+                // 被其他约束阻塞，转移队列并唤醒原队列的下一个
+                int origin = owner[i];
+                owner[i] = blocking;
+                cs[blocking].defer(i);
+                if (origin != blocking) {
+                    cs[origin].release(cs[origin].codes[i], ready, placed);
+                }
+            }
+            while (next < 0 && cursor < n) {
+                int i = cursor++;
+                int blocking = blocking(cs, i);
+                if (blocking < 0) {
+                    next = i;
+                } else {
+                    owner[i] = blocking;
+                    cs[blocking].defer(i);
+                }
+            }
+            if (next < 0) {
+                // 剩余物品均违反约束
+                while (placed[first]) {
+                    first++;
+                }
+                next = first;
+            }
+            placed[next] = true;
+            order[count++] = next;
+            for (Constraint c : cs) {
+                c.push(next, ready, placed);
+            }
+        }
+        for (int i = first; count < n; i++) {
+            if (!placed[i]) {
+                order[count++] = i;
+            }
+        }
+        return order;
+    }
+
+    private static int blocking(Constraint[] cs, int i) {
+        for (int j = 0; j < cs.length; j++) {
+            if (cs[j].blocks(i)) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 单个约束的窗口状态
+     */
+    private static final class Constraint {
+
+        private final int[] codes;
+
+        private final int maxCount;
+        /**
+         * 最近window-1个位置的属性编码
+         */
+        private final int[] ring;
+
+        private final int[] counts;
+
+        private final IntPriorityQueue[] queues;
+
+        private int start;
+
+        private int length;
+
+        Constraint(int[] codes, int size, int maxCount, int window) {
+            this.codes = codes;
+            this.maxCount = maxCount;
+            this.ring = new int[window - 1];
+            int cardinality = 0;
+            for (int i = 0; i < size; i++) {
+                cardinality = Math.max(cardinality, codes[i] + 1);
+            }
+            this.counts = new int[cardinality];
+            this.queues = new IntPriorityQueue[cardinality];
+        }
+
+        void reset() {
+            start = 0;
+            length = 0;
+            Arrays.fill(counts, 0);
+            Arrays.fill(queues, null);
+        }
+
+        boolean blocks(int i) {
+            int code = codes[i];
+            return code >= 0 && counts[code] >= maxCount;
+        }
+
+        void defer(int i) {
+            int code = codes[i];
+            IntPriorityQueue queue = queues[code];
+            if (queue == null) {
+                queue = queues[code] = new IntHeapPriorityQueue();
+            }
+            queue.enqueue(i);
+        }
+
+        /**
+         * 放置物品，滑出窗口的属性值有空位时唤醒其等待队列
+         */
+        void push(int i, IntPriorityQueue ready, boolean[] placed) {
+            int code = codes[i];
+            if (length == ring.length) {
+                int old = ring[start];
+                ring[start] = code;
+                start = (start + 1) % ring.length;
+                if (old >= 0) {
+                    counts[old]--;
+                    release(old, ready, placed);
+                }
+            } else {
+                ring[(start + length) % ring.length] = code;
+                length++;
+            }
+            if (code >= 0) {
+                counts[code]++;
+            }
+        }
+
+        void release(int code, IntPriorityQueue ready, boolean[] placed) {
+            if (code < 0 || counts[code] >= maxCount) {
+                return;
+            }
+            IntPriorityQueue queue = queues[code];
+            while (queue != null && !queue.isEmpty()) {
+                int i = queue.dequeueInt();
+                if (!placed[i]) {
+                    ready.enqueue(i);
+                    return;
+                }
+            }
+        }
+    }
+}
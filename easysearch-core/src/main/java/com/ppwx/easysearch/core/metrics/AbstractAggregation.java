@@ -31,6 +31,7 @@ class AbstractAggregation {
     void record(long duration, TimeUnit durationUnit, Metrics.Outcome outcome) {
         this.numberOfCalls++;
         this.totalDurationInMillis += durationUnit.toMillis(duration);
+        recordLatency(durationUnit.toNanos(duration));
         switch (outcome) {
             case SLOW_SUCCESS:
                 numberOfSlowCalls++;
@@ -50,4 +51,20 @@ class AbstractAggregation {
                 break;
         }
     }
+
+    /**
+     * Records the latency of a call, only aggregations with a histogram keep it.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    void recordLatency(long nanos) {
+    }
+
+    /**
+     * Removes the latencies of this aggregation from a total histogram.
+     *
+     * @param histogram the total histogram
+     */
+    void removeLatencyFrom(LatencyHistogram histogram) {
+    }
 }
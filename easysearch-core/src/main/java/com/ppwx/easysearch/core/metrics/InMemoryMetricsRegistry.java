@@ -22,11 +22,12 @@ import java.time.Clock;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
 
 /**
  * @className InMemoryMetricsRegistry
- * @description 基于内存的实例注册器
+ * @description 基于内存的实例注册器，默认使用无锁的{@link StripedSlidingTimeWindowMetrics}
  **/
 public class InMemoryMetricsRegistry implements MetricsRegistry<Metrics> {
 
@@ -34,9 +35,18 @@ public class InMemoryMetricsRegistry implements MetricsRegistry<Metrics> {
     private static final String TAGS_MUST_NOT_BE_NULL = "Tags must not be null";
 
     protected final Map<String, Metrics> registryTags;
+    /**
+     * 按窗口大小创建Metrics
+     */
+    private final IntFunction<Metrics> factory;
 
     public InMemoryMetricsRegistry(Map<String, Metrics> tags) {
+        this(tags, windowSize -> new StripedSlidingTimeWindowMetrics(windowSize, Clock.systemUTC()));
+    }
+
+    public InMemoryMetricsRegistry(Map<String, Metrics> tags, IntFunction<Metrics> factory) {
         this.registryTags = Objects.requireNonNull(tags, TAGS_MUST_NOT_BE_NULL);
+        this.factory = Objects.requireNonNull(factory, "Factory must not be null");
     }
 
     protected Metrics computeIfAbsent(String name, Supplier<Metrics> supplier) {
@@ -48,7 +58,7 @@ public class InMemoryMetricsRegistry implements MetricsRegistry<Metrics> {
     }
 
     private Metrics newMetrics(int windowSize) {
-        return new SlidingTimeWindowMetrics(windowSize, Clock.systemUTC());
+        return factory.apply(windowSize);
     }
 
     @Override
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.metrics;
+
+import java.util.Arrays;
+
+/**
+ * A log-linear bucketed latency histogram in nanoseconds, in the style of HdrHistogram.
+ * <p>
+ * Values below {@code 16} get an exact bucket each. Every power of two above that is split into
+ * {@code 16} linear sub-buckets, so the relative error of a reported value is at most 1/16. Values
+ * above {@code 2^41 - 1} nanoseconds (about 36 minutes) are counted in the last bucket.
+ * <p>
+ * The counts array grows on demand up to the largest bucket recorded and is kept across
+ * {@link #reset()}, so recording is allocation-free once the range of observed latencies is
+ * covered. Histograms can be merged and subtracted, which allows subtract-on-evict aggregation over
+ * time buckets. This class is not thread-safe.
+ *
+ * @since 1.0.0
+ */
+public class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int MAX_EXPONENT = 40;
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT * (MAX_EXPONENT - SUB_BUCKET_BITS + 2);
+
+    private static final int[] EMPTY = new int[0];
+
+    private int[] counts = EMPTY;
+    private long totalCount;
+
+    /**
+     * Records a value.
+     *
+     * @param nanos the latency in nanoseconds, negative values are treated as zero
+     */
+    public void record(long nanos) {
+        int idx = bucketIndex(nanos);
+        if (idx >= counts.length) {
+            grow(idx);
+        }
+        counts[idx]++;
+        totalCount++;
+    }
+
+    /**
+     * Removes a previously recorded value.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    void decrement(long nanos) {
+        int idx = bucketIndex(nanos);
+        if (idx < counts.length && counts[idx] > 0) {
+            counts[idx]--;
+            totalCount--;
+        }
+    }
+
+    /**
+     * Adds all counts of another histogram.
+     *
+     * @param other the histogram to add
+     */
+    public void add(LatencyHistogram other) {
+        int[] otherCounts = other.counts;
+        if (otherCounts.length > counts.length) {
+            grow(otherCounts.length - 1);
+        }
+        for (int i = 0; i < otherCounts.length; i++) {
+            counts[i] += otherCounts[i];
+        }
+        totalCount += other.totalCount;
+    }
+
+    /**
+     * Subtracts all counts of another histogram that was previously added.
+     *
+     * @param other the histogram to subtract
+     */
+    public void subtract(LatencyHistogram other) {
+        int[] otherCounts = other.counts;
+        int len = Math.min(otherCounts.length, counts.length);
+        for (int i = 0; i < len; i++) {
+            counts[i] -= otherCounts[i];
+        }
+        totalCount -= other.totalCount;
+    }
+
+    /**
+     * Adds the count of a single bucket.
+     */
+    void addBucket(int idx, int count) {
+        if (count == 0) {
+            return;
+        }
+        if (idx >= counts.length) {
+            grow(idx);
+        }
+        counts[idx] += count;
+        totalCount += count;
+    }
+
+    /**
+     * Clears all counts, keeping the allocated array.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the value at the given percentile, which is the upper bound of the first bucket whose
+     * cumulative count reaches {@code ceil(percentile / 100 * totalCount)}.
+     *
+     * @param percentile the percentile in [0, 100]
+     * @return the latency in nanoseconds, 0 if empty
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] values = new long[1];
+        getValuesAtPercentiles(new double[]{percentile}, values);
+        return values[0];
+    }
+
+    /**
+     * Resolves several ascending percentiles in a single pass.
+     *
+     * @param percentiles ascending percentiles in [0, 100]
+     * @param values      the output latencies in nanoseconds
+     */
+    public void getValuesAtPercentiles(double[] percentiles, long[] values) {
+        int p = 0;
+        if (totalCount <= 0) {
+            Arrays.fill(values, 0, percentiles.length, 0L);
+            return;
+        }
+        long cumulative = 0;
+        long target = countAtPercentile(percentiles[0]);
+        for (int i = 0; i < counts.length && p < percentiles.length; i++) {
+            cumulative += counts[i];
+            while (p < percentiles.length && cumulative >= target) {
+                values[p++] = highestEquivalentValue(i);
+                if (p < percentiles.length) {
+                    target = countAtPercentile(percentiles[p]);
+                }
+            }
+        }
+        for (; p < percentiles.length; p++) {
+            values[p] = highestEquivalentValue(counts.length - 1);
+        }
+    }
+
+    private long countAtPercentile(double percentile) {
+        return Math.max(1L, (long) Math.ceil(Math.min(100.0, percentile) / 100.0 * totalCount));
+    }
+
+    private void grow(int idx) {
+        int length = Math.min(BUCKET_COUNT, Math.max(idx + 1, counts.length + (counts.length >> 1)));
+        counts = Arrays.copyOf(counts, Math.max(length, SUB_BUCKET_COUNT));
+    }
+
+    /**
+     * Returns the bucket index of a value.
+     *
+     * @param nanos the latency in nanoseconds
+     * @return the bucket index
+     */
+    static int bucketIndex(long nanos) {
+        if (nanos < SUB_BUCKET_COUNT) {
+            return nanos <= 0 ? 0 : (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        return SUB_BUCKET_COUNT * (shift + 1) + (int) ((nanos >>> shift) & (SUB_BUCKET_COUNT - 1));
+    }
+
+    /**
+     * Returns the largest value that falls into the given bucket.
+     *
+     * @param idx the bucket index
+     * @return the latency in nanoseconds
+     */
+    static long highestEquivalentValue(int idx) {
+        if (idx < SUB_BUCKET_COUNT) {
+            return idx;
+        }
+        int shift = idx / SUB_BUCKET_COUNT - 1;
+        long lowest = (long) (SUB_BUCKET_COUNT + idx % SUB_BUCKET_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
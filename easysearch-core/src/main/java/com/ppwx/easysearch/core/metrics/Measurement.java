@@ -20,7 +20,22 @@ package com.ppwx.easysearch.core.metrics;
 
 class Measurement extends AbstractAggregation {
 
+    private long latencyInNanos;
+
+    @Override
+    void recordLatency(long nanos) {
+        this.latencyInNanos = nanos;
+    }
+
+    @Override
+    void removeLatencyFrom(LatencyHistogram histogram) {
+        if (numberOfCalls > 0) {
+            histogram.decrement(latencyInNanos);
+        }
+    }
+
     void reset() {
+        this.latencyInNanos = 0;
         this.totalDurationInMillis = 0;
         this.numberOfSlowCalls = 0;
         this.numberOfFailedCalls = 0;
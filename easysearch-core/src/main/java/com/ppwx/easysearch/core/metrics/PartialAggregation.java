@@ -21,6 +21,7 @@ package com.ppwx.easysearch.core.metrics;
 public class PartialAggregation extends AbstractAggregation {
 
     private long epochSecond;
+    private final LatencyHistogram histogram = new LatencyHistogram();
 
     PartialAggregation(long epochSecond) {
         this.epochSecond = epochSecond;
@@ -33,6 +34,17 @@ public class PartialAggregation extends AbstractAggregation {
         this.numberOfFailedCalls = 0;
         this.numberOfSlowFailedCalls = 0;
         this.numberOfCalls = 0;
+        this.histogram.reset();
+    }
+
+    @Override
+    void recordLatency(long nanos) {
+        histogram.record(nanos);
+    }
+
+    @Override
+    void removeLatencyFrom(LatencyHistogram total) {
+        total.subtract(histogram);
     }
 
     public long getEpochSecond() {
@@ -91,4 +91,40 @@ public interface Snapshot {
      * @return the current  failure rate in percentage
      */
     float getFailureRate();
+
+    /**
+     * Returns the median latency of all calls.
+     *
+     * @return the 50th percentile latency, {@link Duration#ZERO} if the implementation does not track latencies
+     */
+    default Duration getP50() {
+        return Duration.ZERO;
+    }
+
+    /**
+     * Returns the 90th percentile latency of all calls.
+     *
+     * @return the 90th percentile latency, {@link Duration#ZERO} if the implementation does not track latencies
+     */
+    default Duration getP90() {
+        return Duration.ZERO;
+    }
+
+    /**
+     * Returns the 99th percentile latency of all calls.
+     *
+     * @return the 99th percentile latency, {@link Duration#ZERO} if the implementation does not track latencies
+     */
+    default Duration getP99() {
+        return Duration.ZERO;
+    }
+
+    /**
+     * Returns the 99.9th percentile latency of all calls.
+     *
+     * @return the 99.9th percentile latency, {@link Duration#ZERO} if the implementation does not track latencies
+     */
+    default Duration getP999() {
+        return Duration.ZERO;
+    }
 }
@@ -22,19 +22,41 @@ import java.time.Duration;
 
 public class SnapshotImpl implements Snapshot {
 
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
     private final long totalDurationInMillis;
     private final int totalNumberOfSlowCalls;
     private final int totalNumberOfSlowFailedCalls;
     private final int totalNumberOfFailedCalls;
     private final int totalNumberOfCalls;
+    /**
+     * p50, p90, p99 and p999 in nanoseconds, captured together with the counts.
+     */
+    private final long[] percentileNanos = new long[PERCENTILES.length];
 
+    /**
+     * Creates a snapshot of a live aggregation. The caller must hold the lock that guards the
+     * aggregation, percentiles are resolved here so that they describe the same window as the counts.
+     *
+     * @param totalAggregation the live aggregation
+     */
     SnapshotImpl(TotalAggregation totalAggregation) {
-        this.totalDurationInMillis = totalAggregation.totalDurationInMillis;
-        this.totalNumberOfSlowCalls = totalAggregation.numberOfSlowCalls;
-        this.totalNumberOfSlowFailedCalls = totalAggregation.numberOfSlowFailedCalls;
-        this.totalNumberOfFailedCalls = totalAggregation.numberOfFailedCalls;
-        this.totalNumberOfCalls = totalAggregation.numberOfCalls;
+        this(totalAggregation.totalDurationInMillis, totalAggregation.numberOfSlowCalls,
+            totalAggregation.numberOfSlowFailedCalls, totalAggregation.numberOfFailedCalls,
+            totalAggregation.numberOfCalls, totalAggregation.histogram);
+    }
 
+    /**
+     * Creates a snapshot from the given counts, resolving the percentiles from the histogram.
+     */
+    SnapshotImpl(long totalDurationInMillis, int totalNumberOfSlowCalls, int totalNumberOfSlowFailedCalls,
+                 int totalNumberOfFailedCalls, int totalNumberOfCalls, LatencyHistogram histogram) {
+        this.totalDurationInMillis = totalDurationInMillis;
+        this.totalNumberOfSlowCalls = totalNumberOfSlowCalls;
+        this.totalNumberOfSlowFailedCalls = totalNumberOfSlowFailedCalls;
+        this.totalNumberOfFailedCalls = totalNumberOfFailedCalls;
+        this.totalNumberOfCalls = totalNumberOfCalls;
+        histogram.getValuesAtPercentiles(PERCENTILES, percentileNanos);
     }
 
     @Override
@@ -88,6 +110,26 @@ public class SnapshotImpl implements Snapshot {
         return totalNumberOfFailedCalls * 100.0f / totalNumberOfCalls;
     }
 
+    @Override
+    public Duration getP50() {
+        return Duration.ofNanos(percentileNanos[0]);
+    }
+
+    @Override
+    public Duration getP90() {
+        return Duration.ofNanos(percentileNanos[1]);
+    }
+
+    @Override
+    public Duration getP99() {
+        return Duration.ofNanos(percentileNanos[2]);
+    }
+
+    @Override
+    public Duration getP999() {
+        return Duration.ofNanos(percentileNanos[3]);
+    }
+
     @Override
     public Duration getAverageDuration() {
         if (totalNumberOfCalls == 0) {
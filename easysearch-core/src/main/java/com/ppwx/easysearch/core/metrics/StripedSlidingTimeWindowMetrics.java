@@ -0,0 +1,311 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.metrics;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free {@link Metrics} implementation backed by a sliding time window that aggregates only
+ * the calls made in the last {@code N} seconds.
+ * <p>
+ * The window is a circular array of {@code N} buckets, one per epoch second. Every bucket counts
+ * its calls with {@link LongAdder}s, so concurrent recording threads update striped cells instead
+ * of contending on a monitor. A bucket belonging to an older second is replaced by a CAS on first
+ * use in the new second; calls racing with the replacement may be attributed to the evicted bucket.
+ * <p>
+ * Unlike {@link SlidingTimeWindowMetrics}, no total aggregation is maintained on the write path.
+ * {@link #getSnapshot()} sums the live buckets on read, which costs O(n) in the window size. The
+ * aggregate is cached together with the epoch second and the number of calls it covers, and is
+ * only rebuilt when either has changed. {@link #record} returns a live view that is evaluated on
+ * access through the same cache, so recording never allocates a snapshot.
+ * <p>
+ * Latencies are counted in a per-bucket {@link LatencyHistogram} layout backed by an
+ * {@link AtomicIntegerArray}. When a larger latency is first seen a larger array is added under a
+ * lock; the smaller arrays are kept and summed on read instead of being copied, so no increment is
+ * lost to a racing grow.
+ *
+ * @since 1.0.0
+ */
+public class StripedSlidingTimeWindowMetrics implements Metrics {
+
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final int timeWindowSizeInSeconds;
+    private final Clock clock;
+    private final Snapshot liveSnapshot = new LiveSnapshot();
+    private volatile CachedSnapshot cachedSnapshot;
+
+    /**
+     * Creates a new {@link StripedSlidingTimeWindowMetrics} with the given clock and window of time.
+     *
+     * @param timeWindowSizeInSeconds the window time size in seconds
+     * @param clock                   the {@link Clock} to use
+     */
+    public StripedSlidingTimeWindowMetrics(int timeWindowSizeInSeconds, Clock clock) {
+        if (timeWindowSizeInSeconds <= 0) {
+            throw new IllegalArgumentException("Time window size must be positive");
+        }
+        this.timeWindowSizeInSeconds = timeWindowSizeInSeconds;
+        this.clock = clock;
+        this.buckets = new AtomicReferenceArray<>(timeWindowSizeInSeconds);
+    }
+
+    @Override
+    public Snapshot record(long duration, TimeUnit durationUnit, Outcome outcome) {
+        long epochSecond = currentEpochSecond();
+        currentBucket(epochSecond).record(durationUnit.toNanos(duration), outcome);
+        return liveSnapshot;
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        long epochSecond = currentEpochSecond();
+        long oldest = epochSecond - timeWindowSizeInSeconds;
+        long numberOfCalls = 0;
+        for (int i = 0; i < timeWindowSizeInSeconds; i++) {
+            Bucket bucket = buckets.get(i);
+            if (isLive(bucket, oldest, epochSecond)) {
+                numberOfCalls += bucket.calls.sum();
+            }
+        }
+        CachedSnapshot cached = this.cachedSnapshot;
+        if (cached != null && cached.epochSecond == epochSecond && cached.numberOfCalls == numberOfCalls) {
+            return cached.snapshot;
+        }
+        long totalDurationInNanos = 0;
+        long numberOfSlowCalls = 0;
+        long numberOfSlowFailedCalls = 0;
+        long numberOfFailedCalls = 0;
+        numberOfCalls = 0;
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < timeWindowSizeInSeconds; i++) {
+            Bucket bucket = buckets.get(i);
+            if (!isLive(bucket, oldest, epochSecond)) {
+                continue;
+            }
+            // calls is incremented last on record, read it first
+            numberOfCalls += bucket.calls.sum();
+            totalDurationInNanos += bucket.durationInNanos.sum();
+            numberOfSlowCalls += bucket.slowCalls.sum();
+            numberOfSlowFailedCalls += bucket.slowFailedCalls.sum();
+            numberOfFailedCalls += bucket.failedCalls.sum();
+            bucket.addLatenciesTo(histogram);
+        }
+        Snapshot snapshot = new SnapshotImpl(TimeUnit.NANOSECONDS.toMillis(totalDurationInNanos),
+            (int) numberOfSlowCalls, (int) numberOfSlowFailedCalls, (int) numberOfFailedCalls, (int) numberOfCalls,
+            histogram);
+        this.cachedSnapshot = new CachedSnapshot(epochSecond, numberOfCalls, snapshot);
+        return snapshot;
+    }
+
+    private static boolean isLive(Bucket bucket, long oldest, long epochSecond) {
+        return bucket != null && bucket.epochSecond > oldest && bucket.epochSecond <= epochSecond;
+    }
+
+    private long currentEpochSecond() {
+        return Math.floorDiv(clock.millis(), 1000L);
+    }
+
+    /**
+     * Returns the bucket of the given epoch second, replacing a stale bucket if necessary.
+     */
+    private Bucket currentBucket(long epochSecond) {
+        int idx = (int) Math.floorMod(epochSecond, (long) timeWindowSizeInSeconds);
+        Bucket bucket = buckets.get(idx);
+        while (bucket == null || bucket.epochSecond < epochSecond) {
+            Bucket next = new Bucket(epochSecond);
+            if (buckets.compareAndSet(idx, bucket, next)) {
+                return next;
+            }
+            bucket = buckets.get(idx);
+        }
+        return bucket;
+    }
+
+    private static final class Bucket {
+
+        private final long epochSecond;
+        private final LongAdder durationInNanos = new LongAdder();
+        private final LongAdder slowCalls = new LongAdder();
+        private final LongAdder slowFailedCalls = new LongAdder();
+        private final LongAdder failedCalls = new LongAdder();
+        private final LongAdder calls = new LongAdder();
+        private volatile LatencyCounts latencies;
+
+        Bucket(long epochSecond) {
+            this.epochSecond = epochSecond;
+        }
+
+        void record(long durationInNanos, Outcome outcome) {
+            this.durationInNanos.add(durationInNanos);
+            int idx = LatencyHistogram.bucketIndex(durationInNanos);
+            LatencyCounts latencies = this.latencies;
+            if (latencies == null || idx >= latencies.counts.length()) {
+                latencies = growLatencies(idx);
+            }
+            latencies.counts.incrementAndGet(idx);
+            switch (outcome) {
+                case SLOW_SUCCESS:
+                    slowCalls.increment();
+                    break;
+
+                case SLOW_ERROR:
+                    slowCalls.increment();
+                    failedCalls.increment();
+                    slowFailedCalls.increment();
+                    break;
+
+                case ERROR:
+                    failedCalls.increment();
+                    break;
+
+                default:
+                    break;
+            }
+            calls.increment();
+        }
+
+        /**
+         * Adds a larger latency array in front of the current ones. Recorders still holding a
+         * smaller array keep incrementing it, which is why the arrays are not copied.
+         */
+        private synchronized LatencyCounts growLatencies(int idx) {
+            LatencyCounts latencies = this.latencies;
+            int length = latencies == null ? 0 : latencies.counts.length();
+            if (idx < length) {
+                return latencies;
+            }
+            LatencyCounts grown = new LatencyCounts(new AtomicIntegerArray(Math.min(LatencyHistogram.BUCKET_COUNT,
+                Math.max(Math.max(idx + 1, length + (length >> 1)), LatencyHistogram.SUB_BUCKET_COUNT))), latencies);
+            this.latencies = grown;
+            return grown;
+        }
+
+        void addLatenciesTo(LatencyHistogram histogram) {
+            for (LatencyCounts latencies = this.latencies; latencies != null; latencies = latencies.previous) {
+                AtomicIntegerArray counts = latencies.counts;
+                for (int i = 0; i < counts.length(); i++) {
+                    histogram.addBucket(i, counts.get(i));
+                }
+            }
+        }
+    }
+
+    private static final class LatencyCounts {
+
+        private final AtomicIntegerArray counts;
+        private final LatencyCounts previous;
+
+        LatencyCounts(AtomicIntegerArray counts, LatencyCounts previous) {
+            this.counts = counts;
+            this.previous = previous;
+        }
+    }
+
+    private static final class CachedSnapshot {
+
+        private final long epochSecond;
+        private final long numberOfCalls;
+        private final Snapshot snapshot;
+
+        CachedSnapshot(long epochSecond, long numberOfCalls, Snapshot snapshot) {
+            this.epochSecond = epochSecond;
+            this.numberOfCalls = numberOfCalls;
+            this.snapshot = snapshot;
+        }
+    }
+
+    /**
+     * A snapshot view that reads the current window on every access, through the cached aggregate.
+     */
+    private final class LiveSnapshot implements Snapshot {
+
+        @Override
+        public Duration getTotalDuration() {
+            return getSnapshot().getTotalDuration();
+        }
+
+        @Override
+        public Duration getAverageDuration() {
+            return getSnapshot().getAverageDuration();
+        }
+
+        @Override
+        public int getTotalNumberOfSlowCalls() {
+            return getSnapshot().getTotalNumberOfSlowCalls();
+        }
+
+        @Override
+        public int getNumberOfSlowSuccessfulCalls() {
+            return getSnapshot().getNumberOfSlowSuccessfulCalls();
+        }
+
+        @Override
+        public int getNumberOfSlowFailedCalls() {
+            return getSnapshot().getNumberOfSlowFailedCalls();
+        }
+
+        @Override
+        public float getSlowCallRate() {
+            return getSnapshot().getSlowCallRate();
+        }
+
+        @Override
+        public int getNumberOfSuccessfulCalls() {
+            return getSnapshot().getNumberOfSuccessfulCalls();
+        }
+
+        @Override
+        public int getNumberOfFailedCalls() {
+            return getSnapshot().getNumberOfFailedCalls();
+        }
+
+        @Override
+        public int getTotalNumberOfCalls() {
+            return getSnapshot().getTotalNumberOfCalls();
+        }
+
+        @Override
+        public float getFailureRate() {
+            return getSnapshot().getFailureRate();
+        }
+
+        @Override
+        public Duration getP50() {
+            return getSnapshot().getP50();
+        }
+
+        @Override
+        public Duration getP90() {
+            return getSnapshot().getP90();
+        }
+
+        @Override
+        public Duration getP99() {
+            return getSnapshot().getP99();
+        }
+
+        @Override
+        public Duration getP999() {
+            return getSnapshot().getP999();
+        }
+    }
+}
@@ -20,7 +20,15 @@ package com.ppwx.easysearch.core.metrics;
 
 class TotalAggregation extends AbstractAggregation {
 
+    final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Override
+    void recordLatency(long nanos) {
+        histogram.record(nanos);
+    }
+
     void removeBucket(AbstractAggregation bucket) {
+        bucket.removeLatencyFrom(histogram);
         this.totalDurationInMillis -= bucket.totalDurationInMillis;
         this.numberOfSlowCalls -= bucket.numberOfSlowCalls;
         this.numberOfSlowFailedCalls -= bucket.numberOfSlowFailedCalls;
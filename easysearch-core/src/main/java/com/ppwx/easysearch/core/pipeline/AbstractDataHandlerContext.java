@@ -18,6 +18,7 @@ package com.ppwx.easysearch.core.pipeline;
 
 import com.ppwx.easysearch.core.common.DataPipelineException;
 import com.ppwx.easysearch.core.data.DataModel;
+import com.ppwx.easysearch.core.data.PermutationDataSet;
 import io.netty.util.Attribute;
 import io.netty.util.AttributeKey;
 import io.netty.util.internal.ThrowableUtil;
@@ -25,6 +26,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -80,6 +82,23 @@ public abstract class AbstractDataHandlerContext implements DataHandlerContext {
 
     private void invokeDataPrepared() {
         if (invokeHandler()) {
+            final AsyncPipelineRun run = pipeline.run;
+            if (run != null) {
+                if (run.isStopped()) {
+                    // timeout or cancelled
+                    return;
+                }
+                final DataHandler handler = handler();
+                if (handler instanceof AsyncDataHandler) {
+                    invokeDataPreparedAsync((AsyncDataHandler) handler, run);
+                    return;
+                }
+            }
+            final PipelineTrace trace = pipeline.trace;
+            if (trace != null && this != pipeline.head) {
+                invokeDataPrepared(trace);
+                return;
+            }
             try {
                 final DataHandler handler = handler();
                 final DefaultDataPipeline.HeadContext headContext = pipeline.head;
@@ -96,8 +115,64 @@ public abstract class AbstractDataHandlerContext implements DataHandlerContext {
         }
     }
 
+    private void invokeDataPreparedAsync(AsyncDataHandler handler, AsyncPipelineRun run) {
+        final PipelineTrace trace = pipeline.trace;
+        final PipelineTrace.Span span = trace == null ? null : trace.async(name, PipelineTrace.Phase.PREPARE, dataModel());
+        final CompletableFuture<?> stage;
+        try {
+            stage = handler.dataPrepareAsync(this);
+        } catch (Throwable t) {
+            if (span != null) {
+                trace.finish(span, dataModel(), true);
+            }
+            invokeExceptionCaught(t);
+            return;
+        }
+        run.await(stage, () -> {
+            if (span != null) {
+                trace.finish(span, dataModel(), false);
+            }
+            fireDataPrepare();
+        }, cause -> {
+            if (span != null) {
+                trace.finish(span, dataModel(), true);
+            }
+            invokeExceptionCaught(cause);
+        });
+    }
+
+    private void invokeDataPrepared(PipelineTrace trace) {
+        final PipelineTrace.Span span = trace.enter(name, PipelineTrace.Phase.PREPARE, dataModel());
+        boolean failed = false;
+        try {
+            handler().dataPrepare(this);
+        } catch (Throwable t) {
+            failed = true;
+            invokeExceptionCaught(t);
+        } finally {
+            trace.exit(span, dataModel(), failed);
+        }
+    }
+
     private void invokeDateComplete() {
         if (invokeHandler()) {
+            final AsyncPipelineRun run = pipeline.run;
+            if (run != null) {
+                if (run.isStopped()) {
+                    // timeout or cancelled
+                    return;
+                }
+                final DataHandler handler = handler();
+                if (handler instanceof AsyncDataHandler) {
+                    invokeDateCompleteAsync((AsyncDataHandler) handler, run);
+                    return;
+                }
+            }
+            final PipelineTrace trace = pipeline.trace;
+            if (trace != null && this != pipeline.head) {
+                invokeDateComplete(trace);
+                return;
+            }
             try {
                 final DataHandler handler = handler();
                 final DefaultDataPipeline.HeadContext headContext = pipeline.head;
@@ -114,6 +189,45 @@ public abstract class AbstractDataHandlerContext implements DataHandlerContext {
         }
     }
 
+    private void invokeDateCompleteAsync(AsyncDataHandler handler, AsyncPipelineRun run) {
+        final PipelineTrace trace = pipeline.trace;
+        final PipelineTrace.Span span = trace == null ? null : trace.async(name, PipelineTrace.Phase.COMPLETE, dataModel());
+        final CompletableFuture<?> stage;
+        try {
+            stage = handler.dataCompleteAsync(this);
+        } catch (Throwable t) {
+            if (span != null) {
+                trace.finish(span, dataModel(), true);
+            }
+            invokeExceptionCaught(t);
+            return;
+        }
+        run.await(stage, () -> {
+            if (span != null) {
+                trace.finish(span, dataModel(), false);
+            }
+            fireDataComplete();
+        }, cause -> {
+            if (span != null) {
+                trace.finish(span, dataModel(), true);
+            }
+            invokeExceptionCaught(cause);
+        });
+    }
+
+    private void invokeDateComplete(PipelineTrace trace) {
+        final PipelineTrace.Span span = trace.enter(name, PipelineTrace.Phase.COMPLETE, dataModel());
+        boolean failed = false;
+        try {
+            handler().dataComplete(this);
+        } catch (Throwable t) {
+            failed = true;
+            invokeExceptionCaught(t);
+        } finally {
+            trace.exit(span, dataModel(), failed);
+        }
+    }
+
     /**
      * Makes best possible effort to detect if {@link DataHandler#handlerAdded(DataHandlerContext)} was called
      * yet. If not return {@code false} and if called or could not detect return {@code true}.
@@ -243,6 +357,16 @@ public abstract class AbstractDataHandlerContext implements DataHandlerContext {
         return this.pipeline;
     }
 
+    @Override
+    public PermutationDataSet permutation() {
+        return pipeline.permutation();
+    }
+
+    @Override
+    public void onFireComplete(Runnable task) {
+        pipeline.onFireComplete(task);
+    }
+
     @Override
     public <T> Attribute<T> attr(AttributeKey<T> key) {
         return this.dataModel().attr(key);
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ *
+ * 异步处理器
+ * 在异步模式下（{@link DefaultDataPipeline#fireDataPrepareAsync()}、{@link DefaultDataPipeline#fireDataCompleteAsync()}）
+ * 不需要调用ctx.fireXXX，返回的{@link CompletableFuture}正常完成后由上下文在执行器上推进到下一个处理器，
+ * 异常完成时进入{@link #exceptionCaught(DataHandlerContext, Throwable)}；
+ * 同步模式下通过{@link #dataPrepare(DataHandlerContext)}、{@link #dataComplete(DataHandlerContext)}阻塞等待
+ * <p/>
+ * 管道超时或被取消时返回的future会被cancel，但不会中断正在执行的任务，需要提前停止时应监听该future的取消
+ *
+ * @since 1.0.0
+ */
+public interface AsyncDataHandler extends DataHandler {
+
+    /**
+     * 异步准备数据，返回null视为已完成
+     *
+     * @param ctx
+     * @return java.util.concurrent.CompletableFuture
+     */
+    CompletableFuture<?> dataPrepareAsync(DataHandlerContext ctx) throws Exception;
+
+    /**
+     * 异步处理数据，返回null视为已完成
+     *
+     * @param ctx
+     * @return java.util.concurrent.CompletableFuture
+     */
+    CompletableFuture<?> dataCompleteAsync(DataHandlerContext ctx) throws Exception;
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ *
+ * {@link AsyncDataHandler} 适配器
+ * 同步模式下阻塞等待异步结果后再向后推进，保证同一个处理器在两种模式下都能使用
+ *
+ * @since 1.0.0
+ */
+public class AsyncDataHandlerAdapter extends DataHandlerAdapter implements AsyncDataHandler {
+
+    @Override
+    public CompletableFuture<?> dataPrepareAsync(DataHandlerContext ctx) throws Exception {
+        return null;
+    }
+
+    @Override
+    public CompletableFuture<?> dataCompleteAsync(DataHandlerContext ctx) throws Exception {
+        return null;
+    }
+
+    @Override
+    public void dataPrepare(DataHandlerContext ctx) throws Exception {
+        await(dataPrepareAsync(ctx));
+        ctx.fireDataPrepare();
+    }
+
+    @Override
+    public void dataComplete(DataHandlerContext ctx) throws Exception {
+        await(dataCompleteAsync(ctx));
+        ctx.fireDataComplete();
+    }
+
+    private static void await(CompletableFuture<?> future) throws Exception {
+        if (future == null) {
+            return;
+        }
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+}
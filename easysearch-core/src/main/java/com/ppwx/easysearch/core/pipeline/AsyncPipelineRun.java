@@ -0,0 +1,215 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ *
+ * 管道的一次异步执行
+ * 同步处理器仍在当前线程依次推进，遇到{@link AsyncDataHandler}后挂起，结果完成后在执行器上继续；
+ * 所有挂起的阶段都结束后完成{@link #future()}，到达{@link DefaultDataPipeline.TailContext}的异常使其异常完成
+ * 超过截止时间或被取消后不再推进，并取消正在执行的异步阶段；
+ * 取消只会使异步阶段返回的{@link CompletableFuture}以取消结束，{@code cancel(true)}不会中断执行中的任务，
+ * 需要提前停止的处理器应在返回的future被取消时自行停止底层任务
+ *
+ * @since 1.0.0
+ */
+final class AsyncPipelineRun {
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("pipeline-deadline-%d").setDaemon(true).build());
+
+    private final DefaultDataPipeline pipeline;
+
+    private final Executor executor;
+
+    private final CompletableFuture<DataPipeline> future = new CompletableFuture<>();
+    /**
+     * 未结束的执行段，初始段计1
+     */
+    private final AtomicInteger pending = new AtomicInteger(1);
+
+    private final long startNanos = System.nanoTime();
+
+    private volatile Throwable failure;
+    /**
+     * 超时原因，先于取消异步阶段设置，保证被取消的阶段不再推进
+     */
+    private volatile Throwable abortCause;
+
+    private volatile CompletableFuture<?> inflight;
+
+    private volatile ScheduledFuture<?> deadline;
+
+    AsyncPipelineRun(DefaultDataPipeline pipeline, Executor executor, long timeoutNanos) {
+        this.pipeline = pipeline;
+        this.executor = executor;
+        if (timeoutNanos > 0) {
+            this.deadline = TIMER.schedule(() -> abort(new TimeoutException("Pipeline timeout after "
+                    + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms")), timeoutNanos, TimeUnit.NANOSECONDS);
+        }
+        future.whenComplete((r, t) -> {
+            ScheduledFuture<?> d = deadline;
+            if (d != null) {
+                d.cancel(false);
+            }
+            if (t != null) {
+                // cancelled by caller
+                cancelInflight();
+            }
+        });
+    }
+
+    /**
+     * 先取消正在执行的异步阶段再结束，调用方看到结果时阶段已被取消
+     */
+    private void abort(Throwable cause) {
+        abortCause = cause;
+        cancelInflight();
+        future.completeExceptionally(cause);
+    }
+
+    private void cancelInflight() {
+        CompletableFuture<?> stage = inflight;
+        if (stage != null) {
+            stage.cancel(true);
+        }
+    }
+
+    CompletableFuture<DataPipeline> future() {
+        return future;
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * 在执行器上开始执行
+     *
+     * @param first
+     * @return void
+     */
+    void start(Runnable first) {
+        try {
+            executor.execute(() -> segment(first));
+        } catch (RejectedExecutionException e) {
+            failure = e;
+            release();
+        }
+    }
+
+    /**
+     * 异步处理器返回后挂起，完成后在执行器上执行后续
+     *
+     * @param stage
+     * @param onSuccess
+     * @param onFailure
+     * @return void
+     */
+    void await(CompletableFuture<?> stage, Runnable onSuccess, Consumer<Throwable> onFailure) {
+        if (stage == null) {
+            onSuccess.run();
+            return;
+        }
+        pending.incrementAndGet();
+        inflight = stage;
+        if (isStopped()) {
+            stage.cancel(true);
+        }
+        stage.whenComplete((v, t) -> {
+            Runnable next = () -> {
+                inflight = null;
+                if (t == null) {
+                    onSuccess.run();
+                } else {
+                    onFailure.accept(unwrap(t));
+                }
+            };
+            try {
+                executor.execute(() -> segment(next));
+            } catch (RejectedExecutionException e) {
+                failure = e;
+                release();
+            }
+        });
+    }
+
+    /**
+     * 未处理的异常
+     *
+     * @param cause
+     * @return void
+     */
+    void fail(Throwable cause) {
+        if (failure == null) {
+            failure = cause;
+        }
+    }
+
+    private void segment(Runnable runnable) {
+        try {
+            if (!isStopped()) {
+                runnable.run();
+            }
+        } catch (Throwable t) {
+            fail(t);
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * 超时或被取消
+     *
+     * @param
+     * @return boolean
+     */
+    boolean isStopped() {
+        return abortCause != null || future.isDone();
+    }
+
+    private void release() {
+        if (pending.decrementAndGet() == 0) {
+            Throwable t = abortCause != null ? abortCause : failure;
+            // fire complete tasks see the final result before the caller
+            pipeline.runCompleteTasks(t == null && !future.isDone());
+            if (t == null) {
+                future.complete(pipeline);
+            } else {
+                future.completeExceptionally(t);
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        return t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+    }
+}
@@ -17,6 +17,8 @@
 package com.ppwx.easysearch.core.pipeline;
 
 import com.ppwx.easysearch.core.data.DataModel;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.PermutationDataSet;
 import io.netty.util.AttributeMap;
 
 /**
@@ -49,4 +51,21 @@ public interface DataHandlerContext extends AttributeMap, DataBoundInvoker {
      * Return the assigned {@link DataPipeline}
      */
     DataPipeline pipeline();
-}
\ No newline at end of file
+
+    /**
+     * Return the {@link PermutationDataSet} over the current {@link DataSet} of the {@link DataModel},
+     * or {@code null} if the permutation mode of the {@link DataPipeline} is disabled.
+     * Handlers should reorder or delete rows through it instead of rebuilding the {@link DataSet}.
+     */
+    PermutationDataSet permutation();
+
+    /**
+     * Register a task that runs once the current fire of the {@link DataPipeline} has passed every handler,
+     * including the suspended stages of {@link AsyncDataHandler}s in async mode.
+     * Code after {@code ctx.fireXXX()} runs as soon as a downstream {@link AsyncDataHandler} suspends,
+     * so work that needs the final {@link DataSet} must be registered here instead.
+     * Tasks run in reverse order of registration, before the async future completes, and are dropped
+     * when an exception reaches the tail or the async run times out or is cancelled.
+     */
+    void onFireComplete(Runnable task);
+}
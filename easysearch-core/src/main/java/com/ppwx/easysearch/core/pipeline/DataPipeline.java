@@ -21,6 +21,7 @@ import com.ppwx.easysearch.core.data.DataModel;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -418,4 +419,20 @@ public interface DataPipeline extends DataBoundInvoker {
 
     @Override
     DataBoundInvoker fireExceptionCaught(Throwable cause);
+
+    /**
+     * 异步数据准备，在执行器上推进，{@link AsyncDataHandler}不阻塞线程
+     *
+     * @param
+     * @return java.util.concurrent.CompletableFuture 所有处理器执行结束后完成，取消会终止后续处理器
+     */
+    CompletableFuture<DataPipeline> fireDataPrepareAsync();
+
+    /**
+     * 异步数据处理
+     *
+     * @param
+     * @return java.util.concurrent.CompletableFuture 所有处理器执行结束后完成，取消会终止后续处理器
+     */
+    CompletableFuture<DataPipeline> fireDataCompleteAsync();
 }
\ No newline at end of file
@@ -27,6 +27,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.util.CollectionUtils;
 
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 /**
@@ -50,6 +52,16 @@ public class DataPipelineBuilder {
     private DataPipeline pipeline;
 
     private boolean strictMode = true;
+
+    private boolean permutationMode;
+
+    private PipelineTracer tracer;
+
+    private Executor asyncExecutor;
+
+    private long asyncTimeout;
+
+    private TimeUnit asyncTimeUnit;
     /**
      * 配置
      * TODO 后续支持配置化
@@ -142,6 +154,44 @@ public class DataPipelineBuilder {
         return self();
     }
 
+    /**
+     * 下标排列模式，处理器只调整行顺序，数据在管道末尾一次性生成
+     *
+     * @param permutation
+     * @return com.ppwx.easysearch.core.pipeline.DataPipelineBuilder
+     */
+    public DataPipelineBuilder permutation(boolean permutation) {
+        this.permutationMode = permutation;
+        return self();
+    }
+
+    /**
+     * 处理器耗时埋点
+     *
+     * @param tracer
+     * @return com.ppwx.easysearch.core.pipeline.DataPipelineBuilder
+     */
+    public DataPipelineBuilder tracer(PipelineTracer tracer) {
+        this.tracer = ObjectUtil.checkNotNull(tracer, "tracer");
+        return self();
+    }
+
+    /**
+     * 异步模式参数，见{@link DataPipeline#fireDataCompleteAsync()}
+     * 异步模式下处理器会在不同线程执行，需关闭严格模式或只使用异步触发
+     *
+     * @param executor
+     * @param timeout  整个管道的截止时间，小于等于0表示不限制
+     * @param unit
+     * @return com.ppwx.easysearch.core.pipeline.DataPipelineBuilder
+     */
+    public DataPipelineBuilder async(Executor executor, long timeout, TimeUnit unit) {
+        this.asyncExecutor = ObjectUtil.checkNotNull(executor, "executor");
+        this.asyncTimeout = timeout;
+        this.asyncTimeUnit = ObjectUtil.checkNotNull(unit, "unit");
+        return self();
+    }
+
     /**
      * check and build
      *
@@ -153,7 +203,13 @@ public class DataPipelineBuilder {
             return this.pipeline;
         }
         ObjectUtil.checkNotNull(this.dataModel, "dataModel");
-        DataPipeline dataPipeline = new DefaultDataPipeline(dataModel, strictMode);
+        DefaultDataPipeline dataPipeline = new DefaultDataPipeline(dataModel, strictMode, permutationMode);
+        if (this.tracer != null) {
+            dataPipeline.setTracer(this.tracer);
+        }
+        if (this.asyncExecutor != null) {
+            dataPipeline.setAsync(this.asyncExecutor, this.asyncTimeout, this.asyncTimeUnit);
+        }
 
         if (!CollectionUtils.isEmpty(this.handlerNames)) {
             for (String name : this.handlerNames) {
@@ -17,7 +17,10 @@
 package com.ppwx.easysearch.core.pipeline;
 
 import com.ppwx.easysearch.core.common.DataPipelineException;
+import com.ppwx.easysearch.core.data.CopyOnWriteDataSet;
 import com.ppwx.easysearch.core.data.DataModel;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.PermutationDataSet;
 import io.netty.util.concurrent.FastThreadLocal;
 import io.netty.util.internal.ObjectUtil;
 import io.netty.util.internal.StringUtil;
@@ -25,6 +28,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -53,16 +61,57 @@ public class DefaultDataPipeline implements DataPipeline {
     final TailContext tail;
     final AtomicReference<Thread> thread;
     final boolean strictMode;
+    /**
+     * 下标排列模式，处理器只调整行顺序，在{@link TailContext}统一生成数据集
+     */
+    final boolean permutationMode;
+    /**
+     * 当前请求的下标排列，数据模型可能被装饰为每次读取返回新的视图，不能依赖数据集的类型判断
+     */
+    private PermutationDataSet permutation;
+    /**
+     * 处理器耗时埋点，为空时不做任何统计
+     */
+    private PipelineTracer tracer;
+    /**
+     * 当前请求的跟踪记录
+     */
+    PipelineTrace trace;
+    /**
+     * 异步模式执行器
+     */
+    private Executor asyncExecutor = ForkJoinPool.commonPool();
+    /**
+     * 异步模式截止时间，0表示不限制
+     */
+    private long asyncTimeoutNanos;
+    /**
+     * 最近一次异步执行，同步触发时置空
+     */
+    AsyncPipelineRun run;
+    /**
+     * 本次触发结束后执行的任务，异步模式下可能由多个线程注册
+     */
+    private final Deque<Runnable> completeTasks = new ConcurrentLinkedDeque<>();
+    /**
+     * 同步触发中是否有异常到达{@link TailContext}
+     */
+    private boolean unhandled;
 
     public DefaultDataPipeline(DataModel dataModel) {
         this(dataModel, false);
     }
 
     public DefaultDataPipeline(DataModel dataModel, boolean shareMode) {
+        this(dataModel, shareMode, false);
+    }
+
+    public DefaultDataPipeline(DataModel dataModel, boolean shareMode, boolean permutationMode) {
         this.dataModel = ObjectUtil.checkNotNull(dataModel, "dataModel");
         this.thread = new AtomicReference<>();
         this.strictMode = shareMode;
-        
+        this.permutationMode = permutationMode;
+
 
         tail = new TailContext(this);
         head = new HeadContext(this);
@@ -351,6 +400,67 @@ public class DefaultDataPipeline implements DataPipeline {
         return this.dataModel;
     }
 
+    /**
+     * 获取当前数据集的下标排列
+     * 数据集被其他处理器替换后会基于新的数据集重新创建
+     *
+     * @return com.ppwx.easysearch.core.data.PermutationDataSet
+     */
+    PermutationDataSet permutation() {
+        if (!permutationMode) {
+            return null;
+        }
+        DataModel dataModel = dataModel();
+        DataSet dataSet = dataModel.getDataset();
+        if (dataSet == null) {
+            return null;
+        }
+        PermutationDataSet permutation = this.permutation;
+        if (permutation != null && isView(dataSet, permutation)) {
+            return permutation;
+        }
+        permutation = dataSet instanceof PermutationDataSet ? (PermutationDataSet) dataSet
+                : new PermutationDataSet(dataSet);
+        dataModel.setDataSet(permutation);
+        return this.permutation = permutation;
+    }
+
+    /**
+     * 数据集是否为下标排列本身或其未修改的写时复制视图
+     *
+     * @param dataSet
+     * @param permutation
+     * @return boolean
+     */
+    private static boolean isView(DataSet dataSet, PermutationDataSet permutation) {
+        if (dataSet == permutation) {
+            return true;
+        }
+        if (dataSet instanceof CopyOnWriteDataSet) {
+            CopyOnWriteDataSet view = (CopyOnWriteDataSet) dataSet;
+            return view.base() == permutation && !view.isModified();
+        }
+        return false;
+    }
+
+    /**
+     * 按下标排列生成最终数据集，数据集已被其他处理器替换时不做处理
+     *
+     * @return void
+     */
+    private void materialize() {
+        PermutationDataSet permutation = this.permutation;
+        this.permutation = null;
+        if (permutation == null) {
+            return;
+        }
+        DataSet dataSet = dataModel.getDataset();
+        if (dataSet != null && isView(dataSet, permutation)) {
+            // materialize once
+            dataModel.setDataSet(permutation.materialize());
+        }
+    }
+
     @Override
     public List<String> names() {
         List<String> list = new ArrayList<String>();
@@ -379,22 +489,165 @@ public class DefaultDataPipeline implements DataPipeline {
 
     @Override
     public DataBoundInvoker fireDataPrepare() {
+        checkNotRunning();
+        this.run = null;
+        resetCompleteTasks();
         if (strictMode) {
             thread.compareAndSet(null, Thread.currentThread());
         }
-        AbstractDataHandlerContext.invokeDataPrepared(head);
+        final PipelineTrace trace = traceIfEnabled();
+        if (trace == null) {
+            AbstractDataHandlerContext.invokeDataPrepared(head);
+            runCompleteTasks(!unhandled);
+        } else {
+            long start = System.nanoTime();
+            try {
+                AbstractDataHandlerContext.invokeDataPrepared(head);
+                runCompleteTasks(!unhandled);
+            } finally {
+                trace.fireFinished(System.nanoTime() - start);
+            }
+        }
         return this;
     }
 
     @Override
     public DataBoundInvoker fireDataComplete() {
+        checkNotRunning();
+        this.run = null;
+        resetCompleteTasks();
         if (strictMode) {
             thread.compareAndSet(null, Thread.currentThread());
         }
-        AbstractDataHandlerContext.invokeDataComplete(head);
+        final PipelineTrace trace = traceIfEnabled();
+        if (trace == null) {
+            AbstractDataHandlerContext.invokeDataComplete(head);
+            runCompleteTasks(!unhandled);
+        } else {
+            long start = System.nanoTime();
+            try {
+                AbstractDataHandlerContext.invokeDataComplete(head);
+                runCompleteTasks(!unhandled);
+            } finally {
+                trace.fireFinished(System.nanoTime() - start);
+            }
+        }
         return this;
     }
 
+    @Override
+    public CompletableFuture<DataPipeline> fireDataPrepareAsync() {
+        return fireAsync(() -> AbstractDataHandlerContext.invokeDataPrepared(head));
+    }
+
+    @Override
+    public CompletableFuture<DataPipeline> fireDataCompleteAsync() {
+        return fireAsync(() -> AbstractDataHandlerContext.invokeDataComplete(head));
+    }
+
+    private CompletableFuture<DataPipeline> fireAsync(Runnable invoker) {
+        checkNotRunning();
+        if (thread.get() != null) {
+            throw new IllegalStateException("Pipeline is bound to thread " + thread.get().getName()
+                    + ", async mode is not allowed.");
+        }
+        resetCompleteTasks();
+        final PipelineTrace trace = traceIfEnabled();
+        final AsyncPipelineRun run = new AsyncPipelineRun(this, asyncExecutor, asyncTimeoutNanos);
+        this.run = run;
+        if (trace != null) {
+            run.future().whenComplete((r, t) -> trace.fireFinished(run.elapsedNanos()));
+        }
+        run.start(invoker);
+        return run.future();
+    }
+
+    /**
+     * 注册本次触发结束后执行的任务
+     *
+     * @param task
+     * @return void
+     */
+    void onFireComplete(Runnable task) {
+        completeTasks.push(ObjectUtil.checkNotNull(task, "task"));
+    }
+
+    private void resetCompleteTasks() {
+        completeTasks.clear();
+        unhandled = false;
+    }
+
+    /**
+     * 按注册的逆序执行任务，与处理器fireXXX之后代码的执行顺序一致；触发失败时丢弃
+     *
+     * @param succeeded
+     * @return void
+     */
+    void runCompleteTasks(boolean succeeded) {
+        Runnable task;
+        while ((task = completeTasks.poll()) != null) {
+            if (!succeeded) {
+                continue;
+            }
+            try {
+                task.run();
+            } catch (Throwable t) {
+                logger.warn("Failed to run a fire complete task.", t);
+            }
+        }
+    }
+
+    private void checkNotRunning() {
+        AsyncPipelineRun run = this.run;
+        if (run != null && !run.future().isDone()) {
+            throw new IllegalStateException("Pipeline is running asynchronously.");
+        }
+    }
+
+    /**
+     * 异步模式参数
+     *
+     * @param executor 执行器，处理器及异步结果的后续都在该执行器上执行
+     * @param timeout  整个管道的截止时间，小于等于0表示不限制
+     * @param unit
+     * @return void
+     */
+    public void setAsync(Executor executor, long timeout, TimeUnit unit) {
+        this.asyncExecutor = ObjectUtil.checkNotNull(executor, "executor");
+        this.asyncTimeoutNanos = timeout <= 0 ? 0 : unit.toNanos(timeout);
+    }
+
+    /**
+     * 开启处理器耗时埋点，需在触发管道前设置
+     *
+     * @param tracer
+     * @return void
+     */
+    public void setTracer(PipelineTracer tracer) {
+        this.tracer = tracer;
+        this.trace = null;
+    }
+
+    /**
+     * 当前请求的跟踪记录，未开启埋点时返回null
+     *
+     * @return com.ppwx.easysearch.core.pipeline.PipelineTrace
+     */
+    public PipelineTrace trace() {
+        return trace;
+    }
+
+    private PipelineTrace traceIfEnabled() {
+        if (tracer == null) {
+            return null;
+        }
+        PipelineTrace trace = this.trace;
+        if (trace == null) {
+            trace = this.trace = tracer.newTrace();
+        }
+        return trace;
+    }
+
     @Override
     public DataBoundInvoker fireExceptionCaught(Throwable cause) {
         AbstractDataHandlerContext.invokeExceptionCaught(head, cause);
@@ -650,10 +903,20 @@ public class DefaultDataPipeline implements DataPipeline {
 
         @Override
         public void dataComplete(DataHandlerContext ctx) throws Exception {
+            if (permutationMode) {
+                materialize();
+            }
         }
 
         @Override
         public void exceptionCaught(DataHandlerContext ctx, Throwable cause) throws Exception {
+            AsyncPipelineRun run = DefaultDataPipeline.this.run;
+            if (run != null) {
+                // unhandled, fail the async run
+                run.fail(cause);
+            } else {
+                unhandled = true;
+            }
         }
 
         @Override
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline;
+
+import com.ppwx.easysearch.core.data.DataModel;
+import com.ppwx.easysearch.core.data.DataSet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * 单次请求的处理器跟踪记录
+ * 处理器通过fireXXX向后推进，后续处理器的耗时嵌套在当前处理器内，这里扣除嵌套部分得到自身耗时；
+ * 输出行数取向后推进时的数据集大小，未推进时取返回时的大小；
+ * 准备阶段数据集通常尚未加载，读取会触发加载，因此不统计行数，记为-1
+ * 与管道绑定，同一时刻只在一个线程内使用，非线程安全
+ *
+ * @since 1.0.0
+ */
+public final class PipelineTrace {
+
+    /**
+     * 处理阶段
+     */
+    public enum Phase {
+        PREPARE("prepare"), COMPLETE("complete");
+
+        final String tag;
+
+        Phase(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final PipelineTracer tracer;
+
+    private final List<Span> spans = new ArrayList<>();
+
+    private final Deque<Span> stack = new ArrayDeque<>();
+    /**
+     * 当前层级内已结束的子处理器总耗时
+     */
+    private long nestedNanos;
+
+    private long elapsedNanos;
+
+    boolean dumped;
+
+    PipelineTrace(PipelineTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    Span enter(String name, Phase phase, DataModel dataModel) {
+        int rows = rows(phase, dataModel);
+        Span parent = stack.peek();
+        if (parent != null && parent.outputRows < 0) {
+            parent.outputRows = rows;
+        }
+        Span span = new Span(name, phase, rows, nestedNanos);
+        nestedNanos = 0;
+        stack.push(span);
+        spans.add(span);
+        span.startNanos = System.nanoTime();
+        return span;
+    }
+
+    void exit(Span span, DataModel dataModel, boolean failed) {
+        long elapsed = System.nanoTime() - span.startNanos;
+        span.totalNanos = elapsed;
+        span.selfNanos = Math.max(elapsed - nestedNanos, 0);
+        span.failed = failed;
+        if (span.outputRows < 0) {
+            span.outputRows = rows(span.phase, dataModel);
+        }
+        nestedNanos = span.savedNestedNanos + elapsed;
+        stack.pop();
+        tracer.spanFinished(span);
+    }
+
+    /**
+     * 异步处理器的调用，不参与嵌套耗时的扣除，自身耗时即等待异步结果的总耗时
+     */
+    Span async(String name, Phase phase, DataModel dataModel) {
+        Span span = new Span(name, phase, rows(phase, dataModel), 0);
+        spans.add(span);
+        span.startNanos = System.nanoTime();
+        return span;
+    }
+
+    void finish(Span span, DataModel dataModel, boolean failed) {
+        long elapsed = System.nanoTime() - span.startNanos;
+        span.totalNanos = elapsed;
+        span.selfNanos = elapsed;
+        span.failed = failed;
+        span.outputRows = rows(span.phase, dataModel);
+        tracer.spanFinished(span);
+    }
+
+    void fireFinished(long elapsed) {
+        this.elapsedNanos += elapsed;
+        tracer.fireFinished(this);
+    }
+
+    /**
+     * 管道调用总耗时
+     *
+     * @return long
+     */
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * 按调用顺序排列的处理器记录
+     *
+     * @return java.util.List
+     */
+    public List<Span> spans() {
+        return Collections.unmodifiableList(spans);
+    }
+
+    private static int rows(Phase phase, DataModel dataModel) {
+        if (phase == Phase.PREPARE) {
+            return -1;
+        }
+        DataSet dataSet = dataModel == null ? null : dataModel.getDataset();
+        return dataSet == null ? 0 : dataSet.size();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(64 + spans.size() * 64);
+        sb.append("elapsed=").append(toMillis(elapsedNanos)).append("ms");
+        for (Span span : spans) {
+            sb.append('\n').append(span);
+        }
+        return sb.toString();
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format("%.3f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * 单个处理器的一次调用
+     */
+    public static final class Span {
+
+        private final String name;
+
+        private final Phase phase;
+
+        private final int inputRows;
+
+        private final long savedNestedNanos;
+
+        private int outputRows = -1;
+
+        private long startNanos;
+
+        private long selfNanos;
+
+        private long totalNanos;
+
+        private boolean failed;
+
+        Span(String name, Phase phase, int inputRows, long savedNestedNanos) {
+            this.name = name;
+            this.phase = phase;
+            this.inputRows = inputRows;
+            this.savedNestedNanos = savedNestedNanos;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public Phase phase() {
+            return phase;
+        }
+
+        /**
+         * 输入行数，准备阶段为-1
+         *
+         * @return int
+         */
+        public int inputRows() {
+            return inputRows;
+        }
+
+        public int outputRows() {
+            return outputRows;
+        }
+
+        /**
+         * 扣除后续处理器后的自身耗时
+         *
+         * @return long
+         */
+        public long selfNanos() {
+            return selfNanos;
+        }
+
+        /**
+         * 包含后续处理器的总耗时
+         *
+         * @return long
+         */
+        public long totalNanos() {
+            return totalNanos;
+        }
+
+        public boolean isFailed() {
+            return failed;
+        }
+
+        @Override
+        public String toString() {
+            return name + ' ' + phase.tag + " self=" + toMillis(selfNanos) + "ms total=" + toMillis(totalNanos) + "ms"
+                    + (inputRows < 0 ? "" : " rows=" + inputRows + "->" + outputRows) + (failed ? " failed" : "");
+        }
+    }
+}
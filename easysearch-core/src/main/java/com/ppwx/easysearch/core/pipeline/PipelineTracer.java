@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline;
+
+import com.ppwx.easysearch.core.metrics.Metrics;
+import com.ppwx.easysearch.core.metrics.MetricsRegistry;
+import io.netty.util.internal.ObjectUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ *
+ * 处理器耗时埋点配置
+ * 开启后每个处理器的自身耗时按处理器名称写入{@link MetricsRegistry}，输入行数、输出行数累加到{@link RowCounter}，
+ * 同时记录单次请求的{@link PipelineTrace}，总耗时超过预算时输出
+ * 未设置到管道时不产生任何开销
+ *
+ * @since 1.0.0
+ */
+public final class PipelineTracer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelineTracer.class);
+
+    private final MetricsRegistry<Metrics> metricsRegistry;
+
+    private final String prefix;
+
+    private final int windowSize;
+
+    private final long latencyBudgetNanos;
+
+    private final Consumer<PipelineTrace> dumper;
+
+    private final ConcurrentMap<String, RowCounter> rowCounters = new ConcurrentHashMap<>();
+
+    private PipelineTracer(Builder builder) {
+        this.metricsRegistry = builder.metricsRegistry;
+        this.prefix = builder.prefix;
+        this.windowSize = builder.windowSize;
+        this.latencyBudgetNanos = builder.latencyBudgetNanos;
+        this.dumper = builder.dumper;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 开始一次请求的跟踪
+     *
+     * @param
+     * @return com.ppwx.easysearch.core.pipeline.PipelineTrace
+     */
+    PipelineTrace newTrace() {
+        return new PipelineTrace(this);
+    }
+
+    /**
+     * 处理器执行结束，写入指标
+     * 行数未知（准备阶段不读取数据集）时不计入行数统计
+     *
+     * @param span
+     * @return void
+     */
+    void spanFinished(PipelineTrace.Span span) {
+        if (metricsRegistry == null) {
+            return;
+        }
+        String tag = prefix + span.name() + '.' + span.phase().tag;
+        Metrics.Outcome outcome = span.isFailed() ? Metrics.Outcome.ERROR : Metrics.Outcome.SUCCESS;
+        metricsRegistry.metrics(tag, windowSize).record(span.selfNanos(), TimeUnit.NANOSECONDS, outcome);
+        if (span.inputRows() >= 0) {
+            rowCounters.computeIfAbsent(tag, k -> new RowCounter()).add(span.inputRows(), span.outputRows());
+        }
+    }
+
+    /**
+     * 处理器的行数统计，tag与耗时指标一致，未开启指标或尚未记录时返回null
+     *
+     * @param tag
+     * @return com.ppwx.easysearch.core.pipeline.PipelineTracer.RowCounter
+     */
+    public RowCounter rowCounter(String tag) {
+        return rowCounters.get(tag);
+    }
+
+    /**
+     * 一次管道调用结束，超过预算时输出跟踪信息，每个请求只输出一次
+     *
+     * @param trace
+     * @return void
+     */
+    void fireFinished(PipelineTrace trace) {
+        if (latencyBudgetNanos > 0 && !trace.dumped && trace.elapsedNanos() > latencyBudgetNanos) {
+            trace.dumped = true;
+            try {
+                dumper.accept(trace);
+            } catch (Throwable t) {
+                logger.warn("Failed to dump pipeline trace.", t);
+            }
+        }
+    }
+
+    public long getLatencyBudgetNanos() {
+        return latencyBudgetNanos;
+    }
+
+    /**
+     * 处理器输入、输出行数的累计值
+     */
+    public static final class RowCounter {
+
+        private final LongAdder calls = new LongAdder();
+
+        private final LongAdder inputRows = new LongAdder();
+
+        private final LongAdder outputRows = new LongAdder();
+
+        void add(int inputRows, int outputRows) {
+            this.inputRows.add(inputRows);
+            this.outputRows.add(Math.max(outputRows, 0));
+            this.calls.increment();
+        }
+
+        public long calls() {
+            return calls.sum();
+        }
+
+        public long inputRows() {
+            return inputRows.sum();
+        }
+
+        public long outputRows() {
+            return outputRows.sum();
+        }
+    }
+
+    public static final class Builder {
+
+        private MetricsRegistry<Metrics> metricsRegistry;
+
+        private String prefix = "pipeline.";
+
+        private int windowSize = 60;
+
+        private long latencyBudgetNanos;
+
+        private Consumer<PipelineTrace> dumper = trace -> logger.warn("Slow pipeline:\n{}", trace);
+
+        private Builder() {
+        }
+
+        /**
+         * 指标输出，tag为 prefix + 处理器名称 + 阶段
+         *
+         * @param prefix
+         * @param metricsRegistry
+         * @param windowSize
+         * @return com.ppwx.easysearch.core.pipeline.PipelineTracer.Builder
+         */
+        public Builder metrics(String prefix, MetricsRegistry<Metrics> metricsRegistry, int windowSize) {
+            this.prefix = ObjectUtil.checkNotNull(prefix, "prefix");
+            this.metricsRegistry = metricsRegistry;
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * 请求耗时预算，超过后输出跟踪信息，不设置则不输出
+         *
+         * @param duration
+         * @param unit
+         * @return com.ppwx.easysearch.core.pipeline.PipelineTracer.Builder
+         */
+        public Builder latencyBudget(long duration, TimeUnit unit) {
+            if (duration < 0) {
+                throw new IllegalArgumentException("latencyBudget must not be negative.");
+            }
+            this.latencyBudgetNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * 跟踪信息输出方式，默认打印warn日志
+         *
+         * @param dumper
+         * @return com.ppwx.easysearch.core.pipeline.PipelineTracer.Builder
+         */
+        public Builder dumper(Consumer<PipelineTrace> dumper) {
+            this.dumper = ObjectUtil.checkNotNull(dumper, "dumper");
+            return this;
+        }
+
+        public PipelineTracer build() {
+            return new PipelineTracer(this);
+        }
+    }
+}
@@ -21,6 +21,7 @@ import com.ppwx.easysearch.core.data.Column;
 import com.ppwx.easysearch.core.data.DataModel;
 import com.ppwx.easysearch.core.data.DataSet;
 import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.PermutationDataSet;
 import com.ppwx.easysearch.core.pipeline.DataHandler;
 import com.ppwx.easysearch.core.pipeline.DataHandlerAdapter;
 import com.ppwx.easysearch.core.pipeline.DataHandlerContext;
@@ -51,6 +52,14 @@ public class DuplicateIdSkipDataHandler extends DataHandlerAdapter {
         if (list.contains(GLOBAL_ID)) {
             getLogger().debug("---------------before duplicate id skip {}-------------", dataModel.getDataset().size());
             Set<String> duplicateIds = Sets.newHashSetWithExpectedSize(64);
+            PermutationDataSet permutation = ctx.permutation();
+            if (permutation != null) {
+                // 只标记删除
+                permutation.removeIf(row -> !duplicateIds.add(permutation.baseColumn(row, GLOBAL_ID).asString()));
+                getLogger().debug("---------------after duplicate id skip {}-------------", permutation.size());
+                super.dataComplete(ctx);
+                return;
+            }
             List<Map<String, Column>> all = dataModel.getDataset().all();
             Iterator<Map<String, Column>> iterator = all.iterator();
             Map<String, Column> next;
@@ -0,0 +1,363 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline.handler;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.ppwx.easysearch.core.common.bloom.BloomFilterChunk;
+import com.ppwx.easysearch.core.common.bloom.BloomFilterStore;
+import com.ppwx.easysearch.core.common.bloom.MetaBloomFilter;
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.DataModel;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.PermutationDataSet;
+import com.ppwx.easysearch.core.pipeline.DataHandler;
+import com.ppwx.easysearch.core.pipeline.DataHandlerAdapter;
+import com.ppwx.easysearch.core.pipeline.DataHandlerContext;
+import com.ppwx.easysearch.core.session.SearchSession;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
+import io.netty.util.internal.ObjectUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
+import static com.ppwx.easysearch.core.util.SearchLog.getLogger;
+
+/**
+ *
+ * 曝光去重
+ * 从{@link SearchSession}获取用户的{@link BloomFilterChunk}，一次批量探测后剔除或沉底已曝光的gid，
+ * 整条管道（包括异步阶段）执行完成后将最终返回的一页数据异步写回过滤器
+ * 会话中只保存过滤器序列化后的字节，保证会话可以序列化；不存在时通过{@link BloomFilterStore}异步加载，
+ * dataPrepare阶段即开始加载，与数据查询并行；
+ * 同一会话的请求共用一个过滤器（按会话id缓存，见{@link #setLiveChunks(long, long, TimeUnit)}），
+ * 上一页尚未写回时下一页也能看到其曝光，写回按过滤器加锁顺序执行，不会被旧数据覆盖；
+ * 反序列化、序列化与持久化均在{@link #setExecutor(Executor)}线程执行，加载超时或失败时本次请求不去重也不写回
+ *
+ * @since 1.0.0
+ */
+@DataHandler.Sharable
+public class ExposureFilterDataHandler extends DataHandlerAdapter {
+    /**
+     * 请求绑定的会话
+     */
+    public static final AttributeKey<SearchSession> SESSION = AttributeKey.valueOf("exposureSearchSession");
+    /**
+     * 会话中保存过滤器字节的字段，值为byte[][]
+     */
+    public static final String SESSION_VALUE_NAME = "exposureBloomFilter";
+
+    private static final AttributeKey<CompletableFuture<BloomFilterChunk>> LOADING =
+            AttributeKey.valueOf("exposureBloomLoading");
+
+    /**
+     * 已曝光数据的处理方式
+     */
+    public enum Mode {
+        /**
+         * 剔除
+         */
+        DROP,
+        /**
+         * 保持相对顺序移到末尾
+         */
+        DEMOTE
+    }
+
+    private Mode mode = Mode.DROP;
+
+    private BloomFilterStore store;
+
+    private Executor executor = ForkJoinPool.commonPool();
+    /**
+     * 返回给用户的一页大小，只有这部分会被记为已曝光
+     */
+    private int pageSize = 20;
+    /**
+     * 等待加载的最长时间
+     */
+    private long loadTimeoutMillis = 50;
+
+    private int chunkSize = 10;
+
+    private int expireTime = 1;
+
+    private TimeUnit expireTimeUnit = TimeUnit.DAYS;
+
+    private int expectedInsertions = 1000;
+
+    private double falseProbability = 0.01;
+    /**
+     * 会话id -> 正在使用的过滤器
+     */
+    private volatile Cache<String, BloomFilterChunk> liveChunks = buildLiveChunks(10000, 30, TimeUnit.MINUTES);
+
+    @Override
+    public void dataPrepare(DataHandlerContext ctx) throws Exception {
+        SearchSession session = session(ctx);
+        if (session != null) {
+            loading(ctx, session);
+        }
+        super.dataPrepare(ctx);
+    }
+
+    @Override
+    public void dataComplete(DataHandlerContext ctx) throws Exception {
+        getLogger().debug("---------------execute ExposureFilterDataHandler-------------");
+        SearchSession session = session(ctx);
+        BloomFilterChunk chunk = session == null ? null : resolve(ctx, session);
+        if (chunk != null) {
+            filter(ctx, chunk);
+            // 异步模式下fireXXX返回时后续处理器可能尚未完成
+            ctx.onFireComplete(() -> record(session, chunk, ctx.dataModel().getDataset()));
+        }
+
+        super.dataComplete(ctx);
+    }
+
+    private SearchSession session(DataHandlerContext ctx) {
+        return ctx.hasAttr(SESSION) ? ctx.attr(SESSION).get() : null;
+    }
+
+    /**
+     * 优先使用会话中的过滤器，否则等待异步加载结果
+     */
+    private BloomFilterChunk resolve(DataHandlerContext ctx, SearchSession session) {
+        CompletableFuture<BloomFilterChunk> future = loading(ctx, session);
+        try {
+            return future.get(loadTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            getLogger().warn("load exposure bloom filter failed, session {}", session.getId(), e);
+            return null;
+        }
+    }
+
+    private CompletableFuture<BloomFilterChunk> loading(DataHandlerContext ctx, SearchSession session) {
+        Attribute<CompletableFuture<BloomFilterChunk>> attr = ctx.attr(LOADING);
+        CompletableFuture<BloomFilterChunk> future = attr.get();
+        if (future == null) {
+            String key = session.getId();
+            Cache<String, BloomFilterChunk> liveChunks = this.liveChunks;
+            BloomFilterChunk live = liveChunks.getIfPresent(key);
+            if (live != null) {
+                future = CompletableFuture.completedFuture(live);
+            } else {
+                Object value = session.getValue(SESSION_VALUE_NAME);
+                List<byte[]> bytes = value instanceof byte[][] ? Arrays.asList((byte[][]) value) : null;
+                try {
+                    future = CompletableFuture.supplyAsync(() -> liveChunk(liveChunks, key, bytes), executor);
+                } catch (RejectedExecutionException e) {
+                    future = new CompletableFuture<>();
+                    future.completeExceptionally(e);
+                }
+            }
+            attr.set(future);
+        }
+        return future;
+    }
+
+    /**
+     * 同一会话并发加载时只生成一个过滤器，优先使用会话中的字节
+     */
+    private BloomFilterChunk liveChunk(Cache<String, BloomFilterChunk> liveChunks, String key, List<byte[]> bytes) {
+        try {
+            return liveChunks.get(key, () -> newChunk(bytes != null || store == null ? bytes : store.load(key)));
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    private BloomFilterChunk newChunk(List<byte[]> bytes) {
+        List<MetaBloomFilter> filters = new ArrayList<>();
+        if (bytes != null) {
+            for (byte[] b : bytes) {
+                filters.add(MetaBloomFilter.valueOf(b));
+            }
+        }
+        if (filters.isEmpty()) {
+            filters.add(MetaBloomFilter.blocked(expectedInsertions, falseProbability));
+        }
+        return new BloomFilterChunk(chunkSize, expireTime, expireTimeUnit, filters);
+    }
+
+    private void filter(DataHandlerContext ctx, BloomFilterChunk chunk) {
+        DataModel dataModel = ctx.dataModel();
+        DataSet dataset = dataModel.getDataset();
+        if (dataset == null || dataset.size() == 0 || !dataset.columnNames().contains(GLOBAL_ID)) {
+            return;
+        }
+        String[] keys = keys(dataset.column(GLOBAL_ID), dataset.size());
+        boolean[] exposed = new boolean[keys.length];
+        synchronized (chunk) {
+            chunk.containsAll(keys, exposed);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            exposed[i] &= keys[i] != null;
+        }
+
+        int[] positions = new int[keys.length];
+        int size = 0;
+        for (int i = 0; i < exposed.length; i++) {
+            if (!exposed[i]) {
+                positions[size++] = i;
+            }
+        }
+        if (size == keys.length) {
+            return;
+        }
+        int retained = size;
+        if (mode == Mode.DEMOTE) {
+            for (int i = 0; i < exposed.length; i++) {
+                if (exposed[i]) {
+                    positions[size++] = i;
+                }
+            }
+        }
+
+        PermutationDataSet permutation = ctx.permutation();
+        if (permutation != null) {
+            permutation.reorder(positions, size);
+        } else {
+            List<Map<String, Column>> all = new ArrayList<>(dataset.all());
+            List<Map<String, Column>> items = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                items.add(all.get(positions[i]));
+            }
+            dataModel.setDataSet(new ListDataSet(dataset.columnNames(), items));
+        }
+        getLogger().debug("---------------exposure filter {} exposed, mode {}-------------",
+                keys.length - retained, mode);
+    }
+
+    /**
+     * 异步写回最终返回的一页，同时更新会话与存储
+     * 同一过滤器的写回在锁内完成，后写入的字节总是包含之前的曝光
+     */
+    private void record(SearchSession session, BloomFilterChunk chunk, DataSet dataset) {
+        if (dataset == null || dataset.size() == 0 || !dataset.columnNames().contains(GLOBAL_ID)) {
+            return;
+        }
+        int size = Math.min(pageSize, dataset.size());
+        String[] keys = keys(dataset.column(GLOBAL_ID), size);
+        String key = session.getId();
+        try {
+            executor.execute(() -> {
+                synchronized (chunk) {
+                    for (String gid : keys) {
+                        if (gid != null) {
+                            chunk.add(gid);
+                        }
+                    }
+                    List<MetaBloomFilter> filters = chunk.getBloomFilters();
+                    byte[][] bytes = new byte[filters.size()][];
+                    for (int i = 0; i < bytes.length; i++) {
+                        bytes[i] = filters.get(i).toByteArray();
+                    }
+                    session.putValue(SESSION_VALUE_NAME, bytes);
+                    if (store != null) {
+                        store.save(key, Arrays.asList(bytes));
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            getLogger().warn("record exposure rejected, session {}", key, e);
+        }
+    }
+
+    private static String[] keys(List<Column> column, int size) {
+        String[] keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            Column c = column.get(i);
+            keys[i] = c == null || c.getRawData() == null ? null : c.asString();
+        }
+        return keys;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = ObjectUtil.checkNotNull(mode, "mode");
+    }
+
+    public void setStore(BloomFilterStore store) {
+        this.store = store;
+    }
+
+    public void setExecutor(Executor executor) {
+        this.executor = ObjectUtil.checkNotNull(executor, "executor");
+    }
+
+    public void setPageSize(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize can't be smaller than 1");
+        }
+        this.pageSize = pageSize;
+    }
+
+    public void setLoadTimeout(long timeout, TimeUnit unit) {
+        this.loadTimeoutMillis = unit.toMillis(timeout);
+    }
+
+    /**
+     * 按会话id缓存正在使用的过滤器，过期后从会话或存储重新加载
+     *
+     * @param maximumSize       最大会话数
+     * @param expireAfterAccess 最后一次访问后的过期时间，应不小于会话的存活时间
+     * @param unit
+     * @return void
+     */
+    public void setLiveChunks(long maximumSize, long expireAfterAccess, TimeUnit unit) {
+        this.liveChunks = buildLiveChunks(maximumSize, expireAfterAccess, unit);
+    }
+
+    private static Cache<String, BloomFilterChunk> buildLiveChunks(long maximumSize, long expireAfterAccess,
+                                                                   TimeUnit unit) {
+        return CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess, unit)
+                .build();
+    }
+
+    /**
+     * 新建过滤器参数
+     *
+     * @param chunkSize          块内最多过滤器个数
+     * @param expireTime         单个过滤器过期时间
+     * @param unit
+     * @param expectedInsertions 单个过滤器预计元素个数
+     * @param falseProbability
+     * @return void
+     */
+    public void setBloomFilter(int chunkSize, int expireTime, TimeUnit unit, int expectedInsertions,
+                               double falseProbability) {
+        this.chunkSize = chunkSize;
+        this.expireTime = expireTime;
+        this.expireTimeUnit = ObjectUtil.checkNotNull(unit, "unit");
+        this.expectedInsertions = expectedInsertions;
+        this.falseProbability = falseProbability;
+    }
+}
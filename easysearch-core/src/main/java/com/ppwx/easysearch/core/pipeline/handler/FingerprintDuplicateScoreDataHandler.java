@@ -0,0 +1,212 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline.handler;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.ColumnarDataSet;
+import com.ppwx.easysearch.core.data.DataModel;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.PermutationDataSet;
+import com.ppwx.easysearch.core.data.element.DoubleColumn;
+import com.ppwx.easysearch.core.data.vector.DoubleColumnVector;
+import com.ppwx.easysearch.core.pipeline.DataHandler;
+import com.ppwx.easysearch.core.pipeline.DataHandlerAdapter;
+import com.ppwx.easysearch.core.pipeline.DataHandlerContext;
+import io.netty.util.internal.ObjectUtil;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_SCORE;
+import static com.ppwx.easysearch.core.util.SearchLog.getLogger;
+
+/**
+ *
+ * 基于64位指纹的重复行分值合并Handler
+ * 保留首次出现的行，重复行的分值按{@link ScoreMergePolicy}合并到首行后剔除，一次遍历完成
+ * 默认策略为{@link ScoreMergePolicy#SUM}，与{@link DuplicateIdAddScoreDataHandler}一致
+ *
+ * @since 1.0.0
+ */
+@DataHandler.Sharable
+public class FingerprintDuplicateScoreDataHandler extends DataHandlerAdapter {
+
+    private RowFingerprint fingerprint = new RowFingerprint(new String[]{GLOBAL_ID});
+
+    private String scoreField = GLOBAL_SCORE;
+
+    private ScoreMergePolicy mergePolicy = ScoreMergePolicy.SUM;
+
+    /**
+     * 设置去重字段，多个字段组合为一个键
+     *
+     * @param keyColumns
+     * @return void
+     */
+    public void setKeyColumns(String... keyColumns) {
+        this.fingerprint = new RowFingerprint(keyColumns);
+    }
+
+    public void setScoreField(String scoreField) {
+        this.scoreField = ObjectUtil.checkNotNull(scoreField, "scoreField");
+    }
+
+    public void setMergePolicy(ScoreMergePolicy mergePolicy) {
+        this.mergePolicy = ObjectUtil.checkNotNull(mergePolicy, "mergePolicy");
+    }
+
+    @Override
+    public void dataComplete(DataHandlerContext ctx) throws Exception {
+        getLogger().debug("---------------execute FingerprintDuplicateScoreDataHandler-------------");
+        DataModel dataModel = ctx.dataModel();
+        DataSet dataset = dataModel.getDataset();
+        if (!dataset.columnNames().contains(scoreField) || !fingerprint.accept(dataset.columnNames())) {
+            super.dataComplete(ctx);
+            return;
+        }
+        getLogger().debug("---------------before duplicate score {}-------------", dataset.size());
+        PermutationDataSet permutation = ctx.permutation();
+        if (permutation != null) {
+            merge(permutation);
+            getLogger().debug("---------------after duplicate score {}-------------", permutation.size());
+        } else {
+            List<Map<String, Column>> all = new ArrayList<>(dataset.all());
+            if (merge(all)) {
+                // reset data
+                dataModel.setDataSet(new ListDataSet(dataset.idColumn(), new ArrayList<>(dataset.columnNames()), all));
+            }
+            getLogger().debug("---------------after duplicate score {}-------------", dataModel.getDataset().size());
+        }
+
+        super.dataComplete(ctx);
+    }
+
+    private void merge(PermutationDataSet permutation) {
+        IntToLongFunction keys = fingerprint.bind(permutation);
+        IntToDoubleFunction scores = scoreReader(permutation);
+        Merger merger = new Merger(permutation.size(), mergePolicy);
+        // 保留行在删除整理后的位置
+        int[] kept = new int[1];
+        permutation.removeIf(row -> {
+            if (merger.add(keys.applyAsLong(row), scores.applyAsDouble(row), kept[0])) {
+                return true;
+            }
+            kept[0]++;
+            return false;
+        });
+        for (int slot = 0; slot < merger.size; slot++) {
+            if (merger.changed[slot]) {
+                permutation.set(merger.refs[slot], scoreField, new DoubleColumn(merger.scores[slot]));
+            }
+        }
+    }
+
+    private boolean merge(List<Map<String, Column>> rows) {
+        RowFingerprint fingerprint = this.fingerprint;
+        String scoreField = this.scoreField;
+        Merger merger = new Merger(rows.size(), mergePolicy);
+        List<Map<String, Column>> firsts = new ArrayList<>();
+        boolean removed = rows.removeIf(row -> {
+            if (merger.add(fingerprint.of(row), score(row == null ? null : row.get(scoreField)), firsts.size())) {
+                return true;
+            }
+            firsts.add(row);
+            return false;
+        });
+        for (int slot = 0; slot < merger.size; slot++) {
+            if (merger.changed[slot]) {
+                firsts.get(merger.refs[slot]).put(scoreField, new DoubleColumn(merger.scores[slot]));
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 原始行下标 -> 分值，空值返回NaN
+     */
+    private IntToDoubleFunction scoreReader(PermutationDataSet permutation) {
+        DataSet base = permutation.base();
+        DoubleColumnVector vector = base instanceof ColumnarDataSet
+                ? ((ColumnarDataSet) base).doubleVector(scoreField) : null;
+        if (vector != null) {
+            return row -> vector.isNull(row) ? Double.NaN : vector.getDouble(row);
+        }
+        String scoreField = this.scoreField;
+        return row -> score(permutation.baseColumn(row, scoreField));
+    }
+
+    private static double score(Column column) {
+        return column == null || column.getRawData() == null ? Double.NaN : column.asDouble();
+    }
+
+    /**
+     * 指纹 -> 首行的合并状态
+     */
+    private static final class Merger {
+
+        private final Long2IntOpenHashMap slots;
+
+        private final ScoreMergePolicy policy;
+
+        private final double[] scores;
+
+        private final boolean[] changed;
+        /**
+         * 首行的引用，位置或下标
+         */
+        private final int[] refs;
+
+        private int size;
+
+        Merger(int capacity, ScoreMergePolicy policy) {
+            this.slots = new Long2IntOpenHashMap(capacity);
+            this.slots.defaultReturnValue(-1);
+            this.policy = policy;
+            this.scores = new double[capacity];
+            this.changed = new boolean[capacity];
+            this.refs = new int[capacity];
+        }
+
+        /**
+         * @return boolean 是否为重复行
+         */
+        boolean add(long key, double score, int ref) {
+            int slot = slots.putIfAbsent(key, size);
+            if (slot < 0) {
+                scores[size] = score;
+                refs[size] = ref;
+                size++;
+                return false;
+            }
+            if (Double.isNaN(score)) {
+                return true;
+            }
+            double merged = Double.isNaN(scores[slot]) ? score : policy.merge(scores[slot], score);
+            if (Double.compare(merged, scores[slot]) != 0) {
+                scores[slot] = merged;
+                changed[slot] = true;
+            }
+            return true;
+        }
+    }
+}
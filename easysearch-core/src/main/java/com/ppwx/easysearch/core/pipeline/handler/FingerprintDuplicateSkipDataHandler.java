@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline.handler;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.DataModel;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.PermutationDataSet;
+import com.ppwx.easysearch.core.pipeline.DataHandler;
+import com.ppwx.easysearch.core.pipeline.DataHandlerAdapter;
+import com.ppwx.easysearch.core.pipeline.DataHandlerContext;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntToLongFunction;
+
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
+import static com.ppwx.easysearch.core.util.SearchLog.getLogger;
+
+/**
+ *
+ * 基于64位指纹的重复行剔除Handler
+ * 与{@link DuplicateIdSkipDataHandler}相同保留首次出现的行，键可由多个字段组合，见{@link RowFingerprint}
+ *
+ * @since 1.0.0
+ */
+@DataHandler.Sharable
+public class FingerprintDuplicateSkipDataHandler extends DataHandlerAdapter {
+
+    private RowFingerprint fingerprint = new RowFingerprint(new String[]{GLOBAL_ID});
+
+    /**
+     * 设置去重字段，多个字段组合为一个键
+     *
+     * @param keyColumns
+     * @return void
+     */
+    public void setKeyColumns(String... keyColumns) {
+        this.fingerprint = new RowFingerprint(keyColumns);
+    }
+
+    @Override
+    public void dataComplete(DataHandlerContext ctx) throws Exception {
+        getLogger().debug("---------------execute FingerprintDuplicateSkipDataHandler-------------");
+        DataModel dataModel = ctx.dataModel();
+        DataSet dataset = dataModel.getDataset();
+        RowFingerprint fingerprint = this.fingerprint;
+        if (!fingerprint.accept(dataset.columnNames())) {
+            // 缺少去重字段时所有行的键相同，不做处理
+            super.dataComplete(ctx);
+            return;
+        }
+        getLogger().debug("---------------before duplicate skip {}-------------", dataset.size());
+        LongOpenHashSet seen = new LongOpenHashSet(dataset.size());
+        PermutationDataSet permutation = ctx.permutation();
+        if (permutation != null) {
+            // 只标记删除
+            IntToLongFunction keys = fingerprint.bind(permutation);
+            permutation.removeIf(row -> !seen.add(keys.applyAsLong(row)));
+            getLogger().debug("---------------after duplicate skip {}-------------", permutation.size());
+            super.dataComplete(ctx);
+            return;
+        }
+        List<Map<String, Column>> all = new ArrayList<>(dataset.all());
+        if (all.removeIf(row -> !seen.add(fingerprint.of(row)))) {
+            // reset data
+            dataModel.setDataSet(new ListDataSet(dataset.idColumn(), new ArrayList<>(dataset.columnNames()), all));
+        }
+        getLogger().debug("---------------after duplicate skip {}-------------", dataModel.getDataset().size());
+
+        super.dataComplete(ctx);
+    }
+}
@@ -21,6 +21,7 @@ import com.ppwx.easysearch.core.data.Column;
 import com.ppwx.easysearch.core.data.DataModel;
 import com.ppwx.easysearch.core.data.DataSet;
 import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.PermutationDataSet;
 import com.ppwx.easysearch.core.pipeline.DataHandler;
 import com.ppwx.easysearch.core.pipeline.DataHandlerAdapter;
 import com.ppwx.easysearch.core.pipeline.DataHandlerContext;
@@ -96,7 +97,9 @@ public class FixSlotsRateDataHandler extends DataHandlerAdapter {
         getLogger().debug("---------------execute FixSlotsRateDataHandler-------------");
         DataModel dataModel = ctx.dataModel();
         DataSet dataset = dataModel.getDataset();
-        List<Map<String, Column>> items = dataset.all();
+        PermutationDataSet permutation = ctx.permutation();
+        // 下标排列模式下直接在行视图上交换
+        List<Map<String, Column>> items = permutation != null ? permutation.rows() : dataset.all();
         int size = dataset.size();
         if (this.maxSize > 0) {
             size = Math.min(size, maxSize);
@@ -115,7 +118,9 @@ public class FixSlotsRateDataHandler extends DataHandlerAdapter {
             diffIds.clear();
         }
         // reset dataset
-        dataModel.setDataSet(new ListDataSet(dataset.columnNames(), items));
+        if (permutation == null) {
+            dataModel.setDataSet(new ListDataSet(dataset.columnNames(), items));
+        }
 
         super.dataComplete(ctx);
     }
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline.handler;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.DataModel;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.PermutationDataSet;
+import com.ppwx.easysearch.core.function.location.BatchDistanceFunc;
+import com.ppwx.easysearch.core.function.location.GeoPoints;
+import com.ppwx.easysearch.core.pipeline.DataHandler;
+import com.ppwx.easysearch.core.pipeline.DataHandlerAdapter;
+import com.ppwx.easysearch.core.pipeline.DataHandlerContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.ppwx.easysearch.core.util.SearchLog.getLogger;
+
+/**
+ *
+ * 地理半径过滤
+ * 在其他算分之前剔除距离超出半径的行，无有效坐标的行同样剔除
+ *
+ * @since 1.0.0
+ */
+@DataHandler.Sharable
+public class GeoRadiusFilterDataHandler extends DataHandlerAdapter {
+    /**
+     * 位置字段
+     */
+    private final String field;
+
+    private final BatchDistanceFunc distanceFunc;
+    /**
+     * 半径（米）
+     */
+    private final double radius;
+
+    public GeoRadiusFilterDataHandler(String field, double lat, double lon, double radius) {
+        if (radius <= 0) {
+            throw new IllegalArgumentException("Radius must be positive");
+        }
+        this.field = field;
+        this.distanceFunc = new BatchDistanceFunc(lat, lon);
+        this.radius = radius;
+    }
+
+    @Override
+    public void dataComplete(DataHandlerContext ctx) throws Exception {
+        getLogger().debug("---------------execute GeoRadiusFilterDataHandler-------------");
+        DataModel dataModel = ctx.dataModel();
+        DataSet dataset = dataModel.getDataset();
+        if (dataset.columnNames().contains(field)) {
+            PermutationDataSet permutation = ctx.permutation();
+            if (permutation != null) {
+                int[] retained = distanceFunc.within(GeoPoints.of(permutation, field), radius);
+                permutation.reorder(retained, retained.length);
+            } else {
+                List<Map<String, Column>> all = new ArrayList<>(dataset.all());
+                int[] retained = distanceFunc.within(GeoPoints.of(dataset, field), radius);
+                List<Map<String, Column>> items = new ArrayList<>(retained.length);
+                for (int idx : retained) {
+                    items.add(all.get(idx));
+                }
+                dataModel.setDataSet(new ListDataSet(dataset.columnNames(), items));
+            }
+            getLogger().debug("---------------after geo radius filter {}-------------", dataModel.getDataset().size());
+        }
+
+        super.dataComplete(ctx);
+    }
+}
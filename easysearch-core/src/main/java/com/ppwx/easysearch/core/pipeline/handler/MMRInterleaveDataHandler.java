@@ -20,11 +20,14 @@ import com.ppwx.easysearch.core.data.Column;
 import com.ppwx.easysearch.core.data.DataModel;
 import com.ppwx.easysearch.core.data.DataSet;
 import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.PermutationDataSet;
 import com.ppwx.easysearch.core.pipeline.DataHandler;
 import com.ppwx.easysearch.core.pipeline.DataHandlerAdapter;
 import com.ppwx.easysearch.core.pipeline.DataHandlerContext;
 import com.ppwx.easysearch.core.similarity.LevenshteinDistanceSimilarity;
+import com.ppwx.easysearch.core.similarity.MMRSelector;
 import com.ppwx.easysearch.core.similarity.SequenceSimilarityScore;
+import com.ppwx.easysearch.core.similarity.SignatureSimilarity;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -33,10 +36,13 @@ import java.util.Map;
 import static com.ppwx.easysearch.core.util.SearchLog.getLogger;
 
 /**
- * TODO 待完善
- * @className MMRInterleaveDataHandler
- * @description 基于MMR算法的打散策略
- **/
+ *
+ * 基于MMR算法的打散策略
+ * 每个物品的相关性只计算一次，冗余度增量维护，见{@link MMRSelector}
+ * 设置{@link SignatureSimilarity}后物品间相似度基于预计算签名(MinHash、SimHash、向量等)，否则使用{@link #sim(Map, Map)}
+ *
+ * @since 1.0.0
+ */
 @DataHandler.Sharable
 public class MMRInterleaveDataHandler extends DataHandlerAdapter {
 
@@ -44,8 +50,16 @@ public class MMRInterleaveDataHandler extends DataHandlerAdapter {
      * 调节参数
      */
     private double lambda = 0.7;
+    /**
+     * 打散数量，选满后剩余物品按相关性排序，小于等于0时全部打散
+     */
+    private int topK;
 
     private final SequenceSimilarityScore<Double> similarity = new LevenshteinDistanceSimilarity();
+    /**
+     * 物品间签名相似度
+     */
+    private SignatureSimilarity<?> signatureSimilarity;
 
     private String query;
 
@@ -57,52 +71,57 @@ public class MMRInterleaveDataHandler extends DataHandlerAdapter {
         this.query = query;
     }
 
+    public void setTopK(int topK) {
+        this.topK = topK;
+    }
+
+    public void setSignatureSimilarity(SignatureSimilarity<?> signatureSimilarity) {
+        this.signatureSimilarity = signatureSimilarity;
+    }
+
     @Override
     public void dataComplete(DataHandlerContext ctx) throws Exception {
         getLogger().debug("---------------execute MMRInterleaveDataHandler-------------");
         DataModel dataModel = ctx.dataModel();
         DataSet dataset = dataModel.getDataset();
 
-        List<Map<String, Column>> items = applyMMR(ctx, dataset.all(), lambda);
-        dataModel.setDataSet(new ListDataSet(dataset.columnNames(), items));
+        PermutationDataSet permutation = ctx.permutation();
+        if (permutation != null) {
+            // 只回写顺序
+            int[] order = applyMMR(ctx, permutation.rows(), lambda);
+            permutation.reorder(order, order.length);
+        } else {
+            List<Map<String, Column>> all = new ArrayList<>(dataset.all());
+            int[] order = applyMMR(ctx, all, lambda);
+            List<Map<String, Column>> items = new ArrayList<>(order.length);
+            for (int idx : order) {
+                items.add(all.get(idx));
+            }
+            dataModel.setDataSet(new ListDataSet(dataset.columnNames(), items));
+        }
 
         ctx.fireDataComplete();
     }
 
-    private List<Map<String, Column>> applyMMR(DataHandlerContext ctx, List<Map<String, Column>> items, double lambda) {
-        List<Map<String, Column>> selectedItems = new ArrayList<>();
-        List<Map<String, Column>> remainingItems = new ArrayList<>(items);
-
-        // 初始化：选择相关性最高的物品作为第一个
-        remainingItems.sort((a, b) -> Double.compare(simTarget(b, ctx), simTarget(a, ctx)));
-        selectedItems.add(remainingItems.remove(0));
-
-        // 迭代选择
-        while (!remainingItems.isEmpty()) {
-            Map<String, Column> bestItem = null;
-            double bestMMR = Double.NEGATIVE_INFINITY;
-
-            for (Map<String, Column> item : remainingItems) {
-                double relevance = simTarget(item, ctx);
-                double redundancy = 0;
-
-                for (Map<String, Column> selected : selectedItems) {
-                    redundancy = Math.max(redundancy, sim(item, selected));
-                }
-
-                double mmr = lambda * relevance - (1 - lambda) * redundancy;
-
-                if (mmr > bestMMR) {
-                    bestMMR = mmr;
-                    bestItem = item;
-                }
-            }
-
-            selectedItems.add(bestItem);
-            remainingItems.remove(bestItem);
+    private int[] applyMMR(DataHandlerContext ctx, List<Map<String, Column>> items, double lambda) {
+        int n = items.size();
+        double[] relevance = new double[n];
+        for (int i = 0; i < n; i++) {
+            relevance[i] = simTarget(items.get(i), ctx);
         }
+        if (signatureSimilarity != null) {
+            return selectBySignature(items, relevance, signatureSimilarity, lambda);
+        }
+        return MMRSelector.select(relevance, (i, j) -> sim(items.get(i), items.get(j)), lambda, topK);
+    }
 
-        return selectedItems;
+    private <S> int[] selectBySignature(List<Map<String, Column>> items, double[] relevance,
+                                        SignatureSimilarity<S> similarity, double lambda) {
+        List<S> signatures = new ArrayList<>(items.size());
+        for (Map<String, Column> item : items) {
+            signatures.add(similarity.signature(item));
+        }
+        return MMRSelector.select(relevance, signatures, similarity, lambda, topK);
     }
 
     protected double simTarget(Map<String, Column> item, DataHandlerContext ctx) {
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline.handler;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.ColumnarDataSet;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.PermutationDataSet;
+import com.ppwx.easysearch.core.data.vector.ColumnVector;
+import com.ppwx.easysearch.core.data.vector.DictionaryColumnVector;
+import com.ppwx.easysearch.core.data.vector.LongColumnVector;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntToLongFunction;
+
+/**
+ *
+ * 行键的64位指纹
+ * 由一个或多个字段(如sku+shop)组合而成，按{@link Column#asString()}的字符序列计算，与原有基于字符串的去重等价，
+ * 即LongColumn(123)与StringColumn("123")视为同一键；整数直接按十进制数字计算，不生成中间字符串
+ * 指纹存在极小的碰撞概率，碰撞的两行会被视为重复
+ *
+ * @since 1.0.0
+ */
+final class RowFingerprint {
+
+    private static final long NULL_HASH = 0x9E3779B97F4A7C15L;
+
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private final String[] columns;
+
+    RowFingerprint(String[] columns) {
+        if (columns == null || columns.length == 0) {
+            throw new IllegalArgumentException("key columns can not be empty.");
+        }
+        this.columns = columns.clone();
+    }
+
+    /**
+     * 数据集是否包含全部去重字段
+     *
+     * @param columnNames
+     * @return boolean
+     */
+    boolean accept(List<String> columnNames) {
+        for (String column : columns) {
+            if (!columnNames.contains(column)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 行数据的指纹
+     *
+     * @param row
+     * @return long
+     */
+    long of(Map<String, Column> row) {
+        long h = 0;
+        Column column;
+        for (String name : columns) {
+            column = row == null ? null : row.get(name);
+            h = combine(h, hash(column));
+        }
+        return h;
+    }
+
+    /**
+     * 原始行下标 -> 指纹，列式数据集直接读取整数列和字典列
+     *
+     * @param permutation
+     * @return java.util.function.IntToLongFunction
+     */
+    IntToLongFunction bind(PermutationDataSet permutation) {
+        DataSet base = permutation.base();
+        if (!(base instanceof ColumnarDataSet)) {
+            return baseRow -> {
+                long h = 0;
+                Column column;
+                for (String name : columns) {
+                    column = permutation.baseColumn(baseRow, name);
+                    h = combine(h, hash(column));
+                }
+                return h;
+            };
+        }
+        ColumnarDataSet columnar = (ColumnarDataSet) base;
+        ColumnVector[] vectors = new ColumnVector[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            vectors[i] = columnar.vector(columns[i]);
+        }
+        return baseRow -> {
+            long h = 0;
+            for (ColumnVector vector : vectors) {
+                h = combine(h, hash(vector, baseRow));
+            }
+            return h;
+        };
+    }
+
+    private static long hash(ColumnVector vector, int row) {
+        if (vector == null || vector.isNull(row)) {
+            return NULL_HASH;
+        }
+        if (vector instanceof LongColumnVector) {
+            return hash(vector.getLong(row));
+        }
+        if (vector instanceof DictionaryColumnVector) {
+            return hash(vector.getString(row));
+        }
+        return hash(vector.get(row));
+    }
+
+    static long hash(Column column) {
+        Object raw = column == null ? null : column.getRawData();
+        if (raw == null) {
+            return NULL_HASH;
+        }
+        if (raw instanceof CharSequence) {
+            return hash((CharSequence) raw);
+        }
+        if (raw instanceof BigInteger && ((BigInteger) raw).bitLength() < Long.SIZE) {
+            return hash(((BigInteger) raw).longValue());
+        }
+        return hash(column.asString());
+    }
+
+    /**
+     * 等价于hash(Long.toString(value))
+     *
+     * @param value
+     * @return long
+     */
+    static long hash(long value) {
+        if (value == Long.MIN_VALUE) {
+            return hash(Long.toString(value));
+        }
+        long h = FNV_OFFSET;
+        if (value < 0) {
+            h = step(h, '-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            h = step(h, (char) ('0' + value / divisor % 10));
+        }
+        return mix(h);
+    }
+
+    /**
+     * FNV-1a后再做一次混淆
+     *
+     * @param value
+     * @return long
+     */
+    static long hash(CharSequence value) {
+        long h = FNV_OFFSET;
+        for (int i = 0, len = value.length(); i < len; i++) {
+            h = step(h, value.charAt(i));
+        }
+        return mix(h);
+    }
+
+    private static long step(long h, char c) {
+        return (h ^ c) * FNV_PRIME;
+    }
+
+    static long combine(long h, long next) {
+        return mix(h * 31 + next);
+    }
+
+    /**
+     * murmur3 fmix64
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE53EC5A7L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
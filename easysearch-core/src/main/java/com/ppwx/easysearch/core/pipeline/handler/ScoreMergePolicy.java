@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline.handler;
+
+/**
+ *
+ * 重复行分值合并策略
+ * 只处理非空分值，空分值不参与合并
+ *
+ * @since 1.0.0
+ */
+@FunctionalInterface
+public interface ScoreMergePolicy {
+    /**
+     * 叠加
+     */
+    ScoreMergePolicy SUM = Double::sum;
+    /**
+     * 取最大值
+     */
+    ScoreMergePolicy MAX = Math::max;
+    /**
+     * 保留首次出现的分值
+     */
+    ScoreMergePolicy FIRST = (merged, score) -> merged;
+
+    /**
+     * 合并分值
+     *
+     * @param merged 已合并的分值
+     * @param score 重复行的分值
+     * @return double
+     */
+    double merge(double merged, double score);
+}
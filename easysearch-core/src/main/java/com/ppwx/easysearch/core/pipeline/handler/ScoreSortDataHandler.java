@@ -20,6 +20,7 @@ import com.ppwx.easysearch.core.data.Column;
 import com.ppwx.easysearch.core.data.DataModel;
 import com.ppwx.easysearch.core.data.DataSet;
 import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.PermutationDataSet;
 import com.ppwx.easysearch.core.pipeline.DataHandler;
 import com.ppwx.easysearch.core.pipeline.DataHandlerAdapter;
 import com.ppwx.easysearch.core.pipeline.DataHandlerContext;
@@ -47,6 +48,12 @@ public class ScoreSortDataHandler extends DataHandlerAdapter {
         if (dataset.size() <= 1) {
             return;
         }
+        PermutationDataSet permutation = ctx.permutation();
+        if (permutation != null) {
+            sort(permutation);
+            super.dataComplete(ctx);
+            return;
+        }
         List<Map<String, Column>> all = dataset.all();
         all.sort((o1, o2) -> {
             if (o1 == null || o1.get(GLOBAL_SCORE) == null) {
@@ -68,4 +75,33 @@ public class ScoreSortDataHandler extends DataHandlerAdapter {
 
         super.dataComplete(ctx);
     }
+
+    /**
+     * 只调整下标顺序，分值为空的排在最后
+     *
+     * @param permutation
+     * @return void
+     */
+    private void sort(PermutationDataSet permutation) {
+        int size = permutation.base().size();
+        double[] scores = new double[size];
+        boolean[] nulls = new boolean[size];
+        Column column;
+        for (int i = 0; i < size; i++) {
+            column = permutation.baseColumn(i, GLOBAL_SCORE);
+            if (column == null || column.getRawData() == null) {
+                nulls[i] = true;
+            } else {
+                scores[i] = column.asDouble();
+            }
+        }
+        permutation.sort((r1, r2) -> {
+            if (nulls[r1]) {
+                return nulls[r2] ? 0 : 1;
+            } else if (nulls[r2]) {
+                return -1;
+            }
+            return - Double.compare(scores[r1], scores[r2]);
+        });
+    }
 }
\ No newline at end of file
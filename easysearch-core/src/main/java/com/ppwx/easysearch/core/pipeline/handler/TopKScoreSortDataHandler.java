@@ -0,0 +1,334 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline.handler;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.ColumnarDataSet;
+import com.ppwx.easysearch.core.data.DataModel;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.PermutationDataSet;
+import com.ppwx.easysearch.core.data.vector.DoubleColumnVector;
+import com.ppwx.easysearch.core.pipeline.DataHandler;
+import com.ppwx.easysearch.core.pipeline.DataHandlerAdapter;
+import com.ppwx.easysearch.core.pipeline.DataHandlerContext;
+import io.netty.util.internal.ObjectUtil;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_SCORE;
+import static com.ppwx.easysearch.core.util.SearchLog.getLogger;
+
+/**
+ *
+ * 分值Top-K排序处理器
+ * 分值一次性读入double[]，用大小为K的堆选出前K行并只对这K行排序，其余行保持原有顺序或直接丢弃
+ * 分值相同时按次级字段升序，仍相同时按原有位置，结果确定；分值为空的排在最后
+ *
+ * @since 1.0.0
+ */
+@DataHandler.Sharable
+public class TopKScoreSortDataHandler extends DataHandlerAdapter {
+
+    /**
+     * 前K行之外的处理方式
+     */
+    public enum Tail {
+        /**
+         * 保持原有顺序
+         */
+        KEEP,
+        /**
+         * 丢弃
+         */
+        DROP
+    }
+
+    /**
+     * 排序数量，小于等于0时全部排序
+     */
+    private int topK = 60;
+    /**
+     * 分值字段
+     */
+    private String scoreField = GLOBAL_SCORE;
+    /**
+     * 次级字段，为空时只按原有位置
+     */
+    private String tieBreakField = GLOBAL_ID;
+
+    private Tail tail = Tail.KEEP;
+
+    public void setTopK(int topK) {
+        this.topK = topK;
+    }
+
+    public void setScoreField(String scoreField) {
+        this.scoreField = ObjectUtil.checkNotNull(scoreField, "scoreField");
+    }
+
+    public void setTieBreakField(String tieBreakField) {
+        this.tieBreakField = tieBreakField;
+    }
+
+    public void setTail(Tail tail) {
+        this.tail = ObjectUtil.checkNotNull(tail, "tail");
+    }
+
+    @Override
+    public void dataComplete(DataHandlerContext ctx) throws Exception {
+        getLogger().debug("---------------execute TopKScoreSortDataHandler-------------");
+        DataModel dataModel = ctx.dataModel();
+        DataSet dataset = dataModel.getDataset();
+        if (dataset.size() <= 1) {
+            super.dataComplete(ctx);
+            return;
+        }
+        PermutationDataSet permutation = ctx.permutation();
+        if (permutation != null) {
+            // 只调整下标顺序
+            int[] index = permutation.permutation();
+            int[] order = select(scoreView(permutation, index), index.length);
+            permutation.reorder(order, order.length);
+            super.dataComplete(ctx);
+            return;
+        }
+        List<Map<String, Column>> all = new ArrayList<>(dataset.all());
+        int[] order = select(scoreView(all), all.size());
+        List<Map<String, Column>> items = new ArrayList<>(order.length);
+        for (int pos : order) {
+            items.add(all.get(pos));
+        }
+        // reset data
+        dataModel.setDataSet(new ListDataSet(dataset.idColumn(), new ArrayList<>(dataset.columnNames()), items));
+
+        super.dataComplete(ctx);
+    }
+
+    /**
+     * 选出前K个位置并排序，按配置追加其余位置
+     *
+     * @param view
+     * @param size
+     * @return int[] 新顺序，元素为原有位置
+     */
+    int[] select(ScoreView view, int size) {
+        int k = topK <= 0 ? size : Math.min(topK, size);
+        if (k == size) {
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            IntArrays.quickSort(order, view::compare);
+            return order;
+        }
+        // 小顶堆，堆顶为已选中最差的位置
+        int[] heap = new int[k];
+        int heapSize = 0;
+        for (int pos = 0; pos < size; pos++) {
+            if (heapSize < k) {
+                heap[heapSize] = pos;
+                siftUp(heap, heapSize++, view);
+            } else if (view.compare(pos, heap[0]) < 0) {
+                heap[0] = pos;
+                siftDown(heap, k, view);
+            }
+        }
+        int[] order = new int[tail == Tail.KEEP ? size : k];
+        boolean[] selected = new boolean[size];
+        // 依次弹出堆顶，从后向前填充
+        for (int i = k - 1; i >= 0; i--) {
+            order[i] = heap[0];
+            selected[heap[0]] = true;
+            heap[0] = heap[i];
+            siftDown(heap, i, view);
+        }
+        if (tail == Tail.KEEP) {
+            int idx = k;
+            for (int pos = 0; pos < size; pos++) {
+                if (!selected[pos]) {
+                    order[idx++] = pos;
+                }
+            }
+        }
+        return order;
+    }
+
+    private static void siftUp(int[] heap, int idx, ScoreView view) {
+        int pos = heap[idx];
+        while (idx > 0) {
+            int parent = (idx - 1) >>> 1;
+            if (view.compare(heap[parent], pos) >= 0) {
+                break;
+            }
+            heap[idx] = heap[parent];
+            idx = parent;
+        }
+        heap[idx] = pos;
+    }
+
+    private static void siftDown(int[] heap, int size, ScoreView view) {
+        if (size == 0) {
+            return;
+        }
+        int idx = 0;
+        int pos = heap[0];
+        int half = size >>> 1;
+        while (idx < half) {
+            int child = (idx << 1) + 1;
+            int right = child + 1;
+            if (right < size && view.compare(heap[right], heap[child]) > 0) {
+                child = right;
+            }
+            if (view.compare(pos, heap[child]) >= 0) {
+                break;
+            }
+            heap[idx] = heap[child];
+            idx = child;
+        }
+        heap[idx] = pos;
+    }
+
+    private ScoreView scoreView(PermutationDataSet permutation, int[] index) {
+        int size = index.length;
+        double[] scores = new double[size];
+        boolean[] nulls = new boolean[size];
+        DataSet base = permutation.base();
+        DoubleColumnVector vector = base instanceof ColumnarDataSet
+                ? ((ColumnarDataSet) base).doubleVector(scoreField) : null;
+        if (vector != null) {
+            // 列存直接读取原生数组
+            double[] values = vector.elements();
+            for (int i = 0; i < size; i++) {
+                nulls[i] = vector.isNull(index[i]);
+                scores[i] = values[index[i]];
+            }
+        } else {
+            Column column;
+            for (int i = 0; i < size; i++) {
+                column = permutation.baseColumn(index[i], scoreField);
+                if (column == null || column.getRawData() == null) {
+                    nulls[i] = true;
+                } else {
+                    scores[i] = column.asDouble();
+                }
+            }
+        }
+        return new ScoreView(scores, nulls,
+                tieBreakField == null ? null : pos -> permutation.baseColumn(index[pos], tieBreakField));
+    }
+
+    private ScoreView scoreView(List<Map<String, Column>> rows) {
+        int size = rows.size();
+        double[] scores = new double[size];
+        boolean[] nulls = new boolean[size];
+        Map<String, Column> row;
+        Column column;
+        for (int i = 0; i < size; i++) {
+            row = rows.get(i);
+            column = row == null ? null : row.get(scoreField);
+            if (column == null || column.getRawData() == null) {
+                nulls[i] = true;
+            } else {
+                scores[i] = column.asDouble();
+            }
+        }
+        return new ScoreView(scores, nulls, tieBreakField == null ? null : pos -> {
+            Map<String, Column> r = rows.get(pos);
+            return r == null ? null : r.get(tieBreakField);
+        });
+    }
+
+    /**
+     * 按位置访问的分值视图
+     * 次级字段只在分值相同时按需读取
+     */
+    static final class ScoreView {
+
+        private static final Object ABSENT = new Object();
+
+        private final double[] scores;
+
+        private final boolean[] nulls;
+
+        private final IntFunction<Column> tieBreaker;
+
+        private final Object[] tieKeys;
+
+        ScoreView(double[] scores, boolean[] nulls, IntFunction<Column> tieBreaker) {
+            this.scores = scores;
+            this.nulls = nulls;
+            this.tieBreaker = tieBreaker;
+            this.tieKeys = tieBreaker == null ? null : new Object[scores.length];
+        }
+
+        /**
+         * 小于0表示p1排在p2之前
+         *
+         * @param p1
+         * @param p2
+         * @return int
+         */
+        int compare(int p1, int p2) {
+            if (p1 == p2) {
+                return 0;
+            }
+            if (nulls[p1] != nulls[p2]) {
+                return nulls[p1] ? 1 : -1;
+            }
+            if (!nulls[p1]) {
+                int c = Double.compare(scores[p2], scores[p1]);
+                if (c != 0) {
+                    return c;
+                }
+            }
+            if (tieKeys != null) {
+                int c = compareKey(tieKey(p1), tieKey(p2));
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return Integer.compare(p1, p2);
+        }
+
+        private Object tieKey(int pos) {
+            Object key = tieKeys[pos];
+            if (key == null) {
+                Column column = tieBreaker.apply(pos);
+                key = column == null || column.getRawData() == null ? ABSENT : column.getRawData();
+                tieKeys[pos] = key;
+            }
+            return key;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static int compareKey(Object k1, Object k2) {
+            if (k1 == ABSENT || k2 == ABSENT) {
+                return k1 == k2 ? 0 : (k1 == ABSENT ? 1 : -1);
+            }
+            if (k1.getClass() == k2.getClass() && k1 instanceof Comparable) {
+                return ((Comparable) k1).compareTo(k2);
+            }
+            return String.valueOf(k1).compareTo(String.valueOf(k2));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline.handler;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.ColumnarDataSet;
+import com.ppwx.easysearch.core.data.DataModel;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.PermutationDataSet;
+import com.ppwx.easysearch.core.data.vector.ColumnVector;
+import com.ppwx.easysearch.core.data.vector.DictionaryColumnVector;
+import com.ppwx.easysearch.core.interleave.WindowConstraint;
+import com.ppwx.easysearch.core.interleave.WindowInterleaver;
+import com.ppwx.easysearch.core.pipeline.DataHandler;
+import com.ppwx.easysearch.core.pipeline.DataHandlerAdapter;
+import com.ppwx.easysearch.core.pipeline.DataHandlerContext;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.ppwx.easysearch.core.util.SearchLog.getLogger;
+
+/**
+ *
+ * 多约束窗口打散
+ * 可同时配置多个约束，如品牌每5个最多2个、店铺每3个最多1个，基于{@link WindowInterleaver}一次遍历完成
+ *
+ * @since 1.0.0
+ */
+@DataHandler.Sharable
+public class WindowConstraintInterleaveDataHandler extends DataHandlerAdapter {
+
+    private final List<WindowConstraint> constraints = new CopyOnWriteArrayList<>();
+    /**
+     * 最大打散数量，小于等于0时全部打散
+     */
+    private int maxSize;
+
+    /**
+     * 添加约束
+     *
+     * @param field 打散字段
+     * @param maxCount 窗口内同一字段值的最大数量
+     * @param window 窗口大小
+     * @return void
+     */
+    public void addConstraint(String field, int maxCount, int window) {
+        addConstraint(new WindowConstraint(field, maxCount, window));
+    }
+
+    public void addConstraint(WindowConstraint constraint) {
+        if (constraint == null) {
+            throw new IllegalArgumentException("constraint can not be null.");
+        }
+        constraints.add(constraint);
+    }
+
+    public List<WindowConstraint> getConstraints() {
+        return new ArrayList<>(constraints);
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void dataComplete(DataHandlerContext ctx) throws Exception {
+        getLogger().debug("---------------execute WindowConstraintInterleaveDataHandler-------------");
+        DataModel dataModel = ctx.dataModel();
+        DataSet dataset = dataModel.getDataset();
+        if (constraints.isEmpty() || dataset.size() <= 1) {
+            super.dataComplete(ctx);
+            return;
+        }
+        PermutationDataSet permutation = ctx.permutation();
+        if (permutation != null) {
+            // 只调整下标顺序
+            int[] index = permutation.permutation();
+            WindowInterleaver interleaver = new WindowInterleaver(index.length);
+            for (WindowConstraint constraint : constraints) {
+                interleaver.constraint(codes(permutation, index, constraint.getField()),
+                        constraint.getMaxCount(), constraint.getWindow());
+            }
+            int[] order = interleaver.interleave(maxSize);
+            permutation.reorder(order, order.length);
+            super.dataComplete(ctx);
+            return;
+        }
+        List<Map<String, Column>> all = new ArrayList<>(dataset.all());
+        WindowInterleaver interleaver = new WindowInterleaver(all.size());
+        for (WindowConstraint constraint : constraints) {
+            interleaver.constraint(codes(all, constraint.getField()), constraint.getMaxCount(), constraint.getWindow());
+        }
+        int[] order = interleaver.interleave(maxSize);
+        List<Map<String, Column>> items = new ArrayList<>(order.length);
+        for (int pos : order) {
+            items.add(all.get(pos));
+        }
+        // reset data
+        dataModel.setDataSet(new ListDataSet(dataset.idColumn(), new ArrayList<>(dataset.columnNames()), items));
+
+        super.dataComplete(ctx);
+    }
+
+    /**
+     * 字段值编码，字典列直接使用字典下标
+     */
+    private static int[] codes(PermutationDataSet permutation, int[] index, String field) {
+        int[] codes = new int[index.length];
+        DataSet base = permutation.base();
+        ColumnVector vector = base instanceof ColumnarDataSet ? ((ColumnarDataSet) base).vector(field) : null;
+        if (vector instanceof DictionaryColumnVector) {
+            DictionaryColumnVector dictionary = (DictionaryColumnVector) vector;
+            for (int i = 0; i < index.length; i++) {
+                codes[i] = dictionary.code(index[i]);
+            }
+            return codes;
+        }
+        Object2IntOpenHashMap<Object> lookup = newLookup();
+        for (int i = 0; i < index.length; i++) {
+            codes[i] = encode(lookup, permutation.baseColumn(index[i], field));
+        }
+        return codes;
+    }
+
+    private static int[] codes(List<Map<String, Column>> rows, String field) {
+        int[] codes = new int[rows.size()];
+        Object2IntOpenHashMap<Object> lookup = newLookup();
+        Map<String, Column> row;
+        for (int i = 0; i < codes.length; i++) {
+            row = rows.get(i);
+            codes[i] = encode(lookup, row == null ? null : row.get(field));
+        }
+        return codes;
+    }
+
+    private static Object2IntOpenHashMap<Object> newLookup() {
+        Object2IntOpenHashMap<Object> lookup = new Object2IntOpenHashMap<>();
+        lookup.defaultReturnValue(WindowInterleaver.NO_CODE);
+        return lookup;
+    }
+
+    private static int encode(Object2IntOpenHashMap<Object> lookup, Column column) {
+        Object raw = column == null ? null : column.getRawData();
+        if (raw == null) {
+            return WindowInterleaver.NO_CODE;
+        }
+        int code = lookup.getInt(raw);
+        if (code == WindowInterleaver.NO_CODE) {
+            code = lookup.size();
+            lookup.put(raw, code);
+        }
+        return code;
+    }
+}
@@ -18,6 +18,7 @@ package com.ppwx.easysearch.core.session;
 
 import java.io.Serializable;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -48,6 +49,18 @@ public class DefaultSearchSession implements SearchSession, Serializable {
      * key value map
      */
     private Map<String, Object> attributes = new HashMap<>();
+    /**
+     * 上次写入后修改、删除的字段
+     */
+    private transient Set<String> dirtyNames;
+    /**
+     * 存活时间或字段集合整体变更
+     */
+    private transient boolean fullDirty;
+    /**
+     * 访问时间变更，只需刷新存储中的访问时间
+     */
+    private transient boolean touched;
 
     public DefaultSearchSession() {
     }
@@ -67,12 +80,16 @@ public class DefaultSearchSession implements SearchSession, Serializable {
         this.createTime = createTime;
     }
 
-    public void setLastAccessTime(long lastAccessTime) {
-        this.lastAccessTime = lastAccessTime;
+    public synchronized void setLastAccessTime(long lastAccessTime) {
+        if (this.lastAccessTime == null || this.lastAccessTime != lastAccessTime) {
+            this.lastAccessTime = lastAccessTime;
+            this.touched = true;
+        }
     }
 
-    public void setAttributes(Map<String, Object> attributes) {
+    public synchronized void setAttributes(Map<String, Object> attributes) {
         this.attributes = attributes;
+        this.fullDirty = true;
     }
 
     @Override
@@ -86,27 +103,28 @@ public class DefaultSearchSession implements SearchSession, Serializable {
     }
 
     @Override
-    public long getLastAccessedTime() {
+    public synchronized long getLastAccessedTime() {
         return this.lastAccessTime;
     }
 
     @Override
-    public void setMaxInactiveInterval(int interval) {
+    public synchronized void setMaxInactiveInterval(int interval) {
         this.maxInactiveInterval = interval;
+        this.fullDirty = true;
     }
 
     @Override
-    public int getMaxInactiveInterval() {
+    public synchronized int getMaxInactiveInterval() {
         return this.maxInactiveInterval;
     }
 
     @Override
-    public Object getValue(String name) {
+    public synchronized Object getValue(String name) {
         return attributes.get(name);
     }
 
     @Override
-    public String[] getValueNames() {
+    public synchronized String[] getValueNames() {
         Set<String> keySet = attributes.keySet();
         String[] arr = new String[keySet.size()];
         int i = 0;
@@ -118,13 +136,79 @@ public class DefaultSearchSession implements SearchSession, Serializable {
     }
 
     @Override
-    public void putValue(String name, Object value) {
+    public synchronized void putValue(String name, Object value) {
         this.attributes.put(name, value);
+        markDirty(name);
     }
 
     @Override
-    public void removeValue(String name) {
-        this.attributes.remove(name);
+    public synchronized void removeValue(String name) {
+        if (this.attributes.containsKey(name)) {
+            this.attributes.remove(name);
+            markDirty(name);
+        }
+    }
+
+    private void markDirty(String name) {
+        if (dirtyNames == null) {
+            dirtyNames = new HashSet<>();
+        }
+        dirtyNames.add(name);
+    }
+
+    /**
+     * 是否有未写入的变更
+     *
+     * @param
+     * @return boolean
+     */
+    public synchronized boolean isDirty() {
+        return fullDirty || touched || (dirtyNames != null && !dirtyNames.isEmpty());
+    }
+
+    /**
+     * 取出上次写入后的变更并清空，没有变更返回null
+     * 变更中的会话是加锁生成的副本，写入存储时不受并发请求的修改影响；
+     * 原地修改字段值对象不会被记录，需重新调用{@link #putValue(String, Object)}
+     *
+     * @param
+     * @return com.ppwx.easysearch.core.session.SessionDelta
+     */
+    synchronized SessionDelta drainChanges() {
+        if (!isDirty()) {
+            return null;
+        }
+        Map<String, Object> changed = new HashMap<>();
+        Set<String> removed = new HashSet<>();
+        if (dirtyNames != null) {
+            for (String name : dirtyNames) {
+                if (attributes.containsKey(name)) {
+                    changed.put(name, attributes.get(name));
+                } else {
+                    removed.add(name);
+                }
+            }
+            dirtyNames = null;
+        }
+        boolean full = fullDirty;
+        fullDirty = false;
+        touched = false;
+        DefaultSearchSession snapshot = new DefaultSearchSession(id, createTime, lastAccessTime, maxInactiveInterval);
+        snapshot.attributes = new HashMap<>(attributes);
+        return new SessionDelta(snapshot, changed, removed, full);
+    }
+
+    /**
+     * 变更写入失败时恢复变更标记，下次写入时按当前字段值重新生成变更
+     *
+     * @param delta
+     * @return void
+     */
+    synchronized void restoreChanges(SessionDelta delta) {
+        delta.getChangedValues().keySet().forEach(this::markDirty);
+        delta.getRemovedNames().forEach(this::markDirty);
+        fullDirty |= delta.isFull();
+        touched = true;
     }
 
     @Override
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.session;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ *
+ * 会话变更
+ * 记录自上次写入后被修改、删除的字段，字段值为生成变更时的快照
+ *
+ * @since 1.0.0
+ */
+public final class SessionDelta {
+
+    private final DefaultSearchSession session;
+
+    private final Map<String, Object> changedValues;
+
+    private final Set<String> removedNames;
+
+    private final boolean full;
+
+    SessionDelta(DefaultSearchSession session, Map<String, Object> changedValues, Set<String> removedNames,
+                 boolean full) {
+        this.session = session;
+        this.changedValues = Collections.unmodifiableMap(changedValues);
+        this.removedNames = Collections.unmodifiableSet(removedNames);
+        this.full = full;
+    }
+
+    public String getSessionId() {
+        return session.getId();
+    }
+
+    /**
+     * 生成变更时的会话副本，{@link #isFull()}为true时需整体写入
+     * 字段没有变更时表示只有访问时间变化，支持过期时间的存储可只刷新过期时间
+     *
+     * @return com.ppwx.easysearch.core.session.DefaultSearchSession
+     */
+    public DefaultSearchSession getSession() {
+        return session;
+    }
+
+    public Map<String, Object> getChangedValues() {
+        return changedValues;
+    }
+
+    public Set<String> getRemovedNames() {
+        return removedNames;
+    }
+
+    /**
+     * 会话属性（存活时间、字段集合）整体变更
+     *
+     * @return boolean
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    @Override
+    public String toString() {
+        return "SessionDelta{" +
+                "sessionId='" + getSessionId() + '\'' +
+                ", changedValues=" + changedValues.keySet() +
+                ", removedNames=" + removedNames +
+                ", full=" + full +
+                '}';
+    }
+}
@@ -16,23 +16,59 @@
 
 package com.ppwx.easysearch.core.session;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ppwx.easysearch.core.metrics.Metrics;
+import com.ppwx.easysearch.core.metrics.MetricsRegistry;
 import com.ppwx.easysearch.core.util.CurrentTimeUtil;
+import io.netty.util.internal.ObjectUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  *
  * 会话管理器
  * 提供会话的获取、失效、持久化等
+ * 可选开启近端缓存，按{@link #getMaxInactiveInterval()}过期，命中时不再访问{@link SessionRepository}；
+ * 写入只包含上次写入后变更的字段，只有访问时间变化时也会写入以刷新存储中的访问时间，没有任何变更的提交直接跳过；
+ * 写入存储的是加锁生成的会话副本，近端缓存中同一会话被并发请求修改时不会影响序列化；
+ * 开启延迟写后{@link #commit(SearchSession)}进入队列，同一会话多次提交合并为一次，按批次写入，最长延迟可配置
+ * 节省的存储访问次数通过{@link MetricsRegistry}输出
  *
  * @since 1.0.0
  */
 public class SessionManager {
 
+    private static final Logger logger = LoggerFactory.getLogger(SessionManager.class);
+
     /**
      * global session inactive time
      */
     private static final int DEFAULT_MAX_INACTIVE_INTERVAL_SECONDS = 30 * 60;
+    /**
+     * 存储访问次数
+     */
+    static final String READ_TAG = ".read";
+
+    static final String WRITE_TAG = ".write";
+    /**
+     * 节省的存储访问次数
+     */
+    static final String READ_SAVED_TAG = ".read.saved";
+
+    static final String WRITE_SAVED_TAG = ".write.saved";
     /**
      * 持久化
      */
@@ -45,6 +81,28 @@ public class SessionManager {
      * inactive time
      */
     private int maxInactiveInterval = DEFAULT_MAX_INACTIVE_INTERVAL_SECONDS;
+    /**
+     * 近端缓存最大会话数，0表示不开启
+     */
+    private long nearCacheSize;
+
+    private volatile Cache<String, DefaultSearchSession> nearCache;
+    /**
+     * 延迟写队列
+     */
+    private final ConcurrentMap<String, DefaultSearchSession> pending = new ConcurrentHashMap<>();
+
+    private long writeBehindDelayMillis;
+
+    private int writeBehindBatchSize = 100;
+
+    private ScheduledExecutorService scheduler;
+
+    private String name = "session";
+
+    private MetricsRegistry<Metrics> metricsRegistry;
+
+    private int metricsWindowSize = 60;
 
     public void setRepository(SessionRepository repository) {
         this.repository = repository;
@@ -64,6 +122,62 @@ public class SessionManager {
 
     public void setMaxInactiveInterval(int maxInactiveInterval) {
         this.maxInactiveInterval = maxInactiveInterval;
+        if (nearCacheSize > 0) {
+            this.nearCache = buildNearCache();
+        }
+    }
+
+    /**
+     * 开启近端缓存
+     *
+     * @param maximumSize 最大会话数
+     * @return void
+     */
+    public void setNearCache(long maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize can't be negative");
+        }
+        this.nearCacheSize = maximumSize;
+        this.nearCache = maximumSize == 0 ? null : buildNearCache();
+    }
+
+    private Cache<String, DefaultSearchSession> buildNearCache() {
+        return CacheBuilder.newBuilder()
+                .maximumSize(nearCacheSize)
+                .expireAfterAccess(maxInactiveInterval, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * 开启延迟写
+     *
+     * @param maxDelay  提交后最长延迟
+     * @param unit
+     * @param batchSize 单批写入会话数，队列达到该值时立即写入
+     * @return void
+     */
+    public synchronized void setWriteBehind(long maxDelay, TimeUnit unit, int batchSize) {
+        if (maxDelay <= 0) {
+            throw new IllegalArgumentException("maxDelay must be positive");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize can't be smaller than 1");
+        }
+        if (scheduler != null) {
+            throw new IllegalStateException("write behind set already");
+        }
+        this.writeBehindDelayMillis = unit.toMillis(maxDelay);
+        this.writeBehindBatchSize = batchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("session-write-behind-%d").setDaemon(true).build());
+        this.scheduler.scheduleWithFixedDelay(this::flushQuietly, writeBehindDelayMillis, writeBehindDelayMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void setMetrics(String name, MetricsRegistry<Metrics> metricsRegistry, int windowSize) {
+        this.name = ObjectUtil.checkNotNull(name, "name");
+        this.metricsRegistry = metricsRegistry;
+        this.metricsWindowSize = windowSize;
     }
 
     /**
@@ -85,7 +199,10 @@ public class SessionManager {
      * @return com.ppwx.easysearch.core.session.SearchSession
      */
     public SearchSession getSession(String sessionId, boolean created) {
-        DefaultSearchSession session = repository.getSession(sessionId);
+        DefaultSearchSession session = getFromNearCache(sessionId);
+        if (session == null) {
+            session = sessionId == null ? null : loadFromRepository(sessionId);
+        }
         if (session != null) {
             session.setLastAccessTime(CurrentTimeUtil.currentTimeMillis());
             return new SessionDecorator(session, this.flushMode);
@@ -93,6 +210,36 @@ public class SessionManager {
         return created ? newSession() : null;
     }
 
+    private DefaultSearchSession getFromNearCache(String sessionId) {
+        Cache<String, DefaultSearchSession> cache = this.nearCache;
+        if (cache == null || sessionId == null) {
+            return null;
+        }
+        DefaultSearchSession session = cache.getIfPresent(sessionId);
+        if (session == null) {
+            return null;
+        }
+        // 会话自身的存活时间可能小于缓存过期时间
+        long inactiveMillis = TimeUnit.SECONDS.toMillis(session.getMaxInactiveInterval());
+        if (CurrentTimeUtil.currentTimeMillis() - session.getLastAccessedTime() > inactiveMillis) {
+            cache.invalidate(sessionId);
+            return null;
+        }
+        record(READ_SAVED_TAG, 0);
+        return session;
+    }
+
+    private DefaultSearchSession loadFromRepository(String sessionId) {
+        long start = System.nanoTime();
+        DefaultSearchSession session = repository.getSession(sessionId);
+        record(READ_TAG, System.nanoTime() - start);
+        Cache<String, DefaultSearchSession> cache = this.nearCache;
+        if (session != null && cache != null) {
+            cache.put(sessionId, session);
+        }
+        return session;
+    }
+
     /**
      * 创建会话
      *
@@ -107,12 +254,17 @@ public class SessionManager {
         session.setMaxInactiveInterval(maxInactiveInterval);
         // pre save
         saveToRepositoryImmediately(session);
+        Cache<String, DefaultSearchSession> cache = this.nearCache;
+        if (cache != null) {
+            cache.put(session.getId(), session);
+        }
 
         return new SessionDecorator(session, flushMode);
     }
 
     /**
      * 主动提交保存
+     * 开启延迟写时进入队列，否则立即写入变更的字段
      *
      * @param session
      * @return void
@@ -130,11 +282,136 @@ public class SessionManager {
             // 暂不支持的自定义session，避免出现序列化等不支持
             return;
         }
-        saveToRepositoryImmediately(defaultSearchSession);
+        if (scheduler == null) {
+            saveChangesImmediately(defaultSearchSession);
+            return;
+        }
+        if (!defaultSearchSession.isDirty()) {
+            record(WRITE_SAVED_TAG, 0);
+            return;
+        }
+        if (pending.putIfAbsent(defaultSearchSession.getId(), defaultSearchSession) != null) {
+            // 合并到已在队列中的提交
+            record(WRITE_SAVED_TAG, 0);
+        } else if (pending.size() >= writeBehindBatchSize) {
+            try {
+                scheduler.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * 写入延迟队列中的全部会话
+     * 批量写入失败时该批会话的变更重新入队，异常继续抛出
+     *
+     * @param
+     * @return void
+     */
+    public void flush() {
+        List<DefaultSearchSession> sessions = new ArrayList<>(Math.min(pending.size(), writeBehindBatchSize));
+        List<SessionDelta> batch = new ArrayList<>(sessions.size());
+        Iterator<String> iterator = pending.keySet().iterator();
+        while (iterator.hasNext()) {
+            String id = iterator.next();
+            DefaultSearchSession session = pending.remove(id);
+            SessionDelta delta = session == null ? null : session.drainChanges();
+            if (delta == null) {
+                continue;
+            }
+            sessions.add(session);
+            batch.add(delta);
+            if (batch.size() >= writeBehindBatchSize) {
+                writeBatch(sessions, batch);
+                sessions = new ArrayList<>(writeBehindBatchSize);
+                batch = new ArrayList<>(writeBehindBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(sessions, batch);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Throwable t) {
+            logger.warn("Failed to flush sessions.", t);
+        }
+    }
+
+    private void writeBatch(List<DefaultSearchSession> sessions, List<SessionDelta> batch) {
+        long start = System.nanoTime();
+        try {
+            repository.updateSessions(batch);
+        } catch (RuntimeException e) {
+            // 恢复变更并重新入队，等待下次写入
+            for (int i = 0; i < batch.size(); i++) {
+                DefaultSearchSession session = sessions.get(i);
+                session.restoreChanges(batch.get(i));
+                pending.putIfAbsent(session.getId(), session);
+            }
+            throw e;
+        }
+        record(WRITE_TAG, System.nanoTime() - start);
+        for (int i = 1; i < batch.size(); i++) {
+            record(WRITE_SAVED_TAG, 0);
+        }
+    }
+
+    /**
+     * 停止延迟写并写入队列中剩余的会话
+     *
+     * @param
+     * @return void
+     */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+        flush();
     }
 
     void saveToRepositoryImmediately(DefaultSearchSession session) {
+        // 整体写入，清空变更记录
+        session.drainChanges();
+        long start = System.nanoTime();
         repository.updateSession(session);
+        record(WRITE_TAG, System.nanoTime() - start);
+    }
+
+    void saveChangesImmediately(DefaultSearchSession session) {
+        pending.remove(session.getId(), session);
+        SessionDelta delta = session.drainChanges();
+        if (delta == null) {
+            record(WRITE_SAVED_TAG, 0);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            repository.updateChanges(delta);
+        } catch (RuntimeException e) {
+            session.restoreChanges(delta);
+            throw e;
+        }
+        record(WRITE_TAG, System.nanoTime() - start);
+    }
+
+    void removeSession(String sessionId) {
+        pending.remove(sessionId);
+        Cache<String, DefaultSearchSession> cache = this.nearCache;
+        if (cache != null) {
+            cache.invalidate(sessionId);
+        }
+        repository.removeSession(sessionId);
+    }
+
+    private void record(String tag, long nanos) {
+        if (metricsRegistry != null) {
+            metricsRegistry.metrics(name + tag, metricsWindowSize).record(nanos, TimeUnit.NANOSECONDS, Metrics.Outcome.SUCCESS);
+        }
     }
 
     /**
@@ -182,6 +459,7 @@ public class SessionManager {
         public void setMaxInactiveInterval(int interval) {
             checkState();
             targetSession.setMaxInactiveInterval(interval);
+            flushToRepository();
         }
 
         @Override
@@ -206,26 +484,28 @@ public class SessionManager {
         public void putValue(String name, Object value) {
             checkState();
             targetSession.putValue(name, value);
+            flushToRepository();
         }
 
         @Override
         public void removeValue(String name) {
             checkState();
             targetSession.removeValue(name);
+            flushToRepository();
         }
 
         @Override
         public void invalidate() {
             checkState();
             this.invalidated = true;
-            repository.removeSession(targetSession.getId());
+            removeSession(targetSession.getId());
         }
 
         private void flushToRepository() {
             if (flushMode == FlushMode.LAZY) {
                 return;
             }
-            saveToRepositoryImmediately(targetSession);
+            saveChangesImmediately(targetSession);
         }
 
         private void checkState() {
@@ -16,6 +16,8 @@
 
 package com.ppwx.easysearch.core.session;
 
+import java.util.Collection;
+
 /**
  * session 持久化
  *
@@ -39,6 +41,30 @@ public interface SessionRepository {
      */
     void updateSession(DefaultSearchSession session);
 
+    /**
+     * 只写入变更的字段，默认整体更新会话
+     * 支持按字段写入的存储（如redis hash）可覆盖该方法
+     *
+     * @param delta
+     * @return void
+     */
+    default void updateChanges(SessionDelta delta) {
+        updateSession(delta.getSession());
+    }
+
+    /**
+     * 批量写入变更，默认逐个写入
+     * 支持批量写入的存储（如pipeline）可覆盖该方法
+     *
+     * @param deltas
+     * @return void
+     */
+    default void updateSessions(Collection<SessionDelta> deltas) {
+        for (SessionDelta delta : deltas) {
+            updateChanges(delta);
+        }
+    }
+
     /**
      * 删除
      *
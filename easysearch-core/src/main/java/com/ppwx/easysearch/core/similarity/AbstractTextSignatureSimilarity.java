@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.similarity;
+
+import com.ppwx.easysearch.core.data.Column;
+
+import java.util.Map;
+
+/**
+ *
+ * 以字段文本为输入的签名相似度基类
+ * 文本按字符切分为定长片段(shingle)，片段哈希由子类组合成签名
+ *
+ * @since 1.0.0
+ */
+public abstract class AbstractTextSignatureSimilarity<S> implements SignatureSimilarity<S> {
+    /**
+     * 文本字段
+     */
+    private final String field;
+    /**
+     * 片段长度
+     */
+    private final int shingleSize;
+
+    protected AbstractTextSignatureSimilarity(String field, int shingleSize) {
+        if (field == null) {
+            throw new IllegalArgumentException("Field must not be null");
+        }
+        if (shingleSize <= 0) {
+            throw new IllegalArgumentException("Shingle size must be positive");
+        }
+        this.field = field;
+        this.shingleSize = shingleSize;
+    }
+
+    @Override
+    public S signature(Map<String, Column> item) {
+        Column column = item.get(field);
+        String text = column == null ? null : column.asString();
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        int count = Math.max(1, text.length() - shingleSize + 1);
+        long[] hashes = new long[count];
+        for (int i = 0; i < count; i++) {
+            long h = 0;
+            int end = Math.min(text.length(), i + shingleSize);
+            for (int j = i; j < end; j++) {
+                h = h * 31 + text.charAt(j);
+            }
+            hashes[i] = mix(h);
+        }
+        return signature(hashes);
+    }
+
+    /**
+     * 由片段哈希生成签名
+     *
+     * @param shingles
+     * @return S
+     */
+    protected abstract S signature(long[] shingles);
+
+    /**
+     * 64位哈希混淆(MurmurHash3 fmix64)
+     *
+     * @param h
+     * @return long
+     */
+    protected static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public int getShingleSize() {
+        return shingleSize;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.similarity;
+
+import com.ppwx.easysearch.core.data.Column;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ *
+ * 向量相似度，字段值为double[]、float[]或数值集合(含json数组)
+ * 签名为归一化后的向量，相似度即点积(余弦)
+ *
+ * @since 1.0.0
+ */
+public class EmbeddingSimilarity implements SignatureSimilarity<double[]> {
+    /**
+     * 向量字段
+     */
+    private final String field;
+
+    public EmbeddingSimilarity(String field) {
+        if (field == null) {
+            throw new IllegalArgumentException("Field must not be null");
+        }
+        this.field = field;
+    }
+
+    @Override
+    public double[] signature(Map<String, Column> item) {
+        Column column = item.get(field);
+        double[] vector = column == null ? null : toVector(column.getRawData());
+        if (vector == null || vector.length == 0) {
+            return null;
+        }
+        double norm = 0;
+        for (double v : vector) {
+            norm += v * v;
+        }
+        if (norm <= 0) {
+            return null;
+        }
+        norm = Math.sqrt(norm);
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] /= norm;
+        }
+        return vector;
+    }
+
+    @Override
+    public double similarity(double[] left, double[] right) {
+        if (left == null || right == null) {
+            return 0;
+        }
+        int len = Math.min(left.length, right.length);
+        double dot = 0;
+        for (int i = 0; i < len; i++) {
+            dot += left[i] * right[i];
+        }
+        return dot;
+    }
+
+    private static double[] toVector(Object raw) {
+        if (raw instanceof double[]) {
+            return ((double[]) raw).clone();
+        }
+        if (raw instanceof float[]) {
+            float[] values = (float[]) raw;
+            double[] vector = new double[values.length];
+            for (int i = 0; i < values.length; i++) {
+                vector[i] = values[i];
+            }
+            return vector;
+        }
+        if (raw instanceof Collection) {
+            Collection<?> values = (Collection<?>) raw;
+            double[] vector = new double[values.size()];
+            int i = 0;
+            for (Object value : values) {
+                if (!(value instanceof Number)) {
+                    throw new IllegalArgumentException("Embedding element must be a number: " + value);
+                }
+                vector[i++] = ((Number) value).doubleValue();
+            }
+            return vector;
+        }
+        if (raw == null) {
+            return null;
+        }
+        throw new IllegalArgumentException("Unsupported embedding type: " + raw.getClass());
+    }
+
+    public String getField() {
+        return field;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.similarity;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.ints.IntComparator;
+
+import java.util.List;
+
+/**
+ *
+ * MMR(Maximal Marginal Relevance)选择器
+ * 相关性由调用方预先计算，维护每个候选与已选集合的最大相似度，每轮只与新选中的物品比较，
+ * 相似度计算次数为O(n·k)；选满topK后剩余物品按相关性降序追加
+ *
+ * @since 1.0.0
+ */
+public final class MMRSelector {
+
+    private MMRSelector() {
+    }
+
+    /**
+     * 相似度计算
+     */
+    @FunctionalInterface
+    public interface PairSimilarity {
+        /**
+         * 下标i、j两个物品的相似度
+         *
+         * @param i
+         * @param j
+         * @return double
+         */
+        double similarity(int i, int j);
+    }
+
+    /**
+     * 基于签名的MMR选择
+     *
+     * @param relevance 相关性
+     * @param signatures 签名，与relevance一一对应
+     * @param similarity
+     * @param lambda 调节参数，越大越偏向相关性
+     * @param topK 需要打散的数量，小于等于0时全部打散
+     * @return int[] 新顺序下的原始下标
+     */
+    public static <S> int[] select(double[] relevance, List<S> signatures, SignatureSimilarity<S> similarity,
+                                   double lambda, int topK) {
+        if (signatures.size() != relevance.length) {
+            throw new IllegalArgumentException("Signatures size must equal relevance length");
+        }
+        return select(relevance, (i, j) -> similarity.similarity(signatures.get(i), signatures.get(j)), lambda, topK);
+    }
+
+    /**
+     * MMR选择
+     * 同分时取相关性排序(稳定)中靠前的物品
+     *
+     * @param relevance 相关性
+     * @param similarity 相似度
+     * @param lambda 调节参数，越大越偏向相关性
+     * @param topK 需要打散的数量，小于等于0时全部打散
+     * @return int[] 新顺序下的原始下标
+     */
+    public static int[] select(double[] relevance, PairSimilarity similarity, double lambda, int topK) {
+        int n = relevance.length;
+        int[] sorted = new int[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i;
+        }
+        IntArrays.mergeSort(sorted, (IntComparator) (a, b) -> Double.compare(relevance[b], relevance[a]));
+        if (n == 0) {
+            return sorted;
+        }
+        int k = topK <= 0 ? n : Math.min(topK, n);
+        int[] result = new int[n];
+        boolean[] selected = new boolean[n];
+        // 与已选集合的最大相似度，初始为0
+        double[] maxSimilarity = new double[n];
+
+        int last = sorted[0];
+        result[0] = last;
+        selected[last] = true;
+        for (int count = 1; count < k; count++) {
+            int best = -1;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int s = 0; s < n; s++) {
+                int item = sorted[s];
+                if (selected[item]) {
+                    continue;
+                }
+                double sim = similarity.similarity(item, last);
+                if (sim > maxSimilarity[item]) {
+                    maxSimilarity[item] = sim;
+                }
+                double score = lambda * relevance[item] - (1 - lambda) * maxSimilarity[item];
+                if (best < 0 || score > bestScore) {
+                    bestScore = score;
+                    best = item;
+                }
+            }
+            last = best;
+            result[count] = best;
+            selected[best] = true;
+        }
+        int pos = k;
+        for (int s = 0; s < n && pos < n; s++) {
+            if (!selected[sorted[s]]) {
+                result[pos++] = sorted[s];
+            }
+        }
+        return result;
+    }
+}
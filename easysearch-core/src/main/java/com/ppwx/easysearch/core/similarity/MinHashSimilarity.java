@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.similarity;
+
+/**
+ *
+ * MinHash相似度，签名为各哈希函数下片段哈希的最小值，相同位置取值相等的比例近似Jaccard相似度
+ *
+ * @since 1.0.0
+ */
+public class MinHashSimilarity extends AbstractTextSignatureSimilarity<long[]> {
+    /**
+     * 哈希函数个数
+     */
+    private final int numHashes;
+
+    private final long[] seeds;
+
+    public MinHashSimilarity(String field) {
+        this(field, 2, 64);
+    }
+
+    public MinHashSimilarity(String field, int shingleSize, int numHashes) {
+        super(field, shingleSize);
+        if (numHashes <= 0) {
+            throw new IllegalArgumentException("Number of hashes must be positive");
+        }
+        this.numHashes = numHashes;
+        this.seeds = new long[numHashes];
+        for (int i = 0; i < numHashes; i++) {
+            seeds[i] = mix(0x9e3779b97f4a7c15L * (i + 1));
+        }
+    }
+
+    @Override
+    protected long[] signature(long[] shingles) {
+        long[] signature = new long[numHashes];
+        for (int i = 0; i < numHashes; i++) {
+            long seed = seeds[i];
+            long min = Long.MAX_VALUE;
+            for (long shingle : shingles) {
+                min = Math.min(min, mix(shingle ^ seed));
+            }
+            signature[i] = min;
+        }
+        return signature;
+    }
+
+    @Override
+    public double similarity(long[] left, long[] right) {
+        if (left == null || right == null) {
+            return 0;
+        }
+        int same = 0;
+        for (int i = 0; i < numHashes; i++) {
+            if (left[i] == right[i]) {
+                same++;
+            }
+        }
+        return (double) same / numHashes;
+    }
+}
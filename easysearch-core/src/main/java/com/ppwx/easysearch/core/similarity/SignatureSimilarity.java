@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.similarity;
+
+import com.ppwx.easysearch.core.data.Column;
+
+import java.util.Map;
+
+/**
+ *
+ * 基于预计算签名的相似度
+ * 每个物品只计算一次签名，两两比较时只在签名上计算，适用于MMR等需要大量两两比较的场景
+ *
+ * @since 1.0.0
+ */
+public interface SignatureSimilarity<S> {
+
+    /**
+     * 计算物品签名，无法计算时返回null
+     *
+     * @param item
+     * @return S
+     */
+    S signature(Map<String, Column> item);
+
+    /**
+     * 签名相似度，任意一方为null时应返回0
+     *
+     * @param left
+     * @param right
+     * @return double
+     */
+    double similarity(S left, S right);
+
+}
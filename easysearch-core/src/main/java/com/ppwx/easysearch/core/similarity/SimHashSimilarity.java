@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.similarity;
+
+/**
+ *
+ * SimHash相似度，签名为64位指纹，相似度为1 - 汉明距离 / 64
+ * 签名只占一个long，比较只需一次异或和位计数
+ *
+ * @since 1.0.0
+ */
+public class SimHashSimilarity extends AbstractTextSignatureSimilarity<Long> {
+
+    public SimHashSimilarity(String field) {
+        this(field, 2);
+    }
+
+    public SimHashSimilarity(String field, int shingleSize) {
+        super(field, shingleSize);
+    }
+
+    @Override
+    protected Long signature(long[] shingles) {
+        int[] weights = new int[Long.SIZE];
+        for (long shingle : shingles) {
+            for (int bit = 0; bit < Long.SIZE; bit++) {
+                weights[bit] += ((shingle >>> bit) & 1L) != 0 ? 1 : -1;
+            }
+        }
+        long fingerprint = 0;
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    @Override
+    public double similarity(Long left, Long right) {
+        if (left == null || right == null) {
+            return 0;
+        }
+        return 1.0 - (double) Long.bitCount(left ^ right) / Long.SIZE;
+    }
+}
@@ -24,7 +24,10 @@ package com.ppwx.easysearch.core.util;
  */
 public class GeoDistanceUtil {
 
-    private final static double EARTH_RADIUS = 6378137.0;
+    /**
+     * 地球半径（米）
+     */
+    public final static double EARTH_RADIUS = 6378137.0;
 
     private GeoDistanceUtil() {
 
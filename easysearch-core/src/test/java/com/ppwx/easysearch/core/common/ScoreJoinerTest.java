@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.common;
+
+import com.ppwx.easysearch.core.common.enums.JoinModeEnum;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ *
+ * ScoreJoiner测试类
+ *
+ * @since 1.0.0
+ */
+public class ScoreJoinerTest {
+
+    private static double[] array(double... values) {
+        return values;
+    }
+
+    @Test
+    public void testEvaluate() {
+        ScoreJoiner root = ScoreJoiner.ofEmpty(3);
+        root.join(ScoreJoiner.of(array(1, 2, 3), 2.0));
+        ScoreJoiner multiply = ScoreJoiner.of(array(1, 0, 2), null);
+        multiply.setJoinMode(JoinModeEnum.MULTIPLY);
+        multiply.join(ScoreJoiner.of(array(3, 5, 0), null));
+        multiply.join(ScoreJoiner.of(array(2, 2), 0.5));
+        root.join(multiply);
+
+        // [2,4,6] + [1*3*1, max(0,5)*1, max(2,0)]
+        Assert.assertArrayEquals(array(5, 9, 8), root.evaluate(), 0D);
+        CompiledScoreJoiner compiled = root.compile();
+        Assert.assertEquals(3, compiled.length());
+        double[] out = new double[4];
+        Assert.assertSame(out, compiled.evaluate(out));
+        Assert.assertArrayEquals(array(5, 9, 8, 0), out, 0D);
+
+        // 数组内容在执行时读取
+        root.getChildren().get(0).setScore(0, 10);
+        Assert.assertEquals(23D, compiled.evaluate()[0], 0D);
+    }
+
+    @Test
+    public void testCompiledMatchesRecursive() {
+        Random random = new Random(7);
+        for (int round = 0; round < 50; round++) {
+            ScoreJoiner root = randomTree(random, 0, 64);
+            double[] expected = recursive(root);
+            Assert.assertArrayEquals(expected, root.compile().evaluate(), 0D);
+        }
+    }
+
+    @Test
+    public void testParallelEvaluate() {
+        Random random = new Random(11);
+        ScoreJoiner root = randomTree(random, 0, 10000);
+        double[] expected = recursive(root);
+        CompiledScoreJoiner compiled = root.compile();
+        double[] out = new double[compiled.length()];
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Assert.assertArrayEquals(expected, compiled.evaluate(out, pool, 512), 0D);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testLazyDetails() {
+        ScoreJoiner root = ScoreJoiner.ofEmpty(2);
+        ScoreJoiner child = ScoreJoiner.of(array(1, 2), null);
+        root.join(child);
+        Assert.assertNull(child.getDetailArray());
+        Assert.assertTrue(root.details(1).isEmpty());
+
+        ScoreDetail detail = new ScoreDetail();
+        detail.setDesc("price");
+        detail.setScore(3D);
+        child.setScoreDetail(1, detail);
+        List<ScoreDetail> details = root.details(1);
+        Assert.assertEquals(1, details.size());
+        Assert.assertSame(detail, details.get(0));
+        Assert.assertEquals(3D, root.evaluate()[1], 0D);
+    }
+
+    private ScoreJoiner randomTree(Random random, int depth, int maxLength) {
+        double[] values = new double[maxLength - random.nextInt(3)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(5) == 0 ? 0D : random.nextDouble() * 10;
+        }
+        ScoreJoiner node = ScoreJoiner.of(values, random.nextBoolean() ? null : random.nextDouble());
+        node.setJoinMode(random.nextBoolean() ? JoinModeEnum.MULTIPLY : JoinModeEnum.SUM);
+        if (depth < 3) {
+            int children = random.nextInt(4);
+            for (int i = 0; i < children; i++) {
+                node.join(randomTree(random, depth + 1, maxLength));
+            }
+        }
+        return node;
+    }
+
+    /**
+     * 编译前的逐节点实现，作为对照
+     */
+    private double[] recursive(ScoreJoiner node) {
+        double[] result = node.getArray().clone();
+        if (node.getWeight() != null) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] = result[i] * node.getWeight();
+            }
+        }
+        if (node.getChildren() != null) {
+            for (ScoreJoiner child : node.getChildren()) {
+                double[] next = recursive(child);
+                int minLen = Math.min(result.length, next.length);
+                for (int i = 0; i < minLen; i++) {
+                    if (node.getJoinMode() == JoinModeEnum.MULTIPLY) {
+                        if (Double.compare(result[i], 0.0) == 0 || Double.compare(next[i], 0.0) == 0) {
+                            result[i] = Math.max(result[i], next[i]);
+                        } else {
+                            result[i] = result[i] * next[i];
+                        }
+                    } else {
+                        result[i] = result[i] + next[i];
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -18,9 +18,13 @@ package com.ppwx.easysearch.core.common.bloom;
 
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.Lists;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.Hashing;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.BitSet;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -138,4 +142,119 @@ public class MetaBloomFilterTest {
         System.out.println(chunk.count());
         Assert.assertTrue(chunk.contains("43172001"));
     }
-}
\ No newline at end of file
+
+    /**
+     * 按改造前BitSet实现的格式写出
+     */
+    private static byte[] legacyBytes(int bitSize, int hashIterations, String... values) {
+        BitSet bitSet = new BitSet(bitSize);
+        for (String value : values) {
+            long hash64 = Hashing.murmur3_128()
+                    .hashObject(value, Funnels.stringFunnel(StandardCharsets.UTF_8)).asLong();
+            int hash1 = (int) hash64;
+            int hash2 = (int) (hash64 >>> 32);
+            for (int i = 1; i <= hashIterations; i++) {
+                int combinedHash = hash1 + (i * hash2);
+                if (combinedHash < 0) {
+                    combinedHash = ~combinedHash;
+                }
+                bitSet.set(combinedHash % bitSize);
+            }
+        }
+        ByteBuffer byteBuffer = ByteBuffer.allocate(52 + bitSet.size());
+        byteBuffer.position(16);
+        byteBuffer.putInt(values.length).putLong(1L).putLong(2L)
+                .putInt(bitSize).putInt(200).putInt(hashIterations).putInt(0)
+                .put(bitSet.toByteArray());
+        byte[] digest = Hashing.md5().hashBytes(byteBuffer.array(), 16, byteBuffer.capacity() - 16).asBytes();
+        byteBuffer.position(0);
+        byteBuffer.put(digest);
+        return byteBuffer.array();
+    }
+
+    @Test
+    public void testLegacyFormatCompatible() {
+        MetaBloomFilter expected = new MetaBloomFilter(200, 0.01);
+        expected.add("a");
+        expected.add("b");
+        MetaBloomFilter filter = MetaBloomFilter.valueOf(
+                legacyBytes(expected.getSize(), expected.getHashIterations(), "a", "b"));
+        Assert.assertFalse(filter.isBlocked());
+        Assert.assertEquals(2, filter.count());
+        Assert.assertTrue(filter.contains("a"));
+        Assert.assertTrue(filter.contains("b"));
+        Assert.assertEquals(expected, filter);
+
+        // written back in classic layout, still readable by BitSet
+        byte[] bytes = filter.toByteArray();
+        Assert.assertEquals(MetaBloomFilter.VERSION_CLASSIC, bytes[48]);
+        BitSet bitSet = BitSet.valueOf(ByteBuffer.wrap(bytes, 52, bytes.length - 52));
+        Assert.assertEquals(bitSet, BitSet.valueOf(ByteBuffer.wrap(legacyBytes(expected.getSize(),
+                expected.getHashIterations(), "a", "b"), 52, bytes.length - 52)));
+    }
+
+    @Test
+    public void testBlockedWorks() {
+        MetaBloomFilter filter = MetaBloomFilter.blocked(100000, 0.01);
+        Assert.assertTrue(filter.isBlocked());
+        Assert.assertTrue(filter.getSize() > Short.MAX_VALUE * 2);
+        Assert.assertEquals(0, filter.getSize() % 512);
+        for (int i = 0; i < 100000; i++) {
+            filter.add("in" + i);
+        }
+        for (int i = 0; i < 100000; i++) {
+            Assert.assertTrue(filter.contains("in" + i));
+        }
+        int falsePositive = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.contains("out" + i)) {
+                falsePositive++;
+            }
+        }
+        Assert.assertTrue("false positive " + falsePositive, falsePositive < 2000);
+
+        MetaBloomFilter copy = MetaBloomFilter.valueOf(filter.toByteArray());
+        Assert.assertTrue(copy.isBlocked());
+        Assert.assertEquals(filter, copy);
+        Assert.assertTrue(copy.contains("in99999"));
+        Assert.assertTrue(((MetaBloomFilter) copy.clone()).isBlocked());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownVersion() {
+        byte[] bytes = MetaBloomFilter.blocked(200, 0.01).toByteArray();
+        bytes[48] = 9;
+        byte[] digest = Hashing.md5().hashBytes(bytes, 16, bytes.length - 16).asBytes();
+        System.arraycopy(digest, 0, bytes, 0, digest.length);
+        MetaBloomFilter.valueOf(bytes);
+    }
+
+    @Test
+    public void testContainsAll() {
+        MetaBloomFilter classic = new MetaBloomFilter(20, 0.01);
+        MetaBloomFilter blocked = MetaBloomFilter.blocked(20, 0.01);
+        BloomFilterChunk chunk = new BloomFilterChunk(10, 1, TimeUnit.HOURS, Lists.newArrayList(blocked));
+        String[] keys = new String[200];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = String.valueOf(i);
+            if (i % 2 == 0) {
+                classic.add(keys[i]);
+                chunk.add(keys[i]);
+            }
+        }
+        Assert.assertTrue(chunk.getBloomFilters().size() > 1);
+
+        boolean[] out = new boolean[keys.length];
+        chunk.containsAll(keys, out);
+        for (int i = 0; i < keys.length; i++) {
+            Assert.assertEquals(chunk.contains(keys[i]), out[i]);
+            if (i % 2 == 0) {
+                Assert.assertTrue(out[i]);
+            }
+        }
+        classic.containsAll(keys, out);
+        for (int i = 0; i < keys.length; i++) {
+            Assert.assertEquals(classic.contains(keys[i]), out[i]);
+        }
+    }
+}
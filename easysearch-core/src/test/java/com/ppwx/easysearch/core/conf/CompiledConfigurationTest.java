@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.conf;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ * CompiledConfiguration测试类
+ *
+ * @since 1.0.0
+ */
+public class CompiledConfigurationTest {
+
+    private static final String JSON = "{\"pipeline\": {\"name\": \"default\", \"timeout\": 200, \"rate\": \"0.5\", "
+            + "\"strict\": true, \"handlers\": [{\"name\": \"sort\", \"topK\": 20}, {\"name\": \"dedup\"}]}}";
+
+    @Test
+    public void testCompiledPathMatchesConfiguration() {
+        Configuration config = Configuration.from(JSON);
+        for (String path : Arrays.asList("", "pipeline", "pipeline.name", "pipeline.handlers[0].topK",
+                "pipeline.handlers[1]", "pipeline.handlers[2].name", "pipeline.name.x", "pipeline.handlers.name", "missing")) {
+            Assert.assertEquals(path, config.get(path), config.get(ConfigPath.compile(path)));
+        }
+    }
+
+    @Test
+    public void testTypedValues() {
+        CompiledConfiguration compiled = new CompiledConfiguration(Configuration.from(JSON));
+        ConfigValue<String> name = compiled.string("pipeline.name");
+        ConfigValue<Integer> timeout = compiled.intValue("pipeline.timeout", 100);
+        ConfigValue<Double> rate = compiled.doubleValue("pipeline.rate", 1.0);
+        ConfigValue<Boolean> strict = compiled.bool("pipeline.strict", false);
+        ConfigValue<Integer> topK = compiled.intValue("pipeline.handlers[0].topK", 60);
+        ConfigValue<Long> missing = compiled.longValue("pipeline.missing", 7L);
+        ConfigValue<List<Object>> handlers = compiled.list("pipeline.handlers");
+        ConfigValue<Map<String, Object>> pipeline = compiled.map("pipeline");
+
+        Assert.assertEquals("default", compiled.get(name));
+        Assert.assertEquals(Integer.valueOf(200), compiled.get(timeout));
+        Assert.assertEquals(0.5, compiled.get(rate), 0);
+        Assert.assertTrue(compiled.get(strict));
+        Assert.assertEquals(Integer.valueOf(20), compiled.get(topK));
+        Assert.assertEquals(Long.valueOf(7L), compiled.get(missing));
+        Assert.assertEquals(2, compiled.get(handlers).size());
+        Assert.assertEquals("default", compiled.get(pipeline).get("name"));
+        // 同一快照内重复读取返回同一实例
+        Assert.assertSame(compiled.get(handlers), compiled.get(handlers));
+        try {
+            compiled.get(handlers).add("x");
+            Assert.fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testReloadAndMutation() {
+        Configuration config = Configuration.from(JSON);
+        CompiledConfiguration compiled = new CompiledConfiguration(config);
+        ConfigValue<Integer> timeout = compiled.intValue("pipeline.timeout", 100);
+        ConfigSnapshot before = compiled.snapshot();
+
+        // 修改原配置后自动重建
+        config.set("pipeline.timeout", 300);
+        Assert.assertEquals(Integer.valueOf(300), compiled.get(timeout));
+        Assert.assertEquals(Integer.valueOf(200), before.get(timeout));
+
+        compiled.reload(Configuration.from("{\"pipeline\": {\"timeout\": 50}}"));
+        Assert.assertEquals(Integer.valueOf(50), compiled.get(timeout));
+        // 新配置不再感知旧配置的修改
+        config.set("pipeline.timeout", 400);
+        Assert.assertEquals(Integer.valueOf(50), compiled.get(timeout));
+
+        // 转换失败时保留原快照
+        try {
+            compiled.reload(Configuration.from("{\"pipeline\": {\"timeout\": \"abc\"}}"));
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        Assert.assertEquals(Integer.valueOf(50), compiled.get(timeout));
+    }
+
+    @Test
+    public void testRefreshFailureKeepsValues() {
+        Configuration config = Configuration.from(JSON);
+        CompiledConfiguration compiled = new CompiledConfiguration(config);
+        ConfigValue<Integer> timeout = compiled.intValue("pipeline.timeout", 100);
+
+        // 修改后转换失败，读取不抛出异常并沿用原值
+        config.set("pipeline.timeout", "abc");
+        Assert.assertEquals(Integer.valueOf(200), compiled.get(timeout));
+        ConfigSnapshot failed = compiled.snapshot();
+        // 同一版本不再重建
+        Assert.assertSame(failed, compiled.snapshot());
+
+        config.set("pipeline.timeout", 300);
+        Assert.assertEquals(Integer.valueOf(300), compiled.get(timeout));
+    }
+
+    @Test
+    public void testForeignOrLateValue() {
+        CompiledConfiguration compiled = new CompiledConfiguration(Configuration.from(JSON));
+        ConfigSnapshot snapshot = compiled.snapshot();
+        ConfigValue<String> name = compiled.string("pipeline.name");
+        try {
+            snapshot.get(name);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            new CompiledConfiguration(Configuration.from(JSON)).get(name);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data;
+
+import com.ppwx.easysearch.core.data.element.DoubleColumn;
+import com.ppwx.easysearch.core.data.element.LongColumn;
+import com.ppwx.easysearch.core.data.element.StringColumn;
+import com.ppwx.easysearch.core.data.vector.DictionaryColumnVector;
+import com.ppwx.easysearch.core.data.vector.DoubleColumnVector;
+import com.ppwx.easysearch.core.data.vector.LongColumnVector;
+import com.ppwx.easysearch.core.data.vector.ObjectColumnVector;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_SCORE;
+
+/**
+ *
+ * ColumnarDataSet测试类
+ *
+ * @since 1.0.0
+ */
+public class ColumnarDataSetTest {
+
+    private ListDataSet createListDataSet() {
+        List<String> columnNames = Arrays.asList(GLOBAL_ID, GLOBAL_SCORE, "brand", "sales");
+        List<Map<String, Column>> list = new LinkedList<>();
+        for (int i = 0; i < 10; i++) {
+            Map<String, Column> row = new HashMap<>();
+            row.put(GLOBAL_ID, new StringColumn("id" + i));
+            row.put(GLOBAL_SCORE, i % 2 == 0 ? new DoubleColumn(i * 0.5D) : new LongColumn(i));
+            row.put("brand", new StringColumn("brand" + (i % 3)));
+            row.put("sales", i == 3 ? null : new LongColumn(i * 100L));
+            list.add(row);
+        }
+        return new ListDataSet(columnNames, list);
+    }
+
+    @Test
+    public void testConvert() {
+        ListDataSet listDataSet = createListDataSet();
+        ColumnarDataSet dataSet = ColumnarDataSet.of(listDataSet);
+
+        Assert.assertEquals(10, dataSet.size());
+        Assert.assertTrue(dataSet.vector(GLOBAL_ID) instanceof DictionaryColumnVector);
+        Assert.assertTrue(dataSet.vector(GLOBAL_SCORE) instanceof DoubleColumnVector);
+        Assert.assertTrue(dataSet.vector("sales") instanceof LongColumnVector);
+        Assert.assertEquals(3, ((DictionaryColumnVector) dataSet.vector("brand")).dictionarySize());
+
+        Assert.assertEquals(3.0D, dataSet.row(3).get(GLOBAL_SCORE).asDouble(), 0.0D);
+        Assert.assertNull(dataSet.row(3).get("sales").getRawData());
+        Assert.assertEquals(400L, dataSet.row(4).get("sales").asLong().longValue());
+        Assert.assertEquals("brand2", dataSet.column("brand").get(5).asString());
+        Assert.assertEquals(10, dataSet.all().size());
+    }
+
+    @Test
+    public void testCursor() {
+        ColumnarDataSet dataSet = ColumnarDataSet.of(createListDataSet());
+        int score = dataSet.columnIndex(GLOBAL_SCORE);
+        int sales = dataSet.columnIndex("sales");
+        ColumnarDataSet.Cursor cursor = dataSet.cursor();
+        double total = 0;
+        int nulls = 0;
+        while (cursor.next()) {
+            total += cursor.getDouble(score);
+            if (cursor.isNull(sales)) {
+                nulls++;
+            }
+        }
+        Assert.assertEquals(0 + 1 + 1 + 3 + 2 + 5 + 3 + 7 + 4 + 9, total, 1e-9);
+        Assert.assertEquals(1, nulls);
+    }
+
+    @Test
+    public void testFindAndSet() {
+        ColumnarDataSet dataSet = ColumnarDataSet.of(createListDataSet());
+        Assert.assertNotNull(dataSet.find("id7"));
+        Assert.assertNull(dataSet.find("id77"));
+        Assert.assertNull(dataSet.find(7));
+
+        dataSet.set(0, GLOBAL_SCORE, new DoubleColumn(100D));
+        Assert.assertEquals(100D, ((DoubleColumnVector) dataSet.vector(GLOBAL_SCORE)).getDouble(0), 0.0D);
+
+        // 类型不一致时升级为对象列
+        dataSet.set(1, "sales", new StringColumn("many"));
+        Assert.assertTrue(dataSet.vector("sales") instanceof ObjectColumnVector);
+        Assert.assertEquals("many", dataSet.row(1).get("sales").asString());
+        Assert.assertEquals(200L, dataSet.row(2).get("sales").asLong().longValue());
+
+        // 新增字段
+        dataSet.set(2, "tag", new StringColumn("hot"));
+        Assert.assertTrue(dataSet.columnNames().contains("tag"));
+        Assert.assertEquals("hot", dataSet.row(2).get("tag").asString());
+        Assert.assertNull(dataSet.row(0).get("tag"));
+
+        ColumnarDataSet clone = (ColumnarDataSet) dataSet.clone();
+        clone.set(0, GLOBAL_SCORE, new DoubleColumn(1D));
+        Assert.assertEquals(100D, dataSet.row(0).get(GLOBAL_SCORE).asDouble(), 0.0D);
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data;
+
+import com.ppwx.easysearch.core.data.element.DoubleColumn;
+import com.ppwx.easysearch.core.data.element.StringColumn;
+import com.ppwx.easysearch.core.data.model.DataModelCacheDecorator;
+import com.ppwx.easysearch.core.data.model.ICache;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.*;
+
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_SCORE;
+
+/**
+ *
+ * CopyOnWriteDataSet测试类
+ *
+ * @since 1.0.0
+ */
+public class CopyOnWriteDataSetTest {
+
+    private ListDataSet createListDataSet() {
+        List<Map<String, Column>> list = new LinkedList<>();
+        for (int i = 0; i < 4; i++) {
+            Map<String, Column> row = new HashMap<>();
+            row.put(GLOBAL_ID, new StringColumn("id" + i));
+            row.put(GLOBAL_SCORE, new DoubleColumn((double) i));
+            list.add(row);
+        }
+        return new ListDataSet(new ArrayList<>(Arrays.asList(GLOBAL_ID, GLOBAL_SCORE)), list);
+    }
+
+    @Test
+    public void testWriteDoesNotTouchBase() {
+        ListDataSet base = createListDataSet();
+        CopyOnWriteDataSet dataSet = new CopyOnWriteDataSet(base);
+        Assert.assertFalse(dataSet.isModified());
+
+        dataSet.set(1, GLOBAL_SCORE, new DoubleColumn(10.0D));
+        Map<String, Column> row = dataSet.row(2);
+        row.put("extra", new StringColumn("x"));
+        row.remove(GLOBAL_SCORE);
+        dataSet.columnNames().add("extra");
+
+        Assert.assertTrue(dataSet.isModified());
+        Assert.assertEquals(10.0D, dataSet.row(1).get(GLOBAL_SCORE).asDouble(), 0.0D);
+        Assert.assertEquals(2, dataSet.row(2).size());
+        Assert.assertNull(dataSet.row(2).get(GLOBAL_SCORE));
+        Assert.assertEquals("x", dataSet.column("extra").get(2).asString());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(GLOBAL_ID, "extra")), dataSet.row(2).keySet());
+
+        // 原始数据集不变
+        Assert.assertEquals(1.0D, base.row(1).get(GLOBAL_SCORE).asDouble(), 0.0D);
+        Assert.assertEquals(2, base.row(2).size());
+        Assert.assertEquals(2, base.columnNames().size());
+    }
+
+    @Test
+    public void testEntryIteratorRemoveAfterHasNext() {
+        ListDataSet base = createListDataSet();
+        CopyOnWriteDataSet dataSet = new CopyOnWriteDataSet(base);
+        Map<String, Column> row = dataSet.row(0);
+        row.put("a", new StringColumn("a"));
+        row.put("b", new StringColumn("b"));
+
+        // 预读下一个字段后再移除，移除的仍是上次返回的字段
+        Iterator<Map.Entry<String, Column>> iterator = row.entrySet().iterator();
+        while (iterator.hasNext()) {
+            String key = iterator.next().getKey();
+            iterator.hasNext();
+            if (GLOBAL_SCORE.equals(key) || "a".equals(key)) {
+                iterator.remove();
+            }
+        }
+        Assert.assertEquals(new HashSet<>(Arrays.asList(GLOBAL_ID, "b")), row.keySet());
+
+        iterator = row.entrySet().iterator();
+        while (iterator.hasNext()) {
+            iterator.next();
+            iterator.hasNext();
+            iterator.remove();
+        }
+        Assert.assertTrue(row.isEmpty());
+        Assert.assertEquals(2, base.row(0).size());
+    }
+
+    @Test
+    public void testRemoveAndReorder() {
+        ListDataSet base = createListDataSet();
+        CopyOnWriteDataSet dataSet = new CopyOnWriteDataSet(base);
+        dataSet.set(3, GLOBAL_SCORE, new DoubleColumn(30.0D));
+        dataSet.remove(0);
+        Assert.assertEquals(3, dataSet.size());
+        Assert.assertEquals("id1", dataSet.row(0).get(GLOBAL_ID).asString());
+
+        dataSet.reorder(new int[]{2, 0}, 2);
+        Assert.assertEquals(2, dataSet.size());
+        Assert.assertEquals(30.0D, dataSet.row(0).get(GLOBAL_SCORE).asDouble(), 0.0D);
+        Assert.assertNotNull(dataSet.find("id1"));
+        Assert.assertNull(dataSet.find("id2"));
+        Assert.assertEquals(Collections.singletonList("id3"),
+                new ArrayList<>(dataSet.findAll(Arrays.asList("id3", "id0")).keySet()));
+        Assert.assertEquals(4, base.size());
+    }
+
+    @Test
+    public void testCloneIsIndependent() {
+        ListDataSet base = createListDataSet();
+        CopyOnWriteDataSet dataSet = new CopyOnWriteDataSet(base);
+        dataSet.set(0, GLOBAL_SCORE, new DoubleColumn(5.0D));
+
+        CopyOnWriteDataSet copy = CopyOnWriteDataSet.of(dataSet);
+        Assert.assertSame(base, copy.base());
+        Assert.assertEquals(5.0D, copy.row(0).get(GLOBAL_SCORE).asDouble(), 0.0D);
+
+        copy.set(0, GLOBAL_SCORE, new DoubleColumn(6.0D));
+        Assert.assertEquals(5.0D, dataSet.row(0).get(GLOBAL_SCORE).asDouble(), 0.0D);
+    }
+
+    @Test
+    public void testColumnarBase() {
+        ColumnarDataSet base = ColumnarDataSet.of(createListDataSet());
+        CopyOnWriteDataSet dataSet = new CopyOnWriteDataSet(base);
+        dataSet.set(2, GLOBAL_SCORE, new DoubleColumn(20.0D));
+        Assert.assertEquals(20.0D, dataSet.column(GLOBAL_SCORE).get(2).asDouble(), 0.0D);
+        Assert.assertEquals(2.0D, base.row(2).get(GLOBAL_SCORE).asDouble(), 0.0D);
+        Assert.assertEquals("id3", dataSet.find("id3").get(GLOBAL_ID).asString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCacheDecoratorSharesCachedDataSet() {
+        ListDataSet cached = createListDataSet();
+        ICache<String, DataSet> cache = Mockito.mock(ICache.class);
+        Mockito.when(cache.getIfPresent(Mockito.anyString())).thenReturn(cached);
+        DataModel target = Mockito.mock(DataModel.class);
+
+        DataModelCacheDecorator decorator = new DataModelCacheDecorator(target, cache);
+        decorator.loadDataModel();
+        DataSet first = decorator.getDataset();
+        DataSet second = decorator.getDataset();
+        Assert.assertNotSame(first, second);
+        Assert.assertSame(cached, ((CopyOnWriteDataSet) first).base());
+
+        first.set(0, GLOBAL_SCORE, new DoubleColumn(100.0D));
+        Assert.assertEquals(0.0D, second.row(0).get(GLOBAL_SCORE).asDouble(), 0.0D);
+        Assert.assertEquals(0.0D, cached.row(0).get(GLOBAL_SCORE).asDouble(), 0.0D);
+        Mockito.verify(target, Mockito.never()).getDataset();
+    }
+}
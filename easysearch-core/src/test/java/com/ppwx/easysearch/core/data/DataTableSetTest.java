@@ -19,13 +19,11 @@ package com.ppwx.easysearch.core.data;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Table;
 import com.ppwx.easysearch.core.data.element.DynamicColumn;
+import com.ppwx.easysearch.core.data.element.StringColumn;
 import org.junit.Assert;
 import org.junit.Test;
 
-import java.util.Arrays;
-import java.util.Date;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 /**
  *
@@ -55,4 +53,32 @@ public class DataTableSetTest {
         Assert.assertNotNull(column);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testFindAllWorks() {
+        List<String> columnNames = Arrays.asList("id", "name");
+        Table<Integer, Integer ,Column> table = HashBasedTable.create();
+        List<Map<String, Column>> list = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            table.put(i, 0, new StringColumn("id" + i));
+            table.put(i, 1, new StringColumn("name" + i));
+            Map<String, Column> row = new HashMap<>();
+            row.put("id", new StringColumn("id" + i));
+            row.put("name", new StringColumn("name" + i));
+            list.add(row);
+        }
+        DataSet[] dataSets = {new TableDataSet("id", columnNames, table), new ListDataSet("id", columnNames, list)};
+        for (DataSet dataSet : dataSets) {
+            Map<Object, Map<String, Column>> rows = dataSet.findAll(Arrays.asList("id99", "none", "id3"));
+            Assert.assertEquals(Arrays.asList("id99", "id3"), new ArrayList<>(rows.keySet()));
+            Assert.assertEquals("name3", rows.get("id3").get("name").asString());
+            Assert.assertTrue(dataSet.findAll(null).isEmpty());
+
+            // 修改id后索引失效
+            Assert.assertNotNull(dataSet.find("id5"));
+            dataSet.set(5, "id", new StringColumn("id500"));
+            Assert.assertNull(dataSet.find("id5"));
+            Assert.assertEquals("name5", dataSet.find("id500").get("name").asString());
+        }
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data;
+
+import com.google.common.collect.Lists;
+import com.ppwx.easysearch.core.common.DataException;
+import com.ppwx.easysearch.core.common.enums.PartialResultPolicyEnum;
+import com.ppwx.easysearch.core.data.element.StringColumn;
+import com.ppwx.easysearch.core.data.model.AbstractDataModel;
+import com.ppwx.easysearch.core.data.model.ICache;
+import com.ppwx.easysearch.core.metrics.InMemoryMetricsRegistry;
+import com.ppwx.easysearch.core.metrics.Snapshot;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
+
+/**
+ *
+ * ParallelDataModelComposite测试类
+ *
+ * @since 1.0.0
+ */
+public class ParallelDataModelCompositeTest {
+
+    private final ExecutorService executor = ParallelDataModelComposite.newExecutor(4, 16);
+
+    static class SleepModel extends AbstractDataModel {
+
+        private final String id;
+
+        private final long sleepMillis;
+
+        private final AtomicBoolean fail = new AtomicBoolean();
+
+        SleepModel(String id, long sleepMillis) {
+            this.id = id;
+            this.sleepMillis = sleepMillis;
+        }
+
+        @Override
+        public void loadDataModel() {
+            try {
+                TimeUnit.MILLISECONDS.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            if (fail.get()) {
+                throw new IllegalStateException("load failed");
+            }
+            Map<String, Column> row = new HashMap<>();
+            row.put(GLOBAL_ID, new StringColumn(id));
+            List<Map<String, Column>> data = Lists.newArrayList();
+            data.add(row);
+            this.dataSet = new ListDataSet(Lists.newArrayList(GLOBAL_ID), data);
+        }
+    }
+
+    @After
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testMergeInOrder() {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry(new ConcurrentHashMap<>());
+        ParallelDataModelComposite composite = new ParallelDataModelComposite(
+                Lists.newArrayList(new SleepModel("1", 200), new SleepModel("2", 10), new SleepModel("3", 100)),
+                executor, 1000);
+        composite.setName("recall");
+        composite.setMetricsRegistry(registry);
+
+        long start = System.nanoTime();
+        composite.loadDataModel();
+        long cost = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        // 并行加载，耗时接近最慢的子模型
+        Assert.assertTrue(cost < 300 + 100);
+
+        DataSet dataSet = composite.getDataset();
+        Assert.assertEquals(3, dataSet.size());
+        Assert.assertEquals("1", dataSet.row(0).get(GLOBAL_ID).asString());
+        Assert.assertEquals("2", dataSet.row(1).get(GLOBAL_ID).asString());
+        Assert.assertEquals("3", dataSet.row(2).get(GLOBAL_ID).asString());
+        Assert.assertEquals(1, registry.metrics("recall#0", 60).getSnapshot().getNumberOfSuccessfulCalls());
+    }
+
+    @Test
+    public void testPartialResultPolicy() {
+        List<DataModel> models = Lists.newArrayList(new SleepModel("1", 10), new SleepModel("2", 500));
+        ParallelDataModelComposite drop = new ParallelDataModelComposite(models, executor, 100);
+        drop.loadDataModel();
+        Assert.assertEquals(1, drop.getDataset().size());
+
+        ParallelDataModelComposite fail = new ParallelDataModelComposite(models, executor,
+                100, TimeUnit.MILLISECONDS, PartialResultPolicyEnum.FAIL);
+        try {
+            fail.loadDataModel();
+            Assert.fail();
+        } catch (DataException e) {
+            // expected
+        }
+
+        Map<String, DataSet> store = new ConcurrentHashMap<>();
+        ICache<String, DataSet> cache = new ICache<String, DataSet>() {
+            @Override
+            public DataSet getIfPresent(String key) {
+                return store.get(key);
+            }
+
+            @Override
+            public void put(String key, DataSet value) {
+                store.put(key, value);
+            }
+        };
+        SleepModel model = new SleepModel("3", 10);
+        ParallelDataModelComposite cached = new ParallelDataModelComposite(Lists.newArrayList(model), executor,
+                100, TimeUnit.MILLISECONDS, PartialResultPolicyEnum.CACHE);
+        cached.setCache(cache);
+        // 缓存key以名称区分，未显式设置名称时拒绝加载
+        try {
+            cached.loadDataModel();
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        cached.setName("recall:query-3");
+        cached.loadDataModel();
+        Assert.assertEquals(1, store.size());
+        // 缓存原始数据集，合并结果的修改不影响缓存
+        Assert.assertSame(model.getDataset(), store.values().iterator().next());
+        cached.getDataset().set(0, GLOBAL_ID, new StringColumn("changed"));
+        Assert.assertEquals("3", store.values().iterator().next().row(0).get(GLOBAL_ID).asString());
+
+        model.fail.set(true);
+        cached.loadDataModel();
+        Assert.assertEquals("3", cached.getDataset().row(0).get(GLOBAL_ID).asString());
+    }
+
+    @Test
+    public void testTimeoutRecordedOnce() throws InterruptedException {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry(new ConcurrentHashMap<>());
+        ParallelDataModelComposite composite = new ParallelDataModelComposite(
+                Lists.newArrayList(new SleepModel("1", 500)), executor, 50);
+        composite.setName("slow");
+        composite.setMetricsRegistry(registry);
+        composite.loadDataModel();
+        Assert.assertEquals(0, composite.getDataset().size());
+        // 被取消的加载线程不再记录失败
+        Thread.sleep(100);
+        Snapshot snapshot = registry.metrics("slow#0", 60).getSnapshot();
+        Assert.assertEquals(1, snapshot.getTotalNumberOfCalls());
+        Assert.assertEquals(1, snapshot.getNumberOfSlowFailedCalls());
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data;
+
+import com.ppwx.easysearch.core.data.element.DoubleColumn;
+import com.ppwx.easysearch.core.data.element.StringColumn;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_SCORE;
+
+/**
+ *
+ * PermutationDataSet测试类
+ *
+ * @since 1.0.0
+ */
+public class PermutationDataSetTest {
+
+    private ListDataSet createListDataSet() {
+        List<Map<String, Column>> list = new LinkedList<>();
+        for (int i = 0; i < 6; i++) {
+            Map<String, Column> row = new HashMap<>();
+            row.put(GLOBAL_ID, new StringColumn("id" + (i % 4)));
+            row.put(GLOBAL_SCORE, new DoubleColumn((double) i));
+            list.add(row);
+        }
+        return new ListDataSet(Arrays.asList(GLOBAL_ID, GLOBAL_SCORE), list);
+    }
+
+    @Test
+    public void testSortAndRemove() {
+        ListDataSet base = createListDataSet();
+        PermutationDataSet dataSet = new PermutationDataSet(base);
+        Assert.assertSame(base, dataSet.materialize());
+
+        dataSet.sort((r1, r2) -> -Integer.compare(r1, r2));
+        Assert.assertArrayEquals(new int[]{5, 4, 3, 2, 1, 0}, dataSet.permutation());
+
+        Set<String> ids = new HashSet<>();
+        int removed = dataSet.removeIf(row -> !ids.add(dataSet.baseColumn(row, GLOBAL_ID).asString()));
+        Assert.assertEquals(2, removed);
+        Assert.assertEquals(4, dataSet.size());
+        Assert.assertTrue(dataSet.isDeleted(0));
+        Assert.assertSame(base.row(5), dataSet.row(0));
+
+        dataSet.delete(0);
+        Assert.assertEquals(3, dataSet.size());
+        Assert.assertEquals("id0", dataSet.row(0).get(GLOBAL_ID).asString());
+
+        DataSet result = dataSet.materialize();
+        Assert.assertEquals(3, result.size());
+        Assert.assertEquals(4.0D, result.row(0).get(GLOBAL_SCORE).asDouble(), 0.0D);
+        // 原始数据集不变
+        Assert.assertEquals(6, base.size());
+    }
+
+    @Test
+    public void testRowsView() {
+        ListDataSet base = createListDataSet();
+        PermutationDataSet dataSet = new PermutationDataSet(base);
+        List<Map<String, Column>> rows = dataSet.rows();
+        Map<String, Column> first = rows.get(0);
+        rows.set(0, rows.get(1));
+        rows.set(1, first);
+        Assert.assertArrayEquals(new int[]{1, 0, 2, 3, 4, 5}, dataSet.permutation());
+
+        List<Map<String, Column>> reversed = new ArrayList<>(dataSet.rows());
+        Collections.reverse(reversed);
+        dataSet.reset(reversed.subList(0, 3));
+        Assert.assertArrayEquals(new int[]{5, 4, 3}, dataSet.permutation());
+        Assert.assertTrue(dataSet.isDeleted(1));
+        try {
+            dataSet.reset(Collections.singletonList(new HashMap<>()));
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testColumnarBase() {
+        ColumnarDataSet base = ColumnarDataSet.of(createListDataSet());
+        PermutationDataSet dataSet = new PermutationDataSet(base);
+        dataSet.reorder(new int[]{3, 1}, 2);
+        Assert.assertEquals("id3", dataSet.find("id3").get(GLOBAL_ID).asString());
+        Assert.assertNull(dataSet.find("id0"));
+
+        DataSet result = dataSet.materialize();
+        Assert.assertTrue(result instanceof ColumnarDataSet);
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals(3.0D, result.row(0).get(GLOBAL_SCORE).asDouble(), 0.0D);
+        Assert.assertEquals(1.0D, result.row(1).get(GLOBAL_SCORE).asDouble(), 0.0D);
+    }
+
+    @Test
+    public void testColumnarRowWriteThrough() {
+        ColumnarDataSet base = ColumnarDataSet.of(createListDataSet());
+        PermutationDataSet dataSet = new PermutationDataSet(base);
+        dataSet.reorder(new int[]{3, 1}, 2);
+        dataSet.rows().get(0).put(GLOBAL_SCORE, new DoubleColumn(30.0D));
+        dataSet.all().get(1).put("extra", new StringColumn("x"));
+
+        DataSet result = dataSet.materialize();
+        Assert.assertTrue(result instanceof ColumnarDataSet);
+        Assert.assertEquals(30.0D, result.row(0).get(GLOBAL_SCORE).asDouble(), 0.0D);
+        Assert.assertEquals("x", result.row(1).get("extra").asString());
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data.codec;
+
+import com.alibaba.fastjson.JSONObject;
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.ColumnarDataSet;
+import com.ppwx.easysearch.core.data.CopyOnWriteDataSet;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.element.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static com.ppwx.easysearch.core.data.model.Key.*;
+
+/**
+ *
+ * ColumnarCodec测试类
+ *
+ * @since 1.0.0
+ */
+public class ColumnarCodecTest {
+
+    private DataSet createDataSet() {
+        List<Map<String, Column>> list = new ArrayList<>();
+        for (int i = 0; i < 70; i++) {
+            Map<String, Column> row = new HashMap<>();
+            row.put(GLOBAL_ID, new StringColumn("id" + i));
+            row.put(GLOBAL_SCORE, i % 2 == 0 ? new DoubleColumn(i * 0.5D) : new LongColumn((long) i));
+            row.put("price", i == 65 ? new LongColumn((Long) null) : new LongColumn((long) i * 100));
+            row.put("brand", i % 3 == 0 ? new StringColumn((String) null) : new StringColumn("品牌" + (i % 3)));
+            row.put("onSale", new BoolColumn(i % 2 == 0));
+            row.put("createTime", new DateColumn(1600000000000L + i));
+            JSONObject detail = new JSONObject();
+            detail.put("idx", i);
+            row.put(GLOBAL_SCORE_DETAIL, new JsonColumn(detail));
+            row.put("extra", new ObjectColumn<>("obj" + i));
+            list.add(row);
+        }
+        return new ListDataSet(Arrays.asList(GLOBAL_ID, GLOBAL_SCORE, "price", "brand", "onSale", "createTime",
+                GLOBAL_SCORE_DETAIL, "extra"), list);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        DataSet origin = createDataSet();
+        byte[] bytes = ColumnarCodec.encode(origin);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 10);
+        buffer.position(10);
+        buffer.put(bytes);
+        buffer.position(10);
+        OffHeapDataSet dataSet = ColumnarCodec.decode(buffer);
+
+        Assert.assertEquals(70, dataSet.size());
+        Assert.assertEquals(GLOBAL_ID, dataSet.idColumn());
+        Assert.assertEquals(origin.columnNames(), dataSet.columnNames());
+
+        Map<String, Column> row = dataSet.find("id65");
+        Assert.assertNotNull(row);
+        Assert.assertNull(row.get("price").getRawData());
+        Assert.assertEquals(65D, row.get(GLOBAL_SCORE).asDouble(), 0D);
+        Assert.assertEquals("品牌2", row.get("brand").asString());
+        Assert.assertFalse(row.get("onSale").asBoolean());
+        Assert.assertEquals(1600000000065L, row.get("createTime").asLong().longValue());
+        Assert.assertEquals(65, ((JSONObject) row.get(GLOBAL_SCORE_DETAIL).getRawData()).getIntValue("idx"));
+        Assert.assertEquals("obj65", row.get("extra").getRawData());
+
+        int price = dataSet.columnIndex("price");
+        Assert.assertEquals(6400L, dataSet.getLong(64, price));
+        Assert.assertTrue(dataSet.isNull(65, price));
+        Assert.assertTrue(dataSet.isNull(0, dataSet.columnIndex("brand")));
+        Assert.assertEquals(2.0D, dataSet.getDouble(4, dataSet.columnIndex(GLOBAL_SCORE)), 0D);
+        Assert.assertEquals(2, dataSet.findAll(Arrays.asList("id1", "absent", "id2")).size());
+
+        ColumnarDataSet columnar = dataSet.toColumnar();
+        Assert.assertEquals(70, columnar.size());
+        Assert.assertEquals("id69", columnar.row(69).get(GLOBAL_ID).asString());
+    }
+
+    @Test
+    public void testReadOnlyWithCopyOnWrite() {
+        OffHeapDataSet dataSet = ColumnarCodec.decode(ByteBuffer.wrap(ColumnarCodec.encode(createDataSet())));
+        try {
+            dataSet.set(0, GLOBAL_SCORE, new DoubleColumn(1D));
+            Assert.fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        CopyOnWriteDataSet copy = CopyOnWriteDataSet.of(dataSet);
+        copy.set(0, GLOBAL_SCORE, new DoubleColumn(100D));
+        Assert.assertEquals(100D, copy.column(GLOBAL_SCORE).get(0).asDouble(), 0D);
+        Assert.assertEquals(0D, dataSet.row(0).get(GLOBAL_SCORE).asDouble(), 0D);
+    }
+
+    @Test
+    public void testEmptyDataSet() {
+        DataSet empty = new ListDataSet(Collections.singletonList(GLOBAL_ID), new ArrayList<>());
+        OffHeapDataSet dataSet = ColumnarCodec.decode(ByteBuffer.wrap(ColumnarCodec.encode(empty)));
+        Assert.assertEquals(0, dataSet.size());
+        Assert.assertNull(dataSet.find("id"));
+    }
+}
@@ -18,32 +18,40 @@ package com.ppwx.easysearch.core.data.model;
 
 import com.google.common.collect.Maps;
 import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.ColumnarDataSet;
 import com.ppwx.easysearch.core.data.DataSet;
 import com.ppwx.easysearch.core.data.element.DoubleColumn;
+import com.ppwx.easysearch.core.data.vector.DictionaryColumnVector;
+import com.ppwx.easysearch.core.data.vector.LongColumnVector;
 import com.ppwx.easysearch.core.function.normalize.FiniteNormalizeFunc;
 import com.ppwx.easysearch.core.pipeline.*;
 import com.ppwx.easysearch.core.pipeline.handler.DuplicateIdSkipDataHandler;
 import org.apache.http.HttpHost;
+import org.apache.lucene.search.TotalHits;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestClientBuilder;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.index.query.MatchAllQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
-import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_SCORE;
+import static com.ppwx.easysearch.core.data.model.Key.*;
 
 /**
  *
@@ -104,6 +112,79 @@ public class ElasticSearchDataModelTest {
         });
     }
 
+    @Test
+    public void testColumnarDecodeWorks() {
+        SearchHit[] hits = new SearchHit[]{
+                hit("1", 1.5F, "{\"nick_name\":\"tom\",\"age\":18,\"extra\":{\"a\":[1,2]},\"create_time\":1600000000000}"),
+                hit("2", Float.NaN, "{\"age\":\"20\",\"nick_name\":null,\"gender\":1}")
+        };
+        FixedHitsDataModel dataModel = new FixedHitsDataModel(mappingTypes, hits);
+        dataModel.setColumnar(true);
+        dataModel.loadDataModel();
+        DataSet dataSet = dataModel.getDataset();
+
+        Assert.assertTrue(dataSet instanceof ColumnarDataSet);
+        ColumnarDataSet columnar = (ColumnarDataSet) dataSet;
+        Assert.assertEquals(2, columnar.size());
+        Assert.assertTrue(columnar.vector("age") instanceof LongColumnVector);
+        Assert.assertTrue(columnar.vector("nick_name") instanceof DictionaryColumnVector);
+        Assert.assertFalse(columnar.columnNames().contains("extra"));
+
+        Map<String, Column> first = columnar.find("1");
+        Assert.assertEquals("tom", first.get("nick_name").asString());
+        Assert.assertEquals(18L, first.get("age").asLong().longValue());
+        Assert.assertEquals(1.5D, first.get(GLOBAL_SCORE).asDouble(), 0.0001D);
+        Assert.assertEquals(1600000000000L, first.get("create_time").asDate().getTime());
+        Assert.assertNull(first.get("gender").getRawData());
+        Assert.assertEquals("default", first.get(GLOBAL_STAINING).asString());
+
+        Map<String, Column> second = columnar.find("2");
+        Assert.assertNull(second.get("nick_name").getRawData());
+        Assert.assertEquals(20L, second.get("age").asLong().longValue());
+        Assert.assertEquals(1L, second.get("gender").asLong().longValue());
+        Assert.assertEquals(0D, second.get(GLOBAL_SCORE).asDouble(), 0.0001D);
+        // 每行独立的评分明细
+        Assert.assertNotSame(first.get(GLOBAL_SCORE_DETAIL), second.get(GLOBAL_SCORE_DETAIL));
+    }
+
+    @Test
+    public void testColumnarCustomIdWorks() {
+        SearchHit[] hits = new SearchHit[]{
+                hit("a", 1F, "{\"uid\":100,\"age\":18}")
+        };
+        FixedHitsDataModel dataModel = new FixedHitsDataModel(Maps.newLinkedHashMap(), hits);
+        dataModel.addField("uid", ElasticSearchFieldType.LONG);
+        dataModel.addField("age", ElasticSearchFieldType.INTEGER);
+        dataModel.setIdCol("uid");
+        dataModel.setColumnar(true);
+        dataModel.loadDataModel();
+        ColumnarDataSet dataSet = (ColumnarDataSet) dataModel.getDataset();
+
+        Assert.assertTrue(dataSet.vector(GLOBAL_ID) instanceof LongColumnVector);
+        Assert.assertEquals(100L, dataSet.row(0).get(GLOBAL_ID).asLong().longValue());
+    }
+
+    @Test
+    public void testApplySourceFilterWorks() {
+        FixedHitsDataModel dataModel = new FixedHitsDataModel(mappingTypes, new SearchHit[0]);
+        SearchSourceBuilder sourceBuilder = dataModel.applySourceFilter(new SearchSourceBuilder());
+        Assert.assertArrayEquals(mappingTypes.keySet().toArray(new String[0]), sourceBuilder.fetchSource().includes());
+
+        // 显式设置的不覆盖
+        SearchSourceBuilder custom = new SearchSourceBuilder().fetchSource("age", null);
+        Assert.assertArrayEquals(new String[]{"age"}, dataModel.applySourceFilter(custom).fetchSource().includes());
+
+        FixedHitsDataModel empty = new FixedHitsDataModel(null, new SearchHit[0]);
+        Assert.assertFalse(empty.applySourceFilter(new SearchSourceBuilder()).fetchSource().fetchSource());
+    }
+
+    private SearchHit hit(String id, float score, String source) {
+        SearchHit hit = new SearchHit(0, id, null, Collections.emptyMap(), Collections.emptyMap());
+        hit.score(score);
+        hit.sourceRef(new BytesArray(source));
+        return hit;
+    }
+
     @After
     public void destroy() throws IOException {
         if (this.client != null) {
@@ -152,6 +233,7 @@ public class ElasticSearchDataModelTest {
             SearchSourceBuilder sourceBuilder = new SearchSourceBuilder();
             sourceBuilder.query(matchAllQueryBuilder);
             sourceBuilder.size(100);
+            applySourceFilter(sourceBuilder);
 
             SearchRequest request = new SearchRequest("student_index");
             request.source(sourceBuilder);
@@ -160,4 +242,19 @@ public class ElasticSearchDataModelTest {
         }
     }
 
+    private static class FixedHitsDataModel extends AbstractElasticSearchDataModel {
+
+        private final SearchHit[] hits;
+
+        FixedHitsDataModel(Map<String, ElasticSearchFieldType> mappingTypes, SearchHit[] hits) {
+            super(mappingTypes);
+            this.hits = hits;
+        }
+
+        @Override
+        protected SearchHits doQuery() {
+            return new SearchHits(hits, new TotalHits(hits.length, TotalHits.Relation.EQUAL_TO), 1F);
+        }
+    }
+
 }
\ No newline at end of file
@@ -18,6 +18,7 @@ package com.ppwx.easysearch.core.data.model;
 
 import com.google.common.collect.Maps;
 import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.ColumnarDataSet;
 import com.ppwx.easysearch.core.data.DataSet;
 import com.ppwx.easysearch.core.data.ListDataSet;
 import com.ppwx.easysearch.core.data.element.LongColumn;
@@ -92,4 +93,21 @@ public class ModifyColumnDataModelDecoratorTest {
         System.out.println(dataModelDecorator.getDataset().column("chromosome").iterator().next().asString().equals("guess"));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testAddColumnToEmptyColumnar() {
+        LocalDataModel model = new LocalDataModel();
+        model.setDataSet(ColumnarDataSet.of(new ListDataSet(new ArrayList<>(Arrays.asList("name", "age")),
+                new LinkedList<>())));
+        ModifyColumnDataModelDecorator dataModelDecorator = new ModifyColumnDataModelDecorator(model);
+        Assert.assertTrue(dataModelDecorator.addColumn("chromosome", new StringColumn("guess")));
+        Assert.assertFalse(dataModelDecorator.addColumn("chromosome", new StringColumn("guess")));
+
+        // 字段名与列数据数量一致，复制和重建不会失败
+        ColumnarDataSet dataSet = (ColumnarDataSet) dataModelDecorator.getDataset();
+        Assert.assertEquals(3, dataSet.columnNames().size());
+        Assert.assertNotNull(dataSet.vector("chromosome"));
+        Assert.assertEquals(3, ((ColumnarDataSet) dataSet.clone()).columnNames().size());
+        Assert.assertEquals(0, WeightedDataSetCache.weigh(dataSet));
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data.model;
+
+import com.ppwx.easysearch.core.data.ColumnarDataSet;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.vector.DictionaryColumnVector;
+import com.ppwx.easysearch.core.data.vector.DoubleColumnVector;
+import com.ppwx.easysearch.core.data.vector.LongColumnVector;
+import com.ppwx.easysearch.core.data.vector.ObjectColumnVector;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_SCORE;
+
+/**
+ *
+ * MysqlDataModel读取测试类
+ *
+ * @since 1.0.0
+ */
+public class MysqlDataModelExtractTest {
+
+    @Test
+    public void testExtractDataWorks() throws Exception {
+        ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(metaData.getColumnCount()).thenReturn(5);
+        Mockito.when(metaData.getColumnLabel(1)).thenReturn(GLOBAL_ID);
+        Mockito.when(metaData.getColumnLabel(2)).thenReturn(GLOBAL_SCORE);
+        Mockito.when(metaData.getColumnLabel(3)).thenReturn("nickName");
+        Mockito.when(metaData.getColumnLabel(4)).thenReturn("price");
+        Mockito.when(metaData.getColumnLabel(5)).thenReturn("createTime");
+        Mockito.when(metaData.getColumnType(1)).thenReturn(Types.BIGINT);
+        Mockito.when(metaData.getColumnType(2)).thenReturn(Types.INTEGER);
+        Mockito.when(metaData.getColumnType(3)).thenReturn(Types.VARCHAR);
+        Mockito.when(metaData.getColumnType(4)).thenReturn(Types.DECIMAL);
+        Mockito.when(metaData.getColumnType(5)).thenReturn(Types.TIMESTAMP);
+        Mockito.when(metaData.isSigned(1)).thenReturn(true);
+
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(resultSet.next()).thenReturn(true, true, false);
+        Mockito.when(resultSet.getLong(1)).thenReturn(1L, 2L);
+        Mockito.when(resultSet.getDouble(2)).thenReturn(0D, 0D);
+        Mockito.when(resultSet.getString(3)).thenReturn("sophiszhou", null);
+        Mockito.when(resultSet.getDouble(4)).thenReturn(9.9D, 0D);
+        // 第二行price为null
+        Mockito.when(resultSet.wasNull()).thenReturn(false, false, false, false, false, true);
+        Mockito.when(resultSet.getTimestamp(5)).thenReturn(new Timestamp(0L), new Timestamp(1000L));
+
+        DataSet dataSet = new MysqlDataModel(null).extractData(resultSet);
+        Assert.assertTrue(dataSet instanceof ColumnarDataSet);
+        ColumnarDataSet columnar = (ColumnarDataSet) dataSet;
+        Assert.assertEquals(2, columnar.size());
+        Assert.assertTrue(columnar.vector(GLOBAL_ID) instanceof LongColumnVector);
+        Assert.assertTrue(columnar.vector(GLOBAL_SCORE) instanceof DoubleColumnVector);
+        Assert.assertTrue(columnar.vector("nickName") instanceof DictionaryColumnVector);
+        Assert.assertTrue(columnar.vector("createTime") instanceof ObjectColumnVector);
+
+        Assert.assertEquals(2L, columnar.row(1).get(GLOBAL_ID).asLong().longValue());
+        Assert.assertEquals("sophiszhou", columnar.row(0).get("nickName").asString());
+        Assert.assertNull(columnar.row(1).get("nickName").getRawData());
+        Assert.assertEquals(9.9D, columnar.row(0).get("price").asDouble(), 0.0D);
+        Assert.assertTrue(columnar.vector("price").isNull(1));
+        Assert.assertEquals(1000L, columnar.row(1).get("createTime").asDate().getTime());
+    }
+}
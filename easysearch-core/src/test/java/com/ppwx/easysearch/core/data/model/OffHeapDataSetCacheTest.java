@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data.model;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.codec.OffHeapDataSet;
+import com.ppwx.easysearch.core.data.element.StringColumn;
+import com.ppwx.easysearch.core.metrics.InMemoryMetricsRegistry;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
+
+/**
+ *
+ * OffHeapDataSetCache测试类
+ *
+ * @since 1.0.0
+ */
+public class OffHeapDataSetCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private DataSet createDataSet(String prefix, int rows) {
+        List<Map<String, Column>> list = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            Map<String, Column> row = new HashMap<>();
+            row.put(GLOBAL_ID, new StringColumn(prefix + i));
+            list.add(row);
+        }
+        return new ListDataSet(Collections.singletonList(GLOBAL_ID), list);
+    }
+
+    @Test
+    public void testDirectBuffer() {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry(new ConcurrentHashMap<>());
+        OffHeapDataSetCache cache = OffHeapDataSetCache.builder(8 * 1024)
+                .segmentBytes(4 * 1024)
+                .metrics("recall", registry, 60)
+                .build();
+        cache.put("a", createDataSet("a", 10));
+        DataSet dataSet = cache.getIfPresent("a");
+        Assert.assertTrue(dataSet instanceof OffHeapDataSet);
+        Assert.assertEquals(10, dataSet.size());
+        Assert.assertNotNull(dataSet.find("a9"));
+        Assert.assertNull(cache.getIfPresent("b"));
+
+        // 超出预算时整段淘汰
+        for (int i = 0; i < 100; i++) {
+            cache.put("k" + i, createDataSet("k" + i, 20));
+        }
+        Assert.assertNull(cache.getIfPresent("a"));
+        Assert.assertNotNull(cache.getIfPresent("k99"));
+        Assert.assertTrue(cache.allocatedBytes() <= 8 * 1024);
+        Assert.assertTrue(registry.metrics("recall#eviction", 60).getSnapshot().getNumberOfSuccessfulCalls() > 0);
+        Assert.assertEquals(2, registry.metrics("recall#hit", 60).getSnapshot().getNumberOfSuccessfulCalls());
+        // 已读取的数据集不受淘汰影响
+        Assert.assertEquals("a3", dataSet.row(3).get(GLOBAL_ID).asString());
+        cache.close();
+    }
+
+    @Test
+    public void testMappedFile() throws Exception {
+        File directory = folder.newFolder("segments");
+        OffHeapDataSetCache cache = OffHeapDataSetCache.builder(1024 * 1024)
+                .segmentBytes(64 * 1024)
+                .directory(directory)
+                .build();
+        cache.put("a", createDataSet("a", 100));
+        cache.put("a", createDataSet("b", 5));
+        Assert.assertEquals(1, Objects.requireNonNull(directory.listFiles()).length);
+        DataSet dataSet = cache.getIfPresent("a");
+        Assert.assertEquals(5, dataSet.size());
+        Assert.assertEquals("b4", dataSet.row(4).get(GLOBAL_ID).asString());
+
+        // 超出段大小的数据集不缓存
+        cache.put("large", createDataSet("large", 10000));
+        Assert.assertNull(cache.getIfPresent("large"));
+
+        cache.close();
+        Assert.assertEquals(0, Objects.requireNonNull(directory.listFiles()).length);
+    }
+}
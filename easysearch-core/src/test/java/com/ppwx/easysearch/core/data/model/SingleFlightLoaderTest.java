@@ -0,0 +1,197 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data.model;
+
+import com.ppwx.easysearch.core.common.DataException;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.metrics.InMemoryMetricsRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ * SingleFlightLoader测试类
+ *
+ * @since 1.0.0
+ */
+public class SingleFlightLoaderTest {
+
+    private static final String KEY = "recall";
+
+    @Test
+    public void testConcurrentMissLoadsOnce() throws Exception {
+        MapCache cache = new MapCache();
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry(new ConcurrentHashMap<>());
+        SingleFlightLoader loader = new SingleFlightLoader();
+        loader.setMetricsRegistry(registry);
+
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DataSet loaded = new ListDataSet(new ArrayList<>(), new ArrayList<>());
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<DataSet>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> loader.load(KEY, cache, () -> {
+                    loads.incrementAndGet();
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return loaded;
+                })));
+            }
+            Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+            // 等待其余请求进入等待
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<DataSet> future : futures) {
+                Assert.assertSame(loaded, future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1, loads.get());
+        Assert.assertSame(loaded, cache.getIfPresent(KEY));
+        Assert.assertEquals(1, registry.metrics(KEY + "#load", 60).getSnapshot().getNumberOfSuccessfulCalls());
+        int waits = registry.metrics(KEY + "#wait", 60).getSnapshot().getNumberOfSuccessfulCalls();
+        Assert.assertEquals(threads - 1, waits);
+    }
+
+    @Test
+    public void testFailureIsSharedAndNotCached() {
+        MapCache cache = new MapCache();
+        SingleFlightLoader loader = new SingleFlightLoader();
+        try {
+            loader.load(KEY, cache, () -> {
+                throw new IllegalStateException("load failed");
+            });
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("load failed", e.getMessage());
+        }
+        Assert.assertNull(cache.getIfPresent(KEY));
+        // 失败后可以重新加载
+        DataSet loaded = new ListDataSet(new ArrayList<>(), new ArrayList<>());
+        Assert.assertSame(loaded, loader.load(KEY, cache, () -> loaded));
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() {
+        MapCache cache = new MapCache();
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry(new ConcurrentHashMap<>());
+        List<Runnable> refreshTasks = new ArrayList<>();
+        SingleFlightLoader loader = new SingleFlightLoader(refreshTasks::add, 1, TimeUnit.MINUTES);
+        loader.setMetricsRegistry(registry);
+
+        DataSet first = new ListDataSet(new ArrayList<>(), new ArrayList<>());
+        DataSet second = new ListDataSet(new ArrayList<>(), new ArrayList<>());
+        Assert.assertSame(first, loader.load(KEY, cache, () -> first));
+        Assert.assertFalse(loader.hasStale("other"));
+
+        // 缓存过期
+        cache.map.clear();
+        Assert.assertTrue(loader.hasStale(KEY));
+        Assert.assertSame(first, loader.load(KEY, cache, () -> second));
+        Assert.assertSame(first, loader.load(KEY, cache, () -> second));
+        // 只提交一次后台刷新
+        Assert.assertEquals(1, refreshTasks.size());
+        Assert.assertEquals(2, registry.metrics(KEY + "#stale", 60).getSnapshot().getNumberOfSuccessfulCalls());
+
+        refreshTasks.get(0).run();
+        Assert.assertSame(second, cache.getIfPresent(KEY));
+        Assert.assertSame(second, loader.load(KEY, cache, () -> first));
+    }
+
+    private static class MapCache implements ICache<String, DataSet> {
+
+        private final Map<String, DataSet> map = new ConcurrentHashMap<>();
+
+        @Override
+        public DataSet getIfPresent(String key) {
+            return map.get(key);
+        }
+
+        @Override
+        public void put(String key, DataSet value) {
+            map.put(key, value);
+        }
+    }
+
+    @Test
+    public void testWaitTimeout() throws Exception {
+        MapCache cache = new MapCache();
+        SingleFlightLoader loader = new SingleFlightLoader();
+        loader.setLoadTimeout(50, TimeUnit.MILLISECONDS);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DataSet loaded = new ListDataSet(new ArrayList<>(), new ArrayList<>());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<DataSet> first = executor.submit(() -> loader.load(KEY, cache, () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return loaded;
+            }));
+            Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+            try {
+                loader.load(KEY, cache, () -> loaded);
+                Assert.fail();
+            } catch (DataException e) {
+                Assert.assertTrue(e.getCause() instanceof TimeoutException);
+            }
+            release.countDown();
+            Assert.assertSame(loaded, first.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testStaleEntriesBounded() {
+        MapCache cache = new MapCache();
+        SingleFlightLoader loader = new SingleFlightLoader(Runnable::run, 1, TimeUnit.MINUTES, 2);
+        for (int i = 0; i < 10; i++) {
+            DataSet loaded = new ListDataSet(new ArrayList<>(), new ArrayList<>());
+            loader.load(KEY + i, cache, () -> loaded);
+        }
+        int stale = 0;
+        for (int i = 0; i < 10; i++) {
+            if (loader.hasStale(KEY + i)) {
+                stale++;
+            }
+        }
+        Assert.assertTrue(stale <= 2);
+        Assert.assertTrue(loader.hasStale(KEY + 9));
+    }
+}
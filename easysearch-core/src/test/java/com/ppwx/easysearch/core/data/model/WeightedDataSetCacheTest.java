@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.data.model;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.ColumnarDataSet;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.element.DoubleColumn;
+import com.ppwx.easysearch.core.data.element.StringColumn;
+import com.ppwx.easysearch.core.metrics.InMemoryMetricsRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_SCORE;
+
+/**
+ *
+ * WeightedDataSetCache测试类
+ *
+ * @since 1.0.0
+ */
+public class WeightedDataSetCacheTest {
+
+    private DataSet createDataSet(int rows) {
+        List<Map<String, Column>> list = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            Map<String, Column> row = new HashMap<>();
+            // 每个单元格10个字节
+            row.put(GLOBAL_ID, new StringColumn(String.format("%010d", i)));
+            list.add(row);
+        }
+        return new ListDataSet(Collections.singletonList(GLOBAL_ID), list);
+    }
+
+    @Test
+    public void testWeigh() {
+        DataSet dataSet = createDataSet(5);
+        Assert.assertEquals(50, WeightedDataSetCache.weigh(dataSet));
+        Assert.assertEquals(50, WeightedDataSetCache.weigh(ColumnarDataSet.of(dataSet)));
+        Assert.assertEquals(0, WeightedDataSetCache.weigh(null));
+
+        // 行存储与列存储按同一口径计算，空值不计
+        List<Map<String, Column>> list = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Map<String, Column> row = new HashMap<>();
+            row.put(GLOBAL_SCORE, new DoubleColumn(i == 3 ? null : (double) i));
+            list.add(row);
+        }
+        DataSet scores = new ListDataSet(Collections.singletonList(GLOBAL_SCORE), list);
+        Assert.assertEquals(9, WeightedDataSetCache.weigh(scores));
+        Assert.assertEquals(9, WeightedDataSetCache.weigh(ColumnarDataSet.of(scores)));
+    }
+
+    @Test
+    public void testSingleSegmentBudget() {
+        // 默认单分段，接近总预算的数据集也能缓存
+        WeightedDataSetCache cache = WeightedDataSetCache.builder(1000).build();
+        cache.put("large", createDataSet(95));
+        Assert.assertNotNull(cache.getIfPresent("large"));
+        Assert.assertEquals(950, cache.weightedSize());
+    }
+
+    @Test
+    public void testEvictByBytes() {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry(new ConcurrentHashMap<>());
+        WeightedDataSetCache cache = WeightedDataSetCache.builder(1000)
+                .concurrencyLevel(1)
+                .metrics("recall", registry, 60)
+                .build();
+        cache.put("small", createDataSet(10));
+        Assert.assertEquals(100, cache.weightedSize());
+        Assert.assertNotNull(cache.getIfPresent("small"));
+        Assert.assertNull(cache.getIfPresent("absent"));
+
+        // 超出预算，淘汰较早的数据
+        cache.put("large", createDataSet(95));
+        Assert.assertNull(cache.getIfPresent("small"));
+        Assert.assertNotNull(cache.getIfPresent("large"));
+        Assert.assertEquals(950, cache.weightedSize());
+
+        Assert.assertEquals(2, registry.metrics("recall#hit", 60).getSnapshot().getNumberOfSuccessfulCalls());
+        Assert.assertEquals(2, registry.metrics("recall#miss", 60).getSnapshot().getNumberOfSuccessfulCalls());
+        Assert.assertEquals(1, registry.metrics("recall#eviction", 60).getSnapshot().getNumberOfSuccessfulCalls());
+        Assert.assertEquals(1, cache.stats().evictionCount());
+    }
+
+    @Test
+    public void testRefreshAfterWrite() throws Exception {
+        AtomicInteger reloads = new AtomicInteger();
+        DataSet refreshed = createDataSet(2);
+        WeightedDataSetCache cache = WeightedDataSetCache.builder(1000)
+                .refreshAfterWrite(1, TimeUnit.MILLISECONDS, key -> {
+                    reloads.incrementAndGet();
+                    return refreshed;
+                }, Runnable::run)
+                .build();
+        DataSet original = createDataSet(3);
+        cache.put("recall", original);
+        Assert.assertSame(original, cache.getIfPresent("recall"));
+        Thread.sleep(10);
+        // 同步线程池刷新后立即返回新值
+        Assert.assertSame(refreshed, cache.getIfPresent("recall"));
+        Assert.assertEquals(1, reloads.get());
+        Assert.assertEquals(20, cache.weightedSize());
+    }
+
+    @Test
+    public void testRefreshFailureKeepsValue() throws Exception {
+        AtomicInteger reloads = new AtomicInteger();
+        DataSet refreshed = createDataSet(2);
+        WeightedDataSetCache cache = WeightedDataSetCache.builder(1000)
+                .refreshAfterWrite(50, TimeUnit.MILLISECONDS, key -> {
+                    if (reloads.incrementAndGet() == 1) {
+                        throw new IllegalStateException("reload failed");
+                    }
+                    return refreshed;
+                }, Runnable::run)
+                .build();
+        DataSet original = createDataSet(3);
+        cache.put("recall", original);
+        Thread.sleep(100);
+        // 刷新失败保留旧数据，下次读取重试
+        Assert.assertSame(original, cache.getIfPresent("recall"));
+        Assert.assertSame(refreshed, cache.getIfPresent("recall"));
+        Assert.assertEquals(2, reloads.get());
+        // 未超过刷新时间不再加载
+        Assert.assertSame(refreshed, cache.getIfPresent("recall"));
+        Assert.assertEquals(2, reloads.get());
+    }
+
+    @Test
+    public void testExpireAfterWrite() throws Exception {
+        WeightedDataSetCache cache = WeightedDataSetCache.builder(1000)
+                .expireAfterWrite(1, TimeUnit.MILLISECONDS)
+                .build();
+        cache.put("recall", createDataSet(3));
+        Thread.sleep(10);
+        Assert.assertNull(cache.getIfPresent("recall"));
+        Assert.assertEquals(0, cache.weightedSize());
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.function;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.element.DoubleColumn;
+import com.ppwx.easysearch.core.data.element.LongColumn;
+import com.ppwx.easysearch.core.function.normalize.MinMaxNormalizeFunc;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ *
+ * ColumnStatistics测试类
+ *
+ * @since 1.0.0
+ */
+public class ColumnStatisticsTest {
+
+    @Test
+    public void testStatistics() {
+        ColumnStatistics statistics = ColumnStatistics.of(new double[]{2, 4, 4, 4, 5, 5, 7, 9, Double.NaN});
+        Assert.assertEquals(8, statistics.count());
+        Assert.assertEquals(2D, statistics.min(), 0D);
+        Assert.assertEquals(9D, statistics.max(), 0D);
+        Assert.assertEquals(5D, statistics.mean(), 1e-12);
+        Assert.assertEquals(4D, statistics.variance(), 1e-12);
+        Assert.assertEquals(2D, statistics.standardDeviation(), 1e-12);
+        Assert.assertEquals(2D, statistics.quantile(0), 0D);
+        Assert.assertEquals(4.5D, statistics.quantile(0.5), 1e-12);
+        Assert.assertEquals(9D, statistics.quantile(1), 0D);
+
+        ColumnStatistics range = ColumnStatistics.of(new double[]{100, 1, 3, 100}, 1, 3);
+        Assert.assertEquals(2, range.count());
+        Assert.assertEquals(2D, range.mean(), 0D);
+
+        Assert.assertSame(ColumnStatistics.EMPTY, ColumnStatistics.of(new double[0]));
+        Assert.assertEquals(0D, ColumnStatistics.EMPTY.quantile(0.9), 0D);
+    }
+
+    @Test
+    public void testColumnsKeepFraction() {
+        List<Column> columns = Arrays.asList(new DoubleColumn(1.5), new DoubleColumn(2.5), null,
+                new LongColumn((Long) null), new LongColumn(5L));
+        ColumnStatistics statistics = ColumnStatistics.of(columns);
+        Assert.assertEquals(3, statistics.count());
+        Assert.assertEquals(1.5D, statistics.min(), 0D);
+        Assert.assertEquals(3D, statistics.mean(), 1e-12);
+    }
+
+    @Test
+    public void testLazyStatistics() {
+        List<Column> columns = new ArrayList<>();
+        MinMaxNormalizeFunc func = new MinMaxNormalizeFunc(columns);
+        columns.add(new DoubleColumn(0.5));
+        columns.add(new DoubleColumn(2.5));
+        Assert.assertEquals(0.5D, func.score(1.5), 1e-12);
+        Assert.assertSame(func.statistics(), func.statistics());
+        Assert.assertEquals(2.5D, func.quantile(1), 0D);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.function.location;
+
+import com.alibaba.fastjson.JSONObject;
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.element.JsonColumn;
+import com.ppwx.easysearch.core.data.element.StringColumn;
+import com.ppwx.easysearch.core.util.GeoDistanceUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.ppwx.easysearch.core.data.model.Key.COLUMN_LATITUDE;
+import static com.ppwx.easysearch.core.data.model.Key.COLUMN_LONGITUDE;
+
+/**
+ *
+ * BatchDistanceFunc测试类
+ *
+ * @since 1.0.0
+ */
+public class BatchDistanceFuncTest {
+
+    private GeoPoints randomPoints(Random random, double lat, double lon, double spread, int size) {
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        for (int i = 0; i < size; i++) {
+            latitudes[i] = lat + (random.nextDouble() - 0.5) * spread;
+            longitudes[i] = lon + (random.nextDouble() - 0.5) * spread;
+        }
+        return GeoPoints.of(latitudes, longitudes);
+    }
+
+    @Test
+    public void testFastPathAccuracy() {
+        Random random = new Random(5);
+        for (double lat : new double[]{0, 31.3, -45, 75}) {
+            BatchDistanceFunc func = new BatchDistanceFunc(lat, 121.5);
+            GeoPoints points = randomPoints(random, lat, 121.5, 3, 2000);
+            double[] out = new double[points.size()];
+            func.distances(points, out);
+            for (int i = 0; i < points.size(); i++) {
+                double exact = GeoDistanceUtil.calculateDistance(points.latitude(i), points.longitude(i), lat, 121.5);
+                Assert.assertEquals(exact, out[i], Math.max(exact * 1e-3, 1e-6));
+            }
+        }
+    }
+
+    @Test
+    public void testWithinMatchesExact() {
+        Random random = new Random(9);
+        BatchDistanceFunc func = new BatchDistanceFunc(31.2959, 121.5502);
+        GeoPoints points = randomPoints(random, 31.2959, 121.5502, 20, 5000);
+        for (double radius : new double[]{500, 5000, 50000, 300000}) {
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < points.size(); i++) {
+                if (GeoDistanceUtil.calculateDistance(points.latitude(i), points.longitude(i), 31.2959, 121.5502) <= radius) {
+                    expected.add(i);
+                }
+            }
+            int[] within = func.within(points, radius);
+            List<Integer> actual = new ArrayList<>();
+            Arrays.stream(within).forEach(actual::add);
+            Assert.assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testColumns() {
+        JSONObject location = new JSONObject();
+        location.put(COLUMN_LATITUDE, "31.2959273848");
+        location.put(COLUMN_LONGITUDE, 121.5191009209D);
+        List<Column> columns = Arrays.asList(new JsonColumn(location), new StringColumn("x"), null);
+        GeoPoints points = GeoPoints.of(columns);
+        Assert.assertTrue(points.isValid(0));
+        Assert.assertFalse(points.isValid(1));
+        Assert.assertFalse(points.isValid(2));
+
+        BatchDistanceFunc func = new BatchDistanceFunc(31.2959273848D, 121.5502498225D);
+        double[] out = new double[3];
+        func.distances(points, out);
+        double exact = new DistanceFunc(31.2959273848D, 121.5502498225D).apply(columns.get(0));
+        Assert.assertEquals(exact, out[0], exact * 1e-3);
+        Assert.assertTrue(Double.isNaN(out[1]));
+        Assert.assertEquals(out[0], func.apply(columns.get(0)), 0D);
+        Assert.assertArrayEquals(new int[]{0}, func.within(points, 5000));
+    }
+}
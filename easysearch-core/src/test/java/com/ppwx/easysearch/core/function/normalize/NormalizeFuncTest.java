@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.function.normalize;
+
+import com.ppwx.easysearch.core.function.ColumnStatistics;
+import com.ppwx.easysearch.core.function.NumberScoreFunction;
+import com.ppwx.easysearch.core.function.timeliness.TimelinessFunc;
+import com.ppwx.easysearch.core.util.CurrentTimeUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ *
+ * 归一化函数批量计算测试类
+ *
+ * @since 1.0.0
+ */
+public class NormalizeFuncTest {
+
+    private void assertBatchMatches(NumberScoreFunction<?> func, double[] in) {
+        double[] out = new double[in.length];
+        func.score(in, out);
+        for (int i = 0; i < in.length; i++) {
+            Assert.assertEquals(func.score(in[i]), out[i], 0D);
+        }
+        // 原地计算
+        double[] inPlace = in.clone();
+        func.score(inPlace, inPlace);
+        Assert.assertArrayEquals(out, inPlace, 0D);
+    }
+
+    @Test
+    public void testBatchMatchesSingle() {
+        Random random = new Random(3);
+        double[] in = new double[200];
+        for (int i = 0; i < in.length; i++) {
+            in[i] = random.nextDouble() * 100;
+        }
+        ColumnStatistics statistics = ColumnStatistics.of(in);
+        Map<Double, Double> mapping = new HashMap<>();
+        mapping.put(10D, 0.9);
+        mapping.put(30D, 0.6);
+        mapping.put(50D, 0.3);
+
+        assertBatchMatches(new MinMaxNormalizeFunc(statistics), in);
+        assertBatchMatches(new ZScoreNormalizeFunc(statistics), in);
+        assertBatchMatches(new GaussNormalizeFunc(statistics), in);
+        assertBatchMatches(new FiniteNormalizeFunc(100, 0), in);
+        assertBatchMatches(new FiniteNormalizeFunc(100, null), in);
+        assertBatchMatches(new RangeScoreNormalizeFunc(mapping, 0.1), in);
+        assertBatchMatches(new MinMaxNormalizeFunc(ColumnStatistics.of(new double[]{1, 1})), in);
+    }
+
+    @Test
+    public void testRange() {
+        Map<Double, Double> mapping = new HashMap<>();
+        mapping.put(1D, 0.9);
+        mapping.put(3D, 0.8);
+        mapping.put(10D, 0.4);
+        RangeScoreNormalizeFunc func = new RangeScoreNormalizeFunc(mapping, 0.2);
+        Assert.assertEquals(0.9, func.score(0.5), 0D);
+        Assert.assertEquals(0.9, func.score(1), 0D);
+        Assert.assertEquals(0.8, func.score(1.1), 0D);
+        Assert.assertEquals(0.4, func.score(10), 0D);
+        Assert.assertEquals(0.2, func.score(10.1), 0D);
+
+        Map<Double, Double> quantiles = new HashMap<>();
+        quantiles.put(0.5, 1.0);
+        quantiles.put(1.0, 0.5);
+        RangeScoreNormalizeFunc byQuantile = RangeScoreNormalizeFunc.ofQuantiles(
+                ColumnStatistics.of(new double[]{1, 2, 3, 4, 5}), quantiles, 0D);
+        Assert.assertEquals(1.0, byQuantile.score(3), 0D);
+        Assert.assertEquals(0.5, byQuantile.score(4), 0D);
+        Assert.assertEquals(0D, byQuantile.score(6), 0D);
+    }
+
+    @Test
+    public void testTimelinessBatch() {
+        long now = CurrentTimeUtil.currentTimeSeconds();
+        double[] in = {now - 86400 * 30, now - 86400 * 200, now + 86400};
+        TimelinessFunc func = new TimelinessFunc(ColumnStatistics.of(in));
+        double[] out = new double[in.length];
+        func.score(in, out);
+        Assert.assertEquals(0D, out[2], 0D);
+        Assert.assertTrue(out[0] > out[1]);
+        Assert.assertEquals(func.score((long) in[0]), out[0], 0D);
+    }
+}
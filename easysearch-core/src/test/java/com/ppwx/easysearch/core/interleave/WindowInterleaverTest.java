@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.interleave;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ *
+ * WindowInterleaver测试类
+ *
+ * @since 1.0.0
+ */
+public class WindowInterleaverTest {
+
+    private int[] randomCodes(Random random, int size, int cardinality) {
+        int[] codes = new int[size];
+        for (int i = 0; i < size; i++) {
+            codes[i] = random.nextInt(cardinality + 1) - 1;
+        }
+        return codes;
+    }
+
+    @Test
+    public void testMatchesGreedyReference() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            int size = 1 + random.nextInt(120);
+            int[] brand = randomCodes(random, size, 1 + random.nextInt(4));
+            int[] shop = randomCodes(random, size, 1 + random.nextInt(6));
+            int limit = random.nextInt(3) == 0 ? random.nextInt(size + 1) : 0;
+            int[] order = new WindowInterleaver(size)
+                    .constraint(brand, 2, 5)
+                    .constraint(shop, 1, 3)
+                    .interleave(limit);
+            int[][] codes = {brand, shop};
+            int[] expected = greedy(size, codes, new int[]{2, 1}, new int[]{5, 3}, limit);
+            Assert.assertArrayEquals("round " + round, expected, order);
+        }
+    }
+
+    @Test
+    public void testConstraintsSatisfied() {
+        // 品牌0占一半，店铺0占三分之一
+        int size = 60;
+        int[] brand = new int[size];
+        int[] shop = new int[size];
+        for (int i = 0; i < size; i++) {
+            brand[i] = i < size / 2 ? 0 : 1 + i % 5;
+            shop[i] = i < size / 3 ? 0 : 1 + i % 7;
+        }
+        int[] order = new WindowInterleaver(size).constraint(brand, 2, 5).constraint(shop, 1, 3).interleave(0);
+        int[] sorted = order.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < size; i++) {
+            Assert.assertEquals(i, sorted[i]);
+        }
+        // 前部物品充足，约束全部满足
+        Assert.assertEquals(-1, violation(order, brand, 2, 5, 40));
+        Assert.assertEquals(-1, violation(order, shop, 1, 3, 40));
+    }
+
+    @Test
+    public void testNoConstraint() {
+        int[] order = new WindowInterleaver(4).constraint(new int[]{0, 0, 0, 0}, 5, 5).interleave(0);
+        Assert.assertArrayEquals(new int[]{0, 1, 2, 3}, order);
+        Assert.assertEquals(0, new WindowInterleaver(0).constraint(new int[0], 1, 2).interleave(0).length);
+    }
+
+    @Test
+    public void testRelaxWhenExhausted() {
+        int[] order = new WindowInterleaver(5).constraint(new int[]{0, 0, 0, 1, -1}, 1, 2).interleave(0);
+        Assert.assertArrayEquals(new int[]{0, 3, 1, 4, 2}, order);
+    }
+
+    private int violation(int[] order, int[] codes, int maxCount, int window, int until) {
+        for (int end = 0; end < until; end++) {
+            int[] counts = new int[64];
+            for (int p = Math.max(0, end - window + 1); p <= end; p++) {
+                int code = codes[order[p]];
+                if (code >= 0 && ++counts[code] > maxCount) {
+                    return end;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * O(n²)的贪心实现，作为对照
+     */
+    private int[] greedy(int size, int[][] codes, int[] maxCounts, int[] windows, int limit) {
+        int k = limit <= 0 ? size : Math.min(limit, size);
+        int[] order = new int[size];
+        boolean[] placed = new boolean[size];
+        int count = 0;
+        while (count < k) {
+            int next = -1;
+            for (int i = 0; i < size && next < 0; i++) {
+                if (!placed[i] && feasible(i, order, count, codes, maxCounts, windows)) {
+                    next = i;
+                }
+            }
+            for (int i = 0; i < size && next < 0; i++) {
+                if (!placed[i]) {
+                    next = i;
+                }
+            }
+            placed[next] = true;
+            order[count++] = next;
+        }
+        for (int i = 0; i < size; i++) {
+            if (!placed[i]) {
+                order[count++] = i;
+            }
+        }
+        return order;
+    }
+
+    private boolean feasible(int item, int[] order, int count, int[][] codes, int[] maxCounts, int[] windows) {
+        for (int j = 0; j < codes.length; j++) {
+            int code = codes[j][item];
+            if (code < 0) {
+                continue;
+            }
+            int same = 0;
+            for (int p = Math.max(0, count - windows[j] + 1); p < count; p++) {
+                if (codes[j][order[p]] == code) {
+                    same++;
+                }
+            }
+            if (same >= maxCounts[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
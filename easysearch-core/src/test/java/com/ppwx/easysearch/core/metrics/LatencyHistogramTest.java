@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ *
+ * LatencyHistogram测试类
+ *
+ * @since 1.0.0
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketBounds() {
+        Random random = new Random(1);
+        for (int i = 0; i < 100000; i++) {
+            long value = random.nextInt(4) == 0 ? random.nextInt(64) : (long) (Math.exp(random.nextDouble() * 27));
+            int idx = LatencyHistogram.bucketIndex(value);
+            long upper = LatencyHistogram.highestEquivalentValue(idx);
+            Assert.assertTrue(upper >= value);
+            Assert.assertTrue(upper - value <= value / LatencyHistogram.SUB_BUCKET_COUNT);
+            if (idx > 0) {
+                Assert.assertTrue(LatencyHistogram.highestEquivalentValue(idx - 1) < value);
+            }
+        }
+        Assert.assertEquals(0, LatencyHistogram.bucketIndex(-5));
+        Assert.assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(0, histogram.getValueAtPercentile(99));
+        long[] values = new long[10000];
+        Random random = new Random(2);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1000 + random.nextInt(10_000_000);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double p : new double[]{50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(p / 100 * values.length) - 1];
+            long estimate = histogram.getValueAtPercentile(p);
+            Assert.assertTrue(estimate >= exact);
+            Assert.assertTrue(estimate - exact <= exact / LatencyHistogram.SUB_BUCKET_COUNT);
+        }
+    }
+
+    @Test
+    public void testMergeAndSubtract() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        for (int i = 0; i < 100; i++) {
+            a.record(10);
+            b.record(1_000_000);
+        }
+        LatencyHistogram total = new LatencyHistogram();
+        total.add(a);
+        total.add(b);
+        Assert.assertEquals(200, total.getTotalCount());
+        Assert.assertEquals(10, total.getValueAtPercentile(50));
+        Assert.assertTrue(total.getValueAtPercentile(51) >= 1_000_000);
+        total.subtract(a);
+        Assert.assertEquals(100, total.getTotalCount());
+        Assert.assertTrue(total.getValueAtPercentile(50) >= 1_000_000);
+        a.reset();
+        Assert.assertEquals(0, a.getTotalCount());
+        Assert.assertEquals(0, a.getValueAtPercentile(50));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.metrics;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Metrics记录性能对比，分别在1、8、32个线程下压测同一个Metrics实例
+ * 运行：执行main方法，或 mvn test-compile 后以 org.openjdk.jmh.Main MetricsBenchmark 启动
+ *
+ * @since 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@org.openjdk.jmh.annotations.Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class MetricsState {
+
+        @Param({"striped", "slidingTime", "fixedSize"})
+        public String type;
+
+        public Metrics metrics;
+
+        @Setup
+        public void setup() {
+            switch (type) {
+                case "striped":
+                    metrics = new StripedSlidingTimeWindowMetrics(60, Clock.systemUTC());
+                    break;
+                case "slidingTime":
+                    metrics = new SlidingTimeWindowMetrics(60, Clock.systemUTC());
+                    break;
+                default:
+                    metrics = new FixedSizeSlidingWindowMetrics(60);
+                    break;
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Snapshot record1(MetricsState state) {
+        return state.metrics.record(1, TimeUnit.MILLISECONDS, Metrics.Outcome.SUCCESS);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Snapshot record8(MetricsState state) {
+        return state.metrics.record(1, TimeUnit.MILLISECONDS, Metrics.Outcome.SUCCESS);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Snapshot record32(MetricsState state) {
+        return state.metrics.record(1, TimeUnit.MILLISECONDS, Metrics.Outcome.SUCCESS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MetricsBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -16,9 +16,16 @@
 
 package com.ppwx.easysearch.core.metrics;
 
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -62,4 +69,163 @@ public class SlidingWindowMetricsTest {
         Snapshot snapshot = metrics.getSnapshot();
         System.out.println(snapshot.getNumberOfSuccessfulCalls());
     }
+
+    @Test
+    public void testStripedSlidingTimeWindowMetricsWorks() {
+        MutableClock clock = new MutableClock(1_000_000L);
+        StripedSlidingTimeWindowMetrics metrics = new StripedSlidingTimeWindowMetrics(3, clock);
+        metrics.record(100, TimeUnit.MILLISECONDS, Metrics.Outcome.SUCCESS);
+        metrics.record(300, TimeUnit.MILLISECONDS, Metrics.Outcome.SLOW_ERROR);
+        Snapshot live = metrics.record(200, TimeUnit.MILLISECONDS, Metrics.Outcome.ERROR);
+        Snapshot snapshot = metrics.getSnapshot();
+        Assert.assertEquals(3, snapshot.getTotalNumberOfCalls());
+        Assert.assertEquals(2, snapshot.getNumberOfFailedCalls());
+        Assert.assertEquals(1, snapshot.getNumberOfSlowFailedCalls());
+        Assert.assertEquals(600, snapshot.getTotalDuration().toMillis());
+        Assert.assertEquals(200, snapshot.getAverageDuration().toMillis());
+
+        clock.millis += 2000;
+        metrics.record(1, TimeUnit.MILLISECONDS, Metrics.Outcome.SUCCESS);
+        Assert.assertEquals(4, metrics.getSnapshot().getTotalNumberOfCalls());
+        // 第一秒的桶移出窗口
+        clock.millis += 1000;
+        Assert.assertEquals(1, metrics.getSnapshot().getTotalNumberOfCalls());
+        Assert.assertEquals(1, live.getTotalNumberOfCalls());
+        clock.millis += 5000;
+        Assert.assertEquals(0, metrics.getSnapshot().getTotalNumberOfCalls());
+        // 复用同一位置的桶时重新计数
+        metrics.record(1, TimeUnit.MILLISECONDS, Metrics.Outcome.SUCCESS);
+        Assert.assertEquals(1, metrics.getSnapshot().getNumberOfSuccessfulCalls());
+    }
+
+    @Test
+    public void testStripedSlidingTimeWindowMetricsConcurrentRecord() throws InterruptedException {
+        MutableClock clock = new MutableClock(1_000_000L);
+        StripedSlidingTimeWindowMetrics metrics = new StripedSlidingTimeWindowMetrics(10, clock);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch latch = new CountDownLatch(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    metrics.record(1, TimeUnit.MILLISECONDS, Metrics.Outcome.SUCCESS);
+                }
+                latch.countDown();
+            });
+        }
+        latch.await();
+        executor.shutdown();
+        Assert.assertEquals(80000, metrics.getSnapshot().getNumberOfSuccessfulCalls());
+    }
+
+    @Test
+    public void testStripedSnapshotCachedPerTick() throws InterruptedException {
+        MutableClock clock = new MutableClock(1_000_000L);
+        StripedSlidingTimeWindowMetrics metrics = new StripedSlidingTimeWindowMetrics(10, clock);
+        metrics.record(1, TimeUnit.MILLISECONDS, Metrics.Outcome.SUCCESS);
+        Snapshot snapshot = metrics.getSnapshot();
+        Assert.assertSame(snapshot, metrics.getSnapshot());
+        metrics.record(1, TimeUnit.MILLISECONDS, Metrics.Outcome.SUCCESS);
+        Assert.assertNotSame(snapshot, metrics.getSnapshot());
+        snapshot = metrics.getSnapshot();
+        clock.millis += 1000;
+        Assert.assertNotSame(snapshot, metrics.getSnapshot());
+
+        // 延迟数组扩容时不丢失计数
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch latch = new CountDownLatch(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    metrics.record(i, TimeUnit.MICROSECONDS, Metrics.Outcome.SUCCESS);
+                }
+                latch.countDown();
+            });
+        }
+        latch.await();
+        executor.shutdown();
+        Assert.assertEquals(80002, metrics.getSnapshot().getTotalNumberOfCalls());
+        Assert.assertEquals(10, metrics.getSnapshot().getP999().toMillis(), 1);
+    }
+
+    @Test
+    public void testPercentiles() {
+        MutableClock clock = new MutableClock(1_000_000L);
+        Metrics[] all = {new SlidingTimeWindowMetrics(2, clock), new StripedSlidingTimeWindowMetrics(2, clock)};
+        for (Metrics metrics : all) {
+            for (int i = 1; i <= 1000; i++) {
+                metrics.record(i, TimeUnit.MILLISECONDS, Metrics.Outcome.SUCCESS);
+            }
+            Snapshot snapshot = metrics.getSnapshot();
+            assertNear(500, snapshot.getP50().toMillis());
+            assertNear(900, snapshot.getP90().toMillis());
+            assertNear(990, snapshot.getP99().toMillis());
+            assertNear(999, snapshot.getP999().toMillis());
+
+            // 旧桶移出窗口后分位数随之更新
+            clock.millis += 1000;
+            for (int i = 0; i < 1000; i++) {
+                metrics.record(1, TimeUnit.MILLISECONDS, Metrics.Outcome.SUCCESS);
+            }
+            Assert.assertEquals(1000, metrics.getSnapshot().getP999().toMillis(), 1000 / 16);
+            clock.millis += 1000;
+            Assert.assertEquals(1, metrics.getSnapshot().getP999().toMillis());
+            clock.millis -= 2000;
+        }
+
+        FixedSizeSlidingWindowMetrics fixed = new FixedSizeSlidingWindowMetrics(10);
+        fixed.record(5, TimeUnit.SECONDS, Metrics.Outcome.SUCCESS);
+        for (int i = 0; i < 10; i++) {
+            fixed.record(2, TimeUnit.MILLISECONDS, Metrics.Outcome.SUCCESS);
+        }
+        Assert.assertEquals(2, fixed.getSnapshot().getP999().toMillis());
+    }
+
+    @Test
+    public void testPercentilesCapturedWithSnapshot() {
+        Metrics[] all = {new SlidingTimeWindowMetrics(10, Clock.systemUTC()), new FixedSizeSlidingWindowMetrics(100)};
+        for (Metrics metrics : all) {
+            metrics.record(2, TimeUnit.MILLISECONDS, Metrics.Outcome.SUCCESS);
+            Snapshot snapshot = metrics.getSnapshot();
+            // 快照之后的记录不影响已生成快照的分位数
+            for (int i = 0; i < 10; i++) {
+                metrics.record(5, TimeUnit.SECONDS, Metrics.Outcome.SUCCESS);
+            }
+            Assert.assertEquals(1, snapshot.getTotalNumberOfCalls());
+            Assert.assertEquals(2, snapshot.getP999().toMillis());
+        }
+    }
+
+    private static void assertNear(long expected, long actual) {
+        Assert.assertTrue(actual + " < " + expected, actual >= expected);
+        Assert.assertTrue(actual + " > " + expected, actual - expected <= expected / 16);
+    }
+
+    private static class MutableClock extends Clock {
+
+        private volatile long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
 }
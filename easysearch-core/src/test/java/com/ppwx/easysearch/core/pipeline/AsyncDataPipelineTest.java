@@ -0,0 +1,267 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.DataModel;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.element.StringColumn;
+import com.ppwx.easysearch.core.data.model.LocalDataModel;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
+
+/**
+ *
+ * 异步管道测试类
+ *
+ * @since 1.0.0
+ */
+public class AsyncDataPipelineTest {
+
+    private ExecutorService executor;
+
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void init() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    class RecordHandler extends DataHandlerAdapter {
+
+        private final String name;
+
+        RecordHandler(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void dataComplete(DataHandlerContext ctx) throws Exception {
+            events.add(name);
+            super.dataComplete(ctx);
+        }
+
+        @Override
+        public void exceptionCaught(DataHandlerContext ctx, Throwable cause) throws Exception {
+            events.add(name + ":" + cause.getMessage());
+            super.exceptionCaught(ctx, cause);
+        }
+    }
+
+    /**
+     * 异步截断数据集
+     */
+    class TruncateAsyncHandler extends AsyncDataHandlerAdapter {
+
+        private final int limit;
+
+        private final long delayMillis;
+
+        TruncateAsyncHandler(int limit, long delayMillis) {
+            this.limit = limit;
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public CompletableFuture<?> dataCompleteAsync(DataHandlerContext ctx) {
+            return CompletableFuture.runAsync(() -> {
+                sleep(delayMillis);
+                DataSet dataSet = ctx.dataModel().getDataset();
+                ctx.dataModel().setDataSet(new ListDataSet(dataSet.columnNames(), dataSet.all().subList(0, limit)));
+                events.add("truncate");
+            });
+        }
+    }
+
+    /**
+     * 向后推进后记录数据集大小
+     */
+    class AfterHandler extends DataHandlerAdapter {
+
+        @Override
+        public void dataComplete(DataHandlerContext ctx) throws Exception {
+            super.dataComplete(ctx);
+            events.add("after:" + ctx.dataModel().getDataset().size());
+            ctx.onFireComplete(() -> events.add("complete:" + ctx.dataModel().getDataset().size()));
+        }
+    }
+
+    class StageHandler extends AsyncDataHandlerAdapter {
+
+        final CompletableFuture<Void> stage;
+
+        StageHandler(CompletableFuture<Void> stage) {
+            this.stage = stage;
+        }
+
+        @Override
+        public CompletableFuture<?> dataCompleteAsync(DataHandlerContext ctx) {
+            events.add("stage");
+            return stage;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static DataModel dataModel(int size) {
+        List<Map<String, Column>> rows = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Map<String, Column> row = new HashMap<>();
+            row.put(GLOBAL_ID, new StringColumn(String.valueOf(i)));
+            rows.add(row);
+        }
+        DataModel dataModel = new LocalDataModel();
+        dataModel.setDataSet(new ListDataSet(Collections.singletonList(GLOBAL_ID), rows));
+        return dataModel;
+    }
+
+    private DataPipeline pipeline(DataModel dataModel, long timeoutMillis, DataHandler... handlers) {
+        return new DataPipelineBuilder()
+                .dataModel(dataModel)
+                .async(executor, timeoutMillis, TimeUnit.MILLISECONDS)
+                .handler(p -> p.addLast(handlers))
+                .build();
+    }
+
+    @Test
+    public void testAsyncWorks() throws Exception {
+        DataModel dataModel = dataModel(10);
+        DataPipeline pipeline = pipeline(dataModel, 0, new RecordHandler("first"),
+                new TruncateAsyncHandler(3, 50), new RecordHandler("last"));
+        CompletableFuture<DataPipeline> future = pipeline.fireDataCompleteAsync();
+        // caller is not blocked by the async handler
+        Assert.assertFalse(future.isDone());
+        Assert.assertSame(pipeline, future.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList("first", "truncate", "last"), events);
+        Assert.assertEquals(3, dataModel.getDataset().size());
+    }
+
+    @Test
+    public void testSyncFireStillWorks() {
+        DataModel dataModel = dataModel(10);
+        DefaultDataPipeline pipeline = new DefaultDataPipeline(dataModel);
+        pipeline.addLast(new RecordHandler("first"), new TruncateAsyncHandler(3, 10), new RecordHandler("last"));
+        pipeline.fireDataComplete();
+        Assert.assertEquals(Arrays.asList("first", "truncate", "last"), events);
+        Assert.assertEquals(3, dataModel.getDataset().size());
+    }
+
+    @Test
+    public void testExceptionCaught() throws Exception {
+        CompletableFuture<Void> stage = new CompletableFuture<>();
+        DataPipeline pipeline = pipeline(dataModel(3), 0, new StageHandler(stage), new RecordHandler("last"));
+        CompletableFuture<DataPipeline> future = pipeline.fireDataCompleteAsync();
+        stage.completeExceptionally(new IllegalStateException("remote"));
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertEquals("remote", e.getCause().getMessage());
+        }
+        // exceptionCaught flows to the next handler, dataComplete does not
+        Assert.assertEquals(Arrays.asList("stage", "last:remote"), events);
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        CompletableFuture<Void> stage = new CompletableFuture<>();
+        DataPipeline pipeline = pipeline(dataModel(3), 50, new StageHandler(stage), new RecordHandler("last"));
+        CompletableFuture<DataPipeline> future = pipeline.fireDataCompleteAsync();
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        Assert.assertTrue(stage.isCancelled());
+        sleep(20);
+        Assert.assertEquals(Collections.singletonList("stage"), events);
+    }
+
+    @Test
+    public void testCancel() {
+        CompletableFuture<Void> stage = new CompletableFuture<>();
+        DataPipeline pipeline = pipeline(dataModel(3), 0, new StageHandler(stage), new RecordHandler("last"));
+        CompletableFuture<DataPipeline> future = pipeline.fireDataCompleteAsync();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (events.isEmpty() && System.currentTimeMillis() < deadline) {
+            sleep(1);
+        }
+        Assert.assertTrue(future.cancel(true));
+        Assert.assertTrue(stage.isCancelled());
+        sleep(20);
+        Assert.assertEquals(Collections.singletonList("stage"), events);
+        // the pipeline can be fired again after the run finished
+        pipeline.fireDataPrepareAsync().join();
+    }
+
+    @Test
+    public void testFireCompleteTask() throws Exception {
+        DataModel dataModel = dataModel(10);
+        DataPipeline pipeline = pipeline(dataModel, 0, new AfterHandler(), new TruncateAsyncHandler(3, 50));
+        pipeline.fireDataCompleteAsync().get(5, TimeUnit.SECONDS);
+        // code after fire runs once the async handler suspends, the task after the whole chain
+        Assert.assertEquals(Arrays.asList("after:10", "truncate", "complete:3"), events);
+
+        events.clear();
+        DefaultDataPipeline sync = new DefaultDataPipeline(dataModel(10));
+        sync.addLast(new AfterHandler(), new TruncateAsyncHandler(3, 10));
+        sync.fireDataComplete();
+        Assert.assertEquals(Arrays.asList("truncate", "after:3", "complete:3"), events);
+    }
+
+    @Test
+    public void testFireCompleteTaskDroppedOnFailure() throws Exception {
+        CompletableFuture<Void> stage = new CompletableFuture<>();
+        DataPipeline pipeline = pipeline(dataModel(3), 0, new AfterHandler(), new StageHandler(stage));
+        CompletableFuture<DataPipeline> future = pipeline.fireDataCompleteAsync();
+        stage.completeExceptionally(new IllegalStateException("remote"));
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertEquals("remote", e.getCause().getMessage());
+        }
+        Assert.assertFalse(events.contains("complete:3"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStrictModeBound() {
+        DataPipeline pipeline = pipeline(dataModel(3), 0, new RecordHandler("first"));
+        pipeline.fireDataComplete();
+        pipeline.fireDataCompleteAsync();
+    }
+}
@@ -22,14 +22,19 @@ import com.ppwx.easysearch.core.data.*;
 import com.ppwx.easysearch.core.data.element.DoubleColumn;
 import com.ppwx.easysearch.core.data.element.StringColumn;
 import com.ppwx.easysearch.core.data.model.AbstractDataModel;
+import com.ppwx.easysearch.core.data.model.DataModelCacheDecorator;
 import com.ppwx.easysearch.core.data.model.DataModelProxy;
+import com.ppwx.easysearch.core.data.model.ICache;
 import com.ppwx.easysearch.core.data.model.LocalDataModel;
 import com.ppwx.easysearch.core.pipeline.handler.DuplicateIdAddScoreDataHandler;
 import com.ppwx.easysearch.core.pipeline.handler.DuplicateIdSkipDataHandler;
+import com.ppwx.easysearch.core.pipeline.handler.ScoreSortDataHandler;
 import com.ppwx.easysearch.core.pipeline.handler.SlidingWindowInterleaveDataHandler;
 import com.ppwx.easysearch.core.util.DataModelThreadHolder;
 import io.netty.util.AttributeKey;
+import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -194,4 +199,86 @@ public class DefaultDataPipelineTest {
 
         System.out.println(dataModel.getDataset().all());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPermutationModeWorks() {
+        Table<Integer, Integer, Column> table = HashBasedTable.create();
+        table.put(0, 0, new StringColumn("1"));
+        table.put(0, 1, new DoubleColumn(10.0));
+        table.put(1, 0, new StringColumn("1"));
+        table.put(1, 1, new DoubleColumn(11.0));
+        table.put(2, 0, new StringColumn("2"));
+        table.put(2, 1, new DoubleColumn(12.0));
+        table.put(3, 0, new StringColumn("3"));
+        table.put(3, 1, new DoubleColumn(9.0));
+
+        DataModel dataModel = new InnerModel();
+        dataModel.setDataSet(new TableDataSet(Arrays.asList(GLOBAL_ID, GLOBAL_SCORE), table));
+        DataPipeline pipeline = new DataPipelineBuilder().dataModel(dataModel).permutation(true).handler(p -> {
+            p.addLast("duplicateIdSkip", new DuplicateIdSkipDataHandler());
+            // map-based handler between permutation-aware handlers
+            p.addLast("innerHandler", new InnerHandler());
+            p.addLast("scoreSort", new ScoreSortDataHandler());
+        }).build();
+        pipeline.fireDataComplete();
+
+        DataSet result = dataModel.getDataset();
+        Assert.assertFalse(result instanceof PermutationDataSet);
+        Assert.assertEquals(3, result.size());
+        Assert.assertEquals("2", result.row(0).get(GLOBAL_ID).asString());
+        Assert.assertEquals("1", result.row(1).get(GLOBAL_ID).asString());
+        Assert.assertEquals(10.0D, result.row(1).get(GLOBAL_SCORE).asDouble(), 0.0D);
+        Assert.assertEquals("3", result.row(2).get(GLOBAL_ID).asString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPermutationModeOverCacheDecorator() {
+        Table<Integer, Integer, Column> table = HashBasedTable.create();
+        table.put(0, 0, new StringColumn("1"));
+        table.put(0, 1, new DoubleColumn(10.0));
+        table.put(1, 0, new StringColumn("1"));
+        table.put(1, 1, new DoubleColumn(11.0));
+        table.put(2, 0, new StringColumn("2"));
+        table.put(2, 1, new DoubleColumn(12.0));
+        table.put(3, 0, new StringColumn("3"));
+        table.put(3, 1, new DoubleColumn(9.0));
+        TableDataSet cached = new TableDataSet(Arrays.asList(GLOBAL_ID, GLOBAL_SCORE), table);
+
+        ICache<String, DataSet> cache = Mockito.mock(ICache.class);
+        Mockito.when(cache.getIfPresent(Mockito.anyString())).thenReturn(cached);
+        DataModelCacheDecorator dataModel = new DataModelCacheDecorator(Mockito.mock(DataModel.class), cache);
+        dataModel.loadDataModel();
+        PermutationDataSet[] seen = new PermutationDataSet[2];
+        DataPipeline pipeline = new DataPipelineBuilder().dataModel(dataModel).permutation(true).handler(p -> {
+            p.addLast("duplicateIdSkip", new DuplicateIdSkipDataHandler());
+            p.addLast("first", new DataHandlerAdapter() {
+                @Override
+                public void dataComplete(DataHandlerContext ctx) throws Exception {
+                    seen[0] = ctx.permutation();
+                    super.dataComplete(ctx);
+                }
+            });
+            p.addLast("scoreSort", new ScoreSortDataHandler());
+            p.addLast("second", new DataHandlerAdapter() {
+                @Override
+                public void dataComplete(DataHandlerContext ctx) throws Exception {
+                    seen[1] = ctx.permutation();
+                    super.dataComplete(ctx);
+                }
+            });
+        }).build();
+        pipeline.fireDataComplete();
+
+        Assert.assertNotNull(seen[0]);
+        Assert.assertSame(seen[0], seen[1]);
+        DataSet result = dataModel.getDataset();
+        Assert.assertFalse(((CopyOnWriteDataSet) result).base() instanceof PermutationDataSet);
+        Assert.assertEquals(3, result.size());
+        Assert.assertEquals("2", result.row(0).get(GLOBAL_ID).asString());
+        Assert.assertEquals("1", result.row(1).get(GLOBAL_ID).asString());
+        Assert.assertEquals("3", result.row(2).get(GLOBAL_ID).asString());
+        // cached dataset is untouched
+        Assert.assertEquals(4, cached.size());
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.DataModel;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.element.StringColumn;
+import com.ppwx.easysearch.core.data.model.LocalDataModel;
+import com.ppwx.easysearch.core.metrics.InMemoryMetricsRegistry;
+import com.ppwx.easysearch.core.metrics.Metrics;
+import com.ppwx.easysearch.core.metrics.MetricsRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
+
+/**
+ *
+ *
+ *
+ * @since 1.0.0
+ */
+public class PipelineTracerTest {
+
+    static class TruncateHandler extends DataHandlerAdapter {
+
+        private final int limit;
+
+        TruncateHandler(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void dataComplete(DataHandlerContext ctx) throws Exception {
+            DataSet dataSet = ctx.dataModel().getDataset();
+            ctx.dataModel().setDataSet(new ListDataSet(dataSet.columnNames(), dataSet.all().subList(0, limit)));
+            super.dataComplete(ctx);
+        }
+    }
+
+    static class SleepHandler extends DataHandlerAdapter {
+
+        @Override
+        public void dataComplete(DataHandlerContext ctx) throws Exception {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(30));
+            super.dataComplete(ctx);
+        }
+    }
+
+    static class FailHandler extends DataHandlerAdapter {
+
+        @Override
+        public void dataComplete(DataHandlerContext ctx) throws Exception {
+            throw new IllegalStateException("fail");
+        }
+    }
+
+    private static DataModel dataModel(int size) {
+        List<Map<String, Column>> rows = Lists.newArrayList();
+        for (int i = 0; i < size; i++) {
+            Map<String, Column> row = Maps.newHashMap();
+            row.put(GLOBAL_ID, new StringColumn(String.valueOf(i)));
+            rows.add(row);
+        }
+        DataModel dataModel = new LocalDataModel();
+        dataModel.setDataSet(new ListDataSet(Collections.singletonList(GLOBAL_ID), rows));
+        return dataModel;
+    }
+
+    @Test
+    public void testDisabled() {
+        DefaultDataPipeline pipeline = new DefaultDataPipeline(dataModel(10));
+        pipeline.addLast("truncate", new TruncateHandler(5));
+        pipeline.fireDataComplete();
+        Assert.assertNull(pipeline.trace());
+        Assert.assertEquals(5, pipeline.dataModel().getDataset().size());
+    }
+
+    @Test
+    public void testSpans() {
+        MetricsRegistry<Metrics> registry = new InMemoryMetricsRegistry(new ConcurrentHashMap<>());
+        AtomicReference<PipelineTrace> dumped = new AtomicReference<>();
+        PipelineTracer tracer = PipelineTracer.builder()
+                .metrics("pipeline.", registry, 60)
+                .latencyBudget(10, TimeUnit.MILLISECONDS)
+                .dumper(dumped::set)
+                .build();
+
+        DataPipeline pipeline = new DataPipelineBuilder()
+                .dataModel(dataModel(10))
+                .tracer(tracer)
+                .handler(p -> p.addLast("truncate", new TruncateHandler(5)).addLast("sleep", new SleepHandler()))
+                .build();
+        pipeline.fireDataComplete();
+
+        PipelineTrace trace = ((DefaultDataPipeline) pipeline).trace();
+        List<PipelineTrace.Span> spans = trace.spans();
+        // truncate, sleep, tail
+        Assert.assertEquals(3, spans.size());
+        PipelineTrace.Span truncate = spans.get(0);
+        PipelineTrace.Span sleep = spans.get(1);
+        Assert.assertEquals("truncate", truncate.name());
+        Assert.assertEquals(PipelineTrace.Phase.COMPLETE, truncate.phase());
+        Assert.assertEquals(10, truncate.inputRows());
+        Assert.assertEquals(5, truncate.outputRows());
+        Assert.assertEquals(5, sleep.inputRows());
+        Assert.assertEquals(5, sleep.outputRows());
+        // downstream time is not counted into the caller
+        Assert.assertTrue(sleep.selfNanos() >= TimeUnit.MILLISECONDS.toNanos(30));
+        Assert.assertTrue(truncate.totalNanos() >= sleep.totalNanos());
+        Assert.assertTrue(truncate.selfNanos() < sleep.selfNanos());
+        Assert.assertTrue(trace.elapsedNanos() >= truncate.totalNanos());
+
+        Assert.assertSame(trace, dumped.get());
+        Assert.assertTrue(trace.toString().contains("truncate complete"));
+
+        Assert.assertEquals(1, registry.metrics("pipeline.truncate.complete", 60)
+                .getSnapshot().getNumberOfSuccessfulCalls());
+        PipelineTracer.RowCounter rows = tracer.rowCounter("pipeline.truncate.complete");
+        Assert.assertEquals(1, rows.calls());
+        Assert.assertEquals(10, rows.inputRows());
+        Assert.assertEquals(5, rows.outputRows());
+        // row counts are not recorded as latencies
+        Assert.assertEquals(spans.size(), registry.getAll().size());
+    }
+
+    @Test
+    public void testBudgetNotExceeded() {
+        AtomicReference<PipelineTrace> dumped = new AtomicReference<>();
+        PipelineTracer tracer = PipelineTracer.builder()
+                .latencyBudget(10, TimeUnit.SECONDS)
+                .dumper(dumped::set)
+                .build();
+        DefaultDataPipeline pipeline = new DefaultDataPipeline(dataModel(3));
+        pipeline.setTracer(tracer);
+        pipeline.addLast("truncate", new TruncateHandler(2));
+        pipeline.fireDataPrepare();
+        pipeline.fireDataComplete();
+
+        Assert.assertNull(dumped.get());
+        // prepare and complete of the same request share one trace
+        Assert.assertEquals(4, pipeline.trace().spans().size());
+        // the dataset is not read in prepare
+        Assert.assertEquals(-1, pipeline.trace().spans().get(0).inputRows());
+        Assert.assertEquals(3, pipeline.trace().spans().get(2).inputRows());
+    }
+
+    @Test
+    public void testFailedHandler() {
+        MetricsRegistry<Metrics> registry = new InMemoryMetricsRegistry(new ConcurrentHashMap<>());
+        PipelineTracer tracer = PipelineTracer.builder().metrics("", registry, 60).build();
+        DefaultDataPipeline pipeline = new DefaultDataPipeline(dataModel(3));
+        pipeline.setTracer(tracer);
+        pipeline.addLast("fail", new FailHandler());
+        pipeline.fireDataComplete();
+
+        PipelineTrace.Span span = pipeline.trace().spans().get(0);
+        Assert.assertTrue(span.isFailed());
+        Assert.assertEquals(3, span.outputRows());
+        Assert.assertEquals(1, registry.metrics("fail.complete", 60).getSnapshot().getNumberOfFailedCalls());
+    }
+}
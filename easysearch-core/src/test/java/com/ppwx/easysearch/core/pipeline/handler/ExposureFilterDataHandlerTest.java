@@ -0,0 +1,232 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline.handler;
+
+import com.ppwx.easysearch.core.common.bloom.BloomFilterStore;
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.DataModel;
+import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.element.StringColumn;
+import com.ppwx.easysearch.core.data.model.LocalDataModel;
+import com.ppwx.easysearch.core.pipeline.AsyncDataHandlerAdapter;
+import com.ppwx.easysearch.core.pipeline.DataHandlerContext;
+import com.ppwx.easysearch.core.pipeline.DefaultDataPipeline;
+import com.ppwx.easysearch.core.session.DefaultSearchSession;
+import com.ppwx.easysearch.core.session.SearchSession;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
+
+/**
+ *
+ * ExposureFilterDataHandler测试类
+ *
+ * @since 1.0.0
+ */
+public class ExposureFilterDataHandlerTest {
+
+    static class MapStore implements BloomFilterStore {
+
+        final Map<String, List<byte[]>> map = new ConcurrentHashMap<>();
+
+        int loads;
+
+        @Override
+        public List<byte[]> load(String key) {
+            loads++;
+            return map.get(key);
+        }
+
+        @Override
+        public void save(String key, List<byte[]> filters) {
+            map.put(key, filters);
+        }
+    }
+
+    private static DataModel dataModel(int size) {
+        return dataModel(0, size);
+    }
+
+    private static DataModel dataModel(int from, int size) {
+        List<Map<String, Column>> data = new ArrayList<>();
+        for (int i = from; i < from + size; i++) {
+            Map<String, Column> item = new HashMap<>();
+            item.put(GLOBAL_ID, new StringColumn(String.valueOf(i)));
+            data.add(item);
+        }
+        DataModel dataModel = new LocalDataModel();
+        dataModel.setDataSet(new ListDataSet(Collections.singletonList(GLOBAL_ID), data));
+        return dataModel;
+    }
+
+    private static SearchSession session() {
+        long now = System.currentTimeMillis();
+        return new DefaultSearchSession("u1", now, now, 1800);
+    }
+
+    private static List<String> execute(ExposureFilterDataHandler handler, SearchSession session,
+                                        boolean permutation) {
+        return execute(handler, session, permutation, dataModel(6));
+    }
+
+    private static List<String> execute(ExposureFilterDataHandler handler, SearchSession session,
+                                        boolean permutation, DataModel dataModel) {
+        dataModel.attr(ExposureFilterDataHandler.SESSION).set(session);
+        DefaultDataPipeline pipeline = new DefaultDataPipeline(dataModel, false, permutation);
+        pipeline.addLast("exposure", handler);
+        pipeline.fireDataPrepare();
+        pipeline.fireDataComplete();
+        List<String> gids = new ArrayList<>();
+        for (Column column : dataModel.getDataset().column(GLOBAL_ID)) {
+            gids.add(column.asString());
+        }
+        return gids;
+    }
+
+    @Test
+    public void testDropWorks() {
+        MapStore store = new MapStore();
+        ExposureFilterDataHandler handler = new ExposureFilterDataHandler();
+        handler.setStore(store);
+        handler.setExecutor(Runnable::run);
+        handler.setPageSize(3);
+
+        SearchSession session = session();
+        Assert.assertEquals(Arrays.asList("0", "1", "2", "3", "4", "5"), execute(handler, session, false));
+        // only serializable bytes are kept in the session
+        Assert.assertTrue(session.getValue(ExposureFilterDataHandler.SESSION_VALUE_NAME) instanceof byte[][]);
+        Assert.assertTrue(store.map.containsKey("u1"));
+        // second page served from the session
+        Assert.assertEquals(Arrays.asList("3", "4", "5"), execute(handler, session, false));
+        Assert.assertEquals(1, store.loads);
+
+        // another handler instance without the live filter loads from store
+        ExposureFilterDataHandler other = new ExposureFilterDataHandler();
+        other.setStore(store);
+        other.setExecutor(Runnable::run);
+        Assert.assertEquals(Collections.emptyList(), execute(other, session(), false));
+        Assert.assertEquals(2, store.loads);
+    }
+
+    @Test
+    public void testDemoteWorks() {
+        ExposureFilterDataHandler handler = new ExposureFilterDataHandler();
+        handler.setExecutor(Runnable::run);
+        handler.setMode(ExposureFilterDataHandler.Mode.DEMOTE);
+        handler.setPageSize(2);
+
+        SearchSession session = session();
+        Assert.assertEquals(Arrays.asList("0", "1", "2", "3", "4", "5"), execute(handler, session, true));
+        Assert.assertEquals(Arrays.asList("2", "3", "4", "5", "0", "1"), execute(handler, session, true));
+    }
+
+    @Test
+    public void testRecordAfterAsyncStages() throws Exception {
+        ExposureFilterDataHandler handler = new ExposureFilterDataHandler();
+        handler.setExecutor(Runnable::run);
+        handler.setPageSize(2);
+        SearchSession session = session();
+
+        DataModel dataModel = dataModel(6);
+        dataModel.attr(ExposureFilterDataHandler.SESSION).set(session);
+        DefaultDataPipeline pipeline = new DefaultDataPipeline(dataModel);
+        pipeline.setAsync(ForkJoinPool.commonPool(), 0, TimeUnit.MILLISECONDS);
+        pipeline.addLast("exposure", handler);
+        pipeline.addLast("reverse", new AsyncDataHandlerAdapter() {
+            @Override
+            public CompletableFuture<?> dataCompleteAsync(DataHandlerContext ctx) {
+                return CompletableFuture.runAsync(() -> {
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    List<Map<String, Column>> rows = new ArrayList<>(ctx.dataModel().getDataset().all());
+                    Collections.reverse(rows);
+                    ctx.dataModel().setDataSet(new ListDataSet(Collections.singletonList(GLOBAL_ID), rows));
+                });
+            }
+        });
+        pipeline.fireDataCompleteAsync().get(5, TimeUnit.SECONDS);
+
+        // the final page "5", "4" is recorded, not the page before the async stage
+        Assert.assertEquals(Arrays.asList("0", "1", "2", "3"), execute(handler, session, false));
+    }
+
+    @Test
+    public void testOverlappingWriteBacksMerged() {
+        // decode runs inline, write-backs are held until both requests finished filtering
+        List<Runnable> writeBacks = new ArrayList<>();
+        ExposureFilterDataHandler handler = new ExposureFilterDataHandler();
+        handler.setExecutor(task -> {
+            if (task instanceof CompletableFuture.AsynchronousCompletionTask) {
+                task.run();
+            } else {
+                writeBacks.add(task);
+            }
+        });
+        handler.setPageSize(2);
+        SearchSession session = session();
+
+        Assert.assertEquals(6, execute(handler, session, false, dataModel(0, 6)).size());
+        Assert.assertEquals(6, execute(handler, session, false, dataModel(10, 6)).size());
+        Assert.assertEquals(2, writeBacks.size());
+        writeBacks.forEach(Runnable::run);
+
+        // the session keeps the exposures of both pages
+        ExposureFilterDataHandler reader = new ExposureFilterDataHandler();
+        reader.setExecutor(Runnable::run);
+        Assert.assertEquals(Arrays.asList("2", "3", "4", "5"), execute(reader, session, false, dataModel(0, 6)));
+        Assert.assertEquals(Arrays.asList("12", "13", "14", "15"), execute(reader, session, false, dataModel(10, 6)));
+    }
+
+    @Test
+    public void testLoadFailure() {
+        MapStore store = new MapStore() {
+            @Override
+            public List<byte[]> load(String key) {
+                throw new IllegalStateException("unavailable");
+            }
+        };
+        ExposureFilterDataHandler handler = new ExposureFilterDataHandler();
+        handler.setStore(store);
+        handler.setExecutor(Runnable::run);
+        handler.setLoadTimeout(10, TimeUnit.MILLISECONDS);
+
+        SearchSession session = session();
+        Assert.assertEquals(6, execute(handler, session, false).size());
+        Assert.assertNull(session.getValue(ExposureFilterDataHandler.SESSION_VALUE_NAME));
+        Assert.assertTrue(store.map.isEmpty());
+    }
+
+    @Test
+    public void testWithoutSession() {
+        ExposureFilterDataHandler handler = new ExposureFilterDataHandler();
+        DataModel dataModel = dataModel(3);
+        DefaultDataPipeline pipeline = new DefaultDataPipeline(dataModel);
+        pipeline.addLast("exposure", handler);
+        pipeline.fireDataComplete();
+        Assert.assertEquals(3, dataModel.getDataset().size());
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline.handler;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.ColumnarDataSet;
+import com.ppwx.easysearch.core.data.DataModel;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.PermutationDataSet;
+import com.ppwx.easysearch.core.data.element.DoubleColumn;
+import com.ppwx.easysearch.core.data.element.LongColumn;
+import com.ppwx.easysearch.core.data.element.StringColumn;
+import com.ppwx.easysearch.core.data.model.LocalDataModel;
+import com.ppwx.easysearch.core.pipeline.DataHandlerContext;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.*;
+
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_SCORE;
+
+/**
+ *
+ * FingerprintDuplicateScoreDataHandler测试类
+ *
+ * @since 1.0.0
+ */
+public class FingerprintDuplicateScoreDataHandlerTest {
+
+    private Map<String, Column> item(String gid, String shop, Double score) {
+        Map<String, Column> item = new HashMap<>();
+        item.put(GLOBAL_ID, new StringColumn(gid));
+        item.put("shop", new StringColumn(shop));
+        item.put(GLOBAL_SCORE, new DoubleColumn(score));
+        return item;
+    }
+
+    private List<Map<String, Column>> createItems() {
+        return new ArrayList<>(Arrays.asList(item("a", "s1", 1.0), item("b", "s1", 2.0), item("a", "s2", 5.0),
+                item("c", "s1", null), item("a", "s1", 3.0), item("c", "s1", 4.0), item("b", "s1", null)));
+    }
+
+    private DataHandlerContext getContext(DataSet dataSet, boolean permutation) {
+        DataModel dataModel = new LocalDataModel();
+        dataModel.setDataSet(dataSet);
+        DataHandlerContext context = Mockito.mock(DataHandlerContext.class);
+        Mockito.when(context.dataModel()).thenReturn(dataModel);
+        if (permutation) {
+            Mockito.when(context.permutation()).thenReturn(new PermutationDataSet(dataSet));
+        }
+        return context;
+    }
+
+    private Map<String, Double> scores(List<Map<String, Column>> rows) {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        rows.forEach(row -> scores.put(row.get(GLOBAL_ID).asString() + ":" + row.get("shop").asString(),
+                row.get(GLOBAL_SCORE).getRawData() == null ? null : row.get(GLOBAL_SCORE).asDouble()));
+        return scores;
+    }
+
+    private Map<String, Double> expected(Object... pairs) {
+        Map<String, Double> expected = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            expected.put((String) pairs[i], (Double) pairs[i + 1]);
+        }
+        return expected;
+    }
+
+    @Test
+    public void testSumMatchesLegacyHandler() throws Exception {
+        DataHandlerContext legacy = getContext(new ListDataSet(Arrays.asList(GLOBAL_ID, "shop", GLOBAL_SCORE), createItems()), false);
+        new DuplicateIdAddScoreDataHandler().dataComplete(legacy);
+
+        FingerprintDuplicateScoreDataHandler handler = new FingerprintDuplicateScoreDataHandler();
+        DataHandlerContext context = getContext(new ListDataSet(Arrays.asList(GLOBAL_ID, "shop", GLOBAL_SCORE), createItems()), false);
+        handler.dataComplete(context);
+        Map<String, Double> expected = expected("a:s1", 9.0, "b:s1", 2.0, "c:s1", 4.0);
+        Assert.assertEquals(expected, scores(legacy.dataModel().getDataset().all()));
+        Assert.assertEquals(expected, scores(context.dataModel().getDataset().all()));
+
+        context = getContext(new ListDataSet(Arrays.asList(GLOBAL_ID, "shop", GLOBAL_SCORE), createItems()), true);
+        handler.dataComplete(context);
+        Assert.assertEquals(expected, scores(context.permutation().rows()));
+    }
+
+    @Test
+    public void testMergePolicies() throws Exception {
+        FingerprintDuplicateScoreDataHandler handler = new FingerprintDuplicateScoreDataHandler();
+        handler.setMergePolicy(ScoreMergePolicy.MAX);
+        DataSet columnar = ColumnarDataSet.of(new ListDataSet(Arrays.asList(GLOBAL_ID, "shop", GLOBAL_SCORE), createItems()));
+        DataHandlerContext context = getContext(columnar, true);
+        handler.dataComplete(context);
+        Assert.assertEquals(expected("a:s1", 5.0, "b:s1", 2.0, "c:s1", 4.0), scores(context.permutation().rows()));
+        Assert.assertEquals(3, context.permutation().materialize().size());
+
+        handler.setMergePolicy(ScoreMergePolicy.FIRST);
+        context = getContext(new ListDataSet(Arrays.asList(GLOBAL_ID, "shop", GLOBAL_SCORE), createItems()), false);
+        handler.dataComplete(context);
+        // 首行分值为空时取首个非空分值
+        Assert.assertEquals(expected("a:s1", 1.0, "b:s1", 2.0, "c:s1", 4.0), scores(context.dataModel().getDataset().all()));
+    }
+
+    @Test
+    public void testCompositeKey() throws Exception {
+        FingerprintDuplicateScoreDataHandler handler = new FingerprintDuplicateScoreDataHandler();
+        handler.setKeyColumns(GLOBAL_ID, "shop");
+        DataHandlerContext context = getContext(new ListDataSet(Arrays.asList(GLOBAL_ID, "shop", GLOBAL_SCORE), createItems()), true);
+        handler.dataComplete(context);
+        Assert.assertEquals(expected("a:s1", 4.0, "b:s1", 2.0, "a:s2", 5.0, "c:s1", 4.0),
+                scores(context.permutation().rows()));
+    }
+
+    @Test
+    public void testMixedIdTypesAndMissingKeyColumn() throws Exception {
+        List<Map<String, Column>> data = createItems();
+        Map<String, Column> longId = new HashMap<>();
+        longId.put(GLOBAL_ID, new LongColumn(1L));
+        longId.put("shop", new StringColumn("s1"));
+        longId.put(GLOBAL_SCORE, new DoubleColumn(1.0));
+        data.add(longId);
+        Map<String, Column> stringId = item("1", "s1", 2.0);
+        data.add(stringId);
+        FingerprintDuplicateScoreDataHandler handler = new FingerprintDuplicateScoreDataHandler();
+        DataHandlerContext context = getContext(new ListDataSet(Arrays.asList(GLOBAL_ID, "shop", GLOBAL_SCORE), data), true);
+        handler.dataComplete(context);
+        Assert.assertEquals(expected("a:s1", 9.0, "b:s1", 2.0, "c:s1", 4.0, "1:s1", 3.0), scores(context.permutation().rows()));
+
+        handler.setKeyColumns("sku");
+        context = getContext(new ListDataSet(Arrays.asList(GLOBAL_ID, "shop", GLOBAL_SCORE), createItems()), false);
+        handler.dataComplete(context);
+        Assert.assertEquals(7, context.dataModel().getDataset().size());
+    }
+}
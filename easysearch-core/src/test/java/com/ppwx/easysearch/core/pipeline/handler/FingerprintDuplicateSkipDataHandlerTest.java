@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline.handler;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.ColumnarDataSet;
+import com.ppwx.easysearch.core.data.DataModel;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.PermutationDataSet;
+import com.ppwx.easysearch.core.data.element.LongColumn;
+import com.ppwx.easysearch.core.data.element.StringColumn;
+import com.ppwx.easysearch.core.data.model.LocalDataModel;
+import com.ppwx.easysearch.core.pipeline.DataHandlerContext;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.*;
+
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
+
+/**
+ *
+ * FingerprintDuplicateSkipDataHandler测试类
+ *
+ * @since 1.0.0
+ */
+public class FingerprintDuplicateSkipDataHandlerTest {
+
+    private Map<String, Column> item(long gid, String shop) {
+        Map<String, Column> item = new HashMap<>();
+        item.put(GLOBAL_ID, new LongColumn(gid));
+        item.put("shop", new StringColumn(shop));
+        return item;
+    }
+
+    private List<Map<String, Column>> createItems() {
+        return new ArrayList<>(Arrays.asList(item(1, "a"), item(2, "a"), item(1, "b"), item(3, "b"),
+                item(2, "a"), item(1, "a"), item(4, null), item(4, null)));
+    }
+
+    private DataHandlerContext getContext(DataSet dataSet, boolean permutation) {
+        DataModel dataModel = new LocalDataModel();
+        dataModel.setDataSet(dataSet);
+        DataHandlerContext context = Mockito.mock(DataHandlerContext.class);
+        Mockito.when(context.dataModel()).thenReturn(dataModel);
+        if (permutation) {
+            Mockito.when(context.permutation()).thenReturn(new PermutationDataSet(dataSet));
+        }
+        return context;
+    }
+
+    private List<String> keys(List<Map<String, Column>> rows) {
+        List<String> keys = new ArrayList<>();
+        rows.forEach(row -> keys.add(row.get(GLOBAL_ID).asLong() + ":" + row.get("shop").asString()));
+        return keys;
+    }
+
+    @Test
+    public void testSkipById() throws Exception {
+        FingerprintDuplicateSkipDataHandler handler = new FingerprintDuplicateSkipDataHandler();
+        DataHandlerContext context = getContext(new ListDataSet(Arrays.asList(GLOBAL_ID, "shop"), createItems()), false);
+        handler.dataComplete(context);
+        Assert.assertEquals(Arrays.asList("1:a", "2:a", "3:b", "4:null"), keys(context.dataModel().getDataset().all()));
+
+        DataSet columnar = ColumnarDataSet.of(new ListDataSet(Arrays.asList(GLOBAL_ID, "shop"), createItems()));
+        context = getContext(columnar, true);
+        handler.dataComplete(context);
+        Assert.assertEquals(Arrays.asList("1:a", "2:a", "3:b", "4:null"), keys(context.permutation().rows()));
+    }
+
+    @Test
+    public void testSkipByCompositeKey() throws Exception {
+        FingerprintDuplicateSkipDataHandler handler = new FingerprintDuplicateSkipDataHandler();
+        handler.setKeyColumns(GLOBAL_ID, "shop");
+        List<String> expected = Arrays.asList("1:a", "2:a", "1:b", "3:b", "4:null");
+
+        DataHandlerContext context = getContext(new ListDataSet(Arrays.asList(GLOBAL_ID, "shop"), createItems()), true);
+        handler.dataComplete(context);
+        Assert.assertEquals(expected, keys(context.permutation().rows()));
+
+        DataSet columnar = ColumnarDataSet.of(new ListDataSet(Arrays.asList(GLOBAL_ID, "shop"), createItems()));
+        context = getContext(columnar, true);
+        handler.dataComplete(context);
+        Assert.assertEquals(expected, keys(context.permutation().rows()));
+    }
+
+    @Test
+    public void testFingerprintConsistency() {
+        // 与asString()等价，整数与数字字符串视为同一键
+        for (long value : new long[]{0L, 7L, 42L, -13L, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            Assert.assertEquals(RowFingerprint.hash(Long.toString(value)), RowFingerprint.hash(value));
+            Assert.assertEquals(RowFingerprint.hash(new StringColumn(Long.toString(value))),
+                    RowFingerprint.hash(new LongColumn(value)));
+        }
+        Assert.assertEquals(RowFingerprint.hash("sku"), RowFingerprint.hash(new StringBuilder("sku")));
+        RowFingerprint fingerprint = new RowFingerprint(new String[]{GLOBAL_ID, "shop"});
+        Assert.assertNotEquals(fingerprint.of(item(1, "b")), new RowFingerprint(new String[]{"shop", GLOBAL_ID}).of(item(1, "b")));
+    }
+
+    @Test
+    public void testMixedIdTypes() throws Exception {
+        // 不同数据源的id类型不同
+        Map<String, Column> stringId = new HashMap<>();
+        stringId.put(GLOBAL_ID, new StringColumn("2"));
+        stringId.put("shop", new StringColumn("c"));
+        List<Map<String, Column>> data = createItems();
+        data.add(1, stringId);
+        FingerprintDuplicateSkipDataHandler handler = new FingerprintDuplicateSkipDataHandler();
+        DataHandlerContext context = getContext(new ListDataSet(Arrays.asList(GLOBAL_ID, "shop"), data), false);
+        new DuplicateIdSkipDataHandler().dataComplete(context);
+        List<String> expected = keys(context.dataModel().getDataset().all());
+
+        context = getContext(new ListDataSet(Arrays.asList(GLOBAL_ID, "shop"), data), true);
+        handler.dataComplete(context);
+        Assert.assertEquals(Arrays.asList("1:a", "2:c", "3:b", "4:null"), expected);
+        Assert.assertEquals(expected, keys(context.permutation().rows()));
+    }
+
+    @Test
+    public void testMissingKeyColumn() throws Exception {
+        FingerprintDuplicateSkipDataHandler handler = new FingerprintDuplicateSkipDataHandler();
+        handler.setKeyColumns("sku");
+        DataHandlerContext context = getContext(new ListDataSet(Arrays.asList(GLOBAL_ID, "shop"), createItems()), false);
+        handler.dataComplete(context);
+        Assert.assertEquals(8, context.dataModel().getDataset().size());
+
+        context = getContext(new ListDataSet(Arrays.asList(GLOBAL_ID, "shop"), createItems()), true);
+        handler.dataComplete(context);
+        Assert.assertEquals(8, context.permutation().size());
+    }
+}
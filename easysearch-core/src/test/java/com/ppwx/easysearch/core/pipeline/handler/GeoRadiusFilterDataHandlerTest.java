@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline.handler;
+
+import com.alibaba.fastjson.JSONObject;
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.DataModel;
+import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.PermutationDataSet;
+import com.ppwx.easysearch.core.data.element.JsonColumn;
+import com.ppwx.easysearch.core.data.element.LongColumn;
+import com.ppwx.easysearch.core.data.model.LocalDataModel;
+import com.ppwx.easysearch.core.pipeline.DataHandlerContext;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.*;
+
+import static com.ppwx.easysearch.core.data.model.Key.*;
+
+/**
+ *
+ * GeoRadiusFilterDataHandler测试类
+ *
+ * @since 1.0.0
+ */
+public class GeoRadiusFilterDataHandlerTest {
+
+    private DataHandlerContext getContext(boolean permutation) {
+        List<Map<String, Column>> data = new ArrayList<>();
+        double[][] locations = {{31.30, 121.52}, {31.40, 121.55}, {31.2959, 121.5502}, {39.90, 116.40}};
+        for (int i = 0; i < locations.length; i++) {
+            JSONObject location = new JSONObject();
+            location.put(COLUMN_LATITUDE, locations[i][0]);
+            location.put(COLUMN_LONGITUDE, locations[i][1]);
+            Map<String, Column> item = new HashMap<>();
+            item.put(GLOBAL_ID, new LongColumn((long) i));
+            item.put("location", new JsonColumn(location));
+            data.add(item);
+        }
+        DataModel dataModel = new LocalDataModel();
+        ListDataSet dataSet = new ListDataSet(Arrays.asList(GLOBAL_ID, "location"), data);
+        dataModel.setDataSet(dataSet);
+        DataHandlerContext context = Mockito.mock(DataHandlerContext.class);
+        Mockito.when(context.dataModel()).thenReturn(dataModel);
+        if (permutation) {
+            Mockito.when(context.permutation()).thenReturn(new PermutationDataSet(dataSet));
+        }
+        return context;
+    }
+
+    @Test
+    public void testGeoRadiusFilterWorks() throws Exception {
+        GeoRadiusFilterDataHandler handler = new GeoRadiusFilterDataHandler("location", 31.2959, 121.5502, 5000);
+        DataHandlerContext context = getContext(false);
+        handler.dataComplete(context);
+        List<Map<String, Column>> all = context.dataModel().getDataset().all();
+        Assert.assertEquals(2, all.size());
+        Assert.assertEquals(0L, all.get(0).get(GLOBAL_ID).asLong().longValue());
+        Assert.assertEquals(2L, all.get(1).get(GLOBAL_ID).asLong().longValue());
+
+        context = getContext(true);
+        handler.dataComplete(context);
+        Assert.assertEquals(2, context.permutation().size());
+        Assert.assertEquals(2L, context.permutation().row(1).get(GLOBAL_ID).asLong().longValue());
+    }
+}
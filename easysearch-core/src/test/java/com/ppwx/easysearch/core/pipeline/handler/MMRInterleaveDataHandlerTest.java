@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline.handler;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.DataModel;
+import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.PermutationDataSet;
+import com.ppwx.easysearch.core.data.element.LongColumn;
+import com.ppwx.easysearch.core.data.element.StringColumn;
+import com.ppwx.easysearch.core.data.model.LocalDataModel;
+import com.ppwx.easysearch.core.pipeline.DataHandlerContext;
+import com.ppwx.easysearch.core.similarity.LevenshteinDistanceSimilarity;
+import com.ppwx.easysearch.core.similarity.SimHashSimilarity;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.*;
+
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
+
+/**
+ *
+ * MMRInterleaveDataHandler测试类
+ *
+ * @since 1.0.0
+ */
+public class MMRInterleaveDataHandlerTest {
+
+    private static final String[] WORDS = {"苹果", "华为", "小米", "iphone", "mate", "pro", "13", "16", "watch", "air"};
+
+    private List<Map<String, Column>> createItems(int size) {
+        Random random = new Random(size);
+        List<Map<String, Column>> data = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            StringBuilder name = new StringBuilder();
+            int words = 1 + random.nextInt(3);
+            for (int j = 0; j < words; j++) {
+                name.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            Map<String, Column> item = new HashMap<>();
+            item.put(GLOBAL_ID, new LongColumn((long) i));
+            item.put("productName", new StringColumn(name.toString().trim()));
+            data.add(item);
+        }
+        return data;
+    }
+
+    private DataHandlerContext getContext(List<Map<String, Column>> data, boolean permutation) {
+        DataModel dataModel = new LocalDataModel();
+        ListDataSet dataSet = new ListDataSet(Arrays.asList(GLOBAL_ID, "productName"), data);
+        dataModel.setDataSet(dataSet);
+        DataHandlerContext context = Mockito.mock(DataHandlerContext.class);
+        Mockito.when(context.dataModel()).thenReturn(dataModel);
+        if (permutation) {
+            Mockito.when(context.permutation()).thenReturn(new PermutationDataSet(dataSet));
+        }
+        return context;
+    }
+
+    private List<Long> ids(List<Map<String, Column>> rows) {
+        List<Long> ids = new ArrayList<>();
+        rows.forEach(row -> ids.add(row.get(GLOBAL_ID).asLong()));
+        return ids;
+    }
+
+    @Test
+    public void testMatchesQuadraticImplementation() throws Exception {
+        List<Map<String, Column>> data = createItems(60);
+        List<Long> expected = ids(legacyMMR(data, "苹果 iphone", 0.7));
+
+        DataHandlerContext context = getContext(data, false);
+        MMRInterleaveDataHandler handler = new MMRInterleaveDataHandler();
+        handler.setQuery("苹果 iphone");
+        handler.dataComplete(context);
+        Assert.assertEquals(expected, ids(context.dataModel().getDataset().all()));
+
+        context = getContext(data, true);
+        handler.dataComplete(context);
+        Assert.assertEquals(expected, ids(context.permutation().rows()));
+    }
+
+    @Test
+    public void testTopK() throws Exception {
+        List<Map<String, Column>> data = createItems(30);
+        List<Long> expected = ids(legacyMMR(data, "华为 mate", 0.5));
+
+        DataHandlerContext context = getContext(data, false);
+        MMRInterleaveDataHandler handler = new MMRInterleaveDataHandler();
+        handler.setQuery("华为 mate");
+        handler.setLambda(0.5);
+        handler.setTopK(5);
+        handler.dataComplete(context);
+        List<Map<String, Column>> result = context.dataModel().getDataset().all();
+        Assert.assertEquals(30, result.size());
+        Assert.assertEquals(expected.subList(0, 5), ids(result).subList(0, 5));
+        Assert.assertEquals(30, new HashSet<>(ids(result)).size());
+    }
+
+    @Test
+    public void testSignatureSimilarity() throws Exception {
+        List<Map<String, Column>> data = createItems(40);
+        DataHandlerContext context = getContext(data, true);
+        MMRInterleaveDataHandler handler = new MMRInterleaveDataHandler();
+        handler.setQuery("小米");
+        handler.setSignatureSimilarity(new SimHashSimilarity("productName"));
+        handler.dataComplete(context);
+        List<Long> result = ids(context.permutation().rows());
+        Assert.assertEquals(40, new HashSet<>(result).size());
+        // 首个物品为相关性最高的物品
+        Assert.assertEquals(ids(legacyMMR(data, "小米", 0.7)).get(0), result.get(0));
+    }
+
+    /**
+     * 原有O(n²·k)实现，作为对照
+     */
+    private List<Map<String, Column>> legacyMMR(List<Map<String, Column>> items, String query, double lambda) {
+        LevenshteinDistanceSimilarity similarity = new LevenshteinDistanceSimilarity();
+        List<Map<String, Column>> selectedItems = new ArrayList<>();
+        List<Map<String, Column>> remainingItems = new ArrayList<>(items);
+        remainingItems.sort((a, b) -> Double.compare(similarity.apply(b.get("productName").asString(), query, null),
+                similarity.apply(a.get("productName").asString(), query, null)));
+        selectedItems.add(remainingItems.remove(0));
+        while (!remainingItems.isEmpty()) {
+            Map<String, Column> bestItem = null;
+            double bestMMR = Double.NEGATIVE_INFINITY;
+            for (Map<String, Column> item : remainingItems) {
+                double relevance = similarity.apply(item.get("productName").asString(), query, null);
+                double redundancy = 0;
+                for (Map<String, Column> selected : selectedItems) {
+                    redundancy = Math.max(redundancy, similarity.apply(item.get("productName").asString(),
+                            selected.get("productName").asString(), null));
+                }
+                double mmr = lambda * relevance - (1 - lambda) * redundancy;
+                if (mmr > bestMMR) {
+                    bestMMR = mmr;
+                    bestItem = item;
+                }
+            }
+            selectedItems.add(bestItem);
+            remainingItems.remove(bestItem);
+        }
+        return selectedItems;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline.handler;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.ColumnarDataSet;
+import com.ppwx.easysearch.core.data.DataModel;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.PermutationDataSet;
+import com.ppwx.easysearch.core.data.element.DoubleColumn;
+import com.ppwx.easysearch.core.data.element.LongColumn;
+import com.ppwx.easysearch.core.data.model.LocalDataModel;
+import com.ppwx.easysearch.core.pipeline.DataHandlerContext;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.*;
+
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_SCORE;
+
+/**
+ *
+ * TopKScoreSortDataHandler测试类
+ *
+ * @since 1.0.0
+ */
+public class TopKScoreSortDataHandlerTest {
+
+    private List<Map<String, Column>> createItems(int size) {
+        Random random = new Random(size);
+        List<Map<String, Column>> data = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Map<String, Column> item = new HashMap<>();
+            // 分值取值较少，制造大量相同分值
+            item.put(GLOBAL_ID, new LongColumn((long) (size - i)));
+            item.put(GLOBAL_SCORE, random.nextInt(10) == 0 ? new DoubleColumn((Double) null)
+                    : new DoubleColumn((double) random.nextInt(20)));
+            data.add(item);
+        }
+        return data;
+    }
+
+    private DataHandlerContext getContext(DataSet dataSet, boolean permutation) {
+        DataModel dataModel = new LocalDataModel();
+        dataModel.setDataSet(dataSet);
+        DataHandlerContext context = Mockito.mock(DataHandlerContext.class);
+        Mockito.when(context.dataModel()).thenReturn(dataModel);
+        if (permutation) {
+            Mockito.when(context.permutation()).thenReturn(new PermutationDataSet(dataSet));
+        }
+        return context;
+    }
+
+    private List<Long> ids(List<Map<String, Column>> rows) {
+        List<Long> ids = new ArrayList<>();
+        rows.forEach(row -> ids.add(row.get(GLOBAL_ID).asLong()));
+        return ids;
+    }
+
+    /**
+     * 全量排序作为对照：分值降序、空值最后、gid升序
+     */
+    private List<Long> fullSort(List<Map<String, Column>> data) {
+        List<Map<String, Column>> sorted = new ArrayList<>(data);
+        sorted.sort(Comparator.<Map<String, Column>, Boolean>comparing(row -> row.get(GLOBAL_SCORE).getRawData() == null)
+                .thenComparing(row -> row.get(GLOBAL_SCORE).getRawData() == null ? 0d : -row.get(GLOBAL_SCORE).asDouble())
+                .thenComparing(row -> row.get(GLOBAL_ID).asLong()));
+        return ids(sorted);
+    }
+
+    @Test
+    public void testTopKKeepTail() throws Exception {
+        List<Map<String, Column>> data = createItems(200);
+        List<Long> expected = fullSort(data).subList(0, 20);
+        Set<Long> head = new HashSet<>(expected);
+        List<Long> tail = new ArrayList<>();
+        for (Long id : ids(data)) {
+            if (!head.contains(id)) {
+                tail.add(id);
+            }
+        }
+
+        TopKScoreSortDataHandler handler = new TopKScoreSortDataHandler();
+        handler.setTopK(20);
+        DataHandlerContext context = getContext(new ListDataSet(Arrays.asList(GLOBAL_ID, GLOBAL_SCORE), data), false);
+        handler.dataComplete(context);
+        List<Long> result = ids(context.dataModel().getDataset().all());
+        Assert.assertEquals(200, result.size());
+        Assert.assertEquals(expected, result.subList(0, 20));
+        Assert.assertEquals(tail, result.subList(20, 200));
+
+        context = getContext(new ListDataSet(Arrays.asList(GLOBAL_ID, GLOBAL_SCORE), data), true);
+        handler.dataComplete(context);
+        result = ids(context.permutation().rows());
+        Assert.assertEquals(expected, result.subList(0, 20));
+        Assert.assertEquals(tail, result.subList(20, 200));
+    }
+
+    @Test
+    public void testDropTail() throws Exception {
+        List<Map<String, Column>> data = createItems(100);
+        TopKScoreSortDataHandler handler = new TopKScoreSortDataHandler();
+        handler.setTopK(10);
+        handler.setTail(TopKScoreSortDataHandler.Tail.DROP);
+        DataSet dataSet = ColumnarDataSet.of(new ListDataSet(Arrays.asList(GLOBAL_ID, GLOBAL_SCORE), data));
+        DataHandlerContext context = getContext(dataSet, true);
+        handler.dataComplete(context);
+        Assert.assertEquals(fullSort(data).subList(0, 10), ids(context.permutation().rows()));
+        Assert.assertEquals(10, context.permutation().materialize().size());
+    }
+
+    @Test
+    public void testFullSort() throws Exception {
+        List<Map<String, Column>> data = createItems(50);
+        TopKScoreSortDataHandler handler = new TopKScoreSortDataHandler();
+        handler.setTopK(0);
+        DataHandlerContext context = getContext(new ListDataSet(Arrays.asList(GLOBAL_ID, GLOBAL_SCORE), data), false);
+        handler.dataComplete(context);
+        Assert.assertEquals(fullSort(data), ids(context.dataModel().getDataset().all()));
+
+        // 超过数据量等同全部排序
+        handler.setTopK(80);
+        context = getContext(new ListDataSet(Arrays.asList(GLOBAL_ID, GLOBAL_SCORE), data), true);
+        handler.dataComplete(context);
+        Assert.assertEquals(fullSort(data), ids(context.permutation().rows()));
+    }
+}
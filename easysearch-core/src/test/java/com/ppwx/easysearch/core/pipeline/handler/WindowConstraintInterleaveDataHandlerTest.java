@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.pipeline.handler;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.ColumnarDataSet;
+import com.ppwx.easysearch.core.data.DataModel;
+import com.ppwx.easysearch.core.data.DataSet;
+import com.ppwx.easysearch.core.data.ListDataSet;
+import com.ppwx.easysearch.core.data.PermutationDataSet;
+import com.ppwx.easysearch.core.data.element.LongColumn;
+import com.ppwx.easysearch.core.data.element.StringColumn;
+import com.ppwx.easysearch.core.data.model.LocalDataModel;
+import com.ppwx.easysearch.core.pipeline.DataHandlerContext;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.*;
+
+import static com.ppwx.easysearch.core.data.model.Key.GLOBAL_ID;
+
+/**
+ *
+ * WindowConstraintInterleaveDataHandler测试类
+ *
+ * @since 1.0.0
+ */
+public class WindowConstraintInterleaveDataHandlerTest {
+
+    private List<Map<String, Column>> createItems(int size) {
+        List<Map<String, Column>> data = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Map<String, Column> item = new HashMap<>();
+            item.put(GLOBAL_ID, new LongColumn((long) i));
+            // 前半部分集中在同一品牌、同一店铺
+            item.put("brand", new StringColumn(i < size / 2 ? "apple" : "b" + i % 4));
+            item.put("shop", new StringColumn(i < size / 2 ? "s" + i % 2 : "s" + i % 5));
+            data.add(item);
+        }
+        return data;
+    }
+
+    private DataHandlerContext getContext(DataSet dataSet, boolean permutation) {
+        DataModel dataModel = new LocalDataModel();
+        dataModel.setDataSet(dataSet);
+        DataHandlerContext context = Mockito.mock(DataHandlerContext.class);
+        Mockito.when(context.dataModel()).thenReturn(dataModel);
+        if (permutation) {
+            Mockito.when(context.permutation()).thenReturn(new PermutationDataSet(dataSet));
+        }
+        return context;
+    }
+
+    private void assertWindow(List<Map<String, Column>> rows, String field, int maxCount, int window, int until) {
+        for (int end = 0; end < until; end++) {
+            Map<String, Integer> counts = new HashMap<>();
+            for (int p = Math.max(0, end - window + 1); p <= end; p++) {
+                int count = counts.merge(rows.get(p).get(field).asString(), 1, Integer::sum);
+                Assert.assertTrue(field + " at " + end, count <= maxCount);
+            }
+        }
+    }
+
+    @Test
+    public void testMultipleConstraints() throws Exception {
+        WindowConstraintInterleaveDataHandler handler = new WindowConstraintInterleaveDataHandler();
+        handler.addConstraint("brand", 2, 5);
+        handler.addConstraint("shop", 1, 3);
+        List<String> columns = Arrays.asList(GLOBAL_ID, "brand", "shop");
+
+        DataHandlerContext context = getContext(new ListDataSet(columns, createItems(40)), false);
+        handler.dataComplete(context);
+        List<Map<String, Column>> rows = context.dataModel().getDataset().all();
+        Assert.assertEquals(40, rows.size());
+        assertWindow(rows, "brand", 2, 5, 30);
+        assertWindow(rows, "shop", 1, 3, 30);
+
+        // 列式字典编码与行数据结果一致
+        DataSet columnar = ColumnarDataSet.of(new ListDataSet(columns, createItems(40)));
+        DataHandlerContext columnarContext = getContext(columnar, true);
+        handler.dataComplete(columnarContext);
+        List<Long> expected = new ArrayList<>();
+        rows.forEach(row -> expected.add(row.get(GLOBAL_ID).asLong()));
+        List<Long> actual = new ArrayList<>();
+        columnarContext.permutation().rows().forEach(row -> actual.add(row.get(GLOBAL_ID).asLong()));
+        Assert.assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testMaxSize() throws Exception {
+        WindowConstraintInterleaveDataHandler handler = new WindowConstraintInterleaveDataHandler();
+        handler.addConstraint("brand", 1, 2);
+        handler.setMaxSize(6);
+        DataHandlerContext context = getContext(new ListDataSet(Arrays.asList(GLOBAL_ID, "brand", "shop"), createItems(20)), true);
+        handler.dataComplete(context);
+        List<Map<String, Column>> rows = context.permutation().rows();
+        assertWindow(rows, "brand", 1, 2, 6);
+        Assert.assertEquals(20, rows.size());
+    }
+}
@@ -17,10 +17,23 @@
 package com.ppwx.easysearch.core.session;
 
 import com.ppwx.easysearch.core.TestLogger;
+import com.ppwx.easysearch.core.metrics.InMemoryMetricsRegistry;
+import com.ppwx.easysearch.core.metrics.Metrics;
+import com.ppwx.easysearch.core.metrics.MetricsRegistry;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  *
  * SessionManager测试类
@@ -72,4 +85,210 @@ public class SessionManagerTest {
         Assert.assertNotNull(id);
     }
 
-}
\ No newline at end of file
+    static class CountingRepository implements SessionRepository {
+
+        final Map<String, DefaultSearchSession> sessions = new ConcurrentHashMap<>();
+
+        final AtomicInteger reads = new AtomicInteger();
+
+        final AtomicInteger fullWrites = new AtomicInteger();
+
+        final List<SessionDelta> deltas = new CopyOnWriteArrayList<>();
+
+        final List<Integer> batches = new CopyOnWriteArrayList<>();
+
+        @Override
+        public DefaultSearchSession getSession(String sessionId) {
+            reads.incrementAndGet();
+            return sessions.get(sessionId);
+        }
+
+        @Override
+        public void updateSession(DefaultSearchSession session) {
+            fullWrites.incrementAndGet();
+            sessions.put(session.getId(), session);
+        }
+
+        @Override
+        public void updateChanges(SessionDelta delta) {
+            deltas.add(delta);
+        }
+
+        @Override
+        public void updateSessions(Collection<SessionDelta> deltas) {
+            batches.add(deltas.size());
+            SessionRepository.super.updateSessions(deltas);
+        }
+
+        @Override
+        public void removeSession(String sessionId) {
+            sessions.remove(sessionId);
+        }
+    }
+
+    private static int count(MetricsRegistry<Metrics> registry, String tag) {
+        return registry.metrics("session" + tag, 60).getSnapshot().getNumberOfSuccessfulCalls();
+    }
+
+    @Test
+    public void testNearCacheWorks() {
+        CountingRepository repository = new CountingRepository();
+        MetricsRegistry<Metrics> registry = new InMemoryMetricsRegistry(new ConcurrentHashMap<>());
+        SessionManager manager = new SessionManager();
+        manager.setRepository(repository);
+        manager.setNearCache(100);
+        manager.setMetrics("session", registry, 60);
+
+        String id = manager.newSession().getId();
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(id, manager.getSession(id, false).getId());
+        }
+        Assert.assertEquals(0, repository.reads.get());
+        Assert.assertEquals(5, count(registry, SessionManager.READ_SAVED_TAG));
+
+        // expired by its own inactive interval
+        DefaultSearchSession raw = repository.sessions.remove(id);
+        raw.setMaxInactiveInterval(1);
+        raw.setLastAccessTime(raw.getLastAccessedTime() - 10000);
+        Assert.assertNull(manager.getSession(id, false));
+        Assert.assertEquals(1, repository.reads.get());
+    }
+
+    @Test
+    public void testDirtyTracking() {
+        CountingRepository repository = new CountingRepository();
+        SessionManager manager = new SessionManager();
+        manager.setRepository(repository);
+
+        SearchSession session = manager.newSession();
+        Assert.assertEquals(1, repository.fullWrites.get());
+        manager.commit(session);
+        Assert.assertTrue(repository.deltas.isEmpty());
+
+        session.putValue("a", 1);
+        session.putValue("b", 2);
+        session.removeValue("missing");
+        manager.commit(session);
+        Assert.assertEquals(1, repository.deltas.size());
+        SessionDelta delta = repository.deltas.get(0);
+        Assert.assertEquals(2, delta.getChangedValues().size());
+        Assert.assertTrue(delta.getRemovedNames().isEmpty());
+        Assert.assertFalse(delta.isFull());
+
+        session.removeValue("a");
+        manager.commit(session);
+        delta = repository.deltas.get(1);
+        Assert.assertTrue(delta.getChangedValues().isEmpty());
+        Assert.assertTrue(delta.getRemovedNames().contains("a"));
+    }
+
+    @Test
+    public void testAccessTimeRefreshed() {
+        CountingRepository repository = new CountingRepository();
+        SessionManager manager = new SessionManager();
+        manager.setRepository(repository);
+        manager.setNearCache(100);
+
+        String id = manager.newSession().getId();
+        DefaultSearchSession raw = repository.sessions.get(id);
+        raw.setLastAccessTime(raw.getLastAccessedTime() - 10000);
+        // 只读请求也刷新存储中的访问时间
+        SearchSession session = manager.getSession(id, false);
+        manager.commit(session);
+        Assert.assertEquals(1, repository.deltas.size());
+        SessionDelta delta = repository.deltas.get(0);
+        Assert.assertTrue(delta.getChangedValues().isEmpty());
+        Assert.assertEquals(session.getLastAccessedTime(), delta.getSession().getLastAccessedTime());
+
+        // 写入的是副本，之后的修改不影响已生成的变更
+        session.putValue("a", 1);
+        manager.commit(session);
+        delta = repository.deltas.get(1);
+        Assert.assertNotSame(raw, delta.getSession());
+        session.putValue("a", 2);
+        Assert.assertEquals(1, delta.getSession().getValue("a"));
+        Assert.assertEquals(1, delta.getChangedValues().get("a"));
+    }
+
+    @Test
+    public void testWriteBehindWorks() throws InterruptedException {
+        CountingRepository repository = new CountingRepository();
+        MetricsRegistry<Metrics> registry = new InMemoryMetricsRegistry(new ConcurrentHashMap<>());
+        SessionManager manager = new SessionManager();
+        manager.setRepository(repository);
+        manager.setMetrics("session", registry, 60);
+        manager.setWriteBehind(1, TimeUnit.HOURS, 100);
+
+        List<SearchSession> sessions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            sessions.add(manager.newSession());
+        }
+        for (int round = 0; round < 4; round++) {
+            for (SearchSession session : sessions) {
+                session.putValue("round", round);
+                manager.commit(session);
+            }
+        }
+        Assert.assertTrue(repository.deltas.isEmpty());
+        manager.flush();
+        Assert.assertEquals(3, repository.deltas.size());
+        Assert.assertEquals(1, repository.batches.size());
+        Assert.assertEquals(4 - 1, repository.deltas.get(0).getChangedValues().get("round"));
+        // 9 coalesced commits + 2 saved by batching
+        Assert.assertEquals(11, count(registry, SessionManager.WRITE_SAVED_TAG));
+        manager.shutdown();
+    }
+
+    @Test
+    public void testWriteBehindMaxDelay() throws InterruptedException {
+        CountingRepository repository = new CountingRepository();
+        SessionManager manager = new SessionManager();
+        manager.setRepository(repository);
+        manager.setWriteBehind(20, TimeUnit.MILLISECONDS, 100);
+
+        SearchSession session = manager.newSession();
+        session.putValue("name", "sophiszhou");
+        manager.commit(session);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (repository.deltas.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Assert.assertEquals(1, repository.deltas.size());
+        manager.shutdown();
+    }
+
+    @Test
+    public void testWriteBehindRequeuedOnFailure() {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        CountingRepository repository = new CountingRepository() {
+            @Override
+            public void updateSessions(Collection<SessionDelta> deltas) {
+                if (failing.get()) {
+                    throw new IllegalStateException("store unavailable");
+                }
+                super.updateSessions(deltas);
+            }
+        };
+        SessionManager manager = new SessionManager();
+        manager.setRepository(repository);
+        manager.setWriteBehind(1, TimeUnit.HOURS, 100);
+
+        SearchSession session = manager.newSession();
+        session.putValue("name", "sophiszhou");
+        manager.commit(session);
+        try {
+            manager.flush();
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        Assert.assertTrue(repository.deltas.isEmpty());
+
+        // 写入失败的变更保留到下次写入
+        failing.set(false);
+        manager.flush();
+        Assert.assertEquals(1, repository.deltas.size());
+        Assert.assertEquals("sophiszhou", repository.deltas.get(0).getChangedValues().get("name"));
+        manager.shutdown();
+    }
+}
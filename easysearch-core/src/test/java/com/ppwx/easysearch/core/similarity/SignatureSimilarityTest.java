@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 chengzhengZhou
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ppwx.easysearch.core.similarity;
+
+import com.ppwx.easysearch.core.data.Column;
+import com.ppwx.easysearch.core.data.element.ObjectColumn;
+import com.ppwx.easysearch.core.data.element.StringColumn;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *
+ * SignatureSimilarity测试类
+ *
+ * @since 1.0.0
+ */
+public class SignatureSimilarityTest {
+
+    private Map<String, Column> item(String field, Column column) {
+        Map<String, Column> item = new HashMap<>();
+        item.put(field, column);
+        return item;
+    }
+
+    @Test
+    public void testMinHash() {
+        MinHashSimilarity similarity = new MinHashSimilarity("name");
+        long[] a = similarity.signature(item("name", new StringColumn("苹果 iphone 13 pro max")));
+        long[] b = similarity.signature(item("name", new StringColumn("苹果 iphone 13 pro")));
+        long[] c = similarity.signature(item("name", new StringColumn("华为 mate 60")));
+        Assert.assertEquals(1D, similarity.similarity(a, a), 0D);
+        Assert.assertTrue(similarity.similarity(a, b) > similarity.similarity(a, c));
+        Assert.assertNull(similarity.signature(item("name", new StringColumn(""))));
+        Assert.assertEquals(0D, similarity.similarity(a, null), 0D);
+    }
+
+    @Test
+    public void testSimHash() {
+        SimHashSimilarity similarity = new SimHashSimilarity("name");
+        Long a = similarity.signature(item("name", new StringColumn("苹果 iphone 13 pro max")));
+        Long b = similarity.signature(item("name", new StringColumn("苹果 iphone 13 pro")));
+        Long c = similarity.signature(item("name", new StringColumn("华为 mate 60")));
+        Assert.assertEquals(1D, similarity.similarity(a, a), 0D);
+        Assert.assertTrue(similarity.similarity(a, b) > similarity.similarity(a, c));
+        Assert.assertNull(similarity.signature(Collections.emptyMap()));
+    }
+
+    @Test
+    public void testEmbedding() {
+        EmbeddingSimilarity similarity = new EmbeddingSimilarity("vec");
+        double[] a = similarity.signature(item("vec", new ObjectColumn<>(new double[]{3, 4})));
+        double[] b = similarity.signature(item("vec", new ObjectColumn<>(Arrays.asList(6, 8))));
+        double[] c = similarity.signature(item("vec", new ObjectColumn<>(new float[]{-4, 3})));
+        Assert.assertEquals(1D, similarity.similarity(a, b), 1e-12);
+        Assert.assertEquals(0D, similarity.similarity(a, c), 1e-12);
+        Assert.assertNull(similarity.signature(item("vec", new ObjectColumn<>(new double[]{0, 0}))));
+    }
+
+    @Test
+    public void testSelectorEarlyStop() {
+        double[] relevance = {0.9, 0.8, 0.7, 0.1};
+        // 0与1完全相同，应被2顶替
+        MMRSelector.PairSimilarity similarity = (i, j) -> (i <= 1 && j <= 1) ? 1.0 : 0.0;
+        Assert.assertArrayEquals(new int[]{0, 2, 1, 3}, MMRSelector.select(relevance, similarity, 0.5, 2));
+        Assert.assertArrayEquals(new int[]{0, 2, 3, 1}, MMRSelector.select(relevance, similarity, 0.5, 0));
+        Assert.assertEquals(0, MMRSelector.select(new double[0], similarity, 0.5, 0).length);
+    }
+}